@@ -0,0 +1,22 @@
+package com.approval.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 当前登录用户注解
+ * 标注在控制器方法参数上，由 CurrentUserArgumentResolver 从 SecurityContext 注入当前用户
+ * 支持的参数类型：Long（用户ID）、LoginUser（登录主体）
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+
+    /**
+     * 是否必须已登录
+     * 为 true 且当前请求未认证时抛出 401 业务异常，为 false 时注入 null
+     *
+     * @return 默认为 true
+     */
+    boolean required() default true;
+}
@@ -0,0 +1,202 @@
+package com.approval.archive;
+
+import com.approval.mapper.ApprovalArchiveMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 审批归档任务
+ * 按周期把结束（通过、拒绝、撤回）超过一定天数的审批及其节点从热表迁入归档表，
+ * 热表只保留进行中和近期结束的审批，列表、统计查询扫描的索引不再随历史数据无限增长。
+ * <p>
+ * 每批在独立的短事务中锁定、复制、删除（SKIP LOCKED，多实例互不等待），批与批之间暂停，
+ * 避免长时间占用行锁和主从延迟。附件不迁移，仍按审批ID关联。
+ * 归档后的审批由 {@link ArchiveReads} 范围读取：详情在热表未命中时回查归档表，列表按 history 参数切换
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ApprovalArchiver {
+
+    private static final String RECORD_TABLE = "approval_record";
+    private static final String NODE_TABLE = "approval_node";
+
+    private final ApprovalArchiveMapper approvalArchiveMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 是否启用归档
+     */
+    @Value("${approval.archive.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * 审批结束多少天后归档
+     */
+    @Value("${approval.archive.min-age-days:180}")
+    private int minAgeDays;
+
+    /**
+     * 每批归档的审批数
+     */
+    @Value("${approval.archive.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 批与批之间的暂停（毫秒）
+     */
+    @Value("${approval.archive.batch-pause:200}")
+    private long batchPauseMillis;
+
+    /**
+     * 归档周期（毫秒）
+     */
+    @Value("${approval.archive.interval:3600000}")
+    private long intervalMillis;
+
+    private final AtomicLong hotRecordRows = new AtomicLong();
+
+    private final AtomicLong hotNodeRows = new AtomicLong();
+
+    private volatile boolean running;
+
+    private Thread worker;
+
+    private Counter movedRecords;
+
+    private Counter movedNodes;
+
+    @PostConstruct
+    public void init() {
+        this.movedRecords = Counter.builder("approval.archive.moved")
+                .tag("table", RECORD_TABLE)
+                .description("迁入归档表的行数")
+                .register(meterRegistry);
+        this.movedNodes = Counter.builder("approval.archive.moved")
+                .tag("table", NODE_TABLE)
+                .description("迁入归档表的行数")
+                .register(meterRegistry);
+        Gauge.builder("approval.archive.hot.rows", hotRecordRows, AtomicLong::get)
+                .tag("table", RECORD_TABLE)
+                .description("热表估算行数（每轮归档后刷新）")
+                .register(meterRegistry);
+        Gauge.builder("approval.archive.hot.rows", hotNodeRows, AtomicLong::get)
+                .tag("table", NODE_TABLE)
+                .description("热表估算行数（每轮归档后刷新）")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 应用启动完成后启动归档线程
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runLoop, "approval-archiver");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void runLoop() {
+        // 首次等待一个周期，避免与应用启动争抢连接
+        sleep(intervalMillis);
+        while (running) {
+            try {
+                archiveOnce();
+            } catch (RuntimeException ex) {
+                log.warn("审批归档失败，{} 毫秒后重试: {}", intervalMillis, ex.getMessage());
+            }
+            sleep(intervalMillis);
+        }
+    }
+
+    /**
+     * 分批归档截止时间之前结束的审批，直到没有满批为止
+     *
+     * @return 本轮归档的审批数
+     */
+    private int archiveOnce() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(minAgeDays);
+        long start = System.currentTimeMillis();
+        int total = 0;
+        int moved;
+        do {
+            moved = archiveBatch(cutoff);
+            total += moved;
+            if (moved >= batchSize) {
+                sleep(batchPauseMillis);
+            }
+        } while (moved >= batchSize && running);
+        refreshHotRows();
+        if (total > 0) {
+            log.info("审批归档完成: {} 条审批, 耗时 {} ms", total, System.currentTimeMillis() - start);
+        }
+        return total;
+    }
+
+    /**
+     * 在一个事务内锁定、复制并删除一批审批
+     *
+     * @return 本批归档的审批数
+     */
+    private int archiveBatch(LocalDateTime cutoff) {
+        int[] moved = transactionTemplate.execute(status -> {
+            List<String> ids = approvalArchiveMapper.lockArchivable(cutoff, batchSize);
+            if (ids.isEmpty()) {
+                return new int[3];
+            }
+            int records = approvalArchiveMapper.copyRecords(ids);
+            int nodes = approvalArchiveMapper.copyNodes(ids);
+            approvalArchiveMapper.deleteRecords(ids);
+            return new int[]{ids.size(), records, nodes};
+        });
+        if (moved == null) {
+            return 0;
+        }
+        movedRecords.increment(moved[1]);
+        movedNodes.increment(moved[2]);
+        return moved[0];
+    }
+
+    private void refreshHotRows() {
+        Long records = approvalArchiveMapper.estimateRows(RECORD_TABLE);
+        Long nodes = approvalArchiveMapper.estimateRows(NODE_TABLE);
+        hotRecordRows.set(records != null ? records : 0);
+        hotNodeRows.set(nodes != null ? nodes : 0);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
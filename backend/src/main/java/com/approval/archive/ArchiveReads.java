@@ -0,0 +1,60 @@
+package com.approval.archive;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 归档读取范围
+ * 默认所有查询访问热表；在 {@link #call} 范围内（当前线程），审批记录、审批节点的 SQL
+ * 由 {@link ArchiveTableInterceptor} 改写为对应的归档表，Mapper 无需区分冷热两套语句。
+ * 范围只作用于当前线程，提交到其他线程的查询仍访问热表
+ */
+public final class ArchiveReads {
+
+    /**
+     * 热表 -> 归档表
+     */
+    private static final Map<String, String> ARCHIVE_TABLES = Map.of(
+            "approval_record", "approval_record_archive",
+            "approval_node", "approval_node_archive");
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private ArchiveReads() {
+    }
+
+    /**
+     * 在归档读取范围内执行（可嵌套）
+     *
+     * @param action 查询操作
+     * @return 查询结果
+     */
+    public static <T> T call(Supplier<T> action) {
+        if (active()) {
+            return action.get();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    /**
+     * 当前线程是否处于归档读取范围
+     */
+    public static boolean active() {
+        return ACTIVE.get() != null;
+    }
+
+    /**
+     * 表名映射：有归档表的热表返回归档表名，其余原样返回
+     *
+     * @param tableName SQL 中的表名
+     * @return 实际访问的表名
+     */
+    public static String tableName(String tableName) {
+        return ARCHIVE_TABLES.getOrDefault(tableName, tableName);
+    }
+}
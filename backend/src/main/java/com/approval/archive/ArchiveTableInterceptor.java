@@ -0,0 +1,49 @@
+package com.approval.archive;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import com.baomidou.mybatisplus.extension.plugins.inner.DynamicTableNameInnerInterceptor;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.sql.Connection;
+
+/**
+ * 归档表改写拦截器
+ * 仅在 {@link ArchiveReads} 范围内把 SQL 中的审批记录、审批节点表名改写为归档表，范围外直接放行，
+ * 热路径上不解析 SQL。
+ * <p>
+ * 查询在 willDoQuery 阶段改写：需注册在分页插件之前，使分页插件生成的 COUNT 语句同样访问归档表
+ */
+public class ArchiveTableInterceptor extends DynamicTableNameInnerInterceptor {
+
+    public ArchiveTableInterceptor() {
+        super((sql, tableName) -> ArchiveReads.tableName(tableName));
+    }
+
+    @Override
+    public boolean willDoQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                               ResultHandler resultHandler, BoundSql boundSql) {
+        if (ArchiveReads.active()) {
+            PluginUtils.MPBoundSql mpBoundSql = PluginUtils.mpBoundSql(boundSql);
+            mpBoundSql.sql(changeTable(mpBoundSql.sql()));
+        }
+        return true;
+    }
+
+    @Override
+    public void beforeQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                            ResultHandler resultHandler, BoundSql boundSql) {
+        // 已在 willDoQuery 中改写
+    }
+
+    @Override
+    public void beforePrepare(StatementHandler sh, Connection connection, Integer transactionTimeout) {
+        if (ArchiveReads.active()) {
+            super.beforePrepare(sh, connection, transactionTimeout);
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package com.approval.aspect;
 
+import com.approval.annotation.CurrentUser;
 import com.approval.annotation.OperLog;
 import com.approval.entity.OperationLog;
 import com.approval.mapper.OperationLogMapper;
-import com.approval.mapper.SysUserMapper;
 import com.approval.util.SecurityUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,6 +18,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.lang.annotation.Annotation;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -34,9 +35,6 @@ public class OperationLogAspect {
     @Autowired
     private OperationLogMapper operationLogMapper;
 
-    @Autowired
-    private SysUserMapper userMapper;
-
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -56,8 +54,8 @@ public class OperationLogAspect {
         // 获取请求上下文
         HttpServletRequest request = getRequest();
 
-        // 获取当前用户ID（可能为null，登录时会从结果中获取）
-        Long userId = SecurityUtils.getCurrentUserId(userMapper);
+        // 获取当前用户ID（直接读取认证主体；可能为null，登录时会从结果中获取）
+        Long userId = SecurityUtils.getCurrentUserId();
 
         // 获取客户端信息
         String ipAddress = getClientIp(request);
@@ -182,12 +180,13 @@ public class OperationLogAspect {
                 MethodSignature signature = (MethodSignature) joinPoint.getSignature();
                 String[] paramNames = signature.getParameterNames();
                 Object[] args = joinPoint.getArgs();
+                Annotation[][] paramAnnotations = signature.getMethod().getParameterAnnotations();
 
                 if (paramNames != null && args != null && paramNames.length > 0) {
                     Map<String, Object> params = new HashMap<>();
                     for (int i = 0; i < paramNames.length; i++) {
-                        // 过滤敏感参数
-                        if (!isSensitiveParam(paramNames[i])) {
+                        // 过滤敏感参数和注入的当前用户
+                        if (!isSensitiveParam(paramNames[i]) && !isCurrentUserParam(paramAnnotations[i])) {
                             Object arg = args[i];
                             // 过滤复杂对象和请求/响应对象
                             if (arg != null && isSimpleType(arg)) {
@@ -276,6 +275,18 @@ public class OperationLogAspect {
                 lowerName.contains("credential");
     }
 
+    /**
+     * 判断是否为 @CurrentUser 注入的参数（已记录在 userId 字段中）
+     */
+    private boolean isCurrentUserParam(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof CurrentUser) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * 判断是否为简单类型（避免序列化复杂对象）
      */
@@ -0,0 +1,81 @@
+package com.approval.common;
+
+import com.approval.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 键集分页游标
+ * 指向上一页最后一条记录的 (created_at, id)，下一页从严格小于该位置的记录开始，
+ * 无需 OFFSET 跳过前面的行，也无需 COUNT。对客户端而言是不透明字符串（Base64URL）
+ *
+ * @param createdAt 上一页最后一条记录的创建时间
+ * @param id        上一页最后一条记录的ID
+ */
+public record PageCursor(LocalDateTime createdAt, String id) {
+
+    /**
+     * 游标模式下每页条数上限
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * 解析游标
+     *
+     * @param token 游标字符串，空串表示第一页
+     * @return 游标，第一页返回 null
+     * @throws BusinessException 游标格式不正确
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.indexOf(SEPARATOR);
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, split)), raw.substring(split + 1));
+        } catch (RuntimeException ex) {
+            throw new BusinessException(400, "无效的分页游标");
+        }
+    }
+
+    /**
+     * 根据记录位置生成游标
+     *
+     * @param createdAt 创建时间
+     * @param id        记录ID
+     * @return 游标字符串
+     */
+    public static String encode(LocalDateTime createdAt, Object id) {
+        String raw = createdAt + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 规范化游标模式的每页条数
+     *
+     * @param pageSize 请求的每页条数
+     * @return 1 ~ MAX_PAGE_SIZE 之间的条数
+     */
+    public static int clampPageSize(int pageSize) {
+        return Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * 以数值形式读取ID（自增主键的表使用）
+     *
+     * @return 数值ID
+     * @throws BusinessException ID 不是数字
+     */
+    public Long longId() {
+        try {
+            return Long.valueOf(id);
+        } catch (NumberFormatException ex) {
+            throw new BusinessException(400, "无效的分页游标");
+        }
+    }
+}
@@ -1,18 +1,24 @@
 package com.approval.common;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * 通用分页结果包装类
+ * 页码模式返回 total/page/totalPages；游标模式返回 nextCursor/hasMore，不统计总数
  *
  * @param <T> 数据类型
  */
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -43,6 +49,16 @@ public class PageResult<T> {
      */
     private Integer totalPages;
 
+    /**
+     * 下一页游标（游标模式，没有更多数据时为 null）
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有更多数据（游标模式）
+     */
+    private Boolean hasMore;
+
     /**
      * 创建分页结果
      *
@@ -80,4 +96,32 @@ public class PageResult<T> {
                 .totalPages((int) ipage.getPages())
                 .build();
     }
+
+    /**
+     * 创建游标分页结果
+     * 查询时多取一条（pageSize + 1）用于判断是否还有下一页，多取的一条不返回
+     *
+     * @param fetched   按 (created_at, id) 倒序查询的结果，最多 pageSize + 1 条
+     * @param pageSize  每页条数
+     * @param createdAt 取记录创建时间
+     * @param id        取记录ID
+     * @param <T>       数据类型
+     * @return 分页结果
+     */
+    public static <T> PageResult<T> ofCursor(List<T> fetched, int pageSize,
+                                             Function<T, LocalDateTime> createdAt, Function<T, Object> id) {
+        boolean hasMore = fetched.size() > pageSize;
+        List<T> list = hasMore ? new ArrayList<>(fetched.subList(0, pageSize)) : fetched;
+        String nextCursor = null;
+        if (hasMore) {
+            T last = list.get(list.size() - 1);
+            nextCursor = PageCursor.encode(createdAt.apply(last), id.apply(last));
+        }
+        return PageResult.<T>builder()
+                .list(list)
+                .pageSize(pageSize)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
 }
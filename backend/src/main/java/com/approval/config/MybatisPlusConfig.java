@@ -1,5 +1,6 @@
 package com.approval.config;
 
+import com.approval.archive.ArchiveTableInterceptor;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
@@ -9,7 +10,7 @@ import org.springframework.context.annotation.Configuration;
 
 /**
  * MyBatis-Plus 配置类
- * 配置分页插件和 Mapper 扫描
+ * 配置归档表改写、分页插件和 Mapper 扫描
  */
 @Configuration
 @MapperScan("com.approval.mapper")
@@ -17,7 +18,7 @@ public class MybatisPlusConfig {
 
     /**
      * 创建 MyBatis-Plus 拦截器
-     * 包含分页插件
+     * 包含归档表改写和分页插件
      *
      * @return MybatisPlusInterceptor 实例
      */
@@ -25,6 +26,9 @@ public class MybatisPlusConfig {
     public MybatisPlusInterceptor mybatisPlusInterceptor() {
         MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
 
+        // 归档读取范围内改写审批表名，需在分页插件之前（COUNT 语句基于改写后的 SQL 生成）
+        interceptor.addInnerInterceptor(new ArchiveTableInterceptor());
+
         // 添加分页插件，指定数据库类型为 MySQL
         interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL));
 
@@ -0,0 +1,26 @@
+package com.approval.config;
+
+import com.approval.util.QueryCounter;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+
+/**
+ * SQL 计数拦截器
+ * 在语句准备阶段计数，一级缓存命中不会计入，统计的是真正发送到数据库的语句数
+ */
+@Component
+@Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+public class QueryCountInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        QueryCounter.increment();
+        return invocation.proceed();
+    }
+}
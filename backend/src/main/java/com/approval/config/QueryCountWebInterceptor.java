@@ -0,0 +1,59 @@
+package com.approval.config;
+
+import com.approval.util.QueryCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 请求 SQL 数上报拦截器
+ * 每个接口请求结束时把执行的 SQL 数记录到 http.server.requests.queries 指标（按接口路径区分），
+ * 超过阈值时输出告警日志，便于发现 N+1 查询回归
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueryCountWebInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 单个请求的 SQL 数告警阈值
+     */
+    @Value("${monitoring.query-count-warn-threshold:20}")
+    private int warnThreshold;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        QueryCounter.start();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        int count = QueryCounter.stop();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("http.server.requests.queries")
+                .description("单个请求执行的 SQL 数")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(count);
+        if (count > warnThreshold) {
+            log.warn("请求 {} {} 执行了 {} 条 SQL，超过阈值 {}", request.getMethod(), uri, count, warnThreshold);
+        } else {
+            log.debug("请求 {} {} 执行了 {} 条 SQL", request.getMethod(), uri, count);
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.approval.config;
 
 import com.approval.security.JwtAuthenticationFilter;
+import com.approval.security.LoginUser;
+import com.approval.security.PermissionEngine;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -18,13 +23,21 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 /**
  * Spring Security 安全配置类
  * 配置认证和授权规则
+ * 细粒度权限通过方法注解 {@code @PreAuthorize("@perm.has('...')")} 交由 PermissionEngine 判定
  */
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    /**
+     * 访问运行指标所需的权限
+     */
+    private static final String ACTUATOR_PERMISSION = "system:config";
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final PermissionEngine permissionEngine;
 
     /**
      * 配置安全过滤链
@@ -48,6 +61,11 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/files/**").permitAll()
                         .requestMatchers("/error").permitAll()
+                        // 运行指标含各接口的请求数、SQL 数与登录指标，仅开放给系统配置权限；健康检查登录即可访问
+                        .requestMatchers("/actuator/health", "/actuator/health/**").authenticated()
+                        .requestMatchers("/actuator/**").access((authentication, context) ->
+                                new AuthorizationDecision(authentication.get().getPrincipal() instanceof LoginUser user
+                                        && permissionEngine.hasPermission(user, ACTUATOR_PERMISSION)))
                         // 其他请求需要认证
                         .anyRequest().authenticated())
                 // 添加 JWT 过滤器
@@ -90,12 +108,13 @@ public class SecurityConfig {
 
     /**
      * 密码编码器
-     * 使用 BCrypt 算法加密密码
+     * 使用 BCrypt 算法加密密码，cost 可配置；调整后存量哈希在用户下次登录时自动重算
      *
+     * @param strength BCrypt cost
      * @return PasswordEncoder 实例
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.login.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
@@ -1,18 +1,28 @@
 package com.approval.config;
 
+import com.approval.security.CurrentUserArgumentResolver;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 /**
  * WebMvc 配置类
- * 配置静态资源映射
+ * 配置静态资源映射、控制器参数解析器和拦截器
  */
 @Configuration
+@RequiredArgsConstructor
 public class WebMvcConfig implements WebMvcConfigurer {
 
+    private final CurrentUserArgumentResolver currentUserArgumentResolver;
+    private final QueryCountWebInterceptor queryCountWebInterceptor;
+
     @Value("${file.upload-dir:D:/uploads/approval-system}")
     private String uploadDir;
 
@@ -29,4 +39,20 @@ public class WebMvcConfig implements WebMvcConfigurer {
         registry.addResourceHandler(accessPath + "/**")
                 .addResourceLocations("file:" + uploadDir + "/");
     }
+
+    /**
+     * 注册 @CurrentUser 参数解析器
+     */
+    @Override
+    public void addArgumentResolvers(@NonNull List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentUserArgumentResolver);
+    }
+
+    /**
+     * 注册请求 SQL 计数拦截器
+     */
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(queryCountWebInterceptor).addPathPatterns("/api/**");
+    }
 }
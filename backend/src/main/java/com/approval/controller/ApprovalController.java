@@ -1,23 +1,26 @@
 package com.approval.controller;
 
+import com.approval.annotation.CurrentUser;
 import com.approval.annotation.OperLog;
 import com.approval.common.PageResult;
 import com.approval.common.Result;
 import com.approval.dto.ApprovalCreateRequest;
 import com.approval.dto.ApproveRequest;
+import com.approval.dto.BatchApproveRequest;
 import com.approval.entity.ApprovalType;
 import com.approval.enums.LogModule;
 import com.approval.enums.LogOperation;
-import com.approval.mapper.SysUserMapper;
-import com.approval.security.JwtTokenProvider;
+import com.approval.idempotency.IdempotencyGuard;
 import com.approval.service.ApprovalService;
 import com.approval.service.ApprovalTypeService;
 import com.approval.vo.ApprovalRecordVO;
 import com.approval.vo.ApprovalTypeVO;
+import com.approval.vo.BatchApproveResultVO;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -33,10 +36,14 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ApprovalController {
 
+    /**
+     * 幂等键请求头
+     */
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final ApprovalService approvalService;
     private final ApprovalTypeService approvalTypeService;
-    private final JwtTokenProvider jwtTokenProvider;
-    private final SysUserMapper sysUserMapper;
+    private final IdempotencyGuard idempotencyGuard;
 
     /**
      * 获取审批类型列表
@@ -54,20 +61,25 @@ public class ApprovalController {
 
     /**
      * 发起审批
+     * 携带 Idempotency-Key 时，相同幂等键的重试直接返回首次提交的结果，不会重复创建审批
      *
-     * @param request 创建审批请求
-     * @param token   JWT Token
+     * @param request        创建审批请求
+     * @param idempotencyKey 幂等键（可选）
+     * @param userId         当前登录用户ID
      * @return 审批记录
      */
     @PostMapping
     @OperLog(module = LogModule.APPROVAL, operation = LogOperation.SUBMIT, description = "发起审批申请")
     public Result<ApprovalRecordVO> createApproval(
             @Valid @RequestBody ApprovalCreateRequest request,
-            @RequestHeader("Authorization") String token) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
-        ApprovalRecordVO record = approvalService.createApproval(request, userId);
-        log.info("用户 {} 发起审批: {}", userId, record.getTitle());
-        return Result.success(record);
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @CurrentUser Long userId) {
+        return idempotencyGuard.execute(userId, idempotencyKey, "POST /api/approvals", request,
+                ApprovalRecordVO.class, () -> {
+                    ApprovalRecordVO record = approvalService.createApproval(request, userId);
+                    log.info("用户 {} 发起审批: {}", userId, record.getTitle());
+                    return Result.success(record);
+                });
     }
 
     /**
@@ -76,7 +88,9 @@ public class ApprovalController {
      * @param page     页码
      * @param pageSize 每页条数
      * @param status   状态筛选（可选）
-     * @param token    JWT Token
+     * @param cursor   游标（传入时使用游标分页，首页传空串，后续传上一页返回的 nextCursor）
+     * @param history  是否查询已归档的历史审批（默认只查询未归档的审批）
+     * @param userId   当前登录用户ID
      * @return 分页结果
      */
     @GetMapping("/my")
@@ -85,9 +99,13 @@ public class ApprovalController {
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int pageSize,
             @RequestParam(required = false) Integer status,
-            @RequestHeader("Authorization") String token) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
-        IPage<ApprovalRecordVO> result = approvalService.getMyApprovals(userId, page, pageSize, status);
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean history,
+            @CurrentUser Long userId) {
+        if (cursor != null) {
+            return Result.success(approvalService.getMyApprovalsByCursor(userId, cursor, pageSize, status, history));
+        }
+        IPage<ApprovalRecordVO> result = approvalService.getMyApprovals(userId, page, pageSize, status, history);
         return Result.success(PageResult.of(result));
     }
 
@@ -96,7 +114,7 @@ public class ApprovalController {
      *
      * @param page     页码
      * @param pageSize 每页条数
-     * @param token    JWT Token
+     * @param userId   当前登录用户ID
      * @return 分页结果
      */
     @GetMapping("/todo")
@@ -104,8 +122,7 @@ public class ApprovalController {
     public Result<PageResult<ApprovalRecordVO>> getTodoApprovals(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int pageSize,
-            @RequestHeader("Authorization") String token) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
+            @CurrentUser Long userId) {
         IPage<ApprovalRecordVO> result = approvalService.getTodoApprovals(userId, page, pageSize);
         return Result.success(PageResult.of(result));
     }
@@ -125,10 +142,12 @@ public class ApprovalController {
 
     /**
      * 审批操作（通过/拒绝）
+     * 携带 Idempotency-Key 时，相同幂等键的重试直接返回首次审批的结果
      *
-     * @param id      审批ID
-     * @param request 审批请求
-     * @param token   JWT Token
+     * @param id             审批ID
+     * @param request        审批请求
+     * @param idempotencyKey 幂等键（可选）
+     * @param userId         当前登录用户ID
      * @return 操作结果
      */
     @PostMapping("/{id}/approve")
@@ -136,28 +155,60 @@ public class ApprovalController {
     public Result<Void> approveApproval(
             @PathVariable String id,
             @Valid @RequestBody ApproveRequest request,
-            @RequestHeader("Authorization") String token) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
-        approvalService.approve(id, userId, request.getApproved(), request.getComment());
-        log.info("用户 {} 审批 {}: {}", userId, id, request.getApproved() ? "通过" : "拒绝");
-        return Result.success();
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @CurrentUser Long userId) {
+        return idempotencyGuard.execute(userId, idempotencyKey, "POST /api/approvals/" + id + "/approve", request,
+                Void.class, () -> {
+                    approvalService.approve(id, userId, request.getApproved(), request.getComment());
+                    log.info("用户 {} 审批 {}: {}", userId, id, request.getApproved() ? "通过" : "拒绝");
+                    return Result.success();
+                });
+    }
+
+    /**
+     * 批量审批操作（通过/拒绝）
+     *
+     * @param request 批量审批请求
+     * @param userId  当前登录用户ID
+     * @return 逐条处理结果
+     */
+    @PostMapping("/batch/approve")
+    @OperLog(module = LogModule.APPROVAL, operation = LogOperation.APPROVE, description = "批量审批操作")
+    public Result<BatchApproveResultVO> approveBatch(
+            @Valid @RequestBody BatchApproveRequest request,
+            @CurrentUser Long userId) {
+        BatchApproveResultVO result = approvalService.approveBatch(
+                request.getIds(), userId, request.getApproved(), request.getComment());
+        return Result.success(result);
     }
 
     /**
      * 撤回审批
      *
      * @param id    审批ID
-     * @param token JWT Token
+     * @param userId 当前登录用户ID
      * @return 操作结果
      */
     @PostMapping("/{id}/withdraw")
     @OperLog(module = LogModule.APPROVAL, operation = LogOperation.WITHDRAW, description = "撤回审批申请")
     public Result<Void> withdrawApproval(
             @PathVariable String id,
-            @RequestHeader("Authorization") String token) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
+            @CurrentUser Long userId) {
         approvalService.withdraw(id, userId);
         log.info("用户 {} 撤回审批 {}", userId, id);
         return Result.success();
     }
+
+    /**
+     * 重建待办索引
+     *
+     * @return 重建后的待办数量
+     */
+    @PostMapping("/todo/rebuild")
+    @OperLog(module = LogModule.APPROVAL, operation = LogOperation.UPDATE, description = "重建待办索引")
+    @PreAuthorize("@perm.has('system:config')")
+    public Result<Integer> rebuildTodoIndex() {
+        int count = approvalService.rebuildTodoIndex();
+        return Result.success("待办索引重建完成", count);
+    }
 }
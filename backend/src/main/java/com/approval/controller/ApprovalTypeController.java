@@ -10,6 +10,7 @@ import com.approval.service.ApprovalTypeService;
 import com.approval.vo.ApprovalTypeVO;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 
@@ -64,6 +65,7 @@ public class ApprovalTypeController {
      */
     @PostMapping
     @OperLog(module = LogModule.APPROVAL, operation = LogOperation.CREATE, description = "创建审批类型")
+    @PreAuthorize("@perm.has('workflow:manage')")
     public Result<ApprovalTypeVO> createType(@Valid @RequestBody ApprovalTypeRequest request) {
         ApprovalType type = approvalTypeService.create(request);
         log.info("创建审批类型: {}", type.getName());
@@ -79,6 +81,7 @@ public class ApprovalTypeController {
      */
     @PutMapping("/{id}")
     @OperLog(module = LogModule.APPROVAL, operation = LogOperation.UPDATE, description = "更新审批类型")
+    @PreAuthorize("@perm.has('workflow:manage')")
     public Result<ApprovalTypeVO> updateType(
             @PathVariable Long id,
             @Valid @RequestBody ApprovalTypeRequest request) {
@@ -94,6 +97,7 @@ public class ApprovalTypeController {
      */
     @DeleteMapping("/{id}")
     @OperLog(module = LogModule.APPROVAL, operation = LogOperation.DELETE, description = "删除审批类型")
+    @PreAuthorize("@perm.has('workflow:manage')")
     public Result<Void> deleteType(@PathVariable Long id) {
         approvalTypeService.delete(id);
         return Result.success();
@@ -1,13 +1,16 @@
 package com.approval.controller;
 
+import com.approval.annotation.CurrentUser;
+import com.approval.annotation.OperLog;
 import com.approval.common.Result;
-import com.approval.mapper.SysUserMapper;
-import com.approval.security.JwtTokenProvider;
+import com.approval.enums.LogModule;
+import com.approval.enums.LogOperation;
 import com.approval.service.DashboardService;
 import com.approval.vo.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -24,19 +27,16 @@ import java.util.List;
 public class DashboardController {
 
     private final DashboardService dashboardService;
-    private final JwtTokenProvider jwtTokenProvider;
-    private final SysUserMapper sysUserMapper;
 
     /**
      * 获取仪表盘统计数据
      * 根据当前用户返回对应的统计信息
      *
-     * @param token JWT Token
+     * @param userId 当前登录用户ID
      * @return 统计数据
      */
     @GetMapping("/statistics")
-    public Result<DashboardStatisticsVO> getStatistics(@RequestHeader("Authorization") String token) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
+    public Result<DashboardStatisticsVO> getStatistics(@CurrentUser Long userId) {
         DashboardStatisticsVO statistics = dashboardService.getStatistics(userId);
         return Result.success(statistics);
     }
@@ -44,15 +44,14 @@ public class DashboardController {
     /**
      * 获取最近活动记录
      *
-     * @param token JWT Token
-     * @param limit 返回数量限制
+     * @param userId 当前登录用户ID
+     * @param limit  返回数量限制
      * @return 最近活动列表
      */
     @GetMapping("/recent-activities")
     public Result<List<RecentActivityVO>> getRecentActivities(
-            @RequestHeader("Authorization") String token,
+            @CurrentUser Long userId,
             @RequestParam(defaultValue = "10") int limit) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
         List<RecentActivityVO> activities = dashboardService.getRecentActivities(userId, limit);
         return Result.success(activities);
     }
@@ -60,15 +59,14 @@ public class DashboardController {
     /**
      * 获取审批趋势数据
      *
-     * @param token JWT Token
-     * @param days  天数（默认30天）
+     * @param userId 当前登录用户ID
+     * @param days   天数（默认30天）
      * @return 趋势数据列表
      */
     @GetMapping("/trend")
     public Result<List<TrendDataVO>> getTrendData(
-            @RequestHeader("Authorization") String token,
+            @CurrentUser Long userId,
             @RequestParam(defaultValue = "30") int days) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
         List<TrendDataVO> trendData = dashboardService.getTrendData(userId, days);
         return Result.success(trendData);
     }
@@ -76,13 +74,12 @@ public class DashboardController {
     /**
      * 获取审批类型分布
      *
-     * @param token JWT Token
+     * @param userId 当前登录用户ID
      * @return 类型分布列表
      */
     @GetMapping("/type-distribution")
     public Result<List<TypeDistributionVO>> getTypeDistribution(
-            @RequestHeader("Authorization") String token) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
+            @CurrentUser Long userId) {
         List<TypeDistributionVO> distribution = dashboardService.getTypeDistribution(userId);
         return Result.success(distribution);
     }
@@ -90,13 +87,12 @@ public class DashboardController {
     /**
      * 获取效率指标
      *
-     * @param token JWT Token
+     * @param userId 当前登录用户ID
      * @return 效率指标
      */
     @GetMapping("/efficiency")
     public Result<EfficiencyMetricsVO> getEfficiencyMetrics(
-            @RequestHeader("Authorization") String token) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
+            @CurrentUser Long userId) {
         EfficiencyMetricsVO metrics = dashboardService.getEfficiencyMetrics(userId);
         return Result.success(metrics);
     }
@@ -104,15 +100,14 @@ public class DashboardController {
     /**
      * 获取待办事项列表
      *
-     * @param token JWT Token
-     * @param limit 返回数量限制
+     * @param userId 当前登录用户ID
+     * @param limit  返回数量限制
      * @return 待办事项列表
      */
     @GetMapping("/todos")
     public Result<List<TodoItemVO>> getTodoList(
-            @RequestHeader("Authorization") String token,
+            @CurrentUser Long userId,
             @RequestParam(defaultValue = "5") int limit) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
         List<TodoItemVO> todos = dashboardService.getTodoList(userId, limit);
         return Result.success(todos);
     }
@@ -120,13 +115,12 @@ public class DashboardController {
     /**
      * 获取审批类型效率分析
      *
-     * @param token JWT Token
+     * @param userId 当前登录用户ID
      * @return 效率分析列表
      */
     @GetMapping("/efficiency/breakdown")
     public Result<List<TypeEfficiencyVO>> getTypeEfficiency(
-            @RequestHeader("Authorization") String token) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
+            @CurrentUser Long userId) {
         List<TypeEfficiencyVO> breakdown = dashboardService.getTypeEfficiency(userId);
         return Result.success(breakdown);
     }
@@ -134,14 +128,47 @@ public class DashboardController {
     /**
      * 获取提交热力图数据
      *
-     * @param token JWT Token
+     * @param userId 当前登录用户ID
      * @return 每日提交列表
      */
     @GetMapping("/activities/heatmap")
     public Result<List<DailySubmissionVO>> getSubmissionHeatmap(
-            @RequestHeader("Authorization") String token) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
+            @CurrentUser Long userId) {
         List<DailySubmissionVO> heatmap = dashboardService.getSubmissionHeatmap(userId);
         return Result.success(heatmap);
     }
+
+    /**
+     * 获取仪表盘汇总
+     * 一次返回仪表盘全部区块（各区块并发加载），加载超时或失败的区块为空并列在 unavailable 中；
+     * 各区块的独立接口保留
+     *
+     * @param userId        当前登录用户ID
+     * @param activityLimit 最近活动数量限制
+     * @param trendDays     趋势天数
+     * @param todoLimit     待办数量限制
+     * @return 仪表盘汇总
+     */
+    @GetMapping("/summary")
+    public Result<DashboardSummaryVO> getSummary(
+            @CurrentUser Long userId,
+            @RequestParam(defaultValue = "10") int activityLimit,
+            @RequestParam(defaultValue = "30") int trendDays,
+            @RequestParam(defaultValue = "5") int todoLimit) {
+        DashboardSummaryVO summary = dashboardService.getSummary(userId, activityLimit, trendDays, todoLimit);
+        return Result.success(summary);
+    }
+
+    /**
+     * 重建每日汇总（趋势、热力图、效率统计的数据来源）
+     *
+     * @return 重建后的汇总行数
+     */
+    @PostMapping("/daily-stats/rebuild")
+    @OperLog(module = LogModule.SYSTEM, operation = LogOperation.UPDATE, description = "重建每日汇总")
+    @PreAuthorize("@perm.has('system:config')")
+    public Result<Integer> rebuildDailyStats() {
+        int count = dashboardService.rebuildDailyStats();
+        return Result.success("每日汇总重建完成", count);
+    }
 }
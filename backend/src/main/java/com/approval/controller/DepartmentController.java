@@ -10,6 +10,7 @@ import com.approval.service.DepartmentService;
 import com.approval.vo.DepartmentTreeVO;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -69,6 +70,7 @@ public class DepartmentController {
      */
     @PostMapping
     @OperLog(module = LogModule.DEPARTMENT, operation = LogOperation.CREATE, description = "创建部门")
+    @PreAuthorize("@perm.has('department:manage')")
     public Result<SysDepartment> createDepartment(@Valid @RequestBody DepartmentDTO dto) {
         SysDepartment department = departmentService.create(dto);
         return Result.success("部门创建成功", department);
@@ -83,6 +85,7 @@ public class DepartmentController {
      */
     @PutMapping("/{id}")
     @OperLog(module = LogModule.DEPARTMENT, operation = LogOperation.UPDATE, description = "更新部门信息")
+    @PreAuthorize("@perm.has('department:manage')")
     public Result<SysDepartment> updateDepartment(
             @PathVariable Long id,
             @Valid @RequestBody DepartmentDTO dto) {
@@ -98,6 +101,7 @@ public class DepartmentController {
      */
     @DeleteMapping("/{id}")
     @OperLog(module = LogModule.DEPARTMENT, operation = LogOperation.DELETE, description = "删除部门")
+    @PreAuthorize("@perm.has('department:manage')")
     public Result<Void> deleteDepartment(@PathVariable Long id) {
         departmentService.delete(id);
         return Result.success("部门删除成功", null);
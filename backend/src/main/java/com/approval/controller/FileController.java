@@ -1,12 +1,11 @@
 package com.approval.controller;
 
+import com.approval.annotation.CurrentUser;
 import com.approval.annotation.OperLog;
 import com.approval.common.Result;
 import com.approval.entity.Attachment;
 import com.approval.enums.LogModule;
 import com.approval.enums.LogOperation;
-import com.approval.mapper.SysUserMapper;
-import com.approval.security.JwtTokenProvider;
 import com.approval.service.FileService;
 import com.approval.vo.AttachmentVO;
 import lombok.RequiredArgsConstructor;
@@ -35,8 +34,6 @@ import java.util.Objects;
 public class FileController {
 
     private final FileService fileService;
-    private final JwtTokenProvider jwtTokenProvider;
-    private final SysUserMapper sysUserMapper;
 
     @Value("${file.upload-dir:D:/uploads/approval-system}")
     private String uploadDir;
@@ -46,7 +43,7 @@ public class FileController {
      *
      * @param file  上传的文件
      * @param type  文件类型/业务类型 (如 "avatar")
-     * @param token JWT Token（用于获取上传者ID）
+     * @param userId 当前登录用户ID
      * @return 附件信息
      */
     @PostMapping("/upload")
@@ -54,9 +51,7 @@ public class FileController {
     public Result<AttachmentVO> upload(
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "type", required = false) String type,
-            @RequestHeader("Authorization") String token) {
-        // 从Token中获取用户ID
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
+            @CurrentUser Long userId) {
 
         AttachmentVO attachment = fileService.uploadFile(file, userId, type);
         log.info("用户 {} 上传文件 (类型: {}): {}", userId, type, attachment.getFileName());
@@ -1,12 +1,11 @@
 package com.approval.controller;
 
+import com.approval.annotation.CurrentUser;
 import com.approval.annotation.OperLog;
 import com.approval.common.PageResult;
 import com.approval.common.Result;
 import com.approval.enums.LogModule;
 import com.approval.enums.LogOperation;
-import com.approval.mapper.SysUserMapper;
-import com.approval.security.JwtTokenProvider;
 import com.approval.service.NotificationService;
 import com.approval.vo.NotificationVO;
 import com.baomidou.mybatisplus.core.metadata.IPage;
@@ -27,8 +26,6 @@ import java.util.Map;
 public class NotificationController {
 
     private final NotificationService notificationService;
-    private final JwtTokenProvider jwtTokenProvider;
-    private final SysUserMapper sysUserMapper;
 
     /**
      * 获取通知列表
@@ -36,7 +33,8 @@ public class NotificationController {
      * @param page     页码
      * @param pageSize 每页条数
      * @param isRead   是否已读筛选（可选）
-     * @param token    JWT Token
+     * @param cursor   游标（传入时使用游标分页，首页传空串，后续传上一页返回的 nextCursor）
+     * @param userId   当前登录用户ID
      * @return 分页结果
      */
     @GetMapping
@@ -45,8 +43,11 @@ public class NotificationController {
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int pageSize,
             @RequestParam(required = false) Boolean isRead,
-            @RequestHeader("Authorization") String token) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
+            @RequestParam(required = false) String cursor,
+            @CurrentUser Long userId) {
+        if (cursor != null) {
+            return Result.success(notificationService.getNotificationsByCursor(userId, cursor, pageSize, isRead));
+        }
         IPage<NotificationVO> result = notificationService.getNotifications(userId, page, pageSize, isRead);
         return Result.success(PageResult.of(result));
     }
@@ -55,15 +56,14 @@ public class NotificationController {
      * 标记单条通知为已读
      *
      * @param id    通知ID
-     * @param token JWT Token
+     * @param userId 当前登录用户ID
      * @return 操作结果
      */
     @PutMapping("/{id}/read")
     @OperLog(module = LogModule.NOTIFICATION, operation = LogOperation.UPDATE, description = "标记通知为已读")
     public Result<Void> markAsRead(
             @PathVariable String id,
-            @RequestHeader("Authorization") String token) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
+            @CurrentUser Long userId) {
         notificationService.markAsRead(id, userId);
         return Result.success();
     }
@@ -71,13 +71,12 @@ public class NotificationController {
     /**
      * 标记所有通知为已读
      *
-     * @param token JWT Token
+     * @param userId 当前登录用户ID
      * @return 操作结果
      */
     @PutMapping("/read-all")
     @OperLog(module = LogModule.NOTIFICATION, operation = LogOperation.UPDATE, description = "标记所有通知为已读")
-    public Result<Void> markAllAsRead(@RequestHeader("Authorization") String token) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
+    public Result<Void> markAllAsRead(@CurrentUser Long userId) {
         notificationService.markAllAsRead(userId);
         return Result.success();
     }
@@ -85,12 +84,11 @@ public class NotificationController {
     /**
      * 获取未读通知数量
      *
-     * @param token JWT Token
+     * @param userId 当前登录用户ID
      * @return 未读数量
      */
     @GetMapping("/unread-count")
-    public Result<Map<String, Integer>> getUnreadCount(@RequestHeader("Authorization") String token) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
+    public Result<Map<String, Integer>> getUnreadCount(@CurrentUser Long userId) {
         int count = notificationService.getUnreadCount(userId);
         return Result.success(Map.of("count", count));
     }
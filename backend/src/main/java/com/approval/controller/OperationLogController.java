@@ -9,6 +9,7 @@ import com.approval.service.OperationLogService;
 import com.approval.vo.OperationLogVO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -20,6 +21,7 @@ import java.util.*;
  */
 @RestController
 @RequestMapping("/api/v1/logs")
+@PreAuthorize("@perm.has('log:view')")
 public class OperationLogController {
 
     @Autowired
@@ -38,6 +40,7 @@ public class OperationLogController {
      * @param startDate       开始日期
      * @param endDate         结束日期
      * @param keyword         详情关键词搜索
+     * @param cursor          游标（传入时使用游标分页，首页传空串，后续传上一页返回的 nextCursor）
      * @return 分页日志列表
      */
     @GetMapping
@@ -51,7 +54,8 @@ public class OperationLogController {
             @RequestParam(required = false) String targetId,
             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
-            @RequestParam(required = false) String keyword) {
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String cursor) {
         OperationLogQueryDTO queryDTO = new OperationLogQueryDTO();
         queryDTO.setPage(page);
         queryDTO.setPageSize(pageSize);
@@ -63,6 +67,7 @@ public class OperationLogController {
         queryDTO.setStartDate(startDate);
         queryDTO.setEndDate(endDate);
         queryDTO.setKeyword(keyword);
+        queryDTO.setCursor(cursor);
 
         PageResult<OperationLogVO> result = operationLogService.queryLogs(queryDTO);
         return Result.success(result);
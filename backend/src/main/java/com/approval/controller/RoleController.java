@@ -6,9 +6,12 @@ import com.approval.entity.SysRole;
 import com.approval.enums.LogModule;
 import com.approval.enums.LogOperation;
 import com.approval.mapper.SysRoleMapper;
+import com.approval.security.PermissionEngine;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -16,7 +19,7 @@ import java.util.List;
 
 /**
  * 角色管理控制器
- * 提供角色查询接口
+ * 提供角色查询与权限重新加载接口
  */
 @RestController
 @RequestMapping("/api/roles")
@@ -24,6 +27,7 @@ import java.util.List;
 public class RoleController {
 
     private final SysRoleMapper roleMapper;
+    private final PermissionEngine permissionEngine;
 
     /**
      * 获取所有角色列表
@@ -39,4 +43,18 @@ public class RoleController {
                         .orderByAsc(SysRole::getSortOrder));
         return Result.success(roles);
     }
+
+    /**
+     * 重新加载权限树和角色权限关系
+     * 直接修改角色、权限数据后调用，本实例立即生效；其他实例按权限刷新周期生效
+     *
+     * @return 操作结果
+     */
+    @PostMapping("/permissions/reload")
+    @OperLog(module = LogModule.ROLE, operation = LogOperation.UPDATE, description = "重新加载权限")
+    @PreAuthorize("@perm.has('system:config')")
+    public Result<Void> reloadPermissions() {
+        permissionEngine.reload();
+        return Result.success("权限已重新加载", null);
+    }
 }
@@ -1,13 +1,12 @@
 package com.approval.controller;
 
+import com.approval.annotation.CurrentUser;
 import com.approval.annotation.OperLog;
 import com.approval.common.PageResult;
 import com.approval.common.Result;
 import com.approval.dto.ChangePasswordRequest;
 import com.approval.dto.UserDTO;
 import com.approval.dto.UserQueryDTO;
-import com.approval.mapper.SysUserMapper;
-import com.approval.security.JwtTokenProvider;
 
 import com.approval.enums.LogModule;
 import com.approval.enums.LogOperation;
@@ -16,6 +15,7 @@ import com.approval.service.UserService;
 import com.approval.vo.UserVO;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -31,8 +31,6 @@ import java.util.Map;
 public class UserController {
 
     private final UserService userService;
-    private final JwtTokenProvider jwtTokenProvider;
-    private final SysUserMapper sysUserMapper;
 
     /**
      * 分页查询用户列表
@@ -46,6 +44,7 @@ public class UserController {
      */
     @GetMapping
     @OperLog(module = LogModule.USER, operation = LogOperation.QUERY, description = "查询用户列表", logParams = false)
+    @PreAuthorize("@perm.has('user:view')")
     public Result<PageResult<UserVO>> getPagedUsers(
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) Long departmentId,
@@ -97,6 +96,7 @@ public class UserController {
      */
     @PostMapping
     @OperLog(module = LogModule.USER, operation = LogOperation.CREATE, description = "创建用户")
+    @PreAuthorize("@perm.has('user:create')")
     public Result<UserVO> createUser(@Valid @RequestBody UserDTO dto) {
         UserVO user = userService.createUser(dto);
         return Result.success("用户创建成功", user);
@@ -111,6 +111,7 @@ public class UserController {
      */
     @PutMapping("/{id}")
     @OperLog(module = LogModule.USER, operation = LogOperation.UPDATE, description = "更新用户信息")
+    @PreAuthorize("@perm.has('user:edit')")
     public Result<UserVO> updateUser(
             @PathVariable Long id,
             @Valid @RequestBody UserDTO dto) {
@@ -126,6 +127,7 @@ public class UserController {
      */
     @DeleteMapping("/{id}")
     @OperLog(module = LogModule.USER, operation = LogOperation.DELETE, description = "删除用户")
+    @PreAuthorize("@perm.has('user:delete')")
     public Result<Void> deleteUser(@PathVariable Long id) {
         userService.deleteUser(id);
         return Result.success("用户删除成功", null);
@@ -140,6 +142,7 @@ public class UserController {
      */
     @PutMapping("/{id}/status")
     @OperLog(module = LogModule.USER, operation = LogOperation.UPDATE, description = "更新用户状态")
+    @PreAuthorize("@perm.has('user:edit')")
     public Result<Void> updateUserStatus(
             @PathVariable Long id,
             @RequestBody Map<String, Integer> body) {
@@ -155,15 +158,14 @@ public class UserController {
      * 修改当前用户密码
      *
      * @param request 修改密码请求
-     * @param token   JWT Token
+     * @param userId  当前登录用户ID
      * @return 操作结果
      */
     @PutMapping("/me/password")
     @OperLog(module = LogModule.AUTH, operation = LogOperation.PASSWORD_CHANGE, description = "修改个人密码")
     public Result<Void> changePassword(
             @Valid @RequestBody ChangePasswordRequest request,
-            @RequestHeader("Authorization") String token) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
+            @CurrentUser Long userId) {
         userService.changePassword(userId, request.getOldPassword(), request.getNewPassword());
         return Result.success("密码修改成功", null);
     }
@@ -1,5 +1,6 @@
 package com.approval.controller;
 
+import com.approval.annotation.CurrentUser;
 import com.approval.annotation.OperLog;
 import com.approval.common.PageResult;
 import com.approval.common.Result;
@@ -8,13 +9,12 @@ import com.approval.dto.WorkflowStatusRequest;
 import com.approval.dto.WorkflowUpdateRequest;
 import com.approval.enums.LogModule;
 import com.approval.enums.LogOperation;
-import com.approval.mapper.SysUserMapper;
-import com.approval.security.JwtTokenProvider;
 import com.approval.service.WorkflowService;
 import com.approval.vo.WorkflowVO;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 
@@ -29,8 +29,6 @@ import org.springframework.web.bind.annotation.*;
 public class WorkflowController {
 
     private final WorkflowService workflowService;
-    private final JwtTokenProvider jwtTokenProvider;
-    private final SysUserMapper sysUserMapper;
 
     /**
      * 获取工作流列表（分页）
@@ -81,15 +79,15 @@ public class WorkflowController {
      * 创建工作流
      *
      * @param request 创建请求
-     * @param token   JWT Token
+     * @param userId  当前登录用户ID
      * @return 工作流信息
      */
     @PostMapping
     @OperLog(module = LogModule.WORKFLOW, operation = LogOperation.CREATE, description = "创建工作流")
+    @PreAuthorize("@perm.has('workflow:manage')")
     public Result<WorkflowVO> createWorkflow(
             @Valid @RequestBody WorkflowCreateRequest request,
-            @RequestHeader("Authorization") String token) {
-        Long userId = jwtTokenProvider.getUserIdFromToken(token.replace("Bearer ", ""), sysUserMapper);
+            @CurrentUser Long userId) {
         WorkflowVO workflow = workflowService.createWorkflow(request, userId);
         log.info("用户 {} 创建工作流: {}", userId, workflow.getName());
         return Result.success(workflow);
@@ -104,6 +102,7 @@ public class WorkflowController {
      */
     @PutMapping("/{id}")
     @OperLog(module = LogModule.WORKFLOW, operation = LogOperation.UPDATE, description = "更新工作流")
+    @PreAuthorize("@perm.has('workflow:manage')")
     public Result<WorkflowVO> updateWorkflow(
             @PathVariable Long id,
             @Valid @RequestBody WorkflowUpdateRequest request) {
@@ -119,6 +118,7 @@ public class WorkflowController {
      */
     @DeleteMapping("/{id}")
     @OperLog(module = LogModule.WORKFLOW, operation = LogOperation.DELETE, description = "删除工作流")
+    @PreAuthorize("@perm.has('workflow:manage')")
     public Result<Void> deleteWorkflow(@PathVariable Long id) {
         workflowService.deleteWorkflow(id);
         return Result.success();
@@ -133,6 +133,7 @@ public class WorkflowController {
      */
     @PutMapping("/{id}/status")
     @OperLog(module = LogModule.WORKFLOW, operation = LogOperation.UPDATE, description = "更新工作流状态")
+    @PreAuthorize("@perm.has('workflow:manage')")
     public Result<Void> updateWorkflowStatus(
             @PathVariable Long id,
             @RequestBody WorkflowStatusRequest request) {
@@ -0,0 +1,33 @@
+package com.approval.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量审批请求DTO
+ */
+@Data
+public class BatchApproveRequest {
+
+    /**
+     * 审批ID列表
+     */
+    @NotEmpty(message = "审批ID列表不能为空")
+    @Size(max = 500, message = "单次最多批量审批500条")
+    private List<String> ids;
+
+    /**
+     * 是否通过: true-通过 false-拒绝
+     */
+    @NotNull(message = "审批结果不能为空")
+    private Boolean approved;
+
+    /**
+     * 审批意见（应用于全部审批）
+     */
+    private String comment;
+}
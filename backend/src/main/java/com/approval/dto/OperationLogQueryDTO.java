@@ -17,6 +17,9 @@ public class OperationLogQueryDTO {
     /** 每页条数，默认10 */
     private Integer pageSize = 10;
 
+    /** 游标（非 null 时使用游标分页，空串表示第一页） */
+    private String cursor;
+
     /** 模块筛选 */
     private String module;
 
@@ -56,7 +56,7 @@ public class WorkflowCreateRequest {
         private String nodeName;
 
         /**
-         * 节点顺序
+         * 节点顺序（从1开始连续编号，相同序号的节点组成并行节点组）
          */
         @NotNull(message = "节点顺序不能为空")
         private Integer nodeOrder;
@@ -71,5 +71,20 @@ public class WorkflowCreateRequest {
          * 指定审批人/职位ID（当类型为USER或POSITION时必填）
          */
         private Long approverId;
+
+        /**
+         * 同序号节点组的完成规则: ALL-会签（默认） ANY-或签 N_OF_M-N人通过，同组节点须一致
+         */
+        private String approveMode;
+
+        /**
+         * 需要通过的人数（N_OF_M 时必填）
+         */
+        private Integer requiredCount;
+
+        /**
+         * 节点条件表达式（如 amount > 5000 && dept == 'R&D'），按审批内容求值，不满足时跳过该节点；为空表示始终参与审批
+         */
+        private String condition;
     }
 }
@@ -0,0 +1,57 @@
+package com.approval.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 审批每日汇总实体类
+ * 映射数据库表 approval_daily_stats（主键为 stat_date + type_code + initiator_id），
+ * 审批的通过、拒绝与处理时长计入其提交当日的行；汇总查询时未参与分组的字段为空
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("approval_daily_stats")
+public class ApprovalDailyStats {
+
+    /**
+     * 提交日期
+     */
+    private LocalDate statDate;
+
+    /**
+     * 审批类型编码
+     */
+    private String typeCode;
+
+    /**
+     * 发起人ID
+     */
+    private Long initiatorId;
+
+    /**
+     * 提交数
+     */
+    private Long submitted;
+
+    /**
+     * 其中已通过数
+     */
+    private Long approved;
+
+    /**
+     * 其中已拒绝数
+     */
+    private Long rejected;
+
+    /**
+     * 已通过、已拒绝审批的处理时长之和（秒）
+     */
+    private Long processSeconds;
+}
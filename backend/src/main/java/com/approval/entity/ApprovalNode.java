@@ -46,7 +46,7 @@ public class ApprovalNode {
     private Integer nodeOrder;
 
     /**
-     * 状态: 0-待审批 1-已通过 2-已拒绝
+     * 状态: 0-待审批 1-已通过 2-已拒绝 3-已跳过（节点组已完成）
      */
     private Integer status;
 
@@ -65,4 +65,9 @@ public class ApprovalNode {
      */
     @TableField(fill = FieldFill.INSERT)
     private LocalDateTime createdAt;
+
+    /**
+     * 版本号（审批时比较并递增，由数据库默认值初始化）
+     */
+    private Integer version;
 }
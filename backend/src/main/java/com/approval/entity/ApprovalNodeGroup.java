@@ -0,0 +1,60 @@
+package com.approval.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 审批节点组实体类
+ * 映射数据库表 approval_node_group，同一序号有多个审批节点时每组一行，
+ * 保存组的完成规则与通过/拒绝计数（主键为 approval_id + node_order）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("approval_node_group")
+public class ApprovalNodeGroup {
+
+    /**
+     * 审批记录ID
+     */
+    private String approvalId;
+
+    /**
+     * 节点序号
+     */
+    private Integer nodeOrder;
+
+    /**
+     * 完成规则: ALL-会签 ANY-或签 N_OF_M-N人通过
+     */
+    private String approveMode;
+
+    /**
+     * 需要通过的人数
+     */
+    private Integer requiredCount;
+
+    /**
+     * 组内审批人数
+     */
+    private Integer totalCount;
+
+    /**
+     * 已通过人数
+     */
+    private Integer approvedCount;
+
+    /**
+     * 已拒绝人数
+     */
+    private Integer rejectedCount;
+
+    /**
+     * 状态: 0-进行中 1-已通过 2-已拒绝
+     */
+    private Integer status;
+}
@@ -70,6 +70,11 @@ public class ApprovalRecord {
      */
     private Long workflowId;
 
+    /**
+     * 提交时生效的工作流版本（版本不可变，审批始终对应提交时的节点配置）
+     */
+    private Integer workflowVersion;
+
     /**
      * 创建时间
      */
@@ -86,4 +91,14 @@ public class ApprovalRecord {
      * 完成时间
      */
     private LocalDateTime completedAt;
+
+    /**
+     * 版本号（状态流转时比较并递增，由数据库默认值初始化）
+     */
+    private Integer version;
+
+    /**
+     * SLA 阶段: 0-未触发 1-已提醒 2-已超期 3-已升级
+     */
+    private Integer slaStage;
 }
@@ -0,0 +1,47 @@
+package com.approval.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 审批待办索引实体类
+ * 映射数据库表 approval_todo，每行表示某审批当前节点的一位待处理审批人，
+ * 由审批的状态流转在同一事务内维护（主键为 approval_id + approver_id）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("approval_todo")
+public class ApprovalTodo {
+
+    /**
+     * 审批记录ID
+     */
+    private String approvalId;
+
+    /**
+     * 当前节点审批人ID
+     */
+    private Long approverId;
+
+    /**
+     * 当前节点序号
+     */
+    private Integer nodeOrder;
+
+    /**
+     * 紧急程度（冗余自审批记录，用于排序）
+     */
+    private Integer priority;
+
+    /**
+     * 审批提交时间（冗余自审批记录，用于排序）
+     */
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,55 @@
+package com.approval.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 审批类型计数实体类
+ * 映射数据库表 approval_type_stats，每个审批类型分为多个计数分片（主键为 type_code + slot），
+ * 按类型汇总查询时为各分片之和
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("approval_type_stats")
+public class ApprovalTypeStats {
+
+    /**
+     * 审批类型编码
+     */
+    private String typeCode;
+
+    /**
+     * 计数分片
+     */
+    private Integer slot;
+
+    /**
+     * 提交总数
+     */
+    private Long total;
+
+    /**
+     * 进行中（待审批、审批中）
+     */
+    private Long active;
+
+    /**
+     * 已通过
+     */
+    private Long approved;
+
+    /**
+     * 已拒绝
+     */
+    private Long rejected;
+
+    /**
+     * 已撤回
+     */
+    private Long withdrawn;
+}
@@ -0,0 +1,62 @@
+package com.approval.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 幂等请求记录实体类
+ * 映射数据库表 idempotency_record，记录携带 Idempotency-Key 的请求首次执行的响应
+ * （主键为 user_id + idem_key）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("idempotency_record")
+public class IdempotencyRecord {
+
+    /**
+     * 请求用户ID
+     */
+    private Long userId;
+
+    /**
+     * 客户端传入的 Idempotency-Key
+     */
+    private String idemKey;
+
+    /**
+     * 请求指纹（接口 + 请求体的 SHA-256）
+     */
+    private String fingerprint;
+
+    /**
+     * 状态: 0-处理中 1-已完成
+     */
+    private Integer status;
+
+    /**
+     * 首次执行的响应（JSON）
+     */
+    private String response;
+
+    /**
+     * 处理中租约到期时间
+     */
+    private LocalDateTime lockedUntil;
+
+    /**
+     * 过期时间
+     */
+    private LocalDateTime expiresAt;
+
+    /**
+     * 首次请求时间
+     */
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,79 @@
+package com.approval.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 通知发件箱实体类
+ * 映射数据库表 notification_outbox
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("notification_outbox")
+public class NotificationOutbox {
+
+    /**
+     * 事件ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 接收用户ID
+     */
+    private Long userId;
+
+    /**
+     * 通知标题
+     */
+    private String title;
+
+    /**
+     * 通知内容
+     */
+    private String content;
+
+    /**
+     * 通知类型: APPROVAL/SYSTEM/REMINDER
+     */
+    private String type;
+
+    /**
+     * 关联业务ID
+     */
+    private String relatedId;
+
+    /**
+     * 状态: 0-待投递 2-投递失败（超过重试次数）
+     */
+    private Integer status;
+
+    /**
+     * 已失败的投递次数
+     */
+    private Integer attempts;
+
+    /**
+     * 下次投递时间
+     */
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * 最近一次投递失败原因
+     */
+    private String lastError;
+
+    /**
+     * 事件产生时间
+     */
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,73 @@
+package com.approval.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 系统权限实体类
+ * 映射数据库表 sys_permission
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("sys_permission")
+public class SysPermission {
+
+    /**
+     * 权限ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 权限编码（如 user:view）
+     */
+    private String code;
+
+    /**
+     * 权限名称
+     */
+    private String name;
+
+    /**
+     * 权限类型: MENU/BUTTON/API
+     */
+    private String type;
+
+    /**
+     * 父权限ID（0 表示顶级）
+     */
+    private Long parentId;
+
+    /**
+     * 路由路径/API路径
+     */
+    private String path;
+
+    /**
+     * 图标（菜单用）
+     */
+    private String icon;
+
+    /**
+     * 排序序号
+     */
+    private Integer sortOrder;
+
+    /**
+     * 状态: 0-禁用 1-启用
+     */
+    private Integer status;
+
+    /**
+     * 创建时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createdAt;
+}
@@ -75,6 +75,13 @@ public class SysUser {
      */
     private String lastLoginIp;
 
+    /**
+     * 安全版本号（角色变更、禁用、改密时递增，用于吊销已签发的 Token）
+     * 仅允许通过 SysUserMapper#incrementSecurityVersion 原子递增，updateById 不回写该字段
+     */
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private Integer securityVersion;
+
     /**
      * 创建时间
      */
@@ -30,6 +30,11 @@ public class WorkflowNodeTemplate {
      */
     private Long workflowId;
 
+    /**
+     * 所属工作流版本
+     */
+    private Integer version;
+
     /**
      * 节点名称（如：直属上级）
      */
@@ -50,6 +55,21 @@ public class WorkflowNodeTemplate {
      */
     private Long approverId;
 
+    /**
+     * 同序号节点组的完成规则: ALL-会签 ANY-或签 N_OF_M-N人通过
+     */
+    private String approveMode;
+
+    /**
+     * 需要通过的人数（N_OF_M）
+     */
+    private Integer requiredCount;
+
+    /**
+     * 节点条件表达式，为空表示始终参与审批
+     */
+    private String conditionExpr;
+
     /**
      * 创建时间
      */
@@ -45,6 +45,13 @@ public class WorkflowTemplate {
      */
     private Integer status;
 
+    /**
+     * 当前生效的定义版本号（每次修改追加一个新版本，旧版本节点不再修改）
+     * 只由 incrementVersion 原子递增，updateById 不回写，避免并发修改把指针改回旧版本
+     */
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private Integer version;
+
     /**
      * 创建人ID
      */
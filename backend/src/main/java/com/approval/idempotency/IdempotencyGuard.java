@@ -0,0 +1,483 @@
+package com.approval.idempotency;
+
+import com.approval.common.Result;
+import com.approval.entity.IdempotencyRecord;
+import com.approval.exception.BusinessException;
+import com.approval.mapper.IdempotencyRecordMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 幂等请求守卫
+ * 客户端携带 Idempotency-Key 重试提交审批、审批操作时，返回首次执行的响应而不再执行业务逻辑：
+ * 1. 按 (用户, 幂等键) 记录首次执行的响应，内存 LRU 缓存最近的响应，幂等记录表持久化（多实例、重启后仍有效），按 TTL 过期；
+ * 2. 同一实例上的并发重复请求合并到同一次执行，等待其结果；其他实例上的并发请求由记录表的主键认领互斥，
+ *    未认领到的请求轮询等待首次执行完成，超时返回 409。执行期间定期续期租约，只有持有实例异常退出、
+ *    租约到期后才可被接管；
+ * 3. 幂等键重复用于不同的请求（接口或请求体不同）返回 422。
+ * <p>
+ * 成功响应和确定性的业务错误会被记录并重放；并发冲突（409）、服务端错误等可重试的失败释放幂等键，重试时重新执行。
+ * 业务已执行但响应重试后仍未能保存时，幂等键保留到记录过期：本实例由内存缓存重放，其他实例返回 409，不会再次执行
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyGuard {
+
+    /**
+     * 幂等键最大长度
+     */
+    public static final int MAX_KEY_LENGTH = 64;
+
+    private static final int STATUS_COMPLETED = 1;
+
+    /**
+     * 等待其他实例执行完成时的轮询间隔（毫秒）
+     */
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    /**
+     * 每批删除的过期记录数
+     */
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    /**
+     * 保存响应的尝试次数
+     */
+    private static final int COMPLETE_ATTEMPTS = 3;
+
+    /**
+     * 保存响应失败后的重试间隔（毫秒，按次数递增）
+     */
+    private static final long COMPLETE_RETRY_DELAY_MILLIS = 100;
+
+    private final IdempotencyRecordMapper idempotencyRecordMapper;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 幂等记录有效期（毫秒）
+     */
+    @Value("${approval.idempotency.ttl:86400000}")
+    private long ttlMillis;
+
+    /**
+     * 内存缓存的响应条目上限
+     */
+    @Value("${approval.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    /**
+     * 处理中租约（毫秒），执行期间每 1/3 租约续期一次，持有实例异常退出后超过该时间可被其他请求接管
+     */
+    @Value("${approval.idempotency.lease:30000}")
+    private long leaseMillis;
+
+    /**
+     * 等待并发的重复请求执行完成的最长时间（毫秒）
+     */
+    @Value("${approval.idempotency.wait-timeout:10000}")
+    private long waitTimeoutMillis;
+
+    /**
+     * 过期记录清理周期（毫秒）
+     */
+    @Value("${approval.idempotency.purge-interval:600000}")
+    private long purgeIntervalMillis;
+
+    private Map<String, Stored> cache;
+
+    /**
+     * 本实例上正在执行的幂等请求
+     */
+    private final Map<String, CompletableFuture<Stored>> inflight = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+
+    private Thread purger;
+
+    /**
+     * 租约续期线程
+     */
+    private ScheduledExecutorService leaseRenewer;
+
+    private Counter executedCounter;
+
+    private Counter replayedCounter;
+
+    private Counter collapsedCounter;
+
+    @PostConstruct
+    public void init() {
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Stored> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        this.leaseRenewer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "idempotency-lease");
+            t.setDaemon(true);
+            return t;
+        });
+        this.executedCounter = requestCounter("executed", "首次执行的幂等请求数");
+        this.replayedCounter = requestCounter("replayed", "重放已记录响应的幂等请求数");
+        this.collapsedCounter = requestCounter("collapsed", "合并到进行中执行的并发重复请求数");
+    }
+
+    private Counter requestCounter(String outcome, String description) {
+        return Counter.builder("approval.idempotency.requests")
+                .tag("outcome", outcome)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 应用启动完成后启动过期记录清理线程
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        purger = new Thread(this::purgeLoop, "idempotency-purger");
+        purger.setDaemon(true);
+        purger.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (purger != null) {
+            purger.interrupt();
+        }
+        leaseRenewer.shutdownNow();
+    }
+
+    /**
+     * 幂等执行
+     *
+     * @param userId    当前用户ID
+     * @param key       幂等键，为空时直接执行
+     * @param operation 接口标识（含路径参数）
+     * @param request   请求体，参与请求指纹计算
+     * @param dataType  响应数据类型（从记录表重放时反序列化）
+     * @param action    业务执行
+     * @return 首次执行的响应
+     * @throws BusinessException 幂等键不合法、重复用于不同请求、并发请求等待超时，或重放首次执行的业务错误
+     */
+    public <T> Result<T> execute(Long userId, String key, String operation, Object request,
+                                 Class<T> dataType, Supplier<Result<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException(400, "Idempotency-Key 长度不能超过 " + MAX_KEY_LENGTH);
+        }
+        String cacheKey = userId + ":" + key;
+        String fingerprint = fingerprint(operation, request);
+
+        Stored stored = cached(cacheKey);
+        if (stored != null) {
+            replayedCounter.increment();
+            return replay(stored, fingerprint);
+        }
+
+        CompletableFuture<Stored> mine = new CompletableFuture<>();
+        CompletableFuture<Stored> pending = inflight.putIfAbsent(cacheKey, mine);
+        if (pending != null) {
+            collapsedCounter.increment();
+            return replay(await(pending), fingerprint);
+        }
+        try {
+            Stored result = executeOnce(userId, key, cacheKey, fingerprint, dataType, action);
+            mine.complete(result);
+            return replay(result, fingerprint);
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inflight.remove(cacheKey, mine);
+        }
+    }
+
+    /**
+     * 认领幂等键并执行；已有其他实例执行完成时返回其记录的响应
+     */
+    private <T> Stored executeOnce(Long userId, String key, String cacheKey, String fingerprint,
+                                   Class<T> dataType, Supplier<Result<T>> action) {
+        long waitUntil = System.currentTimeMillis() + waitTimeoutMillis;
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            IdempotencyRecord claim = IdempotencyRecord.builder()
+                    .userId(userId)
+                    .idemKey(key)
+                    .fingerprint(fingerprint)
+                    .lockedUntil(now.plus(leaseMillis, ChronoUnit.MILLIS))
+                    .expiresAt(now.plus(ttlMillis, ChronoUnit.MILLIS))
+                    .createdAt(now)
+                    .build();
+            if (idempotencyRecordMapper.claim(claim) == 1 || idempotencyRecordMapper.takeOver(claim, now) == 1) {
+                return run(userId, key, cacheKey, fingerprint, action);
+            }
+
+            IdempotencyRecord existing = idempotencyRecordMapper.find(userId, key);
+            if (existing != null && !existing.getFingerprint().equals(fingerprint)) {
+                throw new BusinessException(422, "Idempotency-Key 已用于其他请求");
+            }
+            if (existing != null && existing.getStatus() == STATUS_COMPLETED && existing.getExpiresAt().isAfter(now)) {
+                Stored stored = new Stored(existing.getFingerprint(), deserialize(existing.getResponse(), dataType),
+                        toMillis(existing.getExpiresAt()));
+                cache.put(cacheKey, stored);
+                replayedCounter.increment();
+                return stored;
+            }
+            // 其他实例正在执行（或记录刚被释放），等待后重新认领
+            if (System.currentTimeMillis() >= waitUntil) {
+                throw new BusinessException(409, "相同 Idempotency-Key 的请求正在处理中，请稍后重试");
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new BusinessException(409, "相同 Idempotency-Key 的请求正在处理中，请稍后重试");
+            }
+        }
+    }
+
+    /**
+     * 执行业务并记录响应，执行期间续期租约；可重试的失败释放幂等键
+     */
+    private <T> Stored run(Long userId, String key, String cacheKey, String fingerprint,
+                           Supplier<Result<T>> action) {
+        executedCounter.increment();
+        ScheduledFuture<?> renewal = keepLease(userId, key);
+        try {
+            Result<?> result;
+            try {
+                result = action.get();
+            } catch (BusinessException ex) {
+                if (!replayable(ex)) {
+                    idempotencyRecordMapper.release(userId, key);
+                    throw ex;
+                }
+                result = Result.error(ex.getCode(), ex.getMessage());
+            } catch (RuntimeException ex) {
+                idempotencyRecordMapper.release(userId, key);
+                throw ex;
+            }
+
+            Stored stored = new Stored(fingerprint, result, System.currentTimeMillis() + ttlMillis);
+            save(userId, key, result);
+            cache.put(cacheKey, stored);
+            return stored;
+        } finally {
+            renewal.cancel(false);
+        }
+    }
+
+    /**
+     * 定期续期处理中的租约，直到执行与保存结束
+     */
+    private ScheduledFuture<?> keepLease(Long userId, String key) {
+        long period = Math.max(1, leaseMillis / 3);
+        return leaseRenewer.scheduleAtFixedRate(() -> {
+            try {
+                idempotencyRecordMapper.renewLease(userId, key,
+                        LocalDateTime.now().plus(leaseMillis, ChronoUnit.MILLIS));
+            } catch (RuntimeException ex) {
+                log.warn("幂等租约续期失败 (用户 {}, 幂等键 {}): {}", userId, key, ex.getMessage());
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 保存首次执行的响应，失败时重试；仍失败则保留幂等键直到记录过期，避免租约到期后被接管而重复执行
+     */
+    private void save(Long userId, String key, Result<?> result) {
+        String response;
+        try {
+            response = objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException ex) {
+            log.warn("幂等响应无法序列化 (用户 {}, 幂等键 {}): {}", userId, key, ex.getMessage());
+            hold(userId, key);
+            return;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                idempotencyRecordMapper.complete(userId, key, response);
+                return;
+            } catch (RuntimeException ex) {
+                if (attempt >= COMPLETE_ATTEMPTS) {
+                    log.warn("幂等记录保存失败，已重试 {} 次 (用户 {}, 幂等键 {}): {}",
+                            attempt, userId, key, ex.getMessage());
+                    hold(userId, key);
+                    return;
+                }
+            }
+            try {
+                Thread.sleep(COMPLETE_RETRY_DELAY_MILLIS * attempt);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                hold(userId, key);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 保留幂等键直到记录过期；业务已执行成功，失败只记录日志，不影响本次响应
+     */
+    private void hold(Long userId, String key) {
+        try {
+            idempotencyRecordMapper.holdUntilExpiry(userId, key);
+        } catch (RuntimeException ex) {
+            log.error("幂等键保留失败，租约到期后的重试可能重复执行 (用户 {}, 幂等键 {})", userId, key, ex);
+        }
+    }
+
+    /**
+     * 确定性的业务错误（含 2001 等业务错误码）可重放；并发冲突（409）与 5xx 服务端错误允许重试
+     */
+    private static boolean replayable(BusinessException ex) {
+        Integer code = ex.getCode();
+        return code != null && code != 409 && (code < 500 || code >= 600);
+    }
+
+    /**
+     * 重放记录的响应：校验请求指纹，业务错误按原错误码抛出
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Result<T> replay(Stored stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new BusinessException(422, "Idempotency-Key 已用于其他请求");
+        }
+        Result<?> result = stored.result();
+        if (result.getCode() == null || result.getCode() != 200) {
+            throw new BusinessException(result.getCode(), result.getMessage());
+        }
+        return (Result<T>) result;
+    }
+
+    private Stored cached(String cacheKey) {
+        Stored stored = cache.get(cacheKey);
+        if (stored != null && stored.expiresAt() <= System.currentTimeMillis()) {
+            cache.remove(cacheKey, stored);
+            return null;
+        }
+        return stored;
+    }
+
+    /**
+     * 等待同一实例上进行中的执行，执行异常原样抛出
+     */
+    private Stored await(CompletableFuture<Stored> future) {
+        try {
+            return future.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new BusinessException(409, "相同 Idempotency-Key 的请求正在处理中，请稍后重试");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(409, "相同 Idempotency-Key 的请求正在处理中，请稍后重试");
+        }
+    }
+
+    private Result<?> deserialize(String response, Class<?> dataType) {
+        JavaType type = objectMapper.getTypeFactory().constructParametricType(Result.class, dataType);
+        try {
+            // 响应中可能含有只读的派生属性（如 statusName），忽略未知字段
+            return objectMapper.readerFor(type)
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValue(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("幂等记录的响应无法解析", ex);
+        }
+    }
+
+    /**
+     * 请求指纹：接口标识与请求体 JSON 的 SHA-256
+     */
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException ex) {
+            throw new IllegalStateException("无法计算请求指纹", ex);
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private void purgeLoop() {
+        while (running) {
+            try {
+                Thread.sleep(purgeIntervalMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                int deleted;
+                do {
+                    deleted = idempotencyRecordMapper.deleteExpired(LocalDateTime.now(), PURGE_BATCH_SIZE);
+                } while (deleted >= PURGE_BATCH_SIZE && running);
+            } catch (RuntimeException ex) {
+                log.warn("清理过期幂等记录失败: {}", ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 记录的响应
+     *
+     * @param fingerprint 首次请求的指纹
+     * @param result      首次执行的响应
+     * @param expiresAt   过期时间戳（毫秒）
+     */
+    private record Stored(String fingerprint, Result<?> result, long expiresAt) {
+    }
+}
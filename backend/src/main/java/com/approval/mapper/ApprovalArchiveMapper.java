@@ -0,0 +1,85 @@
+package com.approval.mapper;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 审批归档Mapper接口
+ * 把已结束的审批记录及其节点从热表迁入归档表（同一事务内复制后删除）
+ */
+@Mapper
+public interface ApprovalArchiveMapper {
+
+    /**
+     * 锁定一批结束时间早于截止时间的审批（通过、拒绝、撤回）
+     * 走 idx_status_completed 索引；使用 SKIP LOCKED，多实例同时归档时互不等待
+     *
+     * @param cutoff 结束时间上限
+     * @param limit  条数上限
+     * @return 审批ID列表
+     */
+    @Select("SELECT id FROM approval_record WHERE status IN (3, 4, 5) AND completed_at < #{cutoff} " +
+            "LIMIT #{limit} FOR UPDATE SKIP LOCKED")
+    List<String> lockArchivable(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /**
+     * 复制审批记录到归档表
+     *
+     * @param ids 审批ID集合
+     * @return 复制的记录数
+     */
+    @Insert("<script>" +
+            "INSERT INTO approval_record_archive (id, title, type_code, content, initiator_id, priority, deadline, " +
+            "status, current_node_order, workflow_id, workflow_version, created_at, updated_at, completed_at, " +
+            "version, sla_stage, archived_at) " +
+            "SELECT id, title, type_code, content, initiator_id, priority, deadline, " +
+            "status, current_node_order, workflow_id, workflow_version, created_at, updated_at, completed_at, " +
+            "version, sla_stage, NOW() FROM approval_record WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int copyRecords(@Param("ids") Collection<String> ids);
+
+    /**
+     * 复制审批节点到归档表（保留节点ID）
+     *
+     * @param ids 审批ID集合
+     * @return 复制的节点数
+     */
+    @Insert("<script>" +
+            "INSERT INTO approval_node_archive (id, approval_id, node_name, approver_id, node_order, status, " +
+            "comment, approved_at, created_at, version) " +
+            "SELECT id, approval_id, node_name, approver_id, node_order, status, " +
+            "comment, approved_at, created_at, version FROM approval_node WHERE approval_id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int copyNodes(@Param("ids") Collection<String> ids);
+
+    /**
+     * 删除热表中的审批记录（节点、节点组、待办随外键级联删除）
+     *
+     * @param ids 审批ID集合
+     * @return 删除的记录数
+     */
+    @Delete("<script>" +
+            "DELETE FROM approval_record WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deleteRecords(@Param("ids") Collection<String> ids);
+
+    /**
+     * 估算表行数（InnoDB 统计信息，不扫描表）
+     *
+     * @param tableName 表名
+     * @return 估算行数，表不存在时为 null
+     */
+    @Select("SELECT TABLE_ROWS FROM information_schema.TABLES " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = #{tableName}")
+    Long estimateRows(@Param("tableName") String tableName);
+}
@@ -0,0 +1,165 @@
+package com.approval.mapper;
+
+import com.approval.entity.ApprovalDailyStats;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import lombok.Data;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 审批每日汇总Mapper接口
+ */
+@Mapper
+public interface ApprovalDailyStatsMapper extends BaseMapper<ApprovalDailyStats> {
+
+    /**
+     * 累加一行汇总（行不存在时插入）
+     *
+     * @param d 增量（statDate、typeCode、initiatorId 定位行，各计数字段为增量）
+     * @return 影响的行数
+     */
+    @Insert("INSERT INTO approval_daily_stats " +
+            "(stat_date, type_code, initiator_id, submitted, approved, rejected, process_seconds) VALUES " +
+            "(#{d.statDate}, #{d.typeCode}, #{d.initiatorId}, #{d.submitted}, #{d.approved}, #{d.rejected}, " +
+            "#{d.processSeconds}) " +
+            "ON DUPLICATE KEY UPDATE submitted = submitted + VALUES(submitted), " +
+            "approved = approved + VALUES(approved), rejected = rejected + VALUES(rejected), " +
+            "process_seconds = process_seconds + VALUES(process_seconds)")
+    int increment(@Param("d") ApprovalDailyStats delta);
+
+    /**
+     * 按日汇总（全部类型、全部发起人），走主键前缀范围扫描
+     *
+     * @param from 起始日期（含）
+     * @param to   结束日期（含）
+     * @return 每个有数据的日期一行（statDate、submitted、approved、rejected）
+     */
+    @Select("SELECT stat_date, SUM(submitted) AS submitted, SUM(approved) AS approved, SUM(rejected) AS rejected " +
+            "FROM approval_daily_stats WHERE stat_date BETWEEN #{from} AND #{to} " +
+            "GROUP BY stat_date ORDER BY stat_date")
+    List<ApprovalDailyStats> selectDailyTotals(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * 按日汇总某发起人的提交数，走 idx_initiator_date 索引
+     *
+     * @param initiatorId 发起人ID
+     * @param from        起始日期（含）
+     * @return 每个有提交的日期一行（statDate、submitted）
+     */
+    @Select("SELECT stat_date, SUM(submitted) AS submitted FROM approval_daily_stats " +
+            "WHERE initiator_id = #{initiatorId} AND stat_date >= #{from} " +
+            "GROUP BY stat_date HAVING SUM(submitted) > 0 ORDER BY stat_date")
+    List<ApprovalDailyStats> selectInitiatorDaily(@Param("initiatorId") Long initiatorId,
+                                                  @Param("from") LocalDate from);
+
+    /**
+     * 一次扫描汇总效率指标：两个月份区间的提交数，以及全部已通过、已拒绝数与处理时长
+     *
+     * @param monthStart     本月第一天
+     * @param nextMonthStart 下月第一天
+     * @param lastMonthStart 上月第一天
+     * @return 汇总结果
+     */
+    @Select("SELECT " +
+            "COALESCE(SUM(CASE WHEN stat_date >= #{monthStart} AND stat_date < #{nextMonthStart} " +
+            "THEN submitted ELSE 0 END), 0) AS monthly_submitted, " +
+            "COALESCE(SUM(CASE WHEN stat_date >= #{lastMonthStart} AND stat_date < #{monthStart} " +
+            "THEN submitted ELSE 0 END), 0) AS last_month_submitted, " +
+            "COALESCE(SUM(approved), 0) AS approved, COALESCE(SUM(rejected), 0) AS rejected, " +
+            "COALESCE(SUM(process_seconds), 0) AS process_seconds " +
+            "FROM approval_daily_stats")
+    EfficiencyTotals selectEfficiencyTotals(@Param("monthStart") LocalDate monthStart,
+                                            @Param("nextMonthStart") LocalDate nextMonthStart,
+                                            @Param("lastMonthStart") LocalDate lastMonthStart);
+
+    /**
+     * 按审批类型汇总某发起人的结束审批与处理时长，走 idx_initiator_date 索引
+     *
+     * @param initiatorId 发起人ID
+     * @return 每个类型一行（typeCode、approved、rejected、processSeconds）
+     */
+    @Select("SELECT type_code, SUM(approved) AS approved, SUM(rejected) AS rejected, " +
+            "SUM(process_seconds) AS process_seconds FROM approval_daily_stats " +
+            "WHERE initiator_id = #{initiatorId} GROUP BY type_code")
+    List<ApprovalDailyStats> selectInitiatorTypeTotals(@Param("initiatorId") Long initiatorId);
+
+    /**
+     * 最早的审批提交时间（审批记录表与归档表）
+     *
+     * @return 最早提交时间，无审批时为 null
+     */
+    @Select("SELECT MIN(t) FROM (" +
+            "SELECT MIN(created_at) AS t FROM approval_record " +
+            "UNION ALL SELECT MIN(created_at) FROM approval_record_archive) m")
+    LocalDateTime selectFirstSubmittedAt();
+
+    /**
+     * 删除一个日期区间的汇总
+     *
+     * @param from 起始日期（含）
+     * @param to   结束日期（不含）
+     * @return 删除的行数
+     */
+    @Delete("DELETE FROM approval_daily_stats WHERE stat_date >= #{from} AND stat_date < #{to}")
+    int deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * 从审批记录表与归档表重新汇总一个日期区间（按提交时间）
+     *
+     * @param from 起始日期（含）
+     * @param to   结束日期（不含）
+     * @return 写入的行数
+     */
+    @Insert("INSERT INTO approval_daily_stats " +
+            "(stat_date, type_code, initiator_id, submitted, approved, rejected, process_seconds) " +
+            "SELECT DATE(created_at), type_code, initiator_id, COUNT(*), SUM(status = 3), SUM(status = 4), " +
+            "COALESCE(SUM(CASE WHEN status IN (3, 4) AND completed_at IS NOT NULL " +
+            "THEN TIMESTAMPDIFF(SECOND, created_at, completed_at) END), 0) " +
+            "FROM (" +
+            "SELECT created_at, type_code, initiator_id, status, completed_at FROM approval_record " +
+            "WHERE created_at >= #{from} AND created_at < #{to} " +
+            "UNION ALL " +
+            "SELECT created_at, type_code, initiator_id, status, completed_at FROM approval_record_archive " +
+            "WHERE created_at >= #{from} AND created_at < #{to}" +
+            ") r GROUP BY DATE(created_at), type_code, initiator_id")
+    int rebuildRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * 效率指标汇总结果
+     */
+    @Data
+    class EfficiencyTotals {
+
+        /**
+         * 本月提交数
+         */
+        private long monthlySubmitted;
+
+        /**
+         * 上月提交数
+         */
+        private long lastMonthSubmitted;
+
+        /**
+         * 已通过数
+         */
+        private long approved;
+
+        /**
+         * 已拒绝数
+         */
+        private long rejected;
+
+        /**
+         * 已通过、已拒绝审批的处理时长之和（秒）
+         */
+        private long processSeconds;
+    }
+}
@@ -0,0 +1,78 @@
+package com.approval.mapper;
+
+import com.approval.entity.ApprovalNodeGroup;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/**
+ * 审批节点组Mapper接口
+ */
+@Mapper
+public interface ApprovalNodeGroupMapper extends BaseMapper<ApprovalNodeGroup> {
+
+    /**
+     * 多行插入节点组（单条 INSERT 语句）
+     *
+     * @param groups 节点组列表
+     * @return 插入的记录数
+     */
+    @Insert("<script>" +
+            "INSERT INTO approval_node_group (approval_id, node_order, approve_mode, required_count, total_count, " +
+            "approved_count, rejected_count, status) VALUES " +
+            "<foreach collection='groups' item='g' separator=','>" +
+            "(#{g.approvalId}, #{g.nodeOrder}, #{g.approveMode}, #{g.requiredCount}, #{g.totalCount}, 0, 0, 0)" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("groups") List<ApprovalNodeGroup> groups);
+
+    /**
+     * 原子累加一次审批结果并判定节点组是否完成
+     * 通过人数达到 required_count 时组通过；拒绝人数超过 total_count - required_count（已不可能达到通过人数）时组拒绝。
+     * status 先于计数赋值，按更新前的计数判定；仅进行中的组会被更新，行锁使同一组的并发审批串行
+     *
+     * @param approvalId 审批记录ID
+     * @param nodeOrder  节点序号
+     * @param approved   是否通过
+     * @return 更新的记录数（0 表示组已完成）
+     */
+    @Update("<script>" +
+            "UPDATE approval_node_group SET " +
+            "<choose>" +
+            "<when test='approved'>" +
+            "status = IF(approved_count + 1 &gt;= required_count, 1, 0), approved_count = approved_count + 1 " +
+            "</when>" +
+            "<otherwise>" +
+            "status = IF(rejected_count + 1 &gt; total_count - required_count, 2, 0), rejected_count = rejected_count + 1 " +
+            "</otherwise>" +
+            "</choose>" +
+            "WHERE approval_id = #{approvalId} AND node_order = #{nodeOrder} AND status = 0" +
+            "</script>")
+    int countDecision(@Param("approvalId") String approvalId, @Param("nodeOrder") Integer nodeOrder,
+                      @Param("approved") boolean approved);
+
+    /**
+     * 查询节点组状态（在 countDecision 之后调用，读取本事务写入的结果）
+     *
+     * @param approvalId 审批记录ID
+     * @param nodeOrder  节点序号
+     * @return 状态: 0-进行中 1-已通过 2-已拒绝
+     */
+    @Select("SELECT status FROM approval_node_group WHERE approval_id = #{approvalId} AND node_order = #{nodeOrder}")
+    Integer selectStatus(@Param("approvalId") String approvalId, @Param("nodeOrder") Integer nodeOrder);
+
+    /**
+     * 锁定节点组并查询状态（保持与审批相同的加锁顺序：节点组 -> 节点 -> 审批记录）
+     *
+     * @param approvalId 审批记录ID
+     * @param nodeOrder  节点序号
+     * @return 状态，组不存在时返回 null
+     */
+    @Select("SELECT status FROM approval_node_group WHERE approval_id = #{approvalId} AND node_order = #{nodeOrder} FOR UPDATE")
+    Integer selectStatusForUpdate(@Param("approvalId") String approvalId, @Param("nodeOrder") Integer nodeOrder);
+}
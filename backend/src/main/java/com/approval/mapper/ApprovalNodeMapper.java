@@ -2,7 +2,10 @@ package com.approval.mapper;
 
 import com.approval.entity.ApprovalNode;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
 
 import java.util.List;
 
@@ -25,15 +28,68 @@ public interface ApprovalNodeMapper extends BaseMapper<ApprovalNode> {
     }
 
     /**
-     * 获取指定审批的当前节点
+     * 获取指定审批某一序号的全部节点（单节点或并行节点组）
      *
      * @param approvalId 审批记录ID
-     * @param nodeOrder  节点顺序
-     * @return 审批节点
+     * @param nodeOrder  节点序号
+     * @return 节点列表（按ID排列）
      */
-    default ApprovalNode selectCurrentNode(String approvalId, Integer nodeOrder) {
-        return selectOne(new com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper<ApprovalNode>()
+    default List<ApprovalNode> selectStageNodes(String approvalId, Integer nodeOrder) {
+        return selectList(new com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper<ApprovalNode>()
                 .eq(ApprovalNode::getApprovalId, approvalId)
-                .eq(ApprovalNode::getNodeOrder, nodeOrder));
+                .eq(ApprovalNode::getNodeOrder, nodeOrder)
+                .orderByAsc(ApprovalNode::getId));
     }
+
+    /**
+     * 多行插入审批节点（单条 INSERT 语句）
+     * 创建时间使用数据库默认值，不回填自增ID
+     *
+     * @param nodes 节点列表
+     * @return 插入的记录数
+     */
+    @Insert("<script>" +
+            "INSERT INTO approval_node (approval_id, node_name, approver_id, node_order, status) VALUES " +
+            "<foreach collection='nodes' item='n' separator=','>" +
+            "(#{n.approvalId}, #{n.nodeName}, #{n.approverId}, #{n.nodeOrder}, #{n.status})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("nodes") List<ApprovalNode> nodes);
+
+    /**
+     * 比较并更新节点审批结果
+     * 仅当节点仍为待审批且版本号未变化时更新，并递增版本号
+     *
+     * @param node 节点（id、version 为读取时的值，status、comment、approvedAt 为新值）
+     * @return 更新的记录数，0 表示节点已被并发处理
+     */
+    @Update("UPDATE approval_node SET status = #{n.status}, comment = #{n.comment}, " +
+            "approved_at = #{n.approvedAt}, version = version + 1 " +
+            "WHERE id = #{n.id} AND version = #{n.version} AND status = 0")
+    int decideIfPending(@Param("n") ApprovalNode node);
+
+    /**
+     * 比较并转交待审批节点
+     * 仅当版本号未变化且节点仍为待审批时更换审批人，并递增版本号
+     *
+     * @param id         节点ID
+     * @param version    读取时的版本号
+     * @param approverId 新审批人ID
+     * @return 更新的记录数（0 表示节点已被处理或并发修改）
+     */
+    @Update("UPDATE approval_node SET approver_id = #{approverId}, version = version + 1 " +
+            "WHERE id = #{id} AND version = #{version} AND status = 0")
+    int reassignIfPending(@Param("id") Long id, @Param("version") Integer version,
+                          @Param("approverId") Long approverId);
+
+    /**
+     * 节点组完成后跳过组内其余待审批节点，并递增版本号（使并发中的审批比较更新失败）
+     *
+     * @param approvalId 审批记录ID
+     * @param nodeOrder  节点序号
+     * @return 更新的记录数
+     */
+    @Update("UPDATE approval_node SET status = 3, version = version + 1 " +
+            "WHERE approval_id = #{approvalId} AND node_order = #{nodeOrder} AND status = 0")
+    int skipPending(@Param("approvalId") String approvalId, @Param("nodeOrder") Integer nodeOrder);
 }
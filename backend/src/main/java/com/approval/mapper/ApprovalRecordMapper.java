@@ -1,12 +1,101 @@
 package com.approval.mapper;
 
 import com.approval.entity.ApprovalRecord;
+import com.approval.vo.DashboardStatisticsVO;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 
 /**
  * 审批记录Mapper接口
  */
 @Mapper
 public interface ApprovalRecordMapper extends BaseMapper<ApprovalRecord> {
+
+    /**
+     * 比较并更新审批状态
+     * 仅当版本号未变化且当前状态属于 fromStatuses 时更新，并递增版本号
+     *
+     * @param record       审批记录（id、version 为读取时的值，status、currentNodeOrder、completedAt、updatedAt 为新值）
+     * @param fromStatuses 允许流转的原状态
+     * @return 更新的记录数，0 表示记录已被并发修改
+     */
+    @Update("<script>" +
+            "UPDATE approval_record SET status = #{r.status}, current_node_order = #{r.currentNodeOrder}, " +
+            "completed_at = #{r.completedAt}, updated_at = #{r.updatedAt}, version = version + 1 " +
+            "WHERE id = #{r.id} AND version = #{r.version} AND status IN " +
+            "<foreach collection='fromStatuses' item='s' open='(' separator=',' close=')'>#{s}</foreach>" +
+            "</script>")
+    int transitIfMatch(@Param("r") ApprovalRecord record, @Param("fromStatuses") Collection<Integer> fromStatuses);
+
+    /**
+     * 流式读取进行中且设置了截止时间的审批（仅 id、deadline、sla_stage）
+     * 走 idx_status_deadline 索引，逐行回调，不在内存中堆积整个结果集
+     *
+     * @param handler 结果回调
+     */
+    @Select("SELECT id, deadline, sla_stage FROM approval_record " +
+            "WHERE status IN (1, 2) AND deadline IS NOT NULL")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(ApprovalRecord.class)
+    void streamSlaCandidates(ResultHandler<ApprovalRecord> handler);
+
+    /**
+     * 推进 SLA 阶段
+     * 仅当审批仍在进行中且尚未到达该阶段时更新，保证每个阶段只被一个实例触发一次
+     *
+     * @param id    审批记录ID
+     * @param stage 目标阶段
+     * @return 更新的记录数（0 表示已处理或审批已结束）
+     */
+    @Update("UPDATE approval_record SET sla_stage = #{stage} " +
+            "WHERE id = #{id} AND sla_stage < #{stage} AND status IN (1, 2)")
+    int advanceSlaStage(@Param("id") String id, @Param("stage") int stage);
+
+    /**
+     * 以共享锁统计仍在进行中的审批
+     * 节点组尚未完成的审批不更新审批记录，以此阻止与撤回等状态流转交错
+     *
+     * @param ids 审批记录ID集合
+     * @return 进行中的记录数
+     */
+    @Select("<script>" +
+            "SELECT COUNT(*) FROM approval_record WHERE status IN (1, 2) AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            " FOR SHARE" +
+            "</script>")
+    int countActiveForShare(@Param("ids") Collection<String> ids);
+
+    /**
+     * 一次扫描统计发起人的仪表盘数据：进行中的审批（不限时间），以及提交时间在区间内的已通过、已拒绝与总数
+     * 条件展开为 idx_initiator_status_created 上的若干紧凑区间（进行中状态全部，其余状态只取时间区间），
+     * 索引覆盖查询，不回表
+     *
+     * @param initiatorId 发起人ID
+     * @param from        起始时间（含）
+     * @param to          结束时间（不含）
+     * @return 统计结果（pending、approved、rejected、total）
+     */
+    @Select("SELECT " +
+            "COALESCE(SUM(CASE WHEN status IN (1, 2) THEN 1 ELSE 0 END), 0) AS pending, " +
+            "COALESCE(SUM(CASE WHEN status = 3 AND created_at >= #{from} AND created_at < #{to} " +
+            "THEN 1 ELSE 0 END), 0) AS approved, " +
+            "COALESCE(SUM(CASE WHEN status = 4 AND created_at >= #{from} AND created_at < #{to} " +
+            "THEN 1 ELSE 0 END), 0) AS rejected, " +
+            "COALESCE(SUM(CASE WHEN created_at >= #{from} AND created_at < #{to} THEN 1 ELSE 0 END), 0) AS total " +
+            "FROM approval_record " +
+            "WHERE initiator_id = #{initiatorId} AND (status IN (1, 2) " +
+            "OR (status IN (3, 4, 5) AND created_at >= #{from} AND created_at < #{to}))")
+    DashboardStatisticsVO selectInitiatorStatistics(@Param("initiatorId") Long initiatorId,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
 }
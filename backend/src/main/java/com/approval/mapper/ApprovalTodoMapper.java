@@ -0,0 +1,116 @@
+package com.approval.mapper;
+
+import com.approval.entity.ApprovalRecord;
+import com.approval.entity.ApprovalTodo;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 审批待办索引Mapper接口
+ */
+@Mapper
+public interface ApprovalTodoMapper extends BaseMapper<ApprovalTodo> {
+
+    /**
+     * 分页查询审批人的待办审批记录
+     * 走 idx_approver_priority_created 索引，按紧急程度、提交时间倒序
+     *
+     * @param page       分页对象
+     * @param approverId 审批人ID
+     * @return 审批记录分页结果
+     */
+    @Select("SELECT r.* FROM approval_todo t " +
+            "INNER JOIN approval_record r ON r.id = t.approval_id " +
+            "WHERE t.approver_id = #{approverId} " +
+            "ORDER BY t.priority DESC, t.created_at DESC, t.approval_id DESC")
+    IPage<ApprovalRecord> selectTodoPage(Page<ApprovalRecord> page, @Param("approverId") Long approverId);
+
+    /**
+     * 查询审批人最近的待办审批记录（仪表盘待办列表）
+     *
+     * @param approverId 审批人ID
+     * @param limit      条数上限
+     * @return 审批记录，按提交时间倒序
+     */
+    @Select("SELECT r.* FROM approval_todo t " +
+            "INNER JOIN approval_record r ON r.id = t.approval_id " +
+            "WHERE t.approver_id = #{approverId} " +
+            "ORDER BY t.created_at DESC, t.approval_id DESC LIMIT #{limit}")
+    List<ApprovalRecord> selectLatestTodos(@Param("approverId") Long approverId, @Param("limit") int limit);
+
+    /**
+     * 删除审批的全部待办
+     *
+     * @param approvalId 审批记录ID
+     * @return 删除的记录数
+     */
+    @Delete("DELETE FROM approval_todo WHERE approval_id = #{approvalId}")
+    int deleteByApprovalId(@Param("approvalId") String approvalId);
+
+    /**
+     * 删除审批人在某审批上的待办
+     *
+     * @param approvalId 审批记录ID
+     * @param approverId 审批人ID
+     * @return 删除的记录数
+     */
+    @Delete("DELETE FROM approval_todo WHERE approval_id = #{approvalId} AND approver_id = #{approverId}")
+    int deleteByApprovalAndApprover(@Param("approvalId") String approvalId, @Param("approverId") Long approverId);
+
+    /**
+     * 批量删除多个审批的全部待办
+     *
+     * @param approvalIds 审批记录ID集合
+     * @return 删除的记录数
+     */
+    @Delete("<script>" +
+            "DELETE FROM approval_todo WHERE approval_id IN " +
+            "<foreach collection='approvalIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deleteByApprovalIds(@Param("approvalIds") Collection<String> approvalIds);
+
+    /**
+     * 批量删除审批人在多个审批上的待办
+     *
+     * @param approverId  审批人ID
+     * @param approvalIds 审批记录ID集合
+     * @return 删除的记录数
+     */
+    @Delete("<script>" +
+            "DELETE FROM approval_todo WHERE approver_id = #{approverId} AND approval_id IN " +
+            "<foreach collection='approvalIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deleteByApproverAndApprovalIds(@Param("approverId") Long approverId,
+                                       @Param("approvalIds") Collection<String> approvalIds);
+
+    /**
+     * 清空待办索引（重建前调用）
+     *
+     * @return 删除的记录数
+     */
+    @Delete("DELETE FROM approval_todo")
+    int deleteAll();
+
+    /**
+     * 根据审批记录和节点重建待办索引
+     * 进行中（待审批/审批中）记录的当前节点中，状态为待审批的节点即为待办
+     *
+     * @return 写入的记录数
+     */
+    @Insert("INSERT IGNORE INTO approval_todo (approval_id, approver_id, node_order, priority, created_at) " +
+            "SELECT r.id, n.approver_id, n.node_order, IFNULL(r.priority, 0), IFNULL(r.created_at, NOW()) " +
+            "FROM approval_record r " +
+            "INNER JOIN approval_node n ON n.approval_id = r.id " +
+            "AND n.node_order = r.current_node_order AND n.status = 0 " +
+            "WHERE r.status IN (1, 2)")
+    int rebuildAll();
+}
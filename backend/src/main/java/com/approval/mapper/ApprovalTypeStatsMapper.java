@@ -0,0 +1,40 @@
+package com.approval.mapper;
+
+import com.approval.entity.ApprovalTypeStats;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 审批类型计数Mapper接口
+ */
+@Mapper
+public interface ApprovalTypeStatsMapper extends BaseMapper<ApprovalTypeStats> {
+
+    /**
+     * 累加一个计数分片（分片不存在时插入）
+     *
+     * @param d 增量（typeCode、slot 定位分片，各计数字段为增量，可为负数）
+     * @return 影响的行数
+     */
+    @Insert("INSERT INTO approval_type_stats (type_code, slot, total, active, approved, rejected, withdrawn) " +
+            "VALUES (#{d.typeCode}, #{d.slot}, #{d.total}, #{d.active}, #{d.approved}, #{d.rejected}, #{d.withdrawn}) " +
+            "ON DUPLICATE KEY UPDATE total = total + VALUES(total), active = active + VALUES(active), " +
+            "approved = approved + VALUES(approved), rejected = rejected + VALUES(rejected), " +
+            "withdrawn = withdrawn + VALUES(withdrawn)")
+    int increment(@Param("d") ApprovalTypeStats delta);
+
+    /**
+     * 按审批类型汇总各分片
+     *
+     * @return 每个类型一行（slot 为空）
+     */
+    @Select("SELECT type_code, SUM(total) AS total, SUM(active) AS active, SUM(approved) AS approved, " +
+            "SUM(rejected) AS rejected, SUM(withdrawn) AS withdrawn " +
+            "FROM approval_type_stats GROUP BY type_code")
+    List<ApprovalTypeStats> selectTotals();
+}
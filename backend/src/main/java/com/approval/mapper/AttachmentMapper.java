@@ -3,7 +3,10 @@ package com.approval.mapper;
 import com.approval.entity.Attachment;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -23,4 +26,22 @@ public interface AttachmentMapper extends BaseMapper<Attachment> {
                 .eq(Attachment::getApprovalId, approvalId)
                 .orderByDesc(Attachment::getCreatedAt));
     }
+
+    /**
+     * 批量关联附件到审批（单条 UPDATE 语句）
+     * 仅关联由指定用户上传且尚未关联任何审批的附件
+     *
+     * @param approvalId    审批ID
+     * @param uploaderId    上传者ID
+     * @param attachmentIds 附件ID集合
+     * @return 实际关联的附件数
+     */
+    @Update("<script>" +
+            "UPDATE attachment SET approval_id = #{approvalId} " +
+            "WHERE uploader_id = #{uploaderId} AND approval_id IS NULL AND id IN " +
+            "<foreach collection='attachmentIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int linkToApproval(@Param("approvalId") String approvalId,
+                       @Param("uploaderId") Long uploaderId,
+                       @Param("attachmentIds") Collection<String> attachmentIds);
 }
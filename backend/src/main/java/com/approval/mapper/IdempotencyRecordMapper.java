@@ -0,0 +1,109 @@
+package com.approval.mapper;
+
+import com.approval.entity.IdempotencyRecord;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+
+/**
+ * 幂等请求记录Mapper接口
+ */
+@Mapper
+public interface IdempotencyRecordMapper extends BaseMapper<IdempotencyRecord> {
+
+    /**
+     * 认领幂等键（写入处理中的记录），主键已存在时不写入
+     *
+     * @param r 幂等记录（status 为 0）
+     * @return 1 表示认领成功，0 表示已被认领
+     */
+    @Insert("INSERT IGNORE INTO idempotency_record " +
+            "(user_id, idem_key, fingerprint, status, locked_until, expires_at, created_at) VALUES " +
+            "(#{r.userId}, #{r.idemKey}, #{r.fingerprint}, 0, #{r.lockedUntil}, #{r.expiresAt}, #{r.createdAt})")
+    int claim(@Param("r") IdempotencyRecord record);
+
+    /**
+     * 接管已过期或租约已到期（持有实例异常退出，不再续期）的幂等键
+     *
+     * @param r   幂等记录（新的指纹、租约与过期时间）
+     * @param now 当前时间
+     * @return 1 表示接管成功
+     */
+    @Update("UPDATE idempotency_record SET fingerprint = #{r.fingerprint}, status = 0, response = NULL, " +
+            "locked_until = #{r.lockedUntil}, expires_at = #{r.expiresAt}, created_at = #{r.createdAt} " +
+            "WHERE user_id = #{r.userId} AND idem_key = #{r.idemKey} " +
+            "AND (expires_at <= #{now} OR (status = 0 AND locked_until <= #{now}))")
+    int takeOver(@Param("r") IdempotencyRecord record, @Param("now") LocalDateTime now);
+
+    /**
+     * 续期处理中幂等键的租约（执行期间定期调用）
+     *
+     * @param userId      用户ID
+     * @param key         幂等键
+     * @param lockedUntil 新的租约到期时间
+     * @return 更新的记录数，0 表示记录已完成或已被释放
+     */
+    @Update("UPDATE idempotency_record SET locked_until = #{lockedUntil} " +
+            "WHERE user_id = #{userId} AND idem_key = #{key} AND status = 0")
+    int renewLease(@Param("userId") Long userId, @Param("key") String key,
+                   @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * 保留处理中的幂等键直到记录过期（业务已执行但响应未能保存时），过期前不可被接管
+     *
+     * @param userId 用户ID
+     * @param key    幂等键
+     * @return 更新的记录数
+     */
+    @Update("UPDATE idempotency_record SET locked_until = expires_at " +
+            "WHERE user_id = #{userId} AND idem_key = #{key} AND status = 0")
+    int holdUntilExpiry(@Param("userId") Long userId, @Param("key") String key);
+
+    /**
+     * 查询幂等记录
+     *
+     * @param userId 用户ID
+     * @param key    幂等键
+     * @return 幂等记录，不存在时为 null
+     */
+    @Select("SELECT * FROM idempotency_record WHERE user_id = #{userId} AND idem_key = #{key}")
+    IdempotencyRecord find(@Param("userId") Long userId, @Param("key") String key);
+
+    /**
+     * 保存首次执行的响应并标记为已完成
+     *
+     * @param userId   用户ID
+     * @param key      幂等键
+     * @param response 响应（JSON）
+     * @return 更新的记录数
+     */
+    @Update("UPDATE idempotency_record SET status = 1, response = #{response} " +
+            "WHERE user_id = #{userId} AND idem_key = #{key} AND status = 0")
+    int complete(@Param("userId") Long userId, @Param("key") String key, @Param("response") String response);
+
+    /**
+     * 释放处理中的幂等键（执行失败且结果不应被重放时），允许客户端重试
+     *
+     * @param userId 用户ID
+     * @param key    幂等键
+     * @return 删除的记录数
+     */
+    @Delete("DELETE FROM idempotency_record WHERE user_id = #{userId} AND idem_key = #{key} AND status = 0")
+    int release(@Param("userId") Long userId, @Param("key") String key);
+
+    /**
+     * 删除一批过期记录（走 idx_expires_at 索引）
+     *
+     * @param now   当前时间
+     * @param limit 条数上限
+     * @return 删除的记录数
+     */
+    @Delete("DELETE FROM idempotency_record WHERE expires_at <= #{now} LIMIT #{limit}")
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
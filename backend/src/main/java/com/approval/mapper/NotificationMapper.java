@@ -2,10 +2,13 @@ package com.approval.mapper;
 
 import com.approval.entity.Notification;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Update;
 
+import java.util.List;
+
 /**
  * 通知Mapper接口
  */
@@ -20,4 +23,19 @@ public interface NotificationMapper extends BaseMapper<Notification> {
      */
     @Update("UPDATE notification SET is_read = 1, read_at = NOW() WHERE user_id = #{userId} AND is_read = 0")
     int markAllAsRead(@Param("userId") Long userId);
+
+    /**
+     * 多行插入通知，主键已存在的行忽略（单条 INSERT 语句）
+     * 用于发件箱投递：通知ID由事件ID确定性生成，重复投递不会产生重复通知
+     *
+     * @param notifications 通知列表（需指定ID）
+     * @return 实际插入的记录数
+     */
+    @Insert("<script>" +
+            "INSERT IGNORE INTO notification (id, user_id, title, content, type, related_id, is_read, created_at) VALUES " +
+            "<foreach collection='notifications' item='n' separator=','>" +
+            "(#{n.id}, #{n.userId}, #{n.title}, #{n.content}, #{n.type}, #{n.relatedId}, 0, #{n.createdAt})" +
+            "</foreach>" +
+            "</script>")
+    int insertIgnoreBatch(@Param("notifications") List<Notification> notifications);
 }
@@ -0,0 +1,83 @@
+package com.approval.mapper;
+
+import com.approval.entity.NotificationOutbox;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 通知发件箱Mapper接口
+ */
+@Mapper
+public interface NotificationOutboxMapper extends BaseMapper<NotificationOutbox> {
+
+    /**
+     * 多行插入发件箱事件（单条 INSERT 语句）
+     *
+     * @param events 事件列表
+     * @return 插入的记录数
+     */
+    @Insert("<script>" +
+            "INSERT INTO notification_outbox (user_id, title, content, type, related_id, status, attempts, " +
+            "next_attempt_at, created_at) VALUES " +
+            "<foreach collection='events' item='e' separator=','>" +
+            "(#{e.userId}, #{e.title}, #{e.content}, #{e.type}, #{e.relatedId}, 0, 0, #{e.createdAt}, #{e.createdAt})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("events") List<NotificationOutbox> events);
+
+    /**
+     * 锁定一批到期的待投递事件
+     * 使用 SKIP LOCKED，多实例同时投递时互不等待、不会取到同一批事件
+     *
+     * @param now   当前时间
+     * @param limit 条数上限
+     * @return 待投递事件（按事件ID升序）
+     */
+    @Select("SELECT * FROM notification_outbox WHERE status = 0 AND next_attempt_at <= #{now} " +
+            "ORDER BY id LIMIT #{limit} FOR UPDATE SKIP LOCKED")
+    List<NotificationOutbox> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * 删除已投递的事件
+     *
+     * @param ids 事件ID集合
+     * @return 删除的记录数
+     */
+    @Delete("<script>" +
+            "DELETE FROM notification_outbox WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 记录一次投递失败
+     *
+     * @param id            事件ID
+     * @param status        新状态（超过重试次数时为 2）
+     * @param attempts      新的失败次数
+     * @param nextAttemptAt 下次投递时间
+     * @param lastError     失败原因
+     * @return 更新的记录数
+     */
+    @Update("UPDATE notification_outbox SET status = #{status}, attempts = #{attempts}, " +
+            "next_attempt_at = #{nextAttemptAt}, last_error = #{lastError} WHERE id = #{id}")
+    int markFailed(@Param("id") Long id, @Param("status") int status, @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("lastError") String lastError);
+
+    /**
+     * 统计待投递事件数
+     *
+     * @return 待投递事件数
+     */
+    @Select("SELECT COUNT(*) FROM notification_outbox WHERE status = 0")
+    long countPending();
+}
@@ -20,6 +20,7 @@ public interface OperationLogMapper extends BaseMapper<OperationLog> {
 
         /**
          * 分页查询日志列表（关联用户信息）
+         * 按 (created_at, id) 倒序；传入游标时只返回游标之后的记录（键集分页）
          *
          * @param page            分页对象
          * @param module          模块筛选
@@ -30,6 +31,8 @@ public interface OperationLogMapper extends BaseMapper<OperationLog> {
          * @param startTime       开始时间
          * @param endTime         结束时间
          * @param keyword         详情关键词
+         * @param cursorCreatedAt 游标位置的创建时间（游标模式，页码模式传 null）
+         * @param cursorId        游标位置的日志ID（游标模式，页码模式传 null）
          * @return 分页日志列表
          */
         @Select("<script>" +
@@ -49,7 +52,9 @@ public interface OperationLogMapper extends BaseMapper<OperationLog> {
                         "<if test='endTime != null'> AND ol.created_at &lt;= #{endTime} </if>" +
                         "<if test='keyword != null and keyword != \"\"'> AND ol.detail LIKE CONCAT('%', #{keyword}, '%') </if>"
                         +
-                        "ORDER BY ol.created_at DESC" +
+                        "<if test='cursorCreatedAt != null'> AND (ol.created_at &lt; #{cursorCreatedAt} OR (ol.created_at = #{cursorCreatedAt} AND ol.id &lt; #{cursorId})) </if>"
+                        +
+                        "ORDER BY ol.created_at DESC, ol.id DESC" +
                         "</script>")
         IPage<OperationLogVO> selectLogPage(
                         Page<OperationLogVO> page,
@@ -60,7 +65,9 @@ public interface OperationLogMapper extends BaseMapper<OperationLog> {
                         @Param("targetId") String targetId,
                         @Param("startTime") LocalDateTime startTime,
                         @Param("endTime") LocalDateTime endTime,
-                        @Param("keyword") String keyword);
+                        @Param("keyword") String keyword,
+                        @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                        @Param("cursorId") Long cursorId);
 
         /**
          * 统计指定时间范围内各模块的日志数量
@@ -0,0 +1,14 @@
+package com.approval.mapper;
+
+import com.approval.entity.SysRolePermission;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 角色权限关联 Mapper 接口
+ * 继承 MyBatis-Plus 的 BaseMapper，提供基础 CRUD 操作
+ */
+@Mapper
+public interface SysRolePermissionMapper extends BaseMapper<SysRolePermission> {
+
+}
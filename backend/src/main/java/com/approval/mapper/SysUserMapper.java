@@ -3,6 +3,9 @@ package com.approval.mapper;
 import com.approval.entity.SysUser;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 /**
  * 用户 Mapper 接口
@@ -11,4 +14,21 @@ import org.apache.ibatis.annotations.Mapper;
 @Mapper
 public interface SysUserMapper extends BaseMapper<SysUser> {
 
+    /**
+     * 查询用户的安全状态（仅状态与安全版本号）
+     *
+     * @param id 用户ID
+     * @return 仅包含 id、status、securityVersion 的用户对象
+     */
+    @Select("SELECT id, status, security_version FROM sys_user WHERE id = #{id}")
+    SysUser selectSecurityStateById(@Param("id") Long id);
+
+    /**
+     * 递增用户安全版本号，使已签发的 Token 失效
+     *
+     * @param id 用户ID
+     * @return 更新的记录数
+     */
+    @Update("UPDATE sys_user SET security_version = security_version + 1 WHERE id = #{id}")
+    int incrementSecurityVersion(@Param("id") Long id);
 }
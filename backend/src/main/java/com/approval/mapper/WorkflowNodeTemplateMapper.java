@@ -13,14 +13,17 @@ import java.util.List;
 public interface WorkflowNodeTemplateMapper extends BaseMapper<WorkflowNodeTemplate> {
 
     /**
-     * 根据工作流ID查询节点模板列表
+     * 查询工作流某个版本的节点模板列表
      *
      * @param workflowId 工作流模板ID
-     * @return 节点模板列表（按顺序排列）
+     * @param version    工作流版本
+     * @return 节点模板列表（按顺序排列，同序号按ID排列）
      */
-    default List<WorkflowNodeTemplate> selectByWorkflowId(Long workflowId) {
+    default List<WorkflowNodeTemplate> selectByVersion(Long workflowId, Integer version) {
         return selectList(new com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper<WorkflowNodeTemplate>()
                 .eq(WorkflowNodeTemplate::getWorkflowId, workflowId)
-                .orderByAsc(WorkflowNodeTemplate::getNodeOrder));
+                .eq(WorkflowNodeTemplate::getVersion, version)
+                .orderByAsc(WorkflowNodeTemplate::getNodeOrder)
+                .orderByAsc(WorkflowNodeTemplate::getId));
     }
 }
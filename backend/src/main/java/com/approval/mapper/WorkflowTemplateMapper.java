@@ -3,6 +3,8 @@ package com.approval.mapper;
 import com.approval.entity.WorkflowTemplate;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
 
 /**
  * 工作流模板Mapper接口
@@ -22,4 +24,13 @@ public interface WorkflowTemplateMapper extends BaseMapper<WorkflowTemplate> {
                 .eq(WorkflowTemplate::getStatus, 1)
                 .last("LIMIT 1"));
     }
+
+    /**
+     * 递增工作流的生效版本（同时锁定模板行，串行化并发修改）
+     *
+     * @param id 工作流模板ID
+     * @return 影响行数，模板不存在时为 0
+     */
+    @Update("UPDATE workflow_template SET version = version + 1 WHERE id = #{id}")
+    int incrementVersion(@Param("id") Long id);
 }
@@ -0,0 +1,274 @@
+package com.approval.notification;
+
+import com.approval.entity.Notification;
+import com.approval.entity.NotificationOutbox;
+import com.approval.mapper.NotificationMapper;
+import com.approval.mapper.NotificationOutboxMapper;
+import com.approval.util.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 通知投递器
+ * 审批流转在事务内只写入发件箱（notification_outbox），由本投递器在后台线程中
+ * 按批锁定到期事件、合并为一条多行 INSERT 写入通知表并删除事件，审批事务不再承担通知写入。
+ * <p>
+ * 事务提交后立即唤醒投递线程，另按轮询周期兜底（重启、其他实例产生的事件）。
+ * 投递为至少一次：整批失败时逐条重试以隔离问题事件，失败事件按指数退避重新投递，
+ * 超过最大次数后标记为失败；通知ID由事件ID确定性生成并以 INSERT IGNORE 写入，重复投递不会产生重复通知
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationDispatcher {
+
+    private static final int STATUS_PENDING = 0;
+    private static final int STATUS_FAILED = 2;
+
+    private final NotificationOutboxMapper outboxMapper;
+    private final NotificationMapper notificationMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 是否启动后台投递
+     */
+    @Value("${notification.outbox.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 轮询周期（毫秒）
+     */
+    @Value("${notification.outbox.poll-interval:5000}")
+    private long pollIntervalMillis;
+
+    /**
+     * 每批投递的事件数
+     */
+    @Value("${notification.outbox.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 最大投递次数，超过后标记为失败
+     */
+    @Value("${notification.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    /**
+     * 首次重试延迟（毫秒），之后每次翻倍
+     */
+    @Value("${notification.outbox.retry-delay:5000}")
+    private long retryDelayMillis;
+
+    /**
+     * 最大重试延迟（毫秒）
+     */
+    @Value("${notification.outbox.max-retry-delay:600000}")
+    private long maxRetryDelayMillis;
+
+    private final Semaphore signal = new Semaphore(0);
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private volatile boolean running;
+
+    private Thread worker;
+
+    private Timer lagTimer;
+
+    private Counter dispatchedCounter;
+
+    private Counter failureCounter;
+
+    @PostConstruct
+    public void init() {
+        this.lagTimer = Timer.builder("notification.outbox.dispatch.lag")
+                .description("通知事件从产生到写入通知表的延迟")
+                .register(meterRegistry);
+        this.dispatchedCounter = Counter.builder("notification.outbox.dispatched")
+                .description("已投递的通知数")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("notification.outbox.failures")
+                .description("投递失败的通知事件数")
+                .register(meterRegistry);
+        meterRegistry.gauge("notification.outbox.pending", pending);
+    }
+
+    /**
+     * 应用启动完成后启动投递线程
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runLoop, "notification-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * 当前事务提交后唤醒投递线程；不在事务中时立即唤醒
+     */
+    public void wakeUpAfterCommit() {
+        TransactionHooks.afterCommitOrNow(this::wakeUp);
+    }
+
+    /**
+     * 唤醒投递线程（多次唤醒合并为一次）
+     */
+    public void wakeUp() {
+        if (signal.availablePermits() == 0) {
+            signal.release();
+        }
+    }
+
+    private void runLoop() {
+        // 首次等待一个轮询周期，避免与应用启动争抢连接
+        await();
+        while (running) {
+            try {
+                // 满批说明还有积压，不等待直接投递下一批
+                if (dispatchBatch() >= batchSize) {
+                    continue;
+                }
+                pending.set(outboxMapper.countPending());
+            } catch (RuntimeException ex) {
+                log.warn("通知投递失败，{} 毫秒后重试: {}", pollIntervalMillis, ex.getMessage());
+            }
+            await();
+        }
+    }
+
+    private void await() {
+        try {
+            if (signal.tryAcquire(pollIntervalMillis, TimeUnit.MILLISECONDS)) {
+                signal.drainPermits();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * 投递一批到期事件
+     *
+     * @return 本批锁定的事件数
+     */
+    private int dispatchBatch() {
+        List<NotificationOutbox> events = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                events.addAll(outboxMapper.lockDue(LocalDateTime.now(), batchSize));
+                deliver(events);
+            });
+            recordDelivered(events);
+        } catch (RuntimeException ex) {
+            if (events.isEmpty()) {
+                throw ex;
+            }
+            // 整批失败，逐条投递以隔离问题事件
+            log.warn("批量投递 {} 条通知失败，改为逐条投递: {}", events.size(), ex.getMessage());
+            for (NotificationOutbox event : events) {
+                dispatchOne(event);
+            }
+        }
+        return events.size();
+    }
+
+    private void dispatchOne(NotificationOutbox event) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> deliver(List.of(event)));
+            recordDelivered(List.of(event));
+        } catch (RuntimeException ex) {
+            failureCounter.increment();
+            int attempts = (event.getAttempts() != null ? event.getAttempts() : 0) + 1;
+            boolean exhausted = attempts >= maxAttempts;
+            long delay = Math.min(maxRetryDelayMillis, retryDelayMillis << Math.min(attempts - 1, 20));
+            outboxMapper.markFailed(event.getId(), exhausted ? STATUS_FAILED : STATUS_PENDING, attempts,
+                    LocalDateTime.now().plus(Duration.ofMillis(delay)), truncate(ex.getMessage()));
+            if (exhausted) {
+                log.error("通知事件 {} 投递失败 {} 次，不再重试", event.getId(), attempts, ex);
+            }
+        }
+    }
+
+    /**
+     * 写入通知表并删除事件（在调用方事务中执行）
+     */
+    private void deliver(List<NotificationOutbox> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<Notification> notifications = new ArrayList<>(events.size());
+        List<Long> ids = new ArrayList<>(events.size());
+        for (NotificationOutbox event : events) {
+            notifications.add(Notification.builder()
+                    .id(notificationIdOf(event.getId()))
+                    .userId(event.getUserId())
+                    .title(event.getTitle())
+                    .content(event.getContent())
+                    .type(event.getType())
+                    .relatedId(event.getRelatedId())
+                    .createdAt(event.getCreatedAt())
+                    .build());
+            ids.add(event.getId());
+        }
+        notificationMapper.insertIgnoreBatch(notifications);
+        outboxMapper.deleteByIds(ids);
+    }
+
+    private void recordDelivered(List<NotificationOutbox> events) {
+        LocalDateTime now = LocalDateTime.now();
+        for (NotificationOutbox event : events) {
+            if (event.getCreatedAt() != null) {
+                lagTimer.record(Duration.between(event.getCreatedAt(), now));
+            }
+        }
+        dispatchedCounter.increment(events.size());
+    }
+
+    /**
+     * 由事件ID生成确定的通知ID
+     */
+    private static String notificationIdOf(Long eventId) {
+        return UUID.nameUUIDFromBytes(("notification-outbox:" + eventId).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -0,0 +1,46 @@
+package com.approval.security;
+
+import com.approval.annotation.CurrentUser;
+import com.approval.exception.BusinessException;
+import com.approval.util.SecurityUtils;
+import org.springframework.core.MethodParameter;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * 当前用户参数解析器
+ * 为标注 @CurrentUser 的控制器参数注入 JwtAuthenticationFilter 已解析好的登录主体，
+ * 整个请求只在过滤器中做一次身份解析，控制器不再重复解析 Token 或按用户名查库
+ */
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(@NonNull MethodParameter parameter) {
+        if (!parameter.hasParameterAnnotation(CurrentUser.class)) {
+            return false;
+        }
+        Class<?> type = parameter.getParameterType();
+        return Long.class.equals(type) || LoginUser.class.equals(type);
+    }
+
+    @Override
+    public Object resolveArgument(@NonNull MethodParameter parameter,
+            ModelAndViewContainer mavContainer,
+            @NonNull NativeWebRequest webRequest,
+            WebDataBinderFactory binderFactory) {
+        LoginUser loginUser = SecurityUtils.getCurrentUser();
+        if (loginUser == null) {
+            CurrentUser annotation = parameter.getParameterAnnotation(CurrentUser.class);
+            if (annotation != null && annotation.required()) {
+                throw new BusinessException(401, "未登录或登录已过期");
+            }
+            return null;
+        }
+        return LoginUser.class.equals(parameter.getParameterType()) ? loginUser : loginUser.getUserId();
+    }
+}
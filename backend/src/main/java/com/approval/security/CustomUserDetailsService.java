@@ -6,8 +6,6 @@ import com.approval.mapper.SysRoleMapper;
 import com.approval.mapper.SysUserMapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -20,6 +18,7 @@ import java.util.stream.Collectors;
  * 自定义用户详情服务
  * 实现 Spring Security 的 UserDetailsService 接口
  * 从数据库加载用户信息和权限
+ * 仅用于兼容未携带用户ID Claims 的旧版 Token，新版 Token 由 JwtAuthenticationFilter 直接从 Claims 构建主体
  */
 @Service
 @RequiredArgsConstructor
@@ -53,16 +52,15 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         // 查询用户角色
         List<SysRole> roles = roleMapper.selectRolesByUserId(user.getId());
-
-        // 将角色转换为 GrantedAuthority
-        List<SimpleGrantedAuthority> authorities = roles.stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getCode()))
+        List<String> roleCodes = roles.stream()
+                .map(SysRole::getCode)
                 .collect(Collectors.toList());
 
-        // 构建 UserDetails
-        return new User(
+        // 构建登录主体（携带用户ID，后续无需再按用户名查询）
+        return new LoginUser(
+                user.getId(),
                 user.getUsername(),
-                user.getPassword(),
-                authorities);
+                roleCodes,
+                user.getSecurityVersion() != null ? user.getSecurityVersion() : 0);
     }
 }
@@ -1,5 +1,6 @@
 package com.approval.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,6 +20,8 @@ import java.io.IOException;
 /**
  * JWT 认证过滤器
  * 从请求头中提取 JWT Token，校验后将认证信息注入 SecurityContext
+ * 新版 Token 直接由签名校验后的 Claims 构建认证主体，仅通过内存中的安全版本表判断是否吊销；
+ * 旧版 Token（不含用户ID Claims）回退到数据库加载
  */
 @Component
 @RequiredArgsConstructor
@@ -26,6 +29,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService userDetailsService;
+    private final UserSecurityVersionRegistry securityVersionRegistry;
 
     /**
      * Token 请求头名称
@@ -55,19 +59,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = getTokenFromRequest(request);
 
             // 校验 Token 并设置认证信息
-            if (StringUtils.hasText(token) && tokenProvider.validateToken(token)) {
-                String username = tokenProvider.getUsernameFromToken(token);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = StringUtils.hasText(token) ? tokenProvider.getClaimsFromToken(token) : null;
+            if (claims != null) {
+                UserDetails userDetails = resolveUser(claims);
+                if (userDetails != null) {
+                    // 创建认证对象
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,
+                            userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                // 创建认证对象
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                // 将认证信息注入 SecurityContext
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    // 将认证信息注入 SecurityContext
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception ex) {
             // 记录异常但不阻断请求，让 Spring Security 处理未认证的情况
@@ -77,6 +82,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * 根据 Claims 解析认证主体
+     *
+     * @param claims 已校验的 Claims
+     * @return 认证主体，Token 已被吊销时返回 null
+     */
+    private UserDetails resolveUser(Claims claims) {
+        LoginUser loginUser = tokenProvider.toLoginUser(claims);
+        if (loginUser == null) {
+            // 旧版 Token：回退到数据库加载
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+        if (!securityVersionRegistry.isCurrent(loginUser.getUserId(), loginUser.getSecurityVersion())) {
+            logger.debug("Token 已被吊销: userId=" + loginUser.getUserId());
+            return null;
+        }
+        return loginUser;
+    }
+
     /**
      * 从请求头中提取 JWT Token
      *
@@ -2,6 +2,10 @@ package com.approval.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -9,14 +13,33 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 
 /**
  * JWT Token 提供者
  * 负责 JWT Token 的生成、解析和校验
+ * 解析器在启动时构建一次并全局复用；验签通过的 Claims 按 Token 摘要缓存至过期，
+ * 同一会话的后续请求无需重复 HMAC 校验
  */
 @Component
-public class JwtTokenProvider {
+public class JwtTokenProvider implements MeterBinder {
+
+    /**
+     * Claim 名称：用户ID
+     */
+    public static final String CLAIM_USER_ID = "uid";
+
+    /**
+     * Claim 名称：角色编码列表
+     */
+    public static final String CLAIM_ROLES = "roles";
+
+    /**
+     * Claim 名称：用户安全版本号
+     */
+    public static final String CLAIM_SECURITY_VERSION = "ver";
 
     @Value("${jwt.secret}")
     private String jwtSecret;
@@ -24,16 +47,36 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    /**
+     * 已校验 Token 缓存容量上限
+     */
+    @Value("${jwt.claims-cache-size:10000}")
+    private int claimsCacheSize;
+
     private Key key;
 
     /**
-     * 初始化密钥
+     * 共享的 Token 解析器（线程安全、不可变）
+     */
+    private JwtParser parser;
+
+    /**
+     * 已校验 Token 的 Claims 缓存
+     */
+    private VerifiedTokenCache claimsCache;
+
+    /**
+     * 初始化密钥、解析器和缓存
      */
     @PostConstruct
     public void init() {
         // 确保密钥长度足够（至少256位用于HS256）
         byte[] keyBytes = jwtSecret.getBytes();
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.claimsCache = new VerifiedTokenCache(claimsCacheSize);
     }
 
     /**
@@ -44,9 +87,87 @@ public class JwtTokenProvider {
      */
     public String generateToken(Authentication authentication) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        if (userDetails instanceof LoginUser loginUser) {
+            return generateToken(loginUser);
+        }
         return generateToken(userDetails.getUsername());
     }
 
+    /**
+     * 从登录主体生成 JWT Token
+     * Token 中携带用户ID、角色和安全版本号，后续请求可仅凭 Claims 完成认证
+     *
+     * @param loginUser 登录主体
+     * @return JWT Token 字符串
+     */
+    public String generateToken(LoginUser loginUser) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + jwtExpiration);
+
+        return Jwts.builder()
+                .setSubject(loginUser.getUsername())
+                .claim(CLAIM_USER_ID, loginUser.getUserId())
+                .claim(CLAIM_ROLES, loginUser.getRoles())
+                .claim(CLAIM_SECURITY_VERSION, loginUser.getSecurityVersion())
+                .setIssuedAt(now)
+                .setExpiration(expiryDate)
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * 解析并校验 Token，返回 Claims
+     * 先按 Token 摘要查询已校验缓存，未命中时才进行签名校验并写入缓存
+     *
+     * @param token JWT Token
+     * @return Claims，Token 无效时返回 null
+     */
+    public Claims getClaimsFromToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String digest = claimsCache.digest(token);
+        Claims cached = claimsCache.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
+        Date expiration = claims.getExpiration();
+        long expiresAt = expiration != null
+                ? expiration.getTime()
+                : System.currentTimeMillis() + jwtExpiration;
+        claimsCache.put(digest, claims, expiresAt);
+        return claims;
+    }
+
+    /**
+     * 从已校验的 Claims 构建登录主体
+     *
+     * @param claims 已校验的 Claims
+     * @return 登录主体，旧版 Token（未携带用户ID）返回 null
+     */
+    public LoginUser toLoginUser(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        if (userId == null) {
+            return null;
+        }
+        Number version = claims.get(CLAIM_SECURITY_VERSION, Number.class);
+        Object roles = claims.get(CLAIM_ROLES);
+        List<String> roleCodes = roles instanceof Collection<?> collection
+                ? collection.stream().map(String::valueOf).toList()
+                : List.of();
+        return new LoginUser(
+                userId.longValue(),
+                claims.getSubject(),
+                roleCodes,
+                version != null ? version.intValue() : 0);
+    }
+
     /**
      * 从用户名生成 JWT Token
      *
@@ -70,33 +191,10 @@ public class JwtTokenProvider {
      *
      * @param token JWT Token
      * @return 用户名
+     * @throws JwtException Token 无效时抛出
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
-    }
-
-    /**
-     * 从 Token 中获取用户ID
-     * 先获取用户名，然后查询用户ID
-     *
-     * @param token      JWT Token
-     * @param userMapper 用户Mapper（从调用处传入）
-     * @return 用户ID
-     */
-    public Long getUserIdFromToken(String token, com.approval.mapper.SysUserMapper userMapper) {
-        String username = getUsernameFromToken(token);
-        if (userMapper != null) {
-            com.approval.entity.SysUser user = userMapper.selectOne(
-                    new com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper<com.approval.entity.SysUser>()
-                            .eq(com.approval.entity.SysUser::getUsername, username));
-            return user != null ? user.getId() : null;
-        }
-        return null;
+        return requireClaims(token).getSubject();
     }
 
     /**
@@ -104,14 +202,10 @@ public class JwtTokenProvider {
      *
      * @param token JWT Token
      * @return 过期时间
+     * @throws JwtException Token 无效时抛出
      */
     public Date getExpirationFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getExpiration();
+        return requireClaims(token).getExpiration();
     }
 
     /**
@@ -121,27 +215,36 @@ public class JwtTokenProvider {
      * @return 如果有效返回 true，否则返回 false
      */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (SecurityException ex) {
-            // 无效的 JWT 签名
-            return false;
-        } catch (MalformedJwtException ex) {
-            // 无效的 JWT Token
-            return false;
-        } catch (ExpiredJwtException ex) {
-            // JWT Token 已过期
-            return false;
-        } catch (UnsupportedJwtException ex) {
-            // 不支持的 JWT Token
-            return false;
-        } catch (IllegalArgumentException ex) {
-            // JWT claims 字符串为空
-            return false;
+        return getClaimsFromToken(token) != null;
+    }
+
+    /**
+     * 获取已校验的 Claims，Token 无效时抛出异常
+     */
+    private Claims requireClaims(String token) {
+        Claims claims = getClaimsFromToken(token);
+        if (claims == null) {
+            throw new JwtException("无效或已过期的 Token");
         }
+        return claims;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.claims.cache.requests", claimsCache, VerifiedTokenCache::hitCount)
+                .tag("result", "hit")
+                .description("已校验 Token 缓存命中次数")
+                .register(registry);
+        FunctionCounter.builder("jwt.claims.cache.requests", claimsCache, VerifiedTokenCache::missCount)
+                .tag("result", "miss")
+                .description("已校验 Token 缓存未命中次数")
+                .register(registry);
+        FunctionCounter.builder("jwt.claims.cache.evictions", claimsCache, VerifiedTokenCache::evictionCount)
+                .description("已校验 Token 缓存淘汰次数")
+                .register(registry);
+        Gauge.builder("jwt.claims.cache.size", claimsCache, VerifiedTokenCache::size)
+                .description("已校验 Token 缓存条目数")
+                .register(registry);
     }
+
 }
@@ -0,0 +1,193 @@
+package com.approval.security;
+
+import com.approval.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 登录准入控制
+ * 1. 按IP/账号令牌桶限流，超限请求在任何哈希计算之前被拒绝；
+ * 2. BCrypt 校验在独立的有界线程池中执行，并发数与排队等待时间均可配置，
+ *    登录高峰或撞库时不会占满 Tomcat 工作线程拖垮其他接口；
+ * 3. 存量密码哈希的 cost 与当前配置不一致时，在登录成功后透明重算
+ */
+@Component
+@RequiredArgsConstructor
+public class LoginGuard {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final LoginRateLimiter rateLimiter;
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 同时进行的密码校验上限
+     */
+    @Value("${security.login.max-concurrency:4}")
+    private int maxConcurrency;
+
+    /**
+     * 等待队列长度
+     */
+    @Value("${security.login.queue-capacity:64}")
+    private int queueCapacity;
+
+    /**
+     * 最长排队时间（毫秒），超时后不再计算哈希
+     */
+    @Value("${security.login.queue-timeout:2000}")
+    private long queueTimeoutMillis;
+
+    /**
+     * 当前配置的 BCrypt cost
+     */
+    @Value("${security.login.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    private ThreadPoolExecutor executor;
+
+    private Timer hashTimer;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                maxConcurrency, maxConcurrency,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "login-hash-" + threadIndex.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.hashTimer = Timer.builder("auth.login.hash")
+                .description("登录密码哈希校验耗时")
+                .register(meterRegistry);
+        meterRegistry.gauge("auth.login.queue.size", executor, e -> e.getQueue().size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 登录准入检查，超限时直接拒绝
+     *
+     * @param ip       客户端IP
+     * @param username 登录账号
+     */
+    public void checkAdmission(String ip, String username) {
+        if (!rateLimiter.tryAcquireIp(ip)) {
+            reject("ip");
+            throw new BusinessException(429, "登录请求过于频繁，请稍后再试");
+        }
+        if (!rateLimiter.tryAcquireUsername(username)) {
+            reject("username");
+            throw new BusinessException(429, "该账号登录尝试过于频繁，请稍后再试");
+        }
+    }
+
+    /**
+     * 在登录线程池中校验密码
+     *
+     * @param rawPassword     明文密码
+     * @param encodedPassword 存储的密码哈希
+     * @return 校验结果；匹配且需要升级时附带新的哈希
+     */
+    public HashResult verify(String rawPassword, String encodedPassword) {
+        long submittedAt = System.nanoTime();
+        Future<HashResult> future;
+        try {
+            future = executor.submit(() -> {
+                if (System.nanoTime() - submittedAt > TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis)) {
+                    return null;
+                }
+                return hashTimer.recordCallable(() -> doVerify(rawPassword, encodedPassword));
+            });
+        } catch (RejectedExecutionException ex) {
+            reject("overloaded");
+            throw busy();
+        }
+
+        HashResult result;
+        try {
+            // 排队超时由任务自身判断，这里额外留出一次哈希计算的时间
+            result = future.get(queueTimeoutMillis * 2, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            reject("timeout");
+            throw busy();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("密码校验失败", ex.getCause());
+        }
+        if (result == null) {
+            reject("queue_timeout");
+            throw busy();
+        }
+        return result;
+    }
+
+    private HashResult doVerify(String rawPassword, String encodedPassword) {
+        if (!passwordEncoder.matches(rawPassword, encodedPassword)) {
+            return new HashResult(false, null);
+        }
+        if (!needsRehash(encodedPassword)) {
+            return new HashResult(true, null);
+        }
+        return new HashResult(true, passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * 判断存量哈希的 cost 是否与当前配置不同（升高或降低均重算）
+     */
+    private boolean needsRehash(String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != bcryptStrength;
+    }
+
+    private void reject(String reason) {
+        Counter.builder("auth.login.rejected")
+                .description("被准入控制拒绝的登录请求")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private BusinessException busy() {
+        return new BusinessException(503, "登录服务繁忙，请稍后再试");
+    }
+
+    /**
+     * 密码校验结果
+     *
+     * @param matched  是否匹配
+     * @param rehashed 按当前 cost 重算的哈希，无需升级时为 null
+     */
+    public record HashResult(boolean matched, String rehashed) {
+    }
+}
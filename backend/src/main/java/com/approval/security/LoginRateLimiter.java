@@ -0,0 +1,121 @@
+package com.approval.security;
+
+import com.approval.util.BoundedTtlMap;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 登录限流器
+ * 按客户端IP和登录账号分别维护令牌桶，在查询用户、校验密码之前拒绝超限请求。
+ * 每个IP、每个账号独占一个令牌桶，互不影响；令牌桶在空闲到足以补满时过期移除（与新建的桶等价），
+ * 键数达到上限时先清理空闲的桶，仍不足再淘汰一部分（被淘汰的桶重置为满）
+ */
+@Component
+public class LoginRateLimiter {
+
+    /**
+     * 单个IP的突发上限
+     */
+    @Value("${security.login.rate-limit.ip-burst:20}")
+    private int ipBurst;
+
+    /**
+     * 单个IP每分钟补充的令牌数
+     */
+    @Value("${security.login.rate-limit.ip-per-minute:30}")
+    private int ipPerMinute;
+
+    /**
+     * 单个账号的突发上限
+     */
+    @Value("${security.login.rate-limit.username-burst:5}")
+    private int usernameBurst;
+
+    /**
+     * 单个账号每分钟补充的令牌数
+     */
+    @Value("${security.login.rate-limit.username-per-minute:10}")
+    private int usernamePerMinute;
+
+    /**
+     * 每个维度保留的令牌桶数上限
+     */
+    @Value("${security.login.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    private BoundedTtlMap<String, TokenBucket> ipBuckets;
+
+    private BoundedTtlMap<String, TokenBucket> usernameBuckets;
+
+    @PostConstruct
+    public void init() {
+        this.ipBuckets = new BoundedTtlMap<>(maxKeys);
+        this.usernameBuckets = new BoundedTtlMap<>(maxKeys);
+    }
+
+    /**
+     * 尝试为IP获取一次登录许可
+     *
+     * @param ip 客户端IP
+     * @return 未超限返回 true
+     */
+    public boolean tryAcquireIp(String ip) {
+        return acquire(ipBuckets, ip != null ? ip : "", ipBurst, ipPerMinute);
+    }
+
+    /**
+     * 尝试为账号获取一次登录许可
+     *
+     * @param username 登录账号
+     * @return 未超限返回 true
+     */
+    public boolean tryAcquireUsername(String username) {
+        return acquire(usernameBuckets, username != null ? username.toLowerCase() : "", usernameBurst,
+                usernamePerMinute);
+    }
+
+    /**
+     * 从键对应的令牌桶获取一次许可，并把过期时间顺延到桶从空补满所需的时长之后
+     */
+    private boolean acquire(BoundedTtlMap<String, TokenBucket> buckets, String key, int burst, int perMinute) {
+        long idleMillis = Math.max(1, burst) * 60_000L / Math.max(1, perMinute) + 1;
+        long expiresAt = System.currentTimeMillis() + idleMillis;
+        TokenBucket bucket = buckets.putIfAbsent(key, new TokenBucket(burst, perMinute), expiresAt);
+        boolean acquired = bucket.tryAcquire();
+        buckets.put(key, bucket, expiresAt);
+        return acquired;
+    }
+
+    /**
+     * 令牌桶（按需惰性补充令牌）
+     */
+    private static final class TokenBucket {
+
+        private final double capacity;
+
+        private final double refillPerNano;
+
+        private double tokens;
+
+        private long lastRefill;
+
+        TokenBucket(int capacity, int perMinute) {
+            this.capacity = Math.max(1, capacity);
+            this.refillPerNano = Math.max(1, perMinute) / 60_000_000_000d;
+            this.tokens = this.capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.approval.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 当前登录用户主体
+ * 由 JWT Claims（或兼容模式下的数据库查询）构建，保存在 SecurityContext 中，
+ * 请求内任何位置均可直接获取用户ID和角色，无需再次查询数据库
+ */
+@Getter
+public class LoginUser implements UserDetails {
+
+    /**
+     * 用户ID
+     */
+    private final Long userId;
+
+    /**
+     * 用户名
+     */
+    private final String username;
+
+    /**
+     * 角色编码列表（如 SUPER_ADMIN）
+     */
+    private final List<String> roles;
+
+    /**
+     * 签发 Token 时的用户安全版本号
+     */
+    private final int securityVersion;
+
+    /**
+     * Spring Security 权限列表（ROLE_ 前缀）
+     */
+    private final List<GrantedAuthority> authorities;
+
+    public LoginUser(Long userId, String username, List<String> roles, int securityVersion) {
+        this.userId = userId;
+        this.username = username;
+        this.roles = roles != null ? List.copyOf(roles) : List.of();
+        this.securityVersion = securityVersion;
+        this.authorities = this.roles.stream()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    /**
+     * 无状态认证不持有密码
+     */
+    @Override
+    public String getPassword() {
+        return null;
+    }
+}
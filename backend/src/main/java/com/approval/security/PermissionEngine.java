@@ -0,0 +1,246 @@
+package com.approval.security;
+
+import com.approval.entity.SysPermission;
+import com.approval.entity.SysRole;
+import com.approval.entity.SysRolePermission;
+import com.approval.mapper.SysPermissionMapper;
+import com.approval.mapper.SysRoleMapper;
+import com.approval.mapper.SysRolePermissionMapper;
+import com.approval.util.SecurityUtils;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 权限引擎
+ * 一次性加载权限树与角色权限关系，为每个权限编码分配一个比特位，并把每个角色编译为位图；
+ * 用户的权限掩码由 Token 中的角色位图按位或得到并按用户缓存，鉴权只需一次按位与，不查询数据库。
+ * <p>
+ * 在方法安全注解中以 {@code @PreAuthorize("@perm.has('user:edit')")} 的形式使用。
+ * 角色或权限数据变更后按刷新周期（security.permission.refresh-interval）生效；
+ * 需要立即生效时由管理员调用 POST /api/roles/permissions/reload（{@link #reload()}，仅作用于处理该请求的实例）
+ */
+@Slf4j
+@Component("perm")
+@RequiredArgsConstructor
+public class PermissionEngine {
+
+    private final SysPermissionMapper permissionMapper;
+    private final SysRoleMapper roleMapper;
+    private final SysRolePermissionMapper rolePermissionMapper;
+
+    /**
+     * 权限快照刷新周期（毫秒）
+     */
+    @Value("${security.permission.refresh-interval:300000}")
+    private long refreshIntervalMillis;
+
+    /**
+     * 当前生效的权限快照
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * 用户ID -> 权限掩码
+     */
+    private final Map<Long, UserMask> userMasks = new ConcurrentHashMap<>();
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    /**
+     * 判断当前登录用户是否拥有指定权限
+     *
+     * @param code 权限编码
+     * @return 拥有权限返回 true
+     */
+    public boolean has(String code) {
+        return hasPermission(SecurityUtils.getCurrentUser(), code);
+    }
+
+    /**
+     * 判断用户是否拥有指定权限
+     *
+     * @param user 登录用户
+     * @param code 权限编码
+     * @return 拥有权限返回 true
+     */
+    public boolean hasPermission(LoginUser user, String code) {
+        if (user == null || code == null) {
+            return false;
+        }
+        Snapshot current = currentSnapshot();
+        if (current == null) {
+            return false;
+        }
+        Integer bit = current.bitIndex().get(code);
+        if (bit == null) {
+            return false;
+        }
+        long[] mask = maskOf(user, current);
+        int word = bit >>> 6;
+        return word < mask.length && (mask[word] & (1L << bit)) != 0;
+    }
+
+    /**
+     * 重新加载权限树和角色权限关系，并清空用户掩码缓存
+     */
+    public void reload() {
+        reloadLock.lock();
+        try {
+            snapshot = load();
+            userMasks.clear();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * 获取用户掩码：Token 角色或权限快照发生变化时重新计算
+     */
+    private long[] maskOf(LoginUser user, Snapshot current) {
+        UserMask cached = userMasks.get(user.getUserId());
+        if (cached != null && cached.snapshot() == current && cached.roles().equals(user.getRoles())) {
+            return cached.mask();
+        }
+        long[] mask = new long[current.words()];
+        for (String role : user.getRoles()) {
+            long[] roleMask = current.roleMasks().get(role);
+            if (roleMask == null) {
+                continue;
+            }
+            for (int i = 0; i < mask.length; i++) {
+                mask[i] |= roleMask[i];
+            }
+        }
+        if (user.getUserId() != null) {
+            userMasks.put(user.getUserId(), new UserMask(user.getRoles(), current, mask));
+        }
+        return mask;
+    }
+
+    /**
+     * 获取当前快照，首次使用或超过刷新周期时回源（回源失败保留旧快照）
+     */
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null && System.currentTimeMillis() - current.loadedAt() < refreshIntervalMillis) {
+            return current;
+        }
+        // 仅一个线程回源，其余线程继续使用旧快照
+        if (current != null && !reloadLock.tryLock()) {
+            return current;
+        }
+        if (current == null) {
+            reloadLock.lock();
+        }
+        try {
+            if (snapshot != current) {
+                return snapshot;
+            }
+            snapshot = load();
+            userMasks.clear();
+        } catch (RuntimeException ex) {
+            log.error("加载权限数据失败，继续使用旧的权限快照", ex);
+            if (current != null) {
+                // 推迟下一次回源，避免数据库故障时每个请求都重试
+                snapshot = current.touch();
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+        return snapshot;
+    }
+
+    /**
+     * 加载权限树并编译角色位图
+     */
+    private Snapshot load() {
+        List<SysPermission> permissions = permissionMapper.selectList(null);
+        Map<Long, SysPermission> byId = new HashMap<>();
+        for (SysPermission permission : permissions) {
+            byId.put(permission.getId(), permission);
+        }
+
+        // 为启用的权限分配比特位（父级权限被禁用时子权限一并失效）
+        Map<String, Integer> bitIndex = new HashMap<>();
+        Map<Long, Integer> bitById = new HashMap<>();
+        for (SysPermission permission : permissions) {
+            if (isEffective(permission, byId)) {
+                int bit = bitIndex.size();
+                bitIndex.put(permission.getCode(), bit);
+                bitById.put(permission.getId(), bit);
+            }
+        }
+        int words = Math.max(1, (bitIndex.size() + 63) >>> 6);
+
+        Map<Long, String> roleCodes = new HashMap<>();
+        for (SysRole role : roleMapper.selectList(
+                new LambdaQueryWrapper<SysRole>().eq(SysRole::getStatus, 1))) {
+            roleCodes.put(role.getId(), role.getCode());
+        }
+
+        Map<String, long[]> roleMasks = new HashMap<>();
+        for (SysRolePermission link : rolePermissionMapper.selectList(null)) {
+            String roleCode = roleCodes.get(link.getRoleId());
+            Integer bit = bitById.get(link.getPermissionId());
+            if (roleCode == null || bit == null) {
+                continue;
+            }
+            roleMasks.computeIfAbsent(roleCode, k -> new long[words])[bit >>> 6] |= 1L << bit;
+        }
+
+        log.info("权限数据已加载: {} 个权限, {} 个角色", bitIndex.size(), roleMasks.size());
+        return new Snapshot(Map.copyOf(bitIndex), Map.copyOf(roleMasks), words, System.currentTimeMillis());
+    }
+
+    /**
+     * 权限自身及其所有上级均为启用状态时才生效
+     */
+    private boolean isEffective(SysPermission permission, Map<Long, SysPermission> byId) {
+        SysPermission node = permission;
+        int depth = 0;
+        while (node != null && depth++ < byId.size() + 1) {
+            if (node.getStatus() == null || node.getStatus() != 1) {
+                return false;
+            }
+            if (node.getParentId() == null || node.getParentId() == 0) {
+                return true;
+            }
+            node = byId.get(node.getParentId());
+        }
+        return false;
+    }
+
+    /**
+     * 权限快照（不可变）
+     *
+     * @param bitIndex  权限编码 -> 比特位
+     * @param roleMasks 角色编码 -> 权限位图
+     * @param words     位图长度（long 个数）
+     * @param loadedAt  加载时间戳
+     */
+    private record Snapshot(Map<String, Integer> bitIndex, Map<String, long[]> roleMasks, int words, long loadedAt) {
+
+        Snapshot touch() {
+            return new Snapshot(bitIndex, roleMasks, words, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * 用户权限掩码
+     *
+     * @param roles    计算掩码时的角色编码
+     * @param snapshot 计算掩码时的权限快照
+     * @param mask     权限位图
+     */
+    private record UserMask(List<String> roles, Snapshot snapshot, long[] mask) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.approval.security;
+
+import com.approval.entity.SysUser;
+import com.approval.mapper.SysUserMapper;
+import com.approval.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 用户安全版本表
+ * 在内存中缓存每个用户的安全版本号和启用状态，用于在不查询数据库的前提下判断 Token 是否已被吊销。
+ * 角色变更、禁用、修改密码时递增数据库中的版本号并失效本地缓存；
+ * 缓存条目按 TTL 定期回源，保证多实例部署下最终一致
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserSecurityVersionRegistry {
+
+    private final SysUserMapper userMapper;
+
+    /**
+     * 缓存条目刷新周期（毫秒）
+     */
+    @Value("${jwt.security-version-ttl:60000}")
+    private long refreshIntervalMillis;
+
+    /**
+     * 用户ID -> 安全状态
+     */
+    private final Map<Long, SecurityState> states = new ConcurrentHashMap<>();
+
+    /**
+     * 判断 Token 中携带的版本号是否仍然有效
+     *
+     * @param userId  用户ID
+     * @param version Token 中的安全版本号
+     * @return 用户存在、处于启用状态且版本一致时返回 true
+     */
+    public boolean isCurrent(Long userId, int version) {
+        SecurityState state = getState(userId);
+        return state != null && state.enabled() && state.version() == version;
+    }
+
+    /**
+     * 获取用户当前的安全版本号
+     *
+     * @param userId 用户ID
+     * @return 安全版本号，用户不存在时返回 0
+     */
+    public int currentVersion(Long userId) {
+        SecurityState state = getState(userId);
+        return state != null ? state.version() : 0;
+    }
+
+    /**
+     * 递增用户安全版本号，使该用户已签发的所有 Token 失效
+     * 若处于事务中，本地缓存在事务提交后才失效，避免并发请求回源读到旧值
+     *
+     * @param userId 用户ID
+     */
+    public void revoke(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        userMapper.incrementSecurityVersion(userId);
+        TransactionHooks.afterCommitOrNow(() -> states.remove(userId));
+        log.info("用户 {} 的安全版本已递增，已签发的 Token 将失效", userId);
+    }
+
+    /**
+     * 读取缓存中的安全状态，缺失或过期时回源数据库
+     */
+    private SecurityState getState(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        SecurityState state = states.get(userId);
+        if (state != null && now - state.loadedAt() < refreshIntervalMillis) {
+            return state;
+        }
+
+        SysUser user = userMapper.selectSecurityStateById(userId);
+        if (user == null) {
+            states.remove(userId);
+            return null;
+        }
+        SecurityState loaded = new SecurityState(
+                user.getSecurityVersion() != null ? user.getSecurityVersion() : 0,
+                user.getStatus() != null && user.getStatus() == 1,
+                now);
+        states.put(userId, loaded);
+        return loaded;
+    }
+
+    /**
+     * 用户安全状态快照
+     *
+     * @param version  安全版本号
+     * @param enabled  是否启用
+     * @param loadedAt 加载时间戳
+     */
+    private record SecurityState(int version, boolean enabled, long loadedAt) {
+    }
+}
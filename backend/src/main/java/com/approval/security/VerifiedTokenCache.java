@@ -0,0 +1,89 @@
+package com.approval.security;
+
+import com.approval.util.BoundedTtlMap;
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 已校验 Token 的 Claims 缓存
+ * 以 Token 的 SHA-256 摘要为键（不在内存中保存 Token 原文），同一会话的后续请求命中缓存后无需再次验签。
+ * 条目在 Token 过期时刻失效：读取时发现过期立即移除，容量达到上限时先清理过期条目，仍不足再随机淘汰一部分
+ */
+public class VerifiedTokenCache {
+
+    private final BoundedTtlMap<String, Claims> entries;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public VerifiedTokenCache(int maxSize) {
+        this.entries = new BoundedTtlMap<>(maxSize);
+    }
+
+    /**
+     * 计算 Token 摘要
+     *
+     * @param token JWT Token
+     * @return Base64 编码的 SHA-256 摘要
+     */
+    public String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 不可用", ex);
+        }
+    }
+
+    /**
+     * 读取缓存的 Claims
+     *
+     * @param key Token 摘要
+     * @return 未过期的 Claims，未命中或已过期返回 null
+     */
+    public Claims get(String key) {
+        Claims claims = entries.get(key);
+        if (claims == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return claims;
+    }
+
+    /**
+     * 写入已校验的 Claims
+     *
+     * @param key       Token 摘要
+     * @param claims    已校验的 Claims
+     * @param expiresAt 过期时间戳（毫秒）
+     */
+    public void put(String key, Claims claims, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        entries.put(key, claims, expiresAt);
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return entries.evictionCount();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -1,9 +1,13 @@
 package com.approval.service;
 
+import com.approval.common.PageResult;
 import com.approval.dto.ApprovalCreateRequest;
 import com.approval.vo.ApprovalRecordVO;
+import com.approval.vo.BatchApproveResultVO;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 
+import java.util.List;
+
 /**
  * 审批服务接口
  */
@@ -25,9 +29,23 @@ public interface ApprovalService {
      * @param page     页码
      * @param pageSize 每页条数
      * @param status   状态筛选（可选）
+     * @param history  是否查询已归档的历史审批
      * @return 分页结果
      */
-    IPage<ApprovalRecordVO> getMyApprovals(Long userId, int page, int pageSize, Integer status);
+    IPage<ApprovalRecordVO> getMyApprovals(Long userId, int page, int pageSize, Integer status, boolean history);
+
+    /**
+     * 按游标获取我的申请列表（按提交时间倒序，不统计总数）
+     *
+     * @param userId   用户ID
+     * @param cursor   上一页返回的游标，空串表示第一页
+     * @param pageSize 每页条数
+     * @param status   状态筛选（可选）
+     * @param history  是否查询已归档的历史审批
+     * @return 游标分页结果
+     */
+    PageResult<ApprovalRecordVO> getMyApprovalsByCursor(Long userId, String cursor, int pageSize, Integer status,
+                                                        boolean history);
 
     /**
      * 获取审批详情
@@ -39,6 +57,7 @@ public interface ApprovalService {
 
     /**
      * 审批操作（通过/拒绝）
+     * 以版本号比较并更新，并发冲突时自动重试，重试耗尽返回 409
      *
      * @param id       审批ID
      * @param userId   审批人ID
@@ -47,8 +66,21 @@ public interface ApprovalService {
      */
     void approve(String id, Long userId, boolean approved, String comment);
 
+    /**
+     * 批量审批（通过/拒绝）
+     * 在一个事务内完成全部条目，逐条返回结果；校验不通过的条目记为失败，不影响其他条目
+     *
+     * @param ids      审批ID列表
+     * @param userId   审批人ID
+     * @param approved 是否通过
+     * @param comment  审批意见
+     * @return 批量审批结果
+     */
+    BatchApproveResultVO approveBatch(List<String> ids, Long userId, boolean approved, String comment);
+
     /**
      * 撤回审批
+     * 以版本号比较并更新，并发冲突时自动重试，重试耗尽返回 409
      *
      * @param id     审批ID
      * @param userId 发起人ID
@@ -64,4 +96,12 @@ public interface ApprovalService {
      * @return 分页结果
      */
     IPage<ApprovalRecordVO> getTodoApprovals(Long userId, int page, int pageSize);
+
+    /**
+     * 根据审批记录和节点重建待办索引（approval_todo）
+     * 用于首次上线或数据修复，会清空后全量重建
+     *
+     * @return 重建后的待办数量
+     */
+    int rebuildTodoIndex();
 }
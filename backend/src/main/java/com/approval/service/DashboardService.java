@@ -1,6 +1,7 @@
 package com.approval.service;
 
 import com.approval.vo.DashboardStatisticsVO;
+import com.approval.vo.DashboardSummaryVO;
 import com.approval.vo.EfficiencyMetricsVO;
 import com.approval.vo.RecentActivityVO;
 import com.approval.vo.TodoItemVO;
@@ -82,4 +83,23 @@ public interface DashboardService {
      * @return 每日提交列表
      */
     List<DailySubmissionVO> getSubmissionHeatmap(Long userId);
+
+    /**
+     * 获取仪表盘汇总（全部区块并发加载，超时或失败的区块不返回）
+     *
+     * @param userId        用户ID
+     * @param activityLimit 最近活动数量限制
+     * @param trendDays     趋势天数
+     * @param todoLimit     待办数量限制
+     * @return 仪表盘汇总
+     */
+    DashboardSummaryVO getSummary(Long userId, int activityLimit, int trendDays, int todoLimit);
+
+    /**
+     * 根据审批记录表与归档表重建每日汇总（approval_daily_stats）
+     * 用于首次上线或数据修复，按月分段清空后重建
+     *
+     * @return 重建后的汇总行数
+     */
+    int rebuildDailyStats();
 }
@@ -4,6 +4,8 @@ import com.approval.entity.Attachment;
 import com.approval.vo.AttachmentVO;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collection;
+
 /**
  * 文件服务接口
  */
@@ -44,6 +46,16 @@ public interface FileService {
      */
     void updateApprovalId(String attachmentId, String approvalId);
 
+    /**
+     * 批量关联附件到审批
+     * 仅允许关联本人上传且尚未关联其他审批的附件，存在不满足条件的附件时抛出异常
+     *
+     * @param attachmentIds 附件ID列表
+     * @param approvalId    审批ID
+     * @param uploaderId    上传者（审批发起人）ID
+     */
+    void linkAttachments(Collection<String> attachmentIds, String approvalId, Long uploaderId);
+
     /**
      * 删除附件
      *
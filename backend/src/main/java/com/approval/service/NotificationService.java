@@ -1,8 +1,11 @@
 package com.approval.service;
 
+import com.approval.common.PageResult;
 import com.approval.vo.NotificationVO;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 
+import java.util.Collection;
+
 /**
  * 通知服务接口
  */
@@ -10,6 +13,7 @@ public interface NotificationService {
 
     /**
      * 发送审批通知
+     * 在当前事务内写入通知发件箱，事务提交后由后台投递器批量写入通知表
      *
      * @param approvalId 审批ID
      * @param receiverId 接收人ID
@@ -18,6 +22,23 @@ public interface NotificationService {
      */
     void sendApprovalNotification(String approvalId, Long receiverId, String title, String content);
 
+    /**
+     * 批量发送同一条审批通知给多个接收人（写入通知发件箱，异步投递）
+     *
+     * @param approvalId  审批ID
+     * @param receiverIds 接收人ID集合（重复的接收人只发送一次）
+     * @param title       通知标题
+     * @param content     通知内容
+     */
+    void sendApprovalNotifications(String approvalId, Collection<Long> receiverIds, String title, String content);
+
+    /**
+     * 批量发送多条不同内容的审批通知（写入通知发件箱，异步投递）
+     *
+     * @param notices 审批通知
+     */
+    void sendApprovalNotices(Collection<ApprovalNotice> notices);
+
     /**
      * 发送系统通知
      *
@@ -38,6 +59,17 @@ public interface NotificationService {
      */
     IPage<NotificationVO> getNotifications(Long userId, int page, int pageSize, Boolean isRead);
 
+    /**
+     * 按游标获取用户通知列表（按时间倒序，不统计总数）
+     *
+     * @param userId   用户ID
+     * @param cursor   上一页返回的游标，空串表示第一页
+     * @param pageSize 每页条数
+     * @param isRead   是否已读筛选（可选）
+     * @return 游标分页结果
+     */
+    PageResult<NotificationVO> getNotificationsByCursor(Long userId, String cursor, int pageSize, Boolean isRead);
+
     /**
      * 标记单条通知为已读
      *
@@ -60,4 +92,15 @@ public interface NotificationService {
      * @return 未读数量
      */
     int getUnreadCount(Long userId);
+
+    /**
+     * 审批通知
+     *
+     * @param approvalId 审批ID
+     * @param receiverId 接收人ID
+     * @param title      通知标题
+     * @param content    通知内容
+     */
+    record ApprovalNotice(String approvalId, Long receiverId, String title, String content) {
+    }
 }
@@ -0,0 +1,247 @@
+package com.approval.service.impl;
+
+import com.approval.archive.ArchiveReads;
+import com.approval.entity.ApprovalNode;
+import com.approval.entity.ApprovalRecord;
+import com.approval.entity.ApprovalType;
+import com.approval.entity.Attachment;
+import com.approval.entity.SysUser;
+import com.approval.exception.BusinessException;
+import com.approval.mapper.ApprovalNodeMapper;
+import com.approval.mapper.ApprovalRecordMapper;
+import com.approval.mapper.ApprovalTypeMapper;
+import com.approval.mapper.AttachmentMapper;
+import com.approval.mapper.SysUserMapper;
+import com.approval.util.BoundedTtlMap;
+import com.approval.util.QueryCounter;
+import com.approval.util.TransactionHooks;
+import com.approval.vo.ApprovalRecordVO;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 审批详情读取
+ * 1. 审批记录、审批节点、附件只依赖审批ID，三者并发查询；发起人、审批类型依赖记录，在记录返回后并发查询，
+ *    详情页的五次顺序往返变为两轮。查询在有界线程池中执行，线程池饱和时退化为在调用线程中执行；
+ * 2. 已结束（通过、拒绝、撤回）的审批不再变化，组装好的详情 VO 按 TTL 缓存（发起人昵称、类型名称可能修改，TTL 兜底）。
+ *    审批服务的每次状态流转立即失效一次、事务提交后再失效一次，配合代数校验避免并发加载写回旧数据。
+ *    缓存的 VO 为共享对象，调用方只读；
+ * 3. 热表中不存在的审批回查归档表（记录、节点），附件不归档，仍从附件表读取
+ */
+@Component
+@RequiredArgsConstructor
+public class ApprovalDetailReader {
+
+    private static final List<Integer> TERMINAL_STATUSES = List.of(3, 4, 5);
+
+    private final ApprovalRecordMapper approvalRecordMapper;
+    private final ApprovalNodeMapper approvalNodeMapper;
+    private final ApprovalTypeMapper approvalTypeMapper;
+    private final AttachmentMapper attachmentMapper;
+    private final SysUserMapper sysUserMapper;
+    private final ApprovalRecordAssembler approvalRecordAssembler;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 并发查询线程数
+     */
+    @Value("${approval.detail.loader-threads:8}")
+    private int loaderThreads;
+
+    /**
+     * 查询任务队列长度
+     */
+    @Value("${approval.detail.queue-capacity:256}")
+    private int queueCapacity;
+
+    /**
+     * 已结束审批的详情缓存条目上限，0 表示不缓存
+     */
+    @Value("${approval.detail.cache-size:10000}")
+    private int cacheSize;
+
+    /**
+     * 缓存条目有效期（毫秒）
+     */
+    @Value("${approval.detail.cache-ttl:600000}")
+    private long cacheTtlMillis;
+
+    private BoundedTtlMap<String, ApprovalRecordVO> cache;
+
+    /**
+     * 缓存代数，每次失效递增
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private ThreadPoolExecutor executor;
+
+    private Timer loadTimer;
+
+    @PostConstruct
+    public void init() {
+        this.cache = new BoundedTtlMap<>(cacheSize);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                loaderThreads, loaderThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "approval-detail-" + threadIndex.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.loadTimer = Timer.builder("approval.detail.load")
+                .description("审批详情回源加载耗时")
+                .register(meterRegistry);
+        FunctionCounter.builder("approval.detail.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("审批详情缓存命中次数")
+                .register(meterRegistry);
+        FunctionCounter.builder("approval.detail.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("审批详情缓存未命中次数")
+                .register(meterRegistry);
+        FunctionCounter.builder("approval.detail.cache.evictions", cache, BoundedTtlMap::evictionCount)
+                .description("审批详情缓存淘汰次数")
+                .register(meterRegistry);
+        Gauge.builder("approval.detail.cache.size", cache, BoundedTtlMap::size)
+                .description("审批详情缓存条目数")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 读取审批详情（含审批节点和附件）
+     *
+     * @param id 审批ID
+     * @return 审批详情
+     * @throws BusinessException 审批记录不存在
+     */
+    public ApprovalRecordVO get(String id) {
+        ApprovalRecordVO cached = cache.get(id);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        long loadGeneration = generation.get();
+        long start = System.nanoTime();
+        ApprovalRecordVO vo = load(id);
+        loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (cacheSize > 0 && TERMINAL_STATUSES.contains(vo.getStatus())) {
+            cache.put(id, vo, System.currentTimeMillis() + cacheTtlMillis);
+            // 加载期间发生了失效，撤销本次写入
+            if (generation.get() != loadGeneration) {
+                cache.remove(id, vo);
+            }
+        }
+        return vo;
+    }
+
+    /**
+     * 失效审批详情：立即失效一次；若处于事务中，提交后再失效一次，覆盖事务期间被并发加载的旧数据
+     *
+     * @param approvalIds 审批ID集合
+     */
+    public void invalidate(Collection<String> approvalIds) {
+        if (approvalIds.isEmpty()) {
+            return;
+        }
+        List<String> ids = List.copyOf(approvalIds);
+        Runnable action = () -> {
+            generation.incrementAndGet();
+            cache.removeAll(ids);
+        };
+        TransactionHooks.runNowAndAfterCommit(action);
+    }
+
+    /**
+     * 两轮并发查询并组装详情（并发查询计入当前请求的 SQL 计数）
+     */
+    private ApprovalRecordVO load(String id) {
+        CompletableFuture<List<ApprovalNode>> nodes = CompletableFuture.supplyAsync(
+                QueryCounter.wrap(() -> approvalNodeMapper.selectByApprovalId(id)), executor);
+        CompletableFuture<List<Attachment>> attachments = CompletableFuture.supplyAsync(
+                QueryCounter.wrap(() -> attachmentMapper.selectByApprovalId(id)), executor);
+
+        ApprovalRecord record = approvalRecordMapper.selectById(id);
+        if (record == null) {
+            nodes.cancel(false);
+            return loadArchived(id, attachments);
+        }
+
+        CompletableFuture<ApprovalType> type = CompletableFuture.supplyAsync(
+                QueryCounter.wrap(() -> approvalTypeMapper.selectOne(new LambdaQueryWrapper<ApprovalType>()
+                        .eq(ApprovalType::getCode, record.getTypeCode()))), executor);
+        SysUser initiator = sysUserMapper.selectById(record.getInitiatorId());
+
+        ApprovalRecordVO vo = approvalRecordAssembler.toVO(record, initiator, await(type));
+        vo.setNodes(await(nodes));
+        vo.setAttachments(await(attachments));
+        return vo;
+    }
+
+    /**
+     * 从归档表加载已归档的审批（热表未命中，很少发生，在调用线程中顺序查询）
+     */
+    private ApprovalRecordVO loadArchived(String id, CompletableFuture<List<Attachment>> attachments) {
+        ApprovalRecord record = ArchiveReads.call(() -> approvalRecordMapper.selectById(id));
+        if (record == null) {
+            attachments.cancel(false);
+            throw new BusinessException(404, "审批记录不存在");
+        }
+        List<ApprovalNode> nodes = ArchiveReads.call(() -> approvalNodeMapper.selectByApprovalId(id));
+        ApprovalType type = approvalTypeMapper.selectOne(new LambdaQueryWrapper<ApprovalType>()
+                .eq(ApprovalType::getCode, record.getTypeCode()));
+        SysUser initiator = sysUserMapper.selectById(record.getInitiatorId());
+
+        ApprovalRecordVO vo = approvalRecordAssembler.toVO(record, initiator, type);
+        vo.setNodes(nodes);
+        vo.setAttachments(await(attachments));
+        return vo;
+    }
+
+    /**
+     * 等待并发查询结果，查询异常原样抛出
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
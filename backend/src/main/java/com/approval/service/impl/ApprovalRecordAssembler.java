@@ -0,0 +1,138 @@
+package com.approval.service.impl;
+
+import com.approval.entity.ApprovalRecord;
+import com.approval.entity.ApprovalType;
+import com.approval.entity.SysUser;
+import com.approval.mapper.ApprovalTypeMapper;
+import com.approval.mapper.SysUserMapper;
+import com.approval.vo.ApprovalRecordVO;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 审批记录VO组装器
+ * 列表接口先收集一页记录中去重后的发起人ID和类型编码，各用一次 IN 查询加载，再组装VO，
+ * 无论页大小如何，关联查询固定为两条，避免逐行查询用户和类型
+ */
+@Component
+@RequiredArgsConstructor
+public class ApprovalRecordAssembler {
+
+    private final SysUserMapper sysUserMapper;
+    private final ApprovalTypeMapper approvalTypeMapper;
+
+    /**
+     * 分页转换为VO
+     *
+     * @param recordPage 审批记录分页结果
+     * @return VO分页结果
+     */
+    public IPage<ApprovalRecordVO> toVOPage(IPage<ApprovalRecord> recordPage) {
+        Lookup lookup = lookup(recordPage.getRecords());
+        return recordPage.convert(record -> toVO(record, lookup.initiatorOf(record), lookup.typeOf(record)));
+    }
+
+    /**
+     * 列表转换为VO
+     *
+     * @param records 审批记录
+     * @return VO列表（顺序与入参一致）
+     */
+    public List<ApprovalRecordVO> toVOs(List<ApprovalRecord> records) {
+        Lookup lookup = lookup(records);
+        return records.stream()
+                .map(record -> toVO(record, lookup.initiatorOf(record), lookup.typeOf(record)))
+                .toList();
+    }
+
+    /**
+     * 批量加载一组审批记录关联的发起人和审批类型
+     *
+     * @param records 审批记录
+     * @return 关联数据
+     */
+    public Lookup lookup(Collection<ApprovalRecord> records) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        Set<String> typeCodes = new LinkedHashSet<>();
+        for (ApprovalRecord record : records) {
+            if (record.getInitiatorId() != null) {
+                userIds.add(record.getInitiatorId());
+            }
+            if (record.getTypeCode() != null) {
+                typeCodes.add(record.getTypeCode());
+            }
+        }
+
+        Map<Long, SysUser> users = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            for (SysUser user : sysUserMapper.selectList(new LambdaQueryWrapper<SysUser>()
+                    .select(SysUser::getId, SysUser::getUsername, SysUser::getNickname)
+                    .in(SysUser::getId, userIds))) {
+                users.put(user.getId(), user);
+            }
+        }
+
+        Map<String, ApprovalType> types = new HashMap<>();
+        if (!typeCodes.isEmpty()) {
+            for (ApprovalType type : approvalTypeMapper.selectList(new LambdaQueryWrapper<ApprovalType>()
+                    .in(ApprovalType::getCode, typeCodes))) {
+                types.put(type.getCode(), type);
+            }
+        }
+        return new Lookup(users, types);
+    }
+
+    /**
+     * 构建审批记录VO
+     *
+     * @param record    审批记录
+     * @param initiator 发起人（可为 null）
+     * @param type      审批类型（可为 null）
+     * @return 审批记录VO
+     */
+    public ApprovalRecordVO toVO(ApprovalRecord record, SysUser initiator, ApprovalType type) {
+        return ApprovalRecordVO.builder()
+                .id(record.getId())
+                .title(record.getTitle())
+                .typeCode(record.getTypeCode())
+                .typeName(type != null ? type.getName() : record.getTypeCode())
+                .typeIcon(type != null ? type.getIcon() : null)
+                .typeColor(type != null ? type.getColor() : null)
+                .content(record.getContent())
+                .initiatorId(record.getInitiatorId())
+                .initiatorName(initiator != null ? initiator.getNickname() : null)
+                .priority(record.getPriority())
+                .status(record.getStatus())
+                .currentNodeOrder(record.getCurrentNodeOrder())
+                .createdAt(record.getCreatedAt())
+                .updatedAt(record.getUpdatedAt())
+                .completedAt(record.getCompletedAt())
+                .build();
+    }
+
+    /**
+     * 一组审批记录的关联数据
+     *
+     * @param users 用户ID -> 用户（仅含ID、账号、昵称）
+     * @param types 类型编码 -> 审批类型
+     */
+    public record Lookup(Map<Long, SysUser> users, Map<String, ApprovalType> types) {
+
+        public SysUser initiatorOf(ApprovalRecord record) {
+            return users.get(record.getInitiatorId());
+        }
+
+        public ApprovalType typeOf(ApprovalRecord record) {
+            return types.get(record.getTypeCode());
+        }
+    }
+}
@@ -1,24 +1,46 @@
 package com.approval.service.impl;
 
+import com.approval.archive.ArchiveReads;
+import com.approval.common.PageCursor;
+import com.approval.common.PageResult;
 import com.approval.dto.ApprovalCreateRequest;
 import com.approval.entity.*;
 import com.approval.exception.BusinessException;
 import com.approval.mapper.*;
-import com.approval.mapper.SysUserPositionMapper;
 import com.approval.service.ApprovalService;
 import com.approval.service.FileService;
 import com.approval.service.NotificationService;
+import com.approval.sla.SlaScheduler;
+import com.approval.stats.ApprovalDailyRollup;
+import com.approval.stats.ApprovalTypeCounters;
+import com.approval.util.BatchWriter;
 import com.approval.vo.ApprovalRecordVO;
+import com.approval.vo.BatchApproveResultVO;
+import com.approval.workflow.NodeDefinition;
+import com.approval.workflow.WorkflowDefinition;
+import com.approval.workflow.WorkflowDefinitionRegistry;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
 
 /**
  * 审批服务实现类
@@ -30,15 +52,26 @@ public class ApprovalServiceImpl implements ApprovalService {
 
     private final ApprovalRecordMapper approvalRecordMapper;
     private final ApprovalNodeMapper approvalNodeMapper;
-    private final ApprovalTypeMapper approvalTypeMapper;
-    private final WorkflowTemplateMapper workflowTemplateMapper;
-    private final WorkflowNodeTemplateMapper workflowNodeTemplateMapper;
+    private final ApprovalNodeGroupMapper approvalNodeGroupMapper;
+    private final ApprovalTodoMapper approvalTodoMapper;
     private final SysUserMapper sysUserMapper;
-    private final SysDepartmentMapper sysDepartmentMapper;
     private final FileService fileService;
-    private final AttachmentMapper attachmentMapper;
     private final NotificationService notificationService;
-    private final SysUserPositionMapper sysUserPositionMapper;
+    private final WorkflowDefinitionRegistry workflowDefinitionRegistry;
+    private final ApprovalRecordAssembler approvalRecordAssembler;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchWriter batchWriter;
+    private final SlaScheduler slaScheduler;
+    private final ApprovalDetailReader approvalDetailReader;
+    private final ApprovalTypeCounters approvalTypeCounters;
+    private final ApprovalDailyRollup approvalDailyRollup;
+    private final DashboardCache dashboardCache;
+
+    /**
+     * 审批、撤回遇到并发冲突时的最大尝试次数
+     */
+    @Value("${approval.optimistic-lock.max-attempts:3}")
+    private int maxAttempts;
 
     /**
      * 审批状态常量
@@ -49,6 +82,11 @@ public class ApprovalServiceImpl implements ApprovalService {
     private static final int STATUS_REJECTED = 4;
     private static final int STATUS_WITHDRAWN = 5;
 
+    /**
+     * 允许审批、撤回的状态
+     */
+    private static final List<Integer> ACTIVE_STATUSES = List.of(STATUS_PENDING, STATUS_IN_PROGRESS);
+
     /**
      * 节点状态常量
      */
@@ -56,28 +94,46 @@ public class ApprovalServiceImpl implements ApprovalService {
     private static final int NODE_STATUS_APPROVED = 1;
     private static final int NODE_STATUS_REJECTED = 2;
 
+    /**
+     * 节点组状态常量（单节点按本次审批结果视为已通过/已拒绝）
+     */
+    private static final int GROUP_STATUS_PENDING = 0;
+    private static final int GROUP_STATUS_APPROVED = 1;
+    private static final int GROUP_STATUS_REJECTED = 2;
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public ApprovalRecordVO createApproval(ApprovalCreateRequest request, Long userId) {
-        // 验证审批类型
-        ApprovalType approvalType = approvalTypeMapper.selectOne(
-                new LambdaQueryWrapper<ApprovalType>()
-                        .eq(ApprovalType::getCode, request.getTypeCode())
-                        .eq(ApprovalType::getStatus, 1));
-        if (approvalType == null) {
-            throw new BusinessException(404, "审批类型不存在");
-        }
+        // 获取编译后的工作流定义（审批类型、模板、节点和审批人策略均来自内存注册表）
+        WorkflowDefinition definition = workflowDefinitionRegistry.get(request.getTypeCode());
+        SysUser initiator = sysUserMapper.selectById(userId);
 
-        // 查找对应的工作流模板
-        WorkflowTemplate workflow = workflowTemplateMapper.selectByTypeCode(request.getTypeCode());
-        if (workflow == null) {
-            throw new BusinessException(404, "未找到对应的工作流模板");
-        }
+        // 按审批内容求值节点条件（仅在存在条件节点时解析内容），不满足条件的节点不生成；
+        // 剩余节点按原顺序重新连续编号。同一序号的多个节点组成并行节点组，组内重复的审批人只保留一个
+        Map<String, Object> form = definition.conditional()
+                ? workflowDefinitionRegistry.parseForm(request.getContent())
+                : Map.of();
+        Map<Integer, List<ApprovalNode>> routed = new TreeMap<>();
+        Map<Integer, NodeDefinition> routedRules = new HashMap<>();
+        for (NodeDefinition nodeDefinition : definition.nodes()) {
+            if (!nodeDefinition.matches(form)) {
+                continue;
+            }
+            Long approverId = nodeDefinition.approverStrategy().resolve(initiator);
+            List<ApprovalNode> stage = routed.computeIfAbsent(nodeDefinition.nodeOrder(), k -> new ArrayList<>());
+            routedRules.putIfAbsent(nodeDefinition.nodeOrder(), nodeDefinition);
+            if (findApproverNode(stage, approverId) != null) {
+                continue;
+            }
 
-        // 获取工作流节点模板
-        List<WorkflowNodeTemplate> nodeTemplates = workflowNodeTemplateMapper.selectByWorkflowId(workflow.getId());
-        if (nodeTemplates.isEmpty()) {
-            throw new BusinessException(400, "工作流模板未配置审批节点");
+            stage.add(ApprovalNode.builder()
+                    .nodeName(nodeDefinition.nodeName())
+                    .approverId(approverId)
+                    .status(NODE_STATUS_PENDING)
+                    .build());
+        }
+        if (routed.isEmpty()) {
+            throw new BusinessException(400, "审批内容不满足任何审批节点的条件");
         }
 
         // 创建审批记录
@@ -90,53 +146,70 @@ public class ApprovalServiceImpl implements ApprovalService {
                 .deadline(request.getDeadline())
                 .status(STATUS_PENDING)
                 .currentNodeOrder(1)
-                .workflowId(workflow.getId())
+                .workflowId(definition.workflowId())
+                .workflowVersion(definition.version())
                 .build();
 
         approvalRecordMapper.insert(record);
+        approvalTypeCounters.submitted(record.getTypeCode());
+        approvalDailyRollup.submitted(record);
+        dashboardCache.invalidate(List.of(userId));
         log.info("审批记录已创建: id={}, title={}", record.getId(), record.getTitle());
 
-        // 初始化审批节点
-        SysUser initiator = sysUserMapper.selectById(userId);
-        Long firstApproverId = null;
-        for (WorkflowNodeTemplate nodeTemplate : nodeTemplates) {
-            Long approverId = resolveApproverId(nodeTemplate, initiator);
-            if (nodeTemplate.getNodeOrder() == 1) {
-                firstApproverId = approverId;
+        // 初始化审批节点（单条多行 INSERT）及多节点组的计数行
+        List<ApprovalNode> nodes = new ArrayList<>(definition.nodes().size());
+        List<ApprovalNodeGroup> groups = new ArrayList<>();
+        List<ApprovalNode> firstStage = null;
+        int nodeOrder = 0;
+        for (Map.Entry<Integer, List<ApprovalNode>> stage : routed.entrySet()) {
+            nodeOrder++;
+            for (ApprovalNode node : stage.getValue()) {
+                node.setApprovalId(record.getId());
+                node.setNodeOrder(nodeOrder);
+            }
+            nodes.addAll(stage.getValue());
+            if (firstStage == null) {
+                firstStage = stage.getValue();
             }
+            if (stage.getValue().size() > 1) {
+                NodeDefinition rule = routedRules.get(stage.getKey());
+                int total = stage.getValue().size();
+                groups.add(ApprovalNodeGroup.builder()
+                        .approvalId(record.getId())
+                        .nodeOrder(nodeOrder)
+                        .approveMode(rule.approveMode().name())
+                        .requiredCount(rule.approveMode().requiredOf(total, rule.requiredCount()))
+                        .totalCount(total)
+                        .build());
+            }
+        }
+        approvalNodeMapper.insertBatch(nodes);
+        if (!groups.isEmpty()) {
+            approvalNodeGroupMapper.insertBatch(groups);
+        }
 
-            ApprovalNode node = ApprovalNode.builder()
-                    .approvalId(record.getId())
-                    .nodeName(nodeTemplate.getNodeName())
-                    .approverId(approverId)
-                    .nodeOrder(nodeTemplate.getNodeOrder())
-                    .status(NODE_STATUS_PENDING)
-                    .build();
+        // 写入第一个节点（组）的待办索引
+        addTodos(record, firstStage);
 
-            approvalNodeMapper.insert(node);
-        }
+        // 提交后把截止时间放入 SLA 时间轮
+        slaScheduler.track(record.getId(), record.getDeadline());
 
-        // 关联附件
-        if (request.getAttachmentIds() != null && !request.getAttachmentIds().isEmpty()) {
-            for (String attachmentId : request.getAttachmentIds()) {
-                fileService.updateApprovalId(attachmentId, record.getId());
-            }
-        }
+        // 关联附件（单条 UPDATE，仅允许关联发起人本人上传且未被关联的附件）
+        fileService.linkAttachments(request.getAttachmentIds(), record.getId(), userId);
 
-        // 发送通知给第一个审批人
-        if (firstApproverId != null) {
-            notificationService.sendApprovalNotification(
-                    record.getId(),
-                    firstApproverId,
-                    "您有一条新的审批待处理",
-                    initiator.getNickname() + " 提交了" + approvalType.getName() + "，等待您审批");
-        }
+        // 发送通知给第一个节点（组）的审批人
+        notificationService.sendApprovalNotifications(
+                record.getId(),
+                approverIdsOf(firstStage),
+                "您有一条新的审批待处理",
+                initiator.getNickname() + " 提交了" + definition.typeName() + "，等待您审批");
 
-        return buildApprovalRecordVO(record, initiator, approvalType);
+        return approvalRecordAssembler.toVO(record, initiator, definition.toApprovalType());
     }
 
     @Override
-    public IPage<ApprovalRecordVO> getMyApprovals(Long userId, int page, int pageSize, Integer status) {
+    public IPage<ApprovalRecordVO> getMyApprovals(Long userId, int page, int pageSize, Integer status,
+                                                  boolean history) {
         Page<ApprovalRecord> pageParam = new Page<>(page, pageSize);
 
         LambdaQueryWrapper<ApprovalRecord> wrapper = new LambdaQueryWrapper<ApprovalRecord>()
@@ -147,45 +220,56 @@ public class ApprovalServiceImpl implements ApprovalService {
             wrapper.eq(ApprovalRecord::getStatus, status);
         }
 
-        IPage<ApprovalRecord> recordPage = approvalRecordMapper.selectPage(pageParam, wrapper);
+        IPage<ApprovalRecord> recordPage = history
+                ? ArchiveReads.call(() -> approvalRecordMapper.selectPage(pageParam, wrapper))
+                : approvalRecordMapper.selectPage(pageParam, wrapper);
 
-        return recordPage.convert(record -> {
-            SysUser initiator = sysUserMapper.selectById(record.getInitiatorId());
-            ApprovalType type = approvalTypeMapper.selectOne(
-                    new LambdaQueryWrapper<ApprovalType>()
-                            .eq(ApprovalType::getCode, record.getTypeCode()));
-            return buildApprovalRecordVO(record, initiator, type);
-        });
+        return approvalRecordAssembler.toVOPage(recordPage);
     }
 
     @Override
-    public ApprovalRecordVO getApprovalDetail(String id) {
-        ApprovalRecord record = approvalRecordMapper.selectById(id);
-        if (record == null) {
-            throw new BusinessException(404, "审批记录不存在");
-        }
-
-        SysUser initiator = sysUserMapper.selectById(record.getInitiatorId());
-        ApprovalType type = approvalTypeMapper.selectOne(
-                new LambdaQueryWrapper<ApprovalType>()
-                        .eq(ApprovalType::getCode, record.getTypeCode()));
+    public PageResult<ApprovalRecordVO> getMyApprovalsByCursor(Long userId, String cursor, int pageSize,
+                                                               Integer status, boolean history) {
+        PageCursor position = PageCursor.decode(cursor);
+        int size = PageCursor.clampPageSize(pageSize);
 
-        ApprovalRecordVO vo = buildApprovalRecordVO(record, initiator, type);
-
-        // 加载审批节点
-        List<ApprovalNode> nodes = approvalNodeMapper.selectByApprovalId(id);
-        vo.setNodes(nodes);
+        LambdaQueryWrapper<ApprovalRecord> wrapper = new LambdaQueryWrapper<ApprovalRecord>()
+                .eq(ApprovalRecord::getInitiatorId, userId)
+                .eq(status != null, ApprovalRecord::getStatus, status)
+                .orderByDesc(ApprovalRecord::getCreatedAt)
+                .orderByDesc(ApprovalRecord::getId);
+        if (position != null) {
+            wrapper.and(w -> w.lt(ApprovalRecord::getCreatedAt, position.createdAt())
+                    .or(o -> o.eq(ApprovalRecord::getCreatedAt, position.createdAt())
+                            .lt(ApprovalRecord::getId, position.id())));
+        }
 
-        // 加载附件
-        List<Attachment> attachments = attachmentMapper.selectByApprovalId(id);
-        vo.setAttachments(attachments);
+        // 多取一条判断是否还有下一页，不执行 COUNT
+        Page<ApprovalRecord> pageParam = new Page<>(1, size + 1, false);
+        List<ApprovalRecord> records = history
+                ? ArchiveReads.call(() -> approvalRecordMapper.selectPage(pageParam, wrapper)).getRecords()
+                : approvalRecordMapper.selectPage(pageParam, wrapper).getRecords();
+        return PageResult.ofCursor(approvalRecordAssembler.toVOs(records), size,
+                ApprovalRecordVO::getCreatedAt, ApprovalRecordVO::getId);
+    }
 
-        return vo;
+    @Override
+    public ApprovalRecordVO getApprovalDetail(String id) {
+        // 并发加载记录、发起人、类型、节点和附件，已结束的审批走缓存
+        return approvalDetailReader.get(id);
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public void approve(String id, Long userId, boolean approved, String comment) {
+        executeWithRetry(() -> doApprove(id, userId, approved, comment));
+    }
+
+    /**
+     * 审批（单次尝试，在事务内执行）
+     * 节点与记录均以版本号比较并更新，任一更新失败说明已被并发修改，抛出冲突由外层重试；
+     * 并行节点组先原子累加组计数（组行锁使同一组的判定串行），组完成后才流转审批记录
+     */
+    private void doApprove(String id, Long userId, boolean approved, String comment) {
         ApprovalRecord record = approvalRecordMapper.selectById(id);
         if (record == null) {
             throw new BusinessException(2001, "审批记录不存在");
@@ -196,46 +280,66 @@ public class ApprovalServiceImpl implements ApprovalService {
             throw new BusinessException(2002, "当前状态不允许审批操作");
         }
 
-        // 获取当前节点
-        ApprovalNode currentNode = approvalNodeMapper.selectCurrentNode(id, record.getCurrentNodeOrder());
-        if (currentNode == null) {
+        // 获取当前节点（组）
+        List<ApprovalNode> stageNodes = approvalNodeMapper.selectStageNodes(id, record.getCurrentNodeOrder());
+        if (stageNodes.isEmpty()) {
             throw new BusinessException(2001, "当前审批节点不存在");
         }
 
         // 检查是否为当前节点的审批人
-        if (!currentNode.getApproverId().equals(userId)) {
+        ApprovalNode currentNode = findApproverNode(stageNodes, userId);
+        if (currentNode == null) {
             throw new BusinessException(2003, "您无权审批此节点");
         }
+        if (currentNode.getStatus() != NODE_STATUS_PENDING) {
+            throw new BusinessException(2002, "当前节点已处理");
+        }
+
+        int stageStatus = decideStage(id, stageNodes, approved);
 
-        // 更新节点状态
+        // 更新节点状态（仅当节点仍待审批且未被并发修改）
         currentNode.setStatus(approved ? NODE_STATUS_APPROVED : NODE_STATUS_REJECTED);
         currentNode.setComment(comment);
         currentNode.setApprovedAt(LocalDateTime.now());
-        approvalNodeMapper.updateById(currentNode);
+        if (approvalNodeMapper.decideIfPending(currentNode) == 0) {
+            throw new VersionConflictException();
+        }
+
+        if (stageStatus == GROUP_STATUS_PENDING) {
+            // 节点组尚未完成：只移除自己的待办，并确认审批未被并发撤回
+            requireActive(List.of(id));
+            approvalTodoMapper.deleteByApprovalAndApprover(id, userId);
+            dashboardCache.invalidate(List.of(userId));
+            log.info("审批 {} 节点组 {} 已由用户 {} 处理，等待其他审批人", id, record.getCurrentNodeOrder(), userId);
+            return;
+        }
+        closeStage(id, stageNodes);
 
         SysUser approver = sysUserMapper.selectById(userId);
 
-        if (approved) {
-            // 检查是否还有下一个节点
-            ApprovalNode nextNode = approvalNodeMapper.selectCurrentNode(id, record.getCurrentNodeOrder() + 1);
-            if (nextNode != null) {
+        if (stageStatus == GROUP_STATUS_APPROVED) {
+            // 检查是否还有下一个节点（组）
+            List<ApprovalNode> nextStage = approvalNodeMapper.selectStageNodes(id, record.getCurrentNodeOrder() + 1);
+            if (!nextStage.isEmpty()) {
                 // 流转到下一节点
                 record.setStatus(STATUS_IN_PROGRESS);
                 record.setCurrentNodeOrder(record.getCurrentNodeOrder() + 1);
-                approvalRecordMapper.updateById(record);
+                transit(record);
+                addTodos(record, nextStage);
 
                 // 通知下一审批人
-                notificationService.sendApprovalNotification(
+                notificationService.sendApprovalNotifications(
                         id,
-                        nextNode.getApproverId(),
+                        approverIdsOf(nextStage),
                         "您有一条新的审批待处理",
                         record.getTitle() + " 已流转到您，请及时处理");
-                log.info("审批 {} 流转到节点 {}", id, nextNode.getNodeOrder());
+                log.info("审批 {} 流转到节点 {}", id, record.getCurrentNodeOrder());
             } else {
                 // 所有节点通过，审批完成
                 record.setStatus(STATUS_APPROVED);
                 record.setCompletedAt(LocalDateTime.now());
-                approvalRecordMapper.updateById(record);
+                transit(record);
+                slaScheduler.untrack(List.of(id));
 
                 // 通知发起人
                 notificationService.sendApprovalNotification(
@@ -249,7 +353,8 @@ public class ApprovalServiceImpl implements ApprovalService {
             // 拒绝，审批终止
             record.setStatus(STATUS_REJECTED);
             record.setCompletedAt(LocalDateTime.now());
-            approvalRecordMapper.updateById(record);
+            transit(record);
+            slaScheduler.untrack(List.of(id));
 
             // 通知发起人
             String rejectMessage = record.getTitle() + " 被 " + approver.getNickname() + " 拒绝";
@@ -266,8 +371,184 @@ public class ApprovalServiceImpl implements ApprovalService {
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
+    public BatchApproveResultVO approveBatch(List<String> ids, Long userId, boolean approved, String comment) {
+        BatchApproveResultVO result = executeWithRetry(() -> doApproveBatch(ids, userId, approved, comment));
+        log.info("用户 {} 批量{} {} 条审批: 成功 {}, 失败 {}", userId, approved ? "通过" : "拒绝",
+                result.getTotal(), result.getSucceeded(), result.getFailed());
+        return result;
+    }
+
+    /**
+     * 批量审批（单次尝试，在一个事务内执行）
+     * 记录和节点各用一次 IN 查询加载，校验不通过的条目记为失败；
+     * 节点、记录的比较并更新以 JDBC batch 发送，任一条冲突则整批回滚后重新读取重试，
+     * 重试时已被并发处理的条目会在校验阶段记为失败。
+     * 并行节点组需要读取累加后的组状态，逐条原子累加计数
+     */
+    private BatchApproveResultVO doApproveBatch(List<String> ids, Long userId, boolean approved, String comment) {
+        List<String> approvalIds = new ArrayList<>(new LinkedHashSet<>(ids));
+
+        Map<String, ApprovalRecord> records = new HashMap<>();
+        for (ApprovalRecord record : approvalRecordMapper.selectBatchIds(approvalIds)) {
+            records.put(record.getId(), record);
+        }
+        Map<String, Map<Integer, List<ApprovalNode>>> stagesByApproval = new HashMap<>();
+        if (!records.isEmpty()) {
+            for (ApprovalNode node : approvalNodeMapper.selectList(new LambdaQueryWrapper<ApprovalNode>()
+                    .in(ApprovalNode::getApprovalId, records.keySet())
+                    .orderByAsc(ApprovalNode::getId))) {
+                stagesByApproval.computeIfAbsent(node.getApprovalId(), k -> new HashMap<>())
+                        .computeIfAbsent(node.getNodeOrder(), k -> new ArrayList<>())
+                        .add(node);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, BatchApproveResultVO.Item> items = new LinkedHashMap<>();
+        List<ApprovalNode> decidedNodes = new ArrayList<>();
+        List<ApprovalNode> closedGroups = new ArrayList<>();
+        List<ApprovalRecord> transitions = new ArrayList<>();
+        List<String> pendingIds = new ArrayList<>();
+        List<String> closedIds = new ArrayList<>();
+        List<String> completedIds = new ArrayList<>();
+        List<ApprovalTodo> nextTodos = new ArrayList<>();
+        List<NotificationService.ApprovalNotice> notices = new ArrayList<>();
+        Set<Long> affectedUsers = new HashSet<>();
+        String approverName = approved ? null : nicknameOf(userId);
+
+        for (String id : approvalIds) {
+            ApprovalRecord record = records.get(id);
+            Map<Integer, List<ApprovalNode>> stages = stagesByApproval.getOrDefault(id, Map.of());
+            List<ApprovalNode> stageNodes = record != null
+                    ? stages.getOrDefault(record.getCurrentNodeOrder(), List.of()) : List.of();
+            ApprovalNode currentNode = findApproverNode(stageNodes, userId);
+            String error = null;
+            int code = 0;
+            if (record == null) {
+                code = 2001;
+                error = "审批记录不存在";
+            } else if (record.getStatus() != STATUS_PENDING && record.getStatus() != STATUS_IN_PROGRESS) {
+                code = 2002;
+                error = "当前状态不允许审批操作";
+            } else if (stageNodes.isEmpty()) {
+                code = 2001;
+                error = "当前审批节点不存在";
+            } else if (currentNode == null) {
+                code = 2003;
+                error = "您无权审批此节点";
+            } else if (currentNode.getStatus() != NODE_STATUS_PENDING) {
+                code = 2002;
+                error = "当前节点已处理";
+            }
+            if (error != null) {
+                items.put(id, BatchApproveResultVO.Item.builder()
+                        .approvalId(id).success(false).code(code).message(error).build());
+                continue;
+            }
+
+            int stageStatus = decideStage(id, stageNodes, approved);
+            currentNode.setStatus(approved ? NODE_STATUS_APPROVED : NODE_STATUS_REJECTED);
+            currentNode.setComment(comment);
+            currentNode.setApprovedAt(now);
+            decidedNodes.add(currentNode);
+            items.put(id, BatchApproveResultVO.Item.builder().approvalId(id).success(true).build());
+
+            if (stageStatus == GROUP_STATUS_PENDING) {
+                // 节点组尚未完成，审批记录不流转
+                pendingIds.add(id);
+                continue;
+            }
+            if (stageNodes.size() > 1) {
+                closedGroups.add(currentNode);
+            }
+            closedIds.add(id);
+            affectedUsers.addAll(approverIdsOf(stageNodes));
+            affectedUsers.add(record.getInitiatorId());
+
+            List<ApprovalNode> nextStage = stageStatus == GROUP_STATUS_APPROVED
+                    ? stages.getOrDefault(record.getCurrentNodeOrder() + 1, List.of()) : List.of();
+            if (!nextStage.isEmpty()) {
+                // 流转到下一节点（组）
+                record.setStatus(STATUS_IN_PROGRESS);
+                record.setCurrentNodeOrder(record.getCurrentNodeOrder() + 1);
+                affectedUsers.addAll(approverIdsOf(nextStage));
+                for (ApprovalNode nextNode : nextStage) {
+                    nextTodos.add(buildTodo(record, nextNode.getApproverId(), nextNode.getNodeOrder()));
+                    notices.add(new NotificationService.ApprovalNotice(id, nextNode.getApproverId(),
+                            "您有一条新的审批待处理", record.getTitle() + " 已流转到您，请及时处理"));
+                }
+            } else if (stageStatus == GROUP_STATUS_APPROVED) {
+                // 所有节点通过，审批完成
+                record.setStatus(STATUS_APPROVED);
+                record.setCompletedAt(now);
+                completedIds.add(id);
+                notices.add(new NotificationService.ApprovalNotice(id, record.getInitiatorId(),
+                        "您的审批已全部通过", record.getTitle() + " 已通过所有审批节点"));
+            } else {
+                // 拒绝，审批终止
+                record.setStatus(STATUS_REJECTED);
+                record.setCompletedAt(now);
+                completedIds.add(id);
+                String rejectMessage = record.getTitle() + " 被 " + approverName + " 拒绝";
+                if (comment != null && !comment.isEmpty()) {
+                    rejectMessage += "，原因：" + comment;
+                }
+                notices.add(new NotificationService.ApprovalNotice(id, record.getInitiatorId(),
+                        "您的审批已被拒绝", rejectMessage));
+            }
+            record.setUpdatedAt(now);
+            transitions.add(record);
+        }
+
+        if (!decidedNodes.isEmpty()) {
+            requireAllUpdated(batchWriter.executeBatch(ApprovalNodeMapper.class, "decideIfPending",
+                    decidedNodes, node -> Map.of("n", node)));
+            if (!transitions.isEmpty()) {
+                requireAllUpdated(batchWriter.executeBatch(ApprovalRecordMapper.class, "transitIfMatch",
+                        transitions, record -> Map.of("r", record, "fromStatuses", ACTIVE_STATUSES)));
+                approvalDetailReader.invalidate(transitions.stream().map(ApprovalRecord::getId).toList());
+                approvalTypeCounters.completed(transitions);
+                approvalDailyRollup.completed(transitions);
+            }
+            for (ApprovalNode node : closedGroups) {
+                approvalNodeMapper.skipPending(node.getApprovalId(), node.getNodeOrder());
+            }
+            if (!pendingIds.isEmpty()) {
+                requireActive(pendingIds);
+                approvalTodoMapper.deleteByApproverAndApprovalIds(userId, pendingIds);
+            }
+            if (!closedIds.isEmpty()) {
+                approvalTodoMapper.deleteByApprovalIds(closedIds);
+                slaScheduler.untrack(completedIds);
+            }
+            if (!nextTodos.isEmpty()) {
+                batchWriter.insertBatch(ApprovalTodoMapper.class, nextTodos);
+            }
+            if (!notices.isEmpty()) {
+                notificationService.sendApprovalNotices(notices);
+            }
+            affectedUsers.add(userId);
+            dashboardCache.invalidate(affectedUsers);
+        }
+
+        int succeeded = decidedNodes.size();
+        return BatchApproveResultVO.builder()
+                .total(approvalIds.size())
+                .succeeded(succeeded)
+                .failed(approvalIds.size() - succeeded)
+                .items(new ArrayList<>(items.values()))
+                .build();
+    }
+
+    @Override
     public void withdraw(String id, Long userId) {
+        executeWithRetry(() -> doWithdraw(id, userId));
+    }
+
+    /**
+     * 撤回（单次尝试，在事务内执行）
+     */
+    private void doWithdraw(String id, Long userId) {
         ApprovalRecord record = approvalRecordMapper.selectById(id);
         if (record == null) {
             throw new BusinessException(2001, "审批记录不存在");
@@ -285,8 +566,9 @@ public class ApprovalServiceImpl implements ApprovalService {
 
         // 更新状态为已撤回
         record.setStatus(STATUS_WITHDRAWN);
-        record.setUpdatedAt(LocalDateTime.now());
-        approvalRecordMapper.updateById(record);
+        transit(record);
+        approvalTodoMapper.deleteByApprovalId(id);
+        slaScheduler.untrack(List.of(id));
 
         SysUser initiator = sysUserMapper.selectById(userId);
 
@@ -295,138 +577,189 @@ public class ApprovalServiceImpl implements ApprovalService {
                 new LambdaQueryWrapper<ApprovalNode>()
                         .eq(ApprovalNode::getApprovalId, id)
                         .eq(ApprovalNode::getStatus, NODE_STATUS_PENDING));
+        dashboardCache.invalidate(pendingNodes.stream().map(ApprovalNode::getApproverId).toList());
 
-        for (ApprovalNode node : pendingNodes) {
-            notificationService.sendApprovalNotification(
-                    id,
-                    node.getApproverId(),
-                    "审批已被发起人撤回",
-                    initiator.getNickname() + " 撤回了审批：" + record.getTitle());
-        }
+        notificationService.sendApprovalNotifications(
+                id,
+                pendingNodes.stream().map(ApprovalNode::getApproverId).toList(),
+                "审批已被发起人撤回",
+                initiator.getNickname() + " 撤回了审批：" + record.getTitle());
 
         log.info("审批 {} 被用户 {} 撤回", id, userId);
     }
 
     @Override
     public IPage<ApprovalRecordVO> getTodoApprovals(Long userId, int page, int pageSize) {
-        // 查询用户作为当前节点审批人的待处理节点
-        LambdaQueryWrapper<ApprovalNode> nodeWrapper = new LambdaQueryWrapper<>();
-        nodeWrapper.eq(ApprovalNode::getApproverId, userId)
-                .eq(ApprovalNode::getStatus, NODE_STATUS_PENDING);
-        List<ApprovalNode> pendingNodes = approvalNodeMapper.selectList(nodeWrapper);
-
-        if (pendingNodes.isEmpty()) {
-            return new Page<>(page, pageSize);
-        }
+        // 通过待办索引分页查询（按紧急程度、提交时间倒序）
+        IPage<ApprovalRecord> recordPage = approvalTodoMapper.selectTodoPage(new Page<>(page, pageSize), userId);
+
+        return approvalRecordAssembler.toVOPage(recordPage);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int rebuildTodoIndex() {
+        int removed = approvalTodoMapper.deleteAll();
+        int rebuilt = approvalTodoMapper.rebuildAll();
+        dashboardCache.invalidateAll();
+        log.info("待办索引已重建: 清除 {} 条, 写入 {} 条", removed, rebuilt);
+        return rebuilt;
+    }
 
-        // 获取这些节点对应的审批记录ID
-        List<String> approvalIds = pendingNodes.stream()
-                .map(ApprovalNode::getApprovalId)
-                .distinct()
-                .toList();
-
-        // 先查询所有可能的审批记录
-        LambdaQueryWrapper<ApprovalRecord> recordWrapper = new LambdaQueryWrapper<>();
-        recordWrapper.in(ApprovalRecord::getId, approvalIds)
-                .in(ApprovalRecord::getStatus, STATUS_PENDING, STATUS_IN_PROGRESS);
-        List<ApprovalRecord> allRecords = approvalRecordMapper.selectList(recordWrapper);
-
-        // 过滤：只保留当前用户是当前节点审批人的记录
-        List<ApprovalRecord> filteredRecords = allRecords.stream()
-                .filter(record -> pendingNodes.stream()
-                        .anyMatch(node -> node.getApprovalId().equals(record.getId())
-                                && node.getNodeOrder().equals(record.getCurrentNodeOrder())))
-                .sorted((r1, r2) -> {
-                    // 先按优先级降序，再按创建时间降序
-                    int priorityCompare = Integer.compare(r2.getPriority(), r1.getPriority());
-                    if (priorityCompare != 0) {
-                        return priorityCompare;
-                    }
-                    return r2.getCreatedAt().compareTo(r1.getCreatedAt());
-                })
-                .toList();
-
-        // 手动分页
-        int total = filteredRecords.size();
-        int start = (page - 1) * pageSize;
-        int end = Math.min(start + pageSize, total);
-        List<ApprovalRecord> pagedRecords = start < total
-                ? filteredRecords.subList(start, end)
-                : List.of();
-
-        // 构建分页结果
-        Page<ApprovalRecordVO> resultPage = new Page<>(page, pageSize, total);
-        List<ApprovalRecordVO> voList = pagedRecords.stream()
-                .map(record -> {
-                    SysUser initiator = sysUserMapper.selectById(record.getInitiatorId());
-                    ApprovalType type = approvalTypeMapper.selectOne(
-                            new LambdaQueryWrapper<ApprovalType>()
-                                    .eq(ApprovalType::getCode, record.getTypeCode()));
-                    return buildApprovalRecordVO(record, initiator, type);
-                })
-                .toList();
-        resultPage.setRecords(voList);
-
-        return resultPage;
+    /**
+     * 在独立事务中执行状态流转，发生版本冲突时重新读取并重试，超过次数后返回冲突
+     */
+    private void executeWithRetry(Runnable action) {
+        executeWithRetry(() -> {
+            action.run();
+            return null;
+        });
     }
 
     /**
-     * 解析审批人ID
-     * 根据节点模板的审批人类型确定实际审批人
+     * 在独立事务中执行状态流转并返回结果，发生版本冲突时重新读取并重试，超过次数后返回冲突。
+     * 并行节点组按 节点组 -> 节点 -> 审批记录 的顺序加锁，仍可能出现的死锁由数据库回滚其中一方，同样重试
      */
-    private Long resolveApproverId(WorkflowNodeTemplate nodeTemplate, SysUser initiator) {
-        String approverType = nodeTemplate.getApproverType();
-
-        switch (approverType) {
-            case "USER":
-                // 指定用户审批
-                return nodeTemplate.getApproverId();
-            case "DEPARTMENT_HEAD":
-                // 部门负责人审批
-                if (initiator.getDepartmentId() != null) {
-                    SysDepartment dept = sysDepartmentMapper.selectById(initiator.getDepartmentId());
-                    if (dept != null && dept.getLeaderId() != null) {
-                        return dept.getLeaderId();
-                    }
+    private <T> T executeWithRetry(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (VersionConflictException | PessimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    log.warn("审批状态更新冲突，已重试 {} 次", attempt);
+                    throw new BusinessException(409, "审批已被其他操作更新，请刷新后重试");
                 }
-                // 如果没有部门负责人，回退到管理员（ID=1）
-                return 1L;
-            case "POSITION":
-                // 按职位审批：查询 sys_user_position 表获取拥有该职位的用户
-                if (nodeTemplate.getApproverId() != null) {
-                    Long userIdByPosition = sysUserPositionMapper
-                            .selectFirstUserIdByPositionId(nodeTemplate.getApproverId());
-                    if (userIdByPosition != null) {
-                        return userIdByPosition;
-                    }
-                }
-                // 如果没有找到拥有该职位的用户，回退到管理员（ID=1）
-                return 1L;
-            default:
-                return 1L;
+                log.debug("审批状态更新冲突，第 {} 次重试", attempt);
+            }
         }
     }
 
     /**
-     * 构建审批记录VO
+     * 批量比较并更新的结果中存在未更新的条目时视为冲突
      */
-    private ApprovalRecordVO buildApprovalRecordVO(ApprovalRecord record, SysUser initiator, ApprovalType type) {
-        return ApprovalRecordVO.builder()
-                .id(record.getId())
-                .title(record.getTitle())
-                .typeCode(record.getTypeCode())
-                .typeName(type != null ? type.getName() : record.getTypeCode())
-                .typeIcon(type != null ? type.getIcon() : null)
-                .typeColor(type != null ? type.getColor() : null)
-                .content(record.getContent())
-                .initiatorId(record.getInitiatorId())
-                .initiatorName(initiator != null ? initiator.getNickname() : null)
-                .priority(record.getPriority())
-                .status(record.getStatus())
-                .currentNodeOrder(record.getCurrentNodeOrder())
-                .createdAt(record.getCreatedAt())
-                .updatedAt(record.getUpdatedAt())
-                .completedAt(record.getCompletedAt())
+    private void requireAllUpdated(int[] counts) {
+        for (int count : counts) {
+            if (count == 0) {
+                throw new VersionConflictException();
+            }
+        }
+    }
+
+    /**
+     * 查询用户昵称
+     */
+    private String nicknameOf(Long userId) {
+        SysUser user = sysUserMapper.selectById(userId);
+        return user != null ? user.getNickname() : null;
+    }
+
+    /**
+     * 以版本号比较并更新审批记录状态（仅允许从待审批、审批中流转），失效详情缓存与发起人的仪表盘缓存，累加类型计数与每日汇总
+     */
+    private void transit(ApprovalRecord record) {
+        record.setUpdatedAt(LocalDateTime.now());
+        if (approvalRecordMapper.transitIfMatch(record, ACTIVE_STATUSES) == 0) {
+            throw new VersionConflictException();
+        }
+        approvalDetailReader.invalidate(List.of(record.getId()));
+        approvalTypeCounters.completed(List.of(record));
+        approvalDailyRollup.completed(List.of(record));
+        dashboardCache.invalidate(List.of(record.getInitiatorId()));
+    }
+
+    /**
+     * 根据节点组的完成规则判定本次审批后当前序号的状态
+     * 单节点直接由本次结果决定；并行节点组原子累加计数后读取组状态，组已完成说明被并发处理，抛出冲突重试
+     *
+     * @return 0-节点组未完成 1-通过 2-拒绝
+     */
+    private int decideStage(String approvalId, List<ApprovalNode> stageNodes, boolean approved) {
+        if (stageNodes.size() == 1) {
+            return approved ? GROUP_STATUS_APPROVED : GROUP_STATUS_REJECTED;
+        }
+        Integer nodeOrder = stageNodes.get(0).getNodeOrder();
+        if (approvalNodeGroupMapper.countDecision(approvalId, nodeOrder, approved) == 0) {
+            throw new VersionConflictException();
+        }
+        return approvalNodeGroupMapper.selectStatus(approvalId, nodeOrder);
+    }
+
+    /**
+     * 当前序号完成：跳过节点组内其余待审批节点，清除该审批的全部待办并失效该节点组审批人的仪表盘缓存
+     */
+    private void closeStage(String approvalId, List<ApprovalNode> stageNodes) {
+        if (stageNodes.size() > 1) {
+            approvalNodeMapper.skipPending(approvalId, stageNodes.get(0).getNodeOrder());
+        }
+        approvalTodoMapper.deleteByApprovalId(approvalId);
+        dashboardCache.invalidate(approverIdsOf(stageNodes));
+    }
+
+    /**
+     * 以共享锁确认审批均仍在进行中，否则视为冲突
+     */
+    private void requireActive(List<String> approvalIds) {
+        if (approvalRecordMapper.countActiveForShare(approvalIds) != approvalIds.size()) {
+            throw new VersionConflictException();
+        }
+    }
+
+    /**
+     * 查找审批人在节点（组）中的节点
+     */
+    private ApprovalNode findApproverNode(List<ApprovalNode> stageNodes, Long approverId) {
+        for (ApprovalNode node : stageNodes) {
+            if (node.getApproverId().equals(approverId)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 节点（组）的审批人ID
+     */
+    private List<Long> approverIdsOf(List<ApprovalNode> stageNodes) {
+        return stageNodes.stream().map(ApprovalNode::getApproverId).toList();
+    }
+
+    /**
+     * 为节点（组）的每个审批人写入待办索引，并失效其仪表盘缓存
+     */
+    private void addTodos(ApprovalRecord record, List<ApprovalNode> stageNodes) {
+        if (stageNodes.size() == 1) {
+            ApprovalNode node = stageNodes.get(0);
+            approvalTodoMapper.insert(buildTodo(record, node.getApproverId(), node.getNodeOrder()));
+        } else if (!stageNodes.isEmpty()) {
+            List<ApprovalTodo> todos = new ArrayList<>(stageNodes.size());
+            for (ApprovalNode node : stageNodes) {
+                todos.add(buildTodo(record, node.getApproverId(), node.getNodeOrder()));
+            }
+            batchWriter.insertBatch(ApprovalTodoMapper.class, todos);
+        }
+        dashboardCache.invalidate(approverIdsOf(stageNodes));
+    }
+
+    /**
+     * 构建待办索引条目
+     */
+    private ApprovalTodo buildTodo(ApprovalRecord record, Long approverId, int nodeOrder) {
+        return ApprovalTodo.builder()
+                .approvalId(record.getId())
+                .approverId(approverId)
+                .nodeOrder(nodeOrder)
+                .priority(record.getPriority() != null ? record.getPriority() : 0)
+                .createdAt(record.getCreatedAt() != null ? record.getCreatedAt() : LocalDateTime.now())
                 .build();
     }
+
+    /**
+     * 版本冲突（仅用于触发重试，不记录堆栈）
+     */
+    private static final class VersionConflictException extends RuntimeException {
+
+        VersionConflictException() {
+            super("审批版本冲突", null, false, false);
+        }
+    }
 }
@@ -5,6 +5,7 @@ import com.approval.entity.ApprovalType;
 import com.approval.exception.BusinessException;
 import com.approval.mapper.ApprovalTypeMapper;
 import com.approval.service.ApprovalTypeService;
+import com.approval.workflow.WorkflowDefinitionRegistry;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +24,7 @@ import java.util.List;
 public class ApprovalTypeServiceImpl implements ApprovalTypeService {
 
     private final ApprovalTypeMapper approvalTypeMapper;
+    private final WorkflowDefinitionRegistry workflowDefinitionRegistry;
 
     @Override
     public List<ApprovalType> getAvailableTypes() {
@@ -80,6 +82,7 @@ public class ApprovalTypeServiceImpl implements ApprovalTypeService {
                 .build();
 
         approvalTypeMapper.insert(type);
+        workflowDefinitionRegistry.invalidateDefinitions();
         log.info("创建审批类型: {}", type.getName());
         return type;
     }
@@ -99,6 +102,7 @@ public class ApprovalTypeServiceImpl implements ApprovalTypeService {
         type.setUpdatedAt(LocalDateTime.now());
 
         approvalTypeMapper.updateById(type);
+        workflowDefinitionRegistry.invalidateDefinitions();
         log.info("更新审批类型: {}", type.getName());
         return type;
     }
@@ -108,6 +112,7 @@ public class ApprovalTypeServiceImpl implements ApprovalTypeService {
     public void delete(Long id) {
         ApprovalType type = getById(id);
         approvalTypeMapper.deleteById(id);
+        workflowDefinitionRegistry.invalidateDefinitions();
         log.info("删除审批类型: {}", type.getName());
     }
 }
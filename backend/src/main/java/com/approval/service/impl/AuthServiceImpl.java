@@ -12,10 +12,13 @@ import com.approval.mapper.SysRoleMapper;
 import com.approval.mapper.SysUserMapper;
 import com.approval.mapper.SysUserRoleMapper;
 import com.approval.security.JwtTokenProvider;
+import com.approval.security.LoginGuard;
+import com.approval.security.LoginUser;
 import com.approval.service.AuthService;
 import com.approval.service.OperationLogService;
 import com.approval.vo.LoginResponse;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -41,6 +44,7 @@ public class AuthServiceImpl implements AuthService {
     private final SysUserRoleMapper userRoleMapper;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider tokenProvider;
+    private final LoginGuard loginGuard;
     private final OperationLogService operationLogService;
 
     /**
@@ -51,6 +55,9 @@ public class AuthServiceImpl implements AuthService {
      */
     @Override
     public LoginResponse login(LoginRequest request) {
+        // 准入控制：IP/账号超限时在查询和哈希计算之前直接拒绝
+        loginGuard.checkAdmission(getClientIp(), request.getUsername());
+
         // 查询用户
         SysUser user = userMapper.selectOne(
                 new LambdaQueryWrapper<SysUser>()
@@ -70,15 +77,21 @@ public class AuthServiceImpl implements AuthService {
             throw new BusinessException(403, "账号已被禁用");
         }
 
-        // 验证密码
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        // 验证密码（在有界登录线程池中执行）
+        LoginGuard.HashResult hashResult = loginGuard.verify(request.getPassword(), user.getPassword());
+        if (!hashResult.matched()) {
             // 记录登录失败日志（密码错误）
             logLoginFailure(request.getUsername(), request.getPassword(), "密码错误");
             throw new BusinessException(401, "用户名或密码错误");
         }
 
-        // 生成 Token
-        String token = tokenProvider.generateToken(user.getUsername());
+        // BCrypt cost 配置已调整：按新 cost 回写哈希（仅当密码未被并发修改时）
+        if (hashResult.rehashed() != null) {
+            userMapper.update(null, new LambdaUpdateWrapper<SysUser>()
+                    .eq(SysUser::getId, user.getId())
+                    .eq(SysUser::getPassword, user.getPassword())
+                    .set(SysUser::getPassword, hashResult.rehashed()));
+        }
 
         // 查询用户角色
         List<SysRole> roles = roleMapper.selectRolesByUserId(user.getId());
@@ -86,9 +99,18 @@ public class AuthServiceImpl implements AuthService {
                 .map(SysRole::getCode)
                 .collect(Collectors.toList());
 
-        // 更新最后登录时间
-        user.setLastLoginAt(LocalDateTime.now());
-        userMapper.updateById(user);
+        // 生成 Token（携带用户ID、角色和安全版本号，后续请求无需查库即可认证）
+        String token = tokenProvider.generateToken(new LoginUser(
+                user.getId(),
+                user.getUsername(),
+                roleCodes,
+                user.getSecurityVersion() != null ? user.getSecurityVersion() : 0));
+
+        // 更新最后登录时间（只回写该字段，避免覆盖并发修改或重算后的密码哈希）
+        SysUser loginUpdate = new SysUser();
+        loginUpdate.setId(user.getId());
+        loginUpdate.setLastLoginAt(LocalDateTime.now());
+        userMapper.updateById(loginUpdate);
 
         // 构建响应
         LoginResponse.UserInfo userInfo = LoginResponse.UserInfo.builder()
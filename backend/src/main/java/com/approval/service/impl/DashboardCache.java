@@ -0,0 +1,174 @@
+package com.approval.service.impl;
+
+import com.approval.util.BoundedTtlMap;
+import com.approval.util.TransactionHooks;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 仪表盘结果缓存
+ * 1. 个人区块（统计、最近活动、待办、热力图、类型效率）按用户缓存，用户数超过上限时按比例淘汰（见 {@link BoundedTtlMap}）。
+ *    只有发起的或待处理的审批发生变化时才会变化：审批服务在提交、审批、撤回、SLA 升级时失效发起人与受影响的审批人，
+ *    立即失效一次、事务提交后再失效一次；加载开始后被失效的用户条目已脱离缓存，加载结果不会写回；
+ * 2. 全局区块（类型分布、效率指标、趋势）按较短的 TTL 缓存；
+ * 3. 失效只作用于本实例，其他实例的变更与相对时间等展示字段由个人区块的 TTL 兜底。
+ *    缓存的结果为共享对象，调用方只读
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardCache {
+
+    /**
+     * 全局区块条目上限（区块名含参数，正常只有十余个）
+     */
+    private static final int MAX_GLOBAL_SECTIONS = 1000;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 缓存的用户数上限，0 表示不缓存个人区块
+     */
+    @Value("${approval.dashboard.cache-size:10000}")
+    private int cacheSize;
+
+    /**
+     * 个人区块有效期（毫秒）
+     */
+    @Value("${approval.dashboard.user-ttl:60000}")
+    private long userTtlMillis;
+
+    /**
+     * 全局区块有效期（毫秒），0 表示不缓存全局区块
+     */
+    @Value("${approval.dashboard.global-ttl:30000}")
+    private long globalTtlMillis;
+
+    /**
+     * 用户ID -> 区块名 -> 结果
+     */
+    private BoundedTtlMap<Long, Map<String, Object>> users;
+
+    private BoundedTtlMap<String, Object> globals;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        this.users = new BoundedTtlMap<>(cacheSize);
+        this.globals = new BoundedTtlMap<>(MAX_GLOBAL_SECTIONS);
+        FunctionCounter.builder("approval.dashboard.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("仪表盘缓存命中次数")
+                .register(meterRegistry);
+        FunctionCounter.builder("approval.dashboard.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("仪表盘缓存未命中次数")
+                .register(meterRegistry);
+        FunctionCounter.builder("approval.dashboard.cache.evictions", this,
+                        cache -> cache.users.evictionCount() + cache.globals.evictionCount())
+                .description("仪表盘缓存淘汰次数（容量与过期）")
+                .register(meterRegistry);
+        Gauge.builder("approval.dashboard.cache.size", users, BoundedTtlMap::size)
+                .description("仪表盘缓存用户数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 读取用户的个人区块，未缓存时加载
+     *
+     * @param userId  用户ID
+     * @param section 区块名（含影响结果的参数）
+     * @param loader  加载函数
+     * @return 区块结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T user(Long userId, String section, Supplier<T> loader) {
+        if (cacheSize <= 0) {
+            return loader.get();
+        }
+        Map<String, Object> sections = users.get(userId);
+        if (sections != null) {
+            Object cached = sections.get(section);
+            if (cached != null) {
+                hits.increment();
+                return (T) cached;
+            }
+        } else {
+            sections = users.putIfAbsent(userId, new ConcurrentHashMap<>(),
+                    System.currentTimeMillis() + userTtlMillis);
+        }
+        misses.increment();
+
+        // 条目在加载前取得：加载期间被失效时条目已从缓存移除，写入不再可见
+        T loaded = loader.get();
+        if (loaded != null) {
+            sections.put(section, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * 读取全局区块，未缓存或已过期时加载
+     *
+     * @param section 区块名（含影响结果的参数）
+     * @param loader  加载函数
+     * @return 区块结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T global(String section, Supplier<T> loader) {
+        if (globalTtlMillis <= 0) {
+            return loader.get();
+        }
+        Object cached = globals.get(section);
+        if (cached != null) {
+            hits.increment();
+            return (T) cached;
+        }
+        misses.increment();
+        long now = System.currentTimeMillis();
+        T loaded = loader.get();
+        if (loaded != null) {
+            globals.put(section, loaded, now + globalTtlMillis);
+        }
+        return loaded;
+    }
+
+    /**
+     * 失效用户的个人区块：立即失效一次；若处于事务中，提交后再失效一次，覆盖事务期间被并发加载的旧数据
+     *
+     * @param userIds 用户ID集合（发起人、受影响的审批人）
+     */
+    public void invalidate(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(userIds);
+        Runnable action = () -> users.removeAll(ids);
+        TransactionHooks.runNowAndAfterCommit(action);
+    }
+
+    /**
+     * 失效全部缓存（待办索引、每日汇总重建后）：立即失效一次；若处于事务中，提交后再失效一次
+     */
+    public void invalidateAll() {
+        Runnable action = () -> {
+            users.clear();
+            globals.clear();
+        };
+        TransactionHooks.runNowAndAfterCommit(action);
+    }
+}
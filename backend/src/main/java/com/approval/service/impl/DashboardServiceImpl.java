@@ -1,18 +1,26 @@
 package com.approval.service.impl;
 
-import com.approval.entity.ApprovalNode;
+import com.approval.entity.ApprovalDailyStats;
 import com.approval.entity.ApprovalRecord;
 import com.approval.entity.ApprovalType;
+import com.approval.entity.ApprovalTypeStats;
 import com.approval.entity.SysUser;
-import com.approval.mapper.ApprovalNodeMapper;
+import com.approval.mapper.ApprovalDailyStatsMapper;
 import com.approval.mapper.ApprovalRecordMapper;
+import com.approval.mapper.ApprovalTodoMapper;
 import com.approval.mapper.ApprovalTypeMapper;
-import com.approval.mapper.SysUserMapper;
 import com.approval.service.DashboardService;
+import com.approval.stats.ApprovalDailyRollup;
+import com.approval.stats.ApprovalTypeCounters;
+import com.approval.util.QueryCounter;
 import com.approval.vo.*;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
@@ -21,10 +29,22 @@ import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * 仪表盘服务实现类
+ * 个人区块按用户缓存、由审批流转失效，全局区块按短 TTL 缓存（见 {@link DashboardCache}）
  */
 @Service
 @RequiredArgsConstructor
@@ -33,8 +53,13 @@ public class DashboardServiceImpl implements DashboardService {
 
     private final ApprovalRecordMapper approvalRecordMapper;
     private final ApprovalTypeMapper approvalTypeMapper;
-    private final ApprovalNodeMapper approvalNodeMapper;
-    private final SysUserMapper sysUserMapper;
+    private final ApprovalTodoMapper approvalTodoMapper;
+    private final ApprovalRecordAssembler approvalRecordAssembler;
+    private final ApprovalTypeCounters approvalTypeCounters;
+    private final ApprovalDailyStatsMapper approvalDailyStatsMapper;
+    private final ApprovalDailyRollup approvalDailyRollup;
+    private final MeterRegistry meterRegistry;
+    private final DashboardCache dashboardCache;
 
     /**
      * 审批状态常量
@@ -45,57 +70,145 @@ public class DashboardServiceImpl implements DashboardService {
     private static final int STATUS_REJECTED = 4;
     private static final int STATUS_WITHDRAWN = 5;
 
+    /**
+     * 汇总接口区块加载成功的结果
+     */
+    private static final String SECTION_OK = "ok";
+
+    /**
+     * 汇总接口区块并发加载的线程数
+     */
+    @Value("${approval.dashboard.summary-threads:16}")
+    private int summaryThreads;
+
+    /**
+     * 汇总接口区块加载任务的队列长度
+     */
+    @Value("${approval.dashboard.queue-capacity:128}")
+    private int queueCapacity;
+
+    /**
+     * 单个区块的加载超时（毫秒）
+     */
+    @Value("${approval.dashboard.section-timeout:2000}")
+    private long sectionTimeoutMillis;
+
+    private ThreadPoolExecutor summaryExecutor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.summaryExecutor = new ThreadPoolExecutor(
+                summaryThreads, summaryThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "dashboard-summary-" + threadIndex.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        summaryExecutor.shutdownNow();
+    }
+
+    @Override
+    public DashboardSummaryVO getSummary(Long userId, int activityLimit, int trendDays, int todoLimit) {
+        DashboardSummaryVO summary = new DashboardSummaryVO();
+
+        // 各区块同时提交到有界线程池，共用同一截止时间，等待总时长不超过单个区块的超时
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMillis);
+        List<Section<?>> sections = List.of(
+                submit("statistics", () -> getStatistics(userId), summary::setStatistics),
+                submit("recentActivities", () -> getRecentActivities(userId, activityLimit),
+                        summary::setRecentActivities),
+                submit("trend", () -> getTrendData(userId, trendDays), summary::setTrend),
+                submit("typeDistribution", () -> getTypeDistribution(userId), summary::setTypeDistribution),
+                submit("efficiency", () -> getEfficiencyMetrics(userId), summary::setEfficiency),
+                submit("todos", () -> getTodoList(userId, todoLimit), summary::setTodos),
+                submit("typeEfficiency", () -> getTypeEfficiency(userId), summary::setTypeEfficiency),
+                submit("heatmap", () -> getSubmissionHeatmap(userId), summary::setHeatmap));
+
+        List<String> unavailable = new ArrayList<>();
+        for (Section<?> section : sections) {
+            String outcome = section.await(deadline);
+            meterRegistry.counter("approval.dashboard.sections",
+                    "section", section.name(), "outcome", outcome).increment();
+            if (!SECTION_OK.equals(outcome)) {
+                unavailable.add(section.name());
+            }
+        }
+        if (!unavailable.isEmpty()) {
+            log.warn("用户 {} 的仪表盘汇总部分区块未返回: {}", userId, unavailable);
+        }
+        summary.setUnavailable(unavailable);
+        return summary;
+    }
+
     @Override
     public DashboardStatisticsVO getStatistics(Long userId) {
-        // 获取当前月份的起始时间
+        return dashboardCache.user(userId, "statistics", () -> loadStatistics(userId));
+    }
+
+    @Override
+    public List<RecentActivityVO> getRecentActivities(Long userId, int limit) {
+        int size = Math.max(1, Math.min(limit, 100));
+        return dashboardCache.user(userId, "recentActivities:" + size, () -> loadRecentActivities(userId, size));
+    }
+
+    @Override
+    public List<TrendDataVO> getTrendData(Long userId, int days) {
+        int range = Math.max(7, Math.min(days, 90));
+        return dashboardCache.global("trend:" + range, () -> loadTrendData(userId, range));
+    }
+
+    @Override
+    public List<TypeDistributionVO> getTypeDistribution(Long userId) {
+        return dashboardCache.global("typeDistribution", () -> loadTypeDistribution(userId));
+    }
+
+    @Override
+    public EfficiencyMetricsVO getEfficiencyMetrics(Long userId) {
+        return dashboardCache.global("efficiency", () -> loadEfficiencyMetrics(userId));
+    }
+
+    @Override
+    public List<TodoItemVO> getTodoList(Long userId, int limit) {
+        int size = Math.max(1, Math.min(limit, 20));
+        return dashboardCache.user(userId, "todos:" + size, () -> loadTodoList(userId, size));
+    }
+
+    @Override
+    public List<TypeEfficiencyVO> getTypeEfficiency(Long userId) {
+        return dashboardCache.user(userId, "typeEfficiency", () -> loadTypeEfficiency(userId));
+    }
+
+    @Override
+    public List<DailySubmissionVO> getSubmissionHeatmap(Long userId) {
+        return dashboardCache.user(userId, "heatmap", () -> loadSubmissionHeatmap(userId));
+    }
+
+    private DashboardStatisticsVO loadStatistics(Long userId) {
+        // 获取当前月份的起止时间
         YearMonth currentMonth = YearMonth.now();
         LocalDateTime monthStart = currentMonth.atDay(1).atStartOfDay();
-        LocalDateTime monthEnd = currentMonth.atEndOfMonth().atTime(23, 59, 59);
-
-        // 统计我发起的审批记录（按状态分类）
-        LambdaQueryWrapper<ApprovalRecord> baseWrapper = new LambdaQueryWrapper<>();
-        baseWrapper.eq(ApprovalRecord::getInitiatorId, userId)
-                .ge(ApprovalRecord::getCreatedAt, monthStart)
-                .le(ApprovalRecord::getCreatedAt, monthEnd);
-
-        // 1. 待处理的审批（状态为待审批或审批中）
-        LambdaQueryWrapper<ApprovalRecord> pendingWrapper = new LambdaQueryWrapper<>();
-        pendingWrapper.eq(ApprovalRecord::getInitiatorId, userId)
-                .in(ApprovalRecord::getStatus, STATUS_PENDING, STATUS_IN_PROGRESS);
-        int pendingCount = Math.toIntExact(approvalRecordMapper.selectCount(pendingWrapper));
-
-        // 2. 已通过的审批
-        LambdaQueryWrapper<ApprovalRecord> approvedWrapper = new LambdaQueryWrapper<>();
-        approvedWrapper.eq(ApprovalRecord::getInitiatorId, userId)
-                .eq(ApprovalRecord::getStatus, STATUS_APPROVED)
-                .ge(ApprovalRecord::getCreatedAt, monthStart)
-                .le(ApprovalRecord::getCreatedAt, monthEnd);
-        int approvedCount = Math.toIntExact(approvalRecordMapper.selectCount(approvedWrapper));
-
-        // 3. 已拒绝的审批
-        LambdaQueryWrapper<ApprovalRecord> rejectedWrapper = new LambdaQueryWrapper<>();
-        rejectedWrapper.eq(ApprovalRecord::getInitiatorId, userId)
-                .eq(ApprovalRecord::getStatus, STATUS_REJECTED)
-                .ge(ApprovalRecord::getCreatedAt, monthStart)
-                .le(ApprovalRecord::getCreatedAt, monthEnd);
-        int rejectedCount = Math.toIntExact(approvalRecordMapper.selectCount(rejectedWrapper));
-
-        // 4. 本月发起的总数量
-        int totalCount = Math.toIntExact(approvalRecordMapper.selectCount(baseWrapper));
+        LocalDateTime nextMonthStart = currentMonth.plusMonths(1).atDay(1).atStartOfDay();
+
+        // 一次索引覆盖扫描统计我发起的审批：待处理（待审批、审批中）及本月的已通过、已拒绝、总数
+        DashboardStatisticsVO statistics = approvalRecordMapper.selectInitiatorStatistics(
+                userId, monthStart, nextMonthStart);
 
         log.info("用户 {} 的仪表盘统计（我发起的）: 待处理={}, 已通过={}, 已拒绝={}, 本月总计={}",
-                userId, pendingCount, approvedCount, rejectedCount, totalCount);
+                userId, statistics.getPending(), statistics.getApproved(), statistics.getRejected(),
+                statistics.getTotal());
 
-        return DashboardStatisticsVO.builder()
-                .pending(pendingCount)
-                .approved(approvedCount)
-                .rejected(rejectedCount)
-                .total(totalCount)
-                .build();
+        return statistics;
     }
 
-    @Override
-    public List<RecentActivityVO> getRecentActivities(Long userId, int limit) {
+    private List<RecentActivityVO> loadRecentActivities(Long userId, int limit) {
         List<RecentActivityVO> activities = new ArrayList<>();
 
         // 限制 limit 在合理范围内，防止负数或过大值影响性能
@@ -107,11 +220,10 @@ public class DashboardServiceImpl implements DashboardService {
                 .orderByDesc(ApprovalRecord::getCreatedAt)
                 .last("LIMIT " + limit);
         List<ApprovalRecord> recentRecords = approvalRecordMapper.selectList(wrapper);
+        ApprovalRecordAssembler.Lookup lookup = approvalRecordAssembler.lookup(recentRecords);
 
         for (ApprovalRecord record : recentRecords) {
-            ApprovalType type = approvalTypeMapper.selectOne(
-                    new LambdaQueryWrapper<ApprovalType>()
-                            .eq(ApprovalType::getCode, record.getTypeCode()));
+            ApprovalType type = lookup.typeOf(record);
 
             String activityType = "created";
             LocalDateTime activityTime = record.getCreatedAt();
@@ -147,55 +259,35 @@ public class DashboardServiceImpl implements DashboardService {
         return activities;
     }
 
-    @Override
-    public List<TrendDataVO> getTrendData(Long userId, int days) {
+    private List<TrendDataVO> loadTrendData(Long userId, int days) {
         // 限制天数范围
         days = Math.max(7, Math.min(days, 90));
 
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(days - 1);
-        LocalDateTime startDateTime = startDate.atStartOfDay();
 
-        // 查询该时间范围内的所有审批记录
-        LambdaQueryWrapper<ApprovalRecord> wrapper = new LambdaQueryWrapper<>();
-        wrapper.ge(ApprovalRecord::getCreatedAt, startDateTime)
-                .orderByAsc(ApprovalRecord::getCreatedAt);
-        List<ApprovalRecord> records = approvalRecordMapper.selectList(wrapper);
+        // 每日汇总按日期合计（每天一行，至多 90 行）
+        Map<LocalDate, ApprovalDailyStats> dailyTotals = approvalDailyStatsMapper
+                .selectDailyTotals(startDate, endDate).stream()
+                .collect(Collectors.toMap(ApprovalDailyStats::getStatDate, d -> d));
 
-        // 按日期分组统计
-        Map<String, TrendDataVO> dateMap = new LinkedHashMap<>();
+        // 补齐无数据的日期
+        List<TrendDataVO> trend = new ArrayList<>(days);
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-        // 初始化所有日期
         for (int i = 0; i < days; i++) {
-            String dateStr = startDate.plusDays(i).format(formatter);
-            dateMap.put(dateStr, TrendDataVO.builder()
-                    .date(dateStr)
-                    .count(0)
-                    .approved(0)
-                    .rejected(0)
+            LocalDate date = startDate.plusDays(i);
+            ApprovalDailyStats daily = dailyTotals.get(date);
+            trend.add(TrendDataVO.builder()
+                    .date(date.format(formatter))
+                    .count(daily != null ? Math.toIntExact(daily.getSubmitted()) : 0)
+                    .approved(daily != null ? Math.toIntExact(daily.getApproved()) : 0)
+                    .rejected(daily != null ? Math.toIntExact(daily.getRejected()) : 0)
                     .build());
         }
-
-        // 统计每日数据
-        for (ApprovalRecord record : records) {
-            String dateStr = record.getCreatedAt().toLocalDate().format(formatter);
-            TrendDataVO trend = dateMap.get(dateStr);
-            if (trend != null) {
-                trend.setCount(trend.getCount() + 1);
-                if (record.getStatus() == STATUS_APPROVED) {
-                    trend.setApproved(trend.getApproved() + 1);
-                } else if (record.getStatus() == STATUS_REJECTED) {
-                    trend.setRejected(trend.getRejected() + 1);
-                }
-            }
-        }
-
-        return new ArrayList<>(dateMap.values());
+        return trend;
     }
 
-    @Override
-    public List<TypeDistributionVO> getTypeDistribution(Long userId) {
+    private List<TypeDistributionVO> loadTypeDistribution(Long userId) {
         // 定义图表颜色
         String[] chartColors = {
                 "hsl(var(--chart-1))",
@@ -205,10 +297,8 @@ public class DashboardServiceImpl implements DashboardService {
                 "hsl(var(--chart-5))"
         };
 
-        // 查询所有审批记录并按类型分组
-        List<ApprovalRecord> allRecords = approvalRecordMapper.selectList(null);
-        Map<String, Long> typeCountMap = allRecords.stream()
-                .collect(Collectors.groupingBy(ApprovalRecord::getTypeCode, Collectors.counting()));
+        // 各类型提交总数（增量维护的计数表汇总，内存快照，不扫描审批记录）
+        Map<String, ApprovalTypeStats> typeCountMap = approvalTypeCounters.totals();
 
         // 获取所有审批类型
         List<ApprovalType> allTypes = approvalTypeMapper.selectList(null);
@@ -219,7 +309,11 @@ public class DashboardServiceImpl implements DashboardService {
         List<TypeDistributionVO> distribution = new ArrayList<>();
         int colorIndex = 0;
 
-        for (Map.Entry<String, Long> entry : typeCountMap.entrySet()) {
+        for (Map.Entry<String, ApprovalTypeStats> entry : typeCountMap.entrySet()) {
+            long count = entry.getValue().getTotal();
+            if (count <= 0) {
+                continue;
+            }
             ApprovalType type = typeMap.get(entry.getKey());
             String typeName = type != null ? type.getName() : entry.getKey();
             String color = type != null && type.getColor() != null ? type.getColor()
@@ -227,7 +321,7 @@ public class DashboardServiceImpl implements DashboardService {
 
             distribution.add(TypeDistributionVO.builder()
                     .name(typeName)
-                    .value(entry.getValue().intValue())
+                    .value(Math.toIntExact(count))
                     .color(color)
                     .build());
             colorIndex++;
@@ -239,27 +333,15 @@ public class DashboardServiceImpl implements DashboardService {
         return distribution;
     }
 
-    @Override
-    public EfficiencyMetricsVO getEfficiencyMetrics(Long userId) {
+    private EfficiencyMetricsVO loadEfficiencyMetrics(Long userId) {
         YearMonth currentMonth = YearMonth.now();
         YearMonth lastMonth = currentMonth.minusMonths(1);
 
-        LocalDateTime currentMonthStart = currentMonth.atDay(1).atStartOfDay();
-        LocalDateTime currentMonthEnd = currentMonth.atEndOfMonth().atTime(23, 59, 59);
-        LocalDateTime lastMonthStart = lastMonth.atDay(1).atStartOfDay();
-        LocalDateTime lastMonthEnd = lastMonth.atEndOfMonth().atTime(23, 59, 59);
-
-        // 本月审批量
-        LambdaQueryWrapper<ApprovalRecord> currentMonthWrapper = new LambdaQueryWrapper<>();
-        currentMonthWrapper.ge(ApprovalRecord::getCreatedAt, currentMonthStart)
-                .le(ApprovalRecord::getCreatedAt, currentMonthEnd);
-        int monthlyCount = Math.toIntExact(approvalRecordMapper.selectCount(currentMonthWrapper));
-
-        // 上月审批量
-        LambdaQueryWrapper<ApprovalRecord> lastMonthWrapper = new LambdaQueryWrapper<>();
-        lastMonthWrapper.ge(ApprovalRecord::getCreatedAt, lastMonthStart)
-                .le(ApprovalRecord::getCreatedAt, lastMonthEnd);
-        int lastMonthCount = Math.toIntExact(approvalRecordMapper.selectCount(lastMonthWrapper));
+        // 一次扫描每日汇总：本月、上月审批量（按提交日期），全局已通过、已拒绝数与处理时长
+        ApprovalDailyStatsMapper.EfficiencyTotals totals = approvalDailyStatsMapper.selectEfficiencyTotals(
+                currentMonth.atDay(1), currentMonth.plusMonths(1).atDay(1), lastMonth.atDay(1));
+        int monthlyCount = Math.toIntExact(totals.getMonthlySubmitted());
+        int lastMonthCount = Math.toIntExact(totals.getLastMonthSubmitted());
 
         // 计算环比变化
         double monthlyChange = 0.0;
@@ -267,34 +349,10 @@ public class DashboardServiceImpl implements DashboardService {
             monthlyChange = ((double) (monthlyCount - lastMonthCount) / lastMonthCount) * 100;
         }
 
-        // 计算审批通过率（全局）
-        LambdaQueryWrapper<ApprovalRecord> approvedWrapper = new LambdaQueryWrapper<>();
-        approvedWrapper.eq(ApprovalRecord::getStatus, STATUS_APPROVED);
-        long approvedTotal = approvalRecordMapper.selectCount(approvedWrapper);
-
-        LambdaQueryWrapper<ApprovalRecord> completedWrapper = new LambdaQueryWrapper<>();
-        completedWrapper.in(ApprovalRecord::getStatus, STATUS_APPROVED, STATUS_REJECTED);
-        long completedTotal = approvalRecordMapper.selectCount(completedWrapper);
-
-        double approvalRate = completedTotal > 0 ? ((double) approvedTotal / completedTotal) * 100 : 0;
-
-        // 计算平均处理时间（已完成的审批）
-        List<ApprovalRecord> completedRecords = approvalRecordMapper.selectList(completedWrapper);
-        double avgProcessTime = 0.0;
-        if (!completedRecords.isEmpty()) {
-            long totalHours = 0;
-            int validCount = 0;
-            for (ApprovalRecord record : completedRecords) {
-                if (record.getCompletedAt() != null && record.getCreatedAt() != null) {
-                    Duration duration = Duration.between(record.getCreatedAt(), record.getCompletedAt());
-                    totalHours += duration.toHours();
-                    validCount++;
-                }
-            }
-            if (validCount > 0) {
-                avgProcessTime = (double) totalHours / validCount;
-            }
-        }
+        // 审批通过率与平均处理时间（全局，已通过与已拒绝的审批）
+        long completedTotal = totals.getApproved() + totals.getRejected();
+        double approvalRate = completedTotal > 0 ? ((double) totals.getApproved() / completedTotal) * 100 : 0;
+        double avgProcessTime = completedTotal > 0 ? totals.getProcessSeconds() / 3600.0 / completedTotal : 0;
 
         return EfficiencyMetricsVO.builder()
                 .avgProcessTime(Math.round(avgProcessTime * 10) / 10.0)
@@ -304,38 +362,29 @@ public class DashboardServiceImpl implements DashboardService {
                 .build();
     }
 
-    @Override
-    public List<TodoItemVO> getTodoList(Long userId, int limit) {
+    private List<TodoItemVO> loadTodoList(Long userId, int limit) {
         limit = Math.max(1, Math.min(limit, 20));
 
-        // 查询待当前用户审批的节点
-        LambdaQueryWrapper<ApprovalNode> nodeWrapper = new LambdaQueryWrapper<>();
-        nodeWrapper.eq(ApprovalNode::getApproverId, userId)
-                .eq(ApprovalNode::getStatus, 0) // 0 = 待审批
-                .orderByDesc(ApprovalNode::getCreatedAt)
-                .last("LIMIT " + limit);
-        List<ApprovalNode> pendingNodes = approvalNodeMapper.selectList(nodeWrapper);
+        // 通过待办索引查询待当前用户审批的记录（索引只包含未结束审批的当前节点）
+        List<ApprovalRecord> todoRecords = approvalTodoMapper.selectLatestTodos(userId, limit);
+        ApprovalRecordAssembler.Lookup lookup = approvalRecordAssembler.lookup(todoRecords);
 
         List<TodoItemVO> todoList = new ArrayList<>();
 
-        for (ApprovalNode node : pendingNodes) {
-            // 获取对应的审批记录
-            ApprovalRecord record = approvalRecordMapper.selectById(node.getApprovalId());
-            if (record == null || record.getStatus() > STATUS_IN_PROGRESS) {
+        for (ApprovalRecord record : todoRecords) {
+            if (record.getStatus() > STATUS_IN_PROGRESS) {
                 continue; // 跳过已完成的审批
             }
 
             // 获取发起人信息
-            SysUser initiator = sysUserMapper.selectById(record.getInitiatorId());
+            SysUser initiator = lookup.initiatorOf(record);
             String applicantName = initiator != null ? initiator.getNickname() : "未知用户";
             if (applicantName == null || applicantName.isEmpty()) {
                 applicantName = initiator != null ? initiator.getUsername() : "未知用户";
             }
 
             // 获取审批类型
-            ApprovalType type = approvalTypeMapper.selectOne(
-                    new LambdaQueryWrapper<ApprovalType>()
-                            .eq(ApprovalType::getCode, record.getTypeCode()));
+            ApprovalType type = lookup.typeOf(record);
             String typeName = type != null ? type.getName() : record.getTypeCode();
 
             // 计算等待时间
@@ -361,46 +410,28 @@ public class DashboardServiceImpl implements DashboardService {
         return todoList;
     }
 
-    @Override
-    public List<TypeEfficiencyVO> getTypeEfficiency(Long userId) {
-        // 1. 查询所有已完成的审批记录（我的）
-        LambdaQueryWrapper<ApprovalRecord> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(ApprovalRecord::getInitiatorId, userId)
-                .in(ApprovalRecord::getStatus, STATUS_APPROVED, STATUS_REJECTED)
-                .isNotNull(ApprovalRecord::getCompletedAt)
-                .isNotNull(ApprovalRecord::getCreatedAt);
-        List<ApprovalRecord> records = approvalRecordMapper.selectList(wrapper);
-
-        // 2. 按类型分组计算平均时间 (使用秒以最大化精度)
-        Map<String, List<Long>> typeDurationMap = new HashMap<>();
-
-        for (ApprovalRecord record : records) {
-            String typeCode = record.getTypeCode();
-            Duration duration = Duration.between(record.getCreatedAt(), record.getCompletedAt());
-            typeDurationMap.computeIfAbsent(typeCode, k -> new ArrayList<>()).add(duration.toSeconds());
-        }
+    private List<TypeEfficiencyVO> loadTypeEfficiency(Long userId) {
+        // 1. 按类型合计我发起的已结束审批数与处理时长（每日汇总，每个类型一行）
+        List<ApprovalDailyStats> typeTotals = approvalDailyStatsMapper.selectInitiatorTypeTotals(userId);
 
-        // 3. 获取类型名称并构建结果
+        // 2. 获取类型名称并构建结果
         List<TypeEfficiencyVO> result = new ArrayList<>();
         List<ApprovalType> allTypes = approvalTypeMapper.selectList(null);
         Map<String, String> typeNameMap = allTypes.stream()
                 .collect(Collectors.toMap(ApprovalType::getCode, ApprovalType::getName));
 
-        for (Map.Entry<String, List<Long>> entry : typeDurationMap.entrySet()) {
-            String typeCode = entry.getKey();
-            List<Long> durations = entry.getValue();
-
-            // 计算平均秒数
-            double avgSeconds = durations.stream()
-                    .mapToLong(Long::longValue)
-                    .average()
-                    .orElse(0.0);
+        for (ApprovalDailyStats totals : typeTotals) {
+            long completed = valueOf(totals, ApprovalDailyStats::getApproved)
+                    + valueOf(totals, ApprovalDailyStats::getRejected);
+            if (completed == 0) {
+                continue;
+            }
 
-            // 转换为小时，保留两位小数
-            double avgHours = avgSeconds / 3600.0;
+            // 平均秒数转换为小时，保留两位小数
+            double avgHours = (double) valueOf(totals, ApprovalDailyStats::getProcessSeconds) / completed / 3600.0;
 
             result.add(TypeEfficiencyVO.builder()
-                    .typeName(typeNameMap.getOrDefault(typeCode, typeCode))
+                    .typeName(typeNameMap.getOrDefault(totals.getTypeCode(), totals.getTypeCode()))
                     .avgProcessTime(Math.round(avgHours * 100) / 100.0)
                     .build());
         }
@@ -410,37 +441,20 @@ public class DashboardServiceImpl implements DashboardService {
         return result;
     }
 
-    @Override
-    public List<DailySubmissionVO> getSubmissionHeatmap(Long userId) {
-        // 1. 获取过去一年的日期范围
-        LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusYears(1);
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-
-        // 2. 查询每日提交数量
-        LambdaQueryWrapper<ApprovalRecord> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(ApprovalRecord::getInitiatorId, userId)
-                .ge(ApprovalRecord::getCreatedAt, startDateTime);
-        List<ApprovalRecord> records = approvalRecordMapper.selectList(wrapper);
+    private List<DailySubmissionVO> loadSubmissionHeatmap(Long userId) {
+        // 1. 查询过去一年每日提交数量（每日汇总，每天一行，至多 366 行）
+        LocalDate startDate = LocalDate.now().minusYears(1);
+        List<ApprovalDailyStats> daily = approvalDailyStatsMapper.selectInitiatorDaily(userId, startDate);
 
-        // 3. 统计每日数量
+        // 2. 构建结果并计算热度等级
+        List<DailySubmissionVO> result = new ArrayList<>(daily.size());
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        Map<String, Integer> dateCountMap = new HashMap<>();
-
-        for (ApprovalRecord record : records) {
-            String date = record.getCreatedAt().toLocalDate().format(formatter);
-            dateCountMap.merge(date, 1, (a, b) -> a + b);
-        }
-
-        // 4. 构建结果并计算热度等级
-        List<DailySubmissionVO> result = new ArrayList<>();
         // 找出最大值以计算相对热度
-        int maxCount = dateCountMap.values().stream().max(Integer::compareTo).orElse(1);
+        long maxCount = daily.stream().mapToLong(ApprovalDailyStats::getSubmitted).max().orElse(1);
 
-        // 生成每一天的数据（包括零提交的日期，或者只返回有数据的日期由前端补全？通常热力图库需要完整数据或能处理缺失）
-        // 这里只返回有数据的日期，前端日历库通常能处理
-        for (Map.Entry<String, Integer> entry : dateCountMap.entrySet()) {
-            int count = entry.getValue();
+        // 只返回有数据的日期，前端日历库能处理缺失的日期
+        for (ApprovalDailyStats day : daily) {
+            int count = Math.toIntExact(day.getSubmitted());
             // 简单的等级计算：根据最大值分5档 (0-4)
             int level;
             if (count == 0)
@@ -455,7 +469,7 @@ public class DashboardServiceImpl implements DashboardService {
                 level = 4;
 
             result.add(DailySubmissionVO.builder()
-                    .date(entry.getKey())
+                    .date(day.getStatDate().format(formatter))
                     .count(count)
                     .level(level)
                     .build());
@@ -464,6 +478,24 @@ public class DashboardServiceImpl implements DashboardService {
         return result;
     }
 
+    @Override
+    public int rebuildDailyStats() {
+        int rows = approvalDailyRollup.rebuild();
+        dashboardCache.invalidateAll();
+        return rows;
+    }
+
+    /**
+     * 汇总字段值，无数据（SUM 结果为空）时为 0
+     */
+    private static long valueOf(ApprovalDailyStats totals, Function<ApprovalDailyStats, Long> field) {
+        if (totals == null) {
+            return 0;
+        }
+        Long value = field.apply(totals);
+        return value != null ? value : 0;
+    }
+
     /**
      * 计算相对时间
      */
@@ -488,4 +520,54 @@ public class DashboardServiceImpl implements DashboardService {
             return (days / 30) + "个月前";
         }
     }
+
+    /**
+     * 提交一个区块的加载任务（其 SQL 计入当前请求的计数），线程池饱和时该区块本次不加载
+     */
+    private <T> Section<T> submit(String name, Supplier<T> loader, Consumer<T> setter) {
+        Supplier<T> task = QueryCounter.wrap(loader);
+        Future<T> future;
+        try {
+            future = summaryExecutor.submit(task::get);
+        } catch (RejectedExecutionException ex) {
+            future = null;
+        }
+        return new Section<>(name, future, setter);
+    }
+
+    /**
+     * 汇总接口的一个区块
+     *
+     * @param name   区块名（汇总VO中的字段名）
+     * @param future 加载任务，线程池饱和未提交时为 null
+     * @param setter 加载成功后写入汇总VO
+     */
+    private record Section<T>(String name, Future<T> future, Consumer<T> setter) {
+
+        /**
+         * 等待加载结果直到截止时间，超时取消任务
+         *
+         * @param deadline 截止时间（System.nanoTime）
+         * @return ok、timeout、failed 或 rejected
+         */
+        String await(long deadline) {
+            if (future == null) {
+                return "rejected";
+            }
+            try {
+                setter.accept(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                return SECTION_OK;
+            } catch (TimeoutException ex) {
+                future.cancel(true);
+                return "timeout";
+            } catch (ExecutionException ex) {
+                log.warn("仪表盘区块 {} 加载失败", name, ex.getCause());
+                return "failed";
+            } catch (InterruptedException ex) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                return "timeout";
+            }
+        }
+    }
 }
@@ -8,6 +8,7 @@ import com.approval.mapper.SysDepartmentMapper;
 import com.approval.mapper.SysUserMapper;
 import com.approval.service.DepartmentService;
 import com.approval.vo.DepartmentTreeVO;
+import com.approval.workflow.WorkflowDefinitionRegistry;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -29,6 +30,7 @@ public class DepartmentServiceImpl implements DepartmentService {
 
     private final SysDepartmentMapper departmentMapper;
     private final SysUserMapper userMapper;
+    private final WorkflowDefinitionRegistry workflowDefinitionRegistry;
 
     /**
      * 获取完整部门树形结构
@@ -125,6 +127,7 @@ public class DepartmentServiceImpl implements DepartmentService {
                 .build();
 
         departmentMapper.insert(department);
+        workflowDefinitionRegistry.invalidateDepartments();
         return department;
     }
 
@@ -179,6 +182,7 @@ public class DepartmentServiceImpl implements DepartmentService {
         department.setUpdatedAt(LocalDateTime.now());
 
         departmentMapper.updateById(department);
+        workflowDefinitionRegistry.invalidateDepartments();
         return department;
     }
 
@@ -208,6 +212,7 @@ public class DepartmentServiceImpl implements DepartmentService {
         }
 
         departmentMapper.deleteById(id);
+        workflowDefinitionRegistry.invalidateDepartments();
     }
 
     /**
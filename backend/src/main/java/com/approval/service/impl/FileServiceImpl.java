@@ -1,6 +1,7 @@
 package com.approval.service.impl;
 
 import com.approval.entity.Attachment;
+import com.approval.exception.BusinessException;
 import com.approval.mapper.AttachmentMapper;
 import com.approval.service.FileService;
 import com.approval.util.FileUtil;
@@ -10,6 +11,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 /**
  * 文件服务实现类
  */
@@ -63,6 +68,18 @@ public class FileServiceImpl implements FileService {
         }
     }
 
+    @Override
+    public void linkAttachments(Collection<String> attachmentIds, String approvalId, Long uploaderId) {
+        if (attachmentIds == null || attachmentIds.isEmpty()) {
+            return;
+        }
+        Set<String> distinctIds = new LinkedHashSet<>(attachmentIds);
+        int linked = attachmentMapper.linkToApproval(approvalId, uploaderId, distinctIds);
+        if (linked != distinctIds.size()) {
+            throw new BusinessException(400, "附件不存在、已被关联或不属于当前用户");
+        }
+    }
+
     @Override
     public void deleteById(String id) {
         Attachment attachment = attachmentMapper.selectById(id);
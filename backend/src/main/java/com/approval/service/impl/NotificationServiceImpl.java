@@ -1,8 +1,13 @@
 package com.approval.service.impl;
 
+import com.approval.common.PageCursor;
+import com.approval.common.PageResult;
 import com.approval.entity.Notification;
+import com.approval.entity.NotificationOutbox;
 import com.approval.exception.BusinessException;
 import com.approval.mapper.NotificationMapper;
+import com.approval.mapper.NotificationOutboxMapper;
+import com.approval.notification.NotificationDispatcher;
 import com.approval.service.NotificationService;
 import com.approval.vo.NotificationVO;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
@@ -14,6 +19,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 /**
  * 通知服务实现类
@@ -24,6 +33,13 @@ import java.time.LocalDateTime;
 public class NotificationServiceImpl implements NotificationService {
 
     private final NotificationMapper notificationMapper;
+    private final NotificationOutboxMapper notificationOutboxMapper;
+    private final NotificationDispatcher notificationDispatcher;
+
+    /**
+     * 单条多行 INSERT 写入的发件箱事件数上限
+     */
+    private static final int OUTBOX_INSERT_CHUNK = 500;
 
     /**
      * 通知类型常量
@@ -34,19 +50,40 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional
     public void sendApprovalNotification(String approvalId, Long receiverId, String title, String content) {
-        Notification notification = Notification.builder()
-                .userId(receiverId)
-                .title(title)
-                .content(content)
-                .type(TYPE_APPROVAL)
-                .relatedId(approvalId)
-                .isRead(0)
-                .createdAt(LocalDateTime.now())
-                .build();
-        notificationMapper.insert(notification);
+        enqueue(List.of(outboxEvent(approvalId, receiverId, title, content, LocalDateTime.now())));
         log.info("发送审批通知给用户 {}: {}", receiverId, title);
     }
 
+    @Override
+    @Transactional
+    public void sendApprovalNotifications(String approvalId, Collection<Long> receiverIds, String title, String content) {
+        if (receiverIds == null || receiverIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutbox> events = new ArrayList<>();
+        for (Long receiverId : new LinkedHashSet<>(receiverIds)) {
+            events.add(outboxEvent(approvalId, receiverId, title, content, now));
+        }
+        enqueue(events);
+        log.info("批量发送审批通知给 {} 位用户: {}", events.size(), title);
+    }
+
+    @Override
+    @Transactional
+    public void sendApprovalNotices(Collection<ApprovalNotice> notices) {
+        if (notices == null || notices.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutbox> events = new ArrayList<>(notices.size());
+        for (ApprovalNotice notice : notices) {
+            events.add(outboxEvent(notice.approvalId(), notice.receiverId(), notice.title(), notice.content(), now));
+        }
+        enqueue(events);
+        log.info("批量发送 {} 条审批通知", events.size());
+    }
+
     @Override
     @Transactional
     public void sendSystemNotification(Long receiverId, String title, String content) {
@@ -77,6 +114,32 @@ public class NotificationServiceImpl implements NotificationService {
         return resultPage.convert(NotificationVO::from);
     }
 
+    @Override
+    public PageResult<NotificationVO> getNotificationsByCursor(Long userId, String cursor, int pageSize,
+                                                               Boolean isRead) {
+        PageCursor position = PageCursor.decode(cursor);
+        int size = PageCursor.clampPageSize(pageSize);
+
+        LambdaQueryWrapper<Notification> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(Notification::getUserId, userId);
+        if (isRead != null) {
+            wrapper.eq(Notification::getIsRead, isRead ? 1 : 0);
+        }
+        if (position != null) {
+            wrapper.and(w -> w.lt(Notification::getCreatedAt, position.createdAt())
+                    .or(o -> o.eq(Notification::getCreatedAt, position.createdAt())
+                            .lt(Notification::getId, position.id())));
+        }
+        wrapper.orderByDesc(Notification::getCreatedAt).orderByDesc(Notification::getId);
+
+        // 多取一条判断是否还有下一页，不执行 COUNT
+        List<NotificationVO> list = notificationMapper.selectPage(new Page<>(1, size + 1, false), wrapper)
+                .getRecords().stream()
+                .map(NotificationVO::from)
+                .toList();
+        return PageResult.ofCursor(list, size, NotificationVO::getCreatedAt, NotificationVO::getId);
+    }
+
     @Override
     @Transactional
     public void markAsRead(String id, Long userId) {
@@ -108,4 +171,26 @@ public class NotificationServiceImpl implements NotificationService {
                 .eq(Notification::getIsRead, 0);
         return Math.toIntExact(notificationMapper.selectCount(wrapper));
     }
+
+    /**
+     * 写入发件箱，事务提交后唤醒投递器
+     */
+    private void enqueue(List<NotificationOutbox> events) {
+        for (int i = 0; i < events.size(); i += OUTBOX_INSERT_CHUNK) {
+            notificationOutboxMapper.insertBatch(events.subList(i, Math.min(i + OUTBOX_INSERT_CHUNK, events.size())));
+        }
+        notificationDispatcher.wakeUpAfterCommit();
+    }
+
+    private NotificationOutbox outboxEvent(String approvalId, Long receiverId, String title, String content,
+                                           LocalDateTime createdAt) {
+        return NotificationOutbox.builder()
+                .userId(receiverId)
+                .title(title)
+                .content(content)
+                .type(TYPE_APPROVAL)
+                .relatedId(approvalId)
+                .createdAt(createdAt)
+                .build();
+    }
 }
@@ -1,5 +1,6 @@
 package com.approval.service.impl;
 
+import com.approval.common.PageCursor;
 import com.approval.common.PageResult;
 import com.approval.dto.OperationLogQueryDTO;
 import com.approval.entity.OperationLog;
@@ -76,7 +77,13 @@ public class OperationLogServiceImpl implements OperationLogService {
      */
     @Override
     public PageResult<OperationLogVO> queryLogs(OperationLogQueryDTO queryDTO) {
-        Page<OperationLogVO> page = new Page<>(queryDTO.getPage(), queryDTO.getPageSize());
+        // 游标模式：多取一条判断是否还有下一页，不执行 COUNT
+        boolean cursorMode = queryDTO.getCursor() != null;
+        PageCursor position = cursorMode ? PageCursor.decode(queryDTO.getCursor()) : null;
+        int cursorPageSize = PageCursor.clampPageSize(queryDTO.getPageSize());
+        Page<OperationLogVO> page = cursorMode
+                ? new Page<>(1, cursorPageSize + 1, false)
+                : new Page<>(queryDTO.getPage(), queryDTO.getPageSize());
 
         // 转换日期为时间范围
         LocalDateTime startTime = null;
@@ -98,13 +105,19 @@ public class OperationLogServiceImpl implements OperationLogService {
                 queryDTO.getTargetId(),
                 startTime,
                 endTime,
-                queryDTO.getKeyword());
+                queryDTO.getKeyword(),
+                position != null ? position.createdAt() : null,
+                position != null ? position.longId() : null);
 
         // 填充模块名称和操作名称
         for (OperationLogVO vo : resultPage.getRecords()) {
             fillNames(vo);
         }
 
+        if (cursorMode) {
+            return PageResult.ofCursor(resultPage.getRecords(), cursorPageSize,
+                    OperationLogVO::getCreatedAt, OperationLogVO::getId);
+        }
         return PageResult.of(resultPage);
     }
 
@@ -12,6 +12,7 @@ import com.approval.mapper.SysDepartmentMapper;
 import com.approval.mapper.SysRoleMapper;
 import com.approval.mapper.SysUserMapper;
 import com.approval.mapper.SysUserRoleMapper;
+import com.approval.security.UserSecurityVersionRegistry;
 import com.approval.service.UserService;
 import com.approval.vo.UserVO;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
@@ -24,8 +25,10 @@ import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -41,6 +44,7 @@ public class UserServiceImpl implements UserService {
     private final SysUserRoleMapper userRoleMapper;
     private final SysDepartmentMapper departmentMapper;
     private final PasswordEncoder passwordEncoder;
+    private final UserSecurityVersionRegistry securityVersionRegistry;
 
     /**
      * 分页查询用户列表
@@ -216,6 +220,11 @@ public class UserServiceImpl implements UserService {
             }
         }
 
+        // 记录影响认证的字段，变更后需吊销该用户已签发的 Token
+        boolean credentialsChanged = !user.getUsername().equals(dto.getUsername())
+                || (dto.getStatus() != null && !Objects.equals(user.getStatus(), dto.getStatus()))
+                || StringUtils.hasText(dto.getPassword());
+
         // 更新字段
         user.setUsername(dto.getUsername());
         user.setNickname(dto.getNickname());
@@ -239,7 +248,11 @@ public class UserServiceImpl implements UserService {
 
         // 更新角色
         if (dto.getRoleIds() != null) {
-            updateUserRoles(id, dto.getRoleIds());
+            credentialsChanged |= updateUserRoles(id, dto.getRoleIds());
+        }
+
+        if (credentialsChanged) {
+            securityVersionRegistry.revoke(id);
         }
 
         Map<Long, String> deptNameMap = getDepartmentNameMap();
@@ -271,6 +284,7 @@ public class UserServiceImpl implements UserService {
 
         // 删除用户
         userMapper.deleteById(id);
+        securityVersionRegistry.revoke(id);
     }
 
     /**
@@ -292,9 +306,14 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException(400, "不能禁用系统管理员账户");
         }
 
+        boolean statusChanged = !Objects.equals(user.getStatus(), status);
         user.setStatus(status);
         user.setUpdatedAt(LocalDateTime.now());
         userMapper.updateById(user);
+
+        if (statusChanged) {
+            securityVersionRegistry.revoke(id);
+        }
     }
 
     /**
@@ -326,6 +345,7 @@ public class UserServiceImpl implements UserService {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setUpdatedAt(LocalDateTime.now());
         userMapper.updateById(user);
+        securityVersionRegistry.revoke(userId);
     }
 
     /**
@@ -333,8 +353,19 @@ public class UserServiceImpl implements UserService {
      *
      * @param userId  用户ID
      * @param roleIds 角色ID列表
+     * @return 角色集合是否发生变化
      */
-    private void updateUserRoles(Long userId, List<Long> roleIds) {
+    private boolean updateUserRoles(Long userId, List<Long> roleIds) {
+        List<Long> currentRoleIds = userRoleMapper.selectList(
+                new LambdaQueryWrapper<SysUserRole>()
+                        .eq(SysUserRole::getUserId, userId))
+                .stream()
+                .map(SysUserRole::getRoleId)
+                .collect(Collectors.toList());
+        if (new HashSet<>(currentRoleIds).equals(new HashSet<>(roleIds))) {
+            return false;
+        }
+
         // 删除现有角色关联
         userRoleMapper.delete(
                 new LambdaQueryWrapper<SysUserRole>()
@@ -351,6 +382,7 @@ public class UserServiceImpl implements UserService {
                 userRoleMapper.insert(userRole);
             }
         }
+        return true;
     }
 
     /**
@@ -11,6 +11,9 @@ import com.approval.mapper.*;
 import com.approval.service.WorkflowService;
 import com.approval.vo.WorkflowNodeVO;
 import com.approval.vo.WorkflowVO;
+import com.approval.workflow.ApproveMode;
+import com.approval.workflow.ConditionCompiler;
+import com.approval.workflow.WorkflowDefinitionRegistry;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
@@ -21,7 +24,11 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -37,6 +44,7 @@ public class WorkflowServiceImpl implements WorkflowService {
     private final ApprovalTypeMapper approvalTypeMapper;
     private final SysUserMapper sysUserMapper;
     private final SysPositionMapper sysPositionMapper;
+    private final WorkflowDefinitionRegistry workflowDefinitionRegistry;
 
     @Override
     public IPage<WorkflowVO> getWorkflowList(int page, int pageSize, String typeCode, Integer status) {
@@ -64,9 +72,10 @@ public class WorkflowServiceImpl implements WorkflowService {
             if (creator != null) {
                 vo.setCreatedByName(creator.getNickname());
             }
-            // 获取节点数量
+            // 获取当前版本的节点数量
             LambdaQueryWrapper<WorkflowNodeTemplate> nodeWrapper = new LambdaQueryWrapper<>();
-            nodeWrapper.eq(WorkflowNodeTemplate::getWorkflowId, template.getId());
+            nodeWrapper.eq(WorkflowNodeTemplate::getWorkflowId, template.getId())
+                    .eq(WorkflowNodeTemplate::getVersion, template.getVersion());
             vo.setNodeCount(Math.toIntExact(workflowNodeTemplateMapper.selectCount(nodeWrapper)));
             return vo;
         });
@@ -93,8 +102,8 @@ public class WorkflowServiceImpl implements WorkflowService {
             vo.setCreatedByName(creator.getNickname());
         }
 
-        // 获取节点列表
-        List<WorkflowNodeTemplate> nodes = workflowNodeTemplateMapper.selectByWorkflowId(id);
+        // 获取当前版本的节点列表
+        List<WorkflowNodeTemplate> nodes = workflowNodeTemplateMapper.selectByVersion(id, template.getVersion());
         List<WorkflowNodeVO> nodeVOs = nodes.stream()
                 .map(node -> {
                     WorkflowNodeVO nodeVO = WorkflowNodeVO.from(node);
@@ -133,6 +142,7 @@ public class WorkflowServiceImpl implements WorkflowService {
                 .typeCode(request.getTypeCode())
                 .description(request.getDescription())
                 .status(request.getStatus() != null ? request.getStatus() : 1)
+                .version(1)
                 .createdBy(userId)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
@@ -140,18 +150,24 @@ public class WorkflowServiceImpl implements WorkflowService {
         workflowTemplateMapper.insert(template);
 
         // 创建节点
+        List<WorkflowNodeTemplate> nodes = new ArrayList<>(request.getNodes().size());
         for (WorkflowCreateRequest.NodeConfig nodeConfig : request.getNodes()) {
-            WorkflowNodeTemplate node = WorkflowNodeTemplate.builder()
+            nodes.add(WorkflowNodeTemplate.builder()
                     .workflowId(template.getId())
+                    .version(template.getVersion())
                     .nodeName(nodeConfig.getNodeName())
                     .nodeOrder(nodeConfig.getNodeOrder())
                     .approverType(nodeConfig.getApproverType())
                     .approverId(nodeConfig.getApproverId())
+                    .approveMode(nodeConfig.getApproveMode())
+                    .requiredCount(nodeConfig.getRequiredCount())
+                    .conditionExpr(nodeConfig.getCondition())
                     .createdAt(LocalDateTime.now())
-                    .build();
-            workflowNodeTemplateMapper.insert(node);
+                    .build());
         }
+        insertNodes(template, nodes);
 
+        workflowDefinitionRegistry.invalidateDefinitions();
         log.info("用户 {} 创建工作流模板: {}", userId, template.getName());
         return getWorkflowDetail(template.getId());
     }
@@ -159,10 +175,11 @@ public class WorkflowServiceImpl implements WorkflowService {
     @Override
     @Transactional
     public WorkflowVO updateWorkflow(Long id, WorkflowUpdateRequest request) {
-        WorkflowTemplate template = workflowTemplateMapper.selectById(id);
-        if (template == null) {
+        // 先递增版本号（锁定模板行，并发修改按顺序各自得到新版本）
+        if (workflowTemplateMapper.incrementVersion(id) == 0) {
             throw new BusinessException(5001, "工作流模版不存在");
         }
+        WorkflowTemplate template = workflowTemplateMapper.selectById(id);
 
         // 更新模板信息
         template.setName(request.getName());
@@ -173,24 +190,25 @@ public class WorkflowServiceImpl implements WorkflowService {
         template.setUpdatedAt(LocalDateTime.now());
         workflowTemplateMapper.updateById(template);
 
-        // 删除旧节点
-        LambdaQueryWrapper<WorkflowNodeTemplate> deleteWrapper = new LambdaQueryWrapper<>();
-        deleteWrapper.eq(WorkflowNodeTemplate::getWorkflowId, id);
-        workflowNodeTemplateMapper.delete(deleteWrapper);
-
-        // 创建新节点
+        // 以新版本追加节点，旧版本节点保持不变
+        List<WorkflowNodeTemplate> nodes = new ArrayList<>(request.getNodes().size());
         for (WorkflowUpdateRequest.NodeConfig nodeConfig : request.getNodes()) {
-            WorkflowNodeTemplate node = WorkflowNodeTemplate.builder()
+            nodes.add(WorkflowNodeTemplate.builder()
                     .workflowId(id)
+                    .version(template.getVersion())
                     .nodeName(nodeConfig.getNodeName())
                     .nodeOrder(nodeConfig.getNodeOrder())
                     .approverType(nodeConfig.getApproverType())
                     .approverId(nodeConfig.getApproverId())
+                    .approveMode(nodeConfig.getApproveMode())
+                    .requiredCount(nodeConfig.getRequiredCount())
+                    .conditionExpr(nodeConfig.getCondition())
                     .createdAt(LocalDateTime.now())
-                    .build();
-            workflowNodeTemplateMapper.insert(node);
+                    .build());
         }
+        insertNodes(template, nodes);
 
+        workflowDefinitionRegistry.invalidateDefinitions();
         log.info("更新工作流模板: {}", template.getName());
         return getWorkflowDetail(id);
     }
@@ -210,6 +228,7 @@ public class WorkflowServiceImpl implements WorkflowService {
 
         // 删除模板
         workflowTemplateMapper.deleteById(id);
+        workflowDefinitionRegistry.invalidateDefinitions();
         log.info("删除工作流模板: {}", template.getName());
     }
 
@@ -224,9 +243,64 @@ public class WorkflowServiceImpl implements WorkflowService {
         template.setStatus(status);
         template.setUpdatedAt(LocalDateTime.now());
         workflowTemplateMapper.updateById(template);
+        workflowDefinitionRegistry.invalidateDefinitions();
         log.info("更新工作流模板状态: {} -> {}", template.getName(), status == 1 ? "启用" : "禁用");
     }
 
+    /**
+     * 校验并写入节点模板
+     * 节点序号须从1开始连续编号；同一序号的多个节点组成并行节点组，组内完成规则须一致，
+     * N_OF_M 的通过人数须在 1 到组内节点数之间；节点条件在保存时编译，语法错误直接拒绝。
+     * 写入后把新版本登记到注册表，提交审批时不再解析
+     */
+    private void insertNodes(WorkflowTemplate template, List<WorkflowNodeTemplate> nodes) {
+        Map<Integer, List<WorkflowNodeTemplate>> groups = new TreeMap<>();
+        for (WorkflowNodeTemplate node : nodes) {
+            String condition = node.getConditionExpr();
+            node.setConditionExpr(condition == null || condition.isBlank() ? null : condition.trim());
+            try {
+                ConditionCompiler.compile(node.getConditionExpr());
+            } catch (IllegalArgumentException ex) {
+                throw new BusinessException(400, "节点「" + node.getNodeName() + "」" + ex.getMessage());
+            }
+
+            ApproveMode mode = ApproveMode.of(node.getApproveMode());
+            if (mode == null) {
+                throw new BusinessException(400, "不支持的节点完成规则: " + node.getApproveMode());
+            }
+            node.setApproveMode(mode.name());
+            if (mode != ApproveMode.N_OF_M) {
+                node.setRequiredCount(null);
+            }
+            groups.computeIfAbsent(node.getNodeOrder(), k -> new ArrayList<>()).add(node);
+        }
+
+        int expectedOrder = 1;
+        for (Map.Entry<Integer, List<WorkflowNodeTemplate>> group : groups.entrySet()) {
+            if (group.getKey() != expectedOrder++) {
+                throw new BusinessException(400, "节点顺序必须从1开始连续编号");
+            }
+            WorkflowNodeTemplate first = group.getValue().get(0);
+            for (WorkflowNodeTemplate node : group.getValue()) {
+                if (!first.getApproveMode().equals(node.getApproveMode())
+                        || !Objects.equals(first.getRequiredCount(), node.getRequiredCount())) {
+                    throw new BusinessException(400, "节点 " + group.getKey() + " 的完成规则不一致");
+                }
+            }
+            int size = group.getValue().size();
+            if (ApproveMode.N_OF_M.name().equals(first.getApproveMode())
+                    && (first.getRequiredCount() == null || first.getRequiredCount() < 1
+                    || first.getRequiredCount() > size)) {
+                throw new BusinessException(400, "节点 " + group.getKey() + " 的通过人数应在 1 到 " + size + " 之间");
+            }
+        }
+
+        for (WorkflowNodeTemplate node : nodes) {
+            workflowNodeTemplateMapper.insert(node);
+        }
+        workflowDefinitionRegistry.registerVersion(template.getId(), template.getVersion(), nodes);
+    }
+
     /**
      * 根据编码获取审批类型
      */
@@ -0,0 +1,164 @@
+package com.approval.sla;
+
+import com.approval.entity.ApprovalNode;
+import com.approval.entity.ApprovalRecord;
+import com.approval.entity.ApprovalTodo;
+import com.approval.entity.SysUser;
+import com.approval.mapper.ApprovalNodeGroupMapper;
+import com.approval.mapper.ApprovalNodeMapper;
+import com.approval.mapper.ApprovalRecordMapper;
+import com.approval.mapper.ApprovalTodoMapper;
+import com.approval.mapper.SysUserMapper;
+import com.approval.service.NotificationService;
+import com.approval.service.NotificationService.ApprovalNotice;
+import com.approval.service.impl.DashboardCache;
+import com.approval.workflow.WorkflowDefinitionRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * SLA 动作
+ * 时间轮触发后，在一个事务内校验审批仍在进行中，对当前节点（组）的待审批人执行到期提醒、超期通知或升级转交，
+ * 并推进 sla_stage（保证每个阶段只触发一次）；通知均写入发件箱异步投递
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SlaActions {
+
+    private static final List<Integer> ACTIVE_STATUSES = List.of(1, 2);
+    private static final int NODE_STATUS_PENDING = 0;
+    private static final int GROUP_STATUS_PENDING = 0;
+    private static final DateTimeFormatter DEADLINE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final ApprovalRecordMapper approvalRecordMapper;
+    private final ApprovalNodeMapper approvalNodeMapper;
+    private final ApprovalNodeGroupMapper approvalNodeGroupMapper;
+    private final ApprovalTodoMapper approvalTodoMapper;
+    private final SysUserMapper sysUserMapper;
+    private final WorkflowDefinitionRegistry workflowDefinitionRegistry;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final DashboardCache dashboardCache;
+
+    /**
+     * 执行到期的 SLA 阶段
+     *
+     * @param approvalId 审批记录ID
+     * @param phase      到期的阶段
+     * @return 审批仍在进行中时返回当前截止时间（调用方据此调度下一阶段），否则返回 null
+     */
+    public LocalDateTime fire(String approvalId, SlaPhase phase) {
+        return transactionTemplate.execute(status -> doFire(approvalId, phase, status));
+    }
+
+    /**
+     * 先执行动作再推进 sla_stage：加锁顺序与审批一致（节点组 -> 节点 -> 审批记录），
+     * 推进失败说明该阶段已被触发，回滚本次动作
+     */
+    private LocalDateTime doFire(String approvalId, SlaPhase phase, TransactionStatus status) {
+        ApprovalRecord record = approvalRecordMapper.selectById(approvalId);
+        if (record == null || !ACTIVE_STATUSES.contains(record.getStatus()) || record.getDeadline() == null) {
+            return null;
+        }
+        List<ApprovalNode> stageNodes = approvalNodeMapper.selectStageNodes(approvalId, record.getCurrentNodeOrder());
+        if (stageNodes.size() > 1) {
+            Integer groupStatus = approvalNodeGroupMapper.selectStatusForUpdate(approvalId, record.getCurrentNodeOrder());
+            if (groupStatus == null || groupStatus != GROUP_STATUS_PENDING) {
+                return record.getDeadline();
+            }
+        }
+        List<ApprovalNode> pendingNodes = stageNodes.stream()
+                .filter(node -> node.getStatus() == NODE_STATUS_PENDING)
+                .toList();
+        if (pendingNodes.isEmpty()) {
+            return record.getDeadline();
+        }
+
+        String deadline = record.getDeadline().format(DEADLINE_FORMAT);
+        List<ApprovalNotice> notices = new ArrayList<>();
+        switch (phase) {
+            case REMIND -> {
+                for (ApprovalNode node : pendingNodes) {
+                    notices.add(new ApprovalNotice(approvalId, node.getApproverId(), "审批即将到期",
+                            record.getTitle() + " 将于 " + deadline + " 到期，请及时处理"));
+                }
+            }
+            case OVERDUE -> {
+                for (ApprovalNode node : pendingNodes) {
+                    notices.add(new ApprovalNotice(approvalId, node.getApproverId(), "审批已超期",
+                            record.getTitle() + " 已超过截止时间 " + deadline + "，请尽快处理"));
+                }
+                notices.add(new ApprovalNotice(approvalId, record.getInitiatorId(), "您的审批已超期",
+                        record.getTitle() + " 已超过截止时间 " + deadline
+                                + "，当前停留在「" + pendingNodes.get(0).getNodeName() + "」节点"));
+            }
+            case ESCALATE -> escalate(record, stageNodes, pendingNodes, notices);
+        }
+
+        // 重启前或其他实例已触发过该阶段
+        if (approvalRecordMapper.advanceSlaStage(approvalId, phase.stage()) == 0) {
+            status.setRollbackOnly();
+            return record.getDeadline();
+        }
+        notificationService.sendApprovalNotices(notices);
+        log.info("审批 {} 触发 SLA 阶段 {}", approvalId, phase);
+        return record.getDeadline();
+    }
+
+    /**
+     * 把超期的待审批节点转交给审批人的部门负责人；没有可升级的负责人（或负责人已在本节点组中）时再次提醒
+     */
+    private void escalate(ApprovalRecord record, List<ApprovalNode> stageNodes, List<ApprovalNode> pendingNodes,
+                          List<ApprovalNotice> notices) {
+        Set<Long> stageApprovers = new HashSet<>();
+        for (ApprovalNode node : stageNodes) {
+            stageApprovers.add(node.getApproverId());
+        }
+        boolean escalated = false;
+        for (ApprovalNode node : pendingNodes) {
+            SysUser approver = sysUserMapper.selectById(node.getApproverId());
+            Long leaderId = workflowDefinitionRegistry.leaderOf(approver != null ? approver.getDepartmentId() : null);
+            // 与审批操作竞争同一节点版本，节点已被处理时放弃升级
+            if (leaderId == null || !stageApprovers.add(leaderId)
+                    || approvalNodeMapper.reassignIfPending(node.getId(), node.getVersion(), leaderId) == 0) {
+                notices.add(new ApprovalNotice(record.getId(), node.getApproverId(), "审批超期未处理",
+                        record.getTitle() + " 已严重超期，请立即处理"));
+                continue;
+            }
+
+            approvalTodoMapper.deleteByApprovalAndApprover(record.getId(), node.getApproverId());
+            approvalTodoMapper.insert(ApprovalTodo.builder()
+                    .approvalId(record.getId())
+                    .approverId(leaderId)
+                    .nodeOrder(node.getNodeOrder())
+                    .priority(record.getPriority() != null ? record.getPriority() : 0)
+                    .createdAt(record.getCreatedAt() != null ? record.getCreatedAt() : LocalDateTime.now())
+                    .build());
+            dashboardCache.invalidate(List.of(node.getApproverId(), leaderId));
+
+            String approverName = approver != null ? approver.getNickname() : "原审批人";
+            notices.add(new ApprovalNotice(record.getId(), leaderId, "超期审批已升级给您",
+                    record.getTitle() + " 超期未处理，已从 " + approverName + " 升级给您审批"));
+            notices.add(new ApprovalNotice(record.getId(), node.getApproverId(), "审批已升级",
+                    record.getTitle() + " 超期未处理，已升级给部门负责人审批"));
+            escalated = true;
+            log.info("审批 {} 节点 {} 超期，已由 {} 升级给 {}", record.getId(), node.getNodeOrder(),
+                    node.getApproverId(), leaderId);
+        }
+        if (escalated) {
+            notices.add(new ApprovalNotice(record.getId(), record.getInitiatorId(), "您的审批已升级",
+                    record.getTitle() + " 超期未处理，已升级给部门负责人审批"));
+        }
+    }
+}
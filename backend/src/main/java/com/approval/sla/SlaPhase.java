@@ -0,0 +1,32 @@
+package com.approval.sla;
+
+/**
+ * SLA 阶段（stage 与 approval_record.sla_stage 取值一致）
+ */
+public enum SlaPhase {
+
+    /**
+     * 截止前提醒当前审批人
+     */
+    REMIND(1),
+
+    /**
+     * 到达截止时间，通知当前审批人和发起人
+     */
+    OVERDUE(2),
+
+    /**
+     * 超期后升级给当前审批人的部门负责人
+     */
+    ESCALATE(3);
+
+    private final int stage;
+
+    SlaPhase(int stage) {
+        this.stage = stage;
+    }
+
+    public int stage() {
+        return stage;
+    }
+}
@@ -0,0 +1,238 @@
+package com.approval.sla;
+
+import com.approval.entity.ApprovalRecord;
+import com.approval.mapper.ApprovalRecordMapper;
+import com.approval.util.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 审批截止时间（SLA）调度器
+ * 进行中且设置了截止时间的审批按下一个 SLA 阶段（截止前提醒 -> 超期通知 -> 升级）放入内存中的分层时间轮，
+ * 到期后由 {@link SlaActions} 执行并调度下一阶段，运行期间不做周期性扫表。
+ * <p>
+ * 启动时按 idx_status_deadline 流式加载一次进行中的审批（每条只保留一个定时器，数十万条仅占用数十 MB）；
+ * 之后由提交、审批、撤回在事务提交后调用 {@link #track}/{@link #untrack} 增量维护。
+ * 已触发的阶段记录在 approval_record.sla_stage 上并以比较更新推进，重启或多实例部署时不会重复触发
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SlaScheduler {
+
+    private final ApprovalRecordMapper approvalRecordMapper;
+    private final SlaActions slaActions;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 是否启用 SLA 调度
+     */
+    @Value("${approval.sla.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 时间轮刻度（毫秒）
+     */
+    @Value("${approval.sla.tick:1000}")
+    private long tickMillis;
+
+    /**
+     * 截止前提醒的提前量（毫秒），0 表示不提醒
+     */
+    @Value("${approval.sla.reminder-lead:7200000}")
+    private long reminderLeadMillis;
+
+    /**
+     * 超期后是否自动升级给部门负责人
+     */
+    @Value("${approval.sla.auto-escalate:false}")
+    private boolean autoEscalate;
+
+    /**
+     * 超期多久后升级（毫秒）
+     */
+    @Value("${approval.sla.escalate-after:86400000}")
+    private long escalateAfterMillis;
+
+    /**
+     * 加载或执行失败后的重试延迟（毫秒）
+     */
+    @Value("${approval.sla.retry-delay:60000}")
+    private long retryDelayMillis;
+
+    private TimingWheel<String, SlaPhase> wheel;
+
+    private final AtomicInteger timers = new AtomicInteger();
+
+    private volatile boolean running;
+
+    private Thread worker;
+
+    @PostConstruct
+    public void init() {
+        this.wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+        meterRegistry.gauge("approval.sla.timers", timers);
+    }
+
+    /**
+     * 应用启动完成后启动调度线程
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runLoop, "sla-scheduler");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * 开始跟踪审批的截止时间（当前事务提交后生效）
+     *
+     * @param approvalId 审批记录ID
+     * @param deadline   截止时间，为 null 时忽略
+     */
+    public void track(String approvalId, LocalDateTime deadline) {
+        if (!enabled || deadline == null) {
+            return;
+        }
+        TransactionHooks.afterCommitOrNow(() -> schedule(approvalId, deadline, 0));
+    }
+
+    /**
+     * 停止跟踪审批（审批结束或撤回时调用，当前事务提交后生效）
+     *
+     * @param approvalIds 审批记录ID集合
+     */
+    public void untrack(Collection<String> approvalIds) {
+        if (!enabled || approvalIds.isEmpty()) {
+            return;
+        }
+        List<String> ids = List.copyOf(approvalIds);
+        TransactionHooks.afterCommitOrNow(() -> {
+            synchronized (this) {
+                for (String id : ids) {
+                    wheel.cancel(id);
+                }
+                timers.set(wheel.size());
+            }
+        });
+    }
+
+    private void runLoop() {
+        long nextLoadAt = 0;
+        boolean loaded = false;
+        while (running) {
+            if (!loaded && System.currentTimeMillis() >= nextLoadAt) {
+                try {
+                    loadOpenApprovals();
+                    loaded = true;
+                } catch (RuntimeException ex) {
+                    nextLoadAt = System.currentTimeMillis() + retryDelayMillis;
+                    log.warn("加载 SLA 定时器失败，{} 毫秒后重试: {}", retryDelayMillis, ex.getMessage());
+                }
+            }
+            fireExpired();
+            try {
+                Thread.sleep(tickMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+
+    /**
+     * 流式加载进行中且设置了截止时间的审批
+     */
+    private void loadOpenApprovals() {
+        long start = System.currentTimeMillis();
+        AtomicInteger count = new AtomicInteger();
+        approvalRecordMapper.streamSlaCandidates(context -> {
+            ApprovalRecord record = context.getResultObject();
+            schedule(record.getId(), record.getDeadline(),
+                    record.getSlaStage() != null ? record.getSlaStage() : 0);
+            count.incrementAndGet();
+        });
+        log.info("SLA 定时器已加载: {} 条审批, 耗时 {} ms", count.get(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 推进时间轮并执行到期阶段（在锁外访问数据库）
+     */
+    private void fireExpired() {
+        List<String> ids = new ArrayList<>();
+        List<SlaPhase> phases = new ArrayList<>();
+        synchronized (this) {
+            wheel.advanceTo(System.currentTimeMillis(), (id, phase) -> {
+                ids.add(id);
+                phases.add(phase);
+            });
+            timers.set(wheel.size());
+        }
+        for (int i = 0; i < ids.size() && running; i++) {
+            String id = ids.get(i);
+            SlaPhase phase = phases.get(i);
+            try {
+                LocalDateTime deadline = slaActions.fire(id, phase);
+                Counter.builder("approval.sla.fired")
+                        .description("触发的 SLA 阶段数")
+                        .tag("phase", phase.name())
+                        .register(meterRegistry)
+                        .increment();
+                if (deadline != null) {
+                    schedule(id, deadline, phase.stage());
+                }
+            } catch (RuntimeException ex) {
+                log.warn("审批 {} 的 SLA 阶段 {} 执行失败，{} 毫秒后重试: {}", id, phase, retryDelayMillis, ex.getMessage());
+                synchronized (this) {
+                    wheel.schedule(id, System.currentTimeMillis() + retryDelayMillis, phase);
+                    timers.set(wheel.size());
+                }
+            }
+        }
+    }
+
+    /**
+     * 按已触发的阶段调度下一阶段，没有后续阶段时移除定时器
+     */
+    private synchronized void schedule(String approvalId, LocalDateTime deadline, int stage) {
+        long deadlineAt = deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long now = System.currentTimeMillis();
+        if (stage < SlaPhase.REMIND.stage() && reminderLeadMillis > 0 && now < deadlineAt) {
+            wheel.schedule(approvalId, deadlineAt - reminderLeadMillis, SlaPhase.REMIND);
+        } else if (stage < SlaPhase.OVERDUE.stage()) {
+            wheel.schedule(approvalId, deadlineAt, SlaPhase.OVERDUE);
+        } else if (stage < SlaPhase.ESCALATE.stage() && autoEscalate) {
+            wheel.schedule(approvalId, deadlineAt + escalateAfterMillis, SlaPhase.ESCALATE);
+        } else {
+            wheel.cancel(approvalId);
+        }
+        timers.set(wheel.size());
+    }
+}
@@ -0,0 +1,203 @@
+package com.approval.sla;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 分层时间轮
+ * 共 4 层、每层 64 个槽：第 0 层每槽一个刻度，第 L 层每槽 64^L 个刻度，
+ * 刻度为 1 秒时可直接容纳约 194 天内到期的定时器，更远的定时器先放在最高层，降级时重新计算位置。
+ * <p>
+ * 添加、取消均为 O(1)（槽内为侵入式双向链表，键到定时器的映射用于取消和重新调度）；
+ * 推进时每个刻度只处理一个第 0 层槽，低层转满一圈时把上一层对应槽内的定时器降级到下层，
+ * 每个定时器最多被降级 3 次，与定时器总数无关。
+ * <p>
+ * 非线程安全，由调用方加锁
+ *
+ * @param <K> 定时器键
+ * @param <V> 定时器附带的数据
+ */
+public final class TimingWheel<K, V> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    /**
+     * 可直接定位的最大刻度差
+     */
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+
+    private final Node<K, V>[][] buckets;
+
+    private final Map<K, Node<K, V>> nodes = new HashMap<>();
+
+    /**
+     * 已处理到的刻度
+     */
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = Math.max(1, tickMillis);
+        this.buckets = new Node[LEVELS][SLOTS];
+        this.currentTick = startMillis / this.tickMillis;
+    }
+
+    /**
+     * 添加或重新调度定时器（同一个键只保留最后一次调度）
+     *
+     * @param key      定时器键
+     * @param expireAt 到期时间戳（毫秒），已过期的定时器在下一个刻度触发
+     * @param value    附带数据
+     */
+    public void schedule(K key, long expireAt, V value) {
+        Node<K, V> node = nodes.get(key);
+        if (node != null) {
+            unlink(node);
+        } else {
+            node = new Node<>(key);
+            nodes.put(key, node);
+        }
+        node.value = value;
+        node.expireTick = Math.max(Math.floorDiv(expireAt + tickMillis - 1, tickMillis), currentTick + 1);
+        place(node);
+    }
+
+    /**
+     * 取消定时器
+     *
+     * @param key 定时器键
+     * @return 存在并已取消返回 true
+     */
+    public boolean cancel(K key) {
+        Node<K, V> node = nodes.remove(key);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    /**
+     * 推进到指定时间，依次回调所有到期的定时器（回调前已从时间轮移除，回调中不得再操作本时间轮）
+     *
+     * @param now     当前时间戳（毫秒）
+     * @param expired 到期回调
+     */
+    public void advanceTo(long now, BiConsumer<K, V> expired) {
+        long target = now / tickMillis;
+        while (currentTick < target) {
+            currentTick++;
+            cascade();
+
+            int slot = (int) (currentTick & SLOT_MASK);
+            Node<K, V> node = buckets[0][slot];
+            buckets[0][slot] = null;
+            while (node != null) {
+                Node<K, V> next = node.next;
+                node.prev = null;
+                node.next = null;
+                if (node.expireTick > currentTick) {
+                    place(node);
+                } else {
+                    nodes.remove(node.key);
+                    expired.accept(node.key, node.value);
+                }
+                node = next;
+            }
+        }
+    }
+
+    /**
+     * 定时器数量
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * 低层转满一圈时，从最高的一层开始，把各层当前槽内的定时器降级到下层
+     */
+    private void cascade() {
+        int level = 0;
+        while (level + 1 < LEVELS && (currentTick & ((1L << (SLOT_BITS * (level + 1))) - 1)) == 0) {
+            level++;
+        }
+        for (int l = level; l >= 1; l--) {
+            int slot = (int) ((currentTick >>> (SLOT_BITS * l)) & SLOT_MASK);
+            Node<K, V> node = buckets[l][slot];
+            buckets[l][slot] = null;
+            while (node != null) {
+                Node<K, V> next = node.next;
+                node.prev = null;
+                node.next = null;
+                place(node);
+                node = next;
+            }
+        }
+    }
+
+    /**
+     * 按与当前刻度的差值选择层，按到期刻度选择槽
+     */
+    private void place(Node<K, V> node) {
+        long delta = Math.min(Math.max(node.expireTick - currentTick, 0), MAX_DELTA);
+        long tick = currentTick + delta;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+
+        node.level = level;
+        node.slot = slot;
+        Node<K, V> head = buckets[level][slot];
+        node.next = head;
+        if (head != null) {
+            head.prev = node;
+        }
+        buckets[level][slot] = node;
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else if (buckets[node.level][node.slot] == node) {
+            buckets[node.level][node.slot] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+    }
+
+    /**
+     * 定时器（槽内双向链表节点）
+     */
+    private static final class Node<K, V> {
+
+        private final K key;
+
+        private V value;
+
+        private long expireTick;
+
+        private int level;
+
+        private int slot;
+
+        private Node<K, V> prev;
+
+        private Node<K, V> next;
+
+        private Node(K key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.approval.stats;
+
+import com.approval.entity.ApprovalDailyStats;
+import com.approval.entity.ApprovalRecord;
+import com.approval.mapper.ApprovalDailyStatsMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 审批每日汇总
+ * 提交审批、审批通过或拒绝时在业务事务内累加 approval_daily_stats，
+ * 结果与处理时长计入审批提交当日的行（与按提交日期统计的通过率、处理时长口径一致）。
+ * 趋势、热力图、效率等看板读取汇总行（每天每类型每发起人一行），不再扫描审批记录
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ApprovalDailyRollup {
+
+    private static final int STATUS_APPROVED = 3;
+    private static final int STATUS_REJECTED = 4;
+
+    /**
+     * 汇总行的加锁顺序（与主键顺序一致）
+     */
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::date)
+            .thenComparing(Key::typeCode)
+            .thenComparing(Key::initiatorId);
+
+    private final ApprovalDailyStatsMapper approvalDailyStatsMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 记录一次提交（需在提交审批的事务内调用）
+     *
+     * @param record 新提交的审批记录
+     */
+    public void submitted(ApprovalRecord record) {
+        ApprovalDailyStats delta = delta(keyOf(record));
+        delta.setSubmitted(1L);
+        approvalDailyStatsMapper.increment(delta);
+    }
+
+    /**
+     * 记录审批结束（需在状态流转的事务内调用），只累加通过与拒绝，其余状态忽略
+     *
+     * @param records 流转后的审批记录（status、completedAt 为新值）
+     */
+    public void completed(Collection<ApprovalRecord> records) {
+        // 按主键顺序累加，多个事务以相同顺序加锁
+        Map<Key, ApprovalDailyStats> deltas = new TreeMap<>(KEY_ORDER);
+        for (ApprovalRecord record : records) {
+            int status = record.getStatus();
+            if (status != STATUS_APPROVED && status != STATUS_REJECTED) {
+                continue;
+            }
+            ApprovalDailyStats delta = deltas.computeIfAbsent(keyOf(record), this::delta);
+            if (status == STATUS_APPROVED) {
+                delta.setApproved(delta.getApproved() + 1);
+            } else {
+                delta.setRejected(delta.getRejected() + 1);
+            }
+            delta.setProcessSeconds(delta.getProcessSeconds() + processSeconds(record));
+        }
+        deltas.values().forEach(approvalDailyStatsMapper::increment);
+    }
+
+    /**
+     * 从审批记录表与归档表重建全部汇总
+     * 按月分段，每段删除后重新汇总并单独提交，避免长事务与大范围锁
+     *
+     * @return 写入的汇总行数
+     */
+    public int rebuild() {
+        LocalDateTime first = approvalDailyStatsMapper.selectFirstSubmittedAt();
+        if (first == null) {
+            return 0;
+        }
+        LocalDate end = LocalDate.now().plusDays(1);
+        LocalDate from = first.toLocalDate().withDayOfMonth(1);
+        int rows = 0;
+        while (from.isBefore(end)) {
+            LocalDate start = from;
+            LocalDate to = from.plusMonths(1);
+            Integer written = transactionTemplate.execute(status -> {
+                approvalDailyStatsMapper.deleteRange(start, to);
+                return approvalDailyStatsMapper.rebuildRange(start, to);
+            });
+            rows += written == null ? 0 : written;
+            from = to;
+        }
+        log.info("审批每日汇总重建完成: from={}, rows={}", first.toLocalDate(), rows);
+        return rows;
+    }
+
+    private static Key keyOf(ApprovalRecord record) {
+        LocalDate date = record.getCreatedAt() != null ? record.getCreatedAt().toLocalDate() : LocalDate.now();
+        return new Key(date, record.getTypeCode(), record.getInitiatorId());
+    }
+
+    private static long processSeconds(ApprovalRecord record) {
+        if (record.getCreatedAt() == null || record.getCompletedAt() == null) {
+            return 0;
+        }
+        return Math.max(0, Duration.between(record.getCreatedAt(), record.getCompletedAt()).getSeconds());
+    }
+
+    private ApprovalDailyStats delta(Key key) {
+        return ApprovalDailyStats.builder()
+                .statDate(key.date())
+                .typeCode(key.typeCode())
+                .initiatorId(key.initiatorId())
+                .submitted(0L)
+                .approved(0L)
+                .rejected(0L)
+                .processSeconds(0L)
+                .build();
+    }
+
+    /**
+     * 汇总行主键
+     *
+     * @param date        提交日期
+     * @param typeCode    审批类型编码
+     * @param initiatorId 发起人ID
+     */
+    private record Key(LocalDate date, String typeCode, Long initiatorId) {
+    }
+}
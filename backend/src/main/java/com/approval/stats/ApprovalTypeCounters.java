@@ -0,0 +1,150 @@
+package com.approval.stats;
+
+import com.approval.entity.ApprovalRecord;
+import com.approval.entity.ApprovalTypeStats;
+import com.approval.mapper.ApprovalTypeStatsMapper;
+import com.approval.util.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 审批类型计数
+ * 提交审批、审批结束（通过、拒绝、撤回）时在业务事务内累加 approval_type_stats，
+ * 每次累加随机选择一个分片，同一类型的并发提交不争用同一行锁。
+ * <p>
+ * 读取走内存快照（每个类型一行，读取为 O(类型数)）：本实例的计数变更在事务提交后标记快照过期，
+ * 下次读取时重新汇总（至多每 refresh-interval 一次）；其他实例的变更由快照有效期兜底
+ */
+@Component
+@RequiredArgsConstructor
+public class ApprovalTypeCounters {
+
+    private static final int STATUS_APPROVED = 3;
+    private static final int STATUS_REJECTED = 4;
+    private static final int STATUS_WITHDRAWN = 5;
+
+    private final ApprovalTypeStatsMapper approvalTypeStatsMapper;
+
+    /**
+     * 每个类型的计数分片数
+     */
+    @Value("${approval.stats.type-slots:8}")
+    private int slots;
+
+    /**
+     * 快照标记过期后的最短重新汇总间隔（毫秒）
+     */
+    @Value("${approval.stats.refresh-interval:1000}")
+    private long refreshIntervalMillis;
+
+    /**
+     * 快照有效期（毫秒），覆盖其他实例产生的变更
+     */
+    @Value("${approval.stats.snapshot-ttl:60000}")
+    private long snapshotTtlMillis;
+
+    private volatile Snapshot snapshot;
+
+    private volatile boolean dirty;
+
+    /**
+     * 记录一次提交（需在提交审批的事务内调用）
+     *
+     * @param typeCode 审批类型编码
+     */
+    public void submitted(String typeCode) {
+        ApprovalTypeStats delta = delta(typeCode);
+        delta.setTotal(1L);
+        delta.setActive(1L);
+        approvalTypeStatsMapper.increment(delta);
+        TransactionHooks.afterCommitOrNow(() -> dirty = true);
+    }
+
+    /**
+     * 记录审批结束（需在状态流转的事务内调用），非结束状态的记录忽略
+     *
+     * @param records 流转后的审批记录（typeCode、status 为新值）
+     */
+    public void completed(Collection<ApprovalRecord> records) {
+        // 按类型编码排序累加，多个事务以相同顺序加锁
+        Map<String, ApprovalTypeStats> deltas = new TreeMap<>();
+        for (ApprovalRecord record : records) {
+            int status = record.getStatus();
+            if (status != STATUS_APPROVED && status != STATUS_REJECTED && status != STATUS_WITHDRAWN) {
+                continue;
+            }
+            ApprovalTypeStats delta = deltas.computeIfAbsent(record.getTypeCode(), this::delta);
+            delta.setActive(delta.getActive() - 1);
+            switch (status) {
+                case STATUS_APPROVED -> delta.setApproved(delta.getApproved() + 1);
+                case STATUS_REJECTED -> delta.setRejected(delta.getRejected() + 1);
+                default -> delta.setWithdrawn(delta.getWithdrawn() + 1);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        deltas.values().forEach(approvalTypeStatsMapper::increment);
+        TransactionHooks.afterCommitOrNow(() -> dirty = true);
+    }
+
+    /**
+     * 各审批类型的计数
+     *
+     * @return 类型编码 -> 计数（只读）
+     */
+    public Map<String, ApprovalTypeStats> totals() {
+        Snapshot current = snapshot;
+        long now = System.currentTimeMillis();
+        if (current == null || now - current.loadedAt() >= snapshotTtlMillis
+                || (dirty && now - current.loadedAt() >= refreshIntervalMillis)) {
+            current = reload(current);
+        }
+        return current.totals();
+    }
+
+    /**
+     * 重新汇总（并发读取只有一个线程查询，其余复用其结果）
+     */
+    private synchronized Snapshot reload(Snapshot seen) {
+        if (snapshot != seen) {
+            return snapshot;
+        }
+        dirty = false;
+        long loadedAt = System.currentTimeMillis();
+        Map<String, ApprovalTypeStats> totals = approvalTypeStatsMapper.selectTotals().stream()
+                .collect(Collectors.toUnmodifiableMap(ApprovalTypeStats::getTypeCode, Function.identity()));
+        Snapshot loaded = new Snapshot(totals, loadedAt);
+        snapshot = loaded;
+        return loaded;
+    }
+
+    private ApprovalTypeStats delta(String typeCode) {
+        return ApprovalTypeStats.builder()
+                .typeCode(typeCode)
+                .slot(ThreadLocalRandom.current().nextInt(Math.max(1, slots)))
+                .total(0L)
+                .active(0L)
+                .approved(0L)
+                .rejected(0L)
+                .withdrawn(0L)
+                .build();
+    }
+
+    /**
+     * 计数快照
+     *
+     * @param totals   类型编码 -> 计数
+     * @param loadedAt 汇总时间戳（毫秒）
+     */
+    private record Snapshot(Map<String, ApprovalTypeStats> totals, long loadedAt) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.approval.util;
+
+import com.baomidou.mybatisplus.core.batch.MybatisBatch;
+import com.baomidou.mybatisplus.core.batch.ParameterConvert;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC 批量写入工具
+ * 基于 MyBatis BATCH 执行器，将同一条语句的多次执行合并为 JDBC batch 一次发送；
+ * 存在 Spring 事务时复用事务连接，与同一事务中的其他写操作一起提交或回滚。
+ * 写入仍经过 MyBatis-Plus 的插入/更新语句，自动填充（createdAt 等）照常生效
+ */
+@Component
+@RequiredArgsConstructor
+public class BatchWriter {
+
+    private final SqlSessionFactory sqlSessionFactory;
+
+    /**
+     * 每批最多发送的语句数
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * 批量插入实体
+     *
+     * @param mapperClass 实体对应的 Mapper 接口
+     * @param entities    待插入实体
+     * @param <T>         实体类型
+     * @return 插入的记录数
+     */
+    public <T> int insertBatch(Class<? extends BaseMapper<T>> mapperClass, Collection<T> entities) {
+        if (entities == null || entities.isEmpty()) {
+            return 0;
+        }
+        int affected = 0;
+        for (List<T> chunk : chunks(entities)) {
+            affected += sum(new MybatisBatch<>(sqlSessionFactory, chunk)
+                    .execute(new MybatisBatch.Method<T>(mapperClass).insert()));
+        }
+        return affected;
+    }
+
+    /**
+     * 按主键批量更新实体（仅更新非空字段）
+     *
+     * @param mapperClass 实体对应的 Mapper 接口
+     * @param entities    待更新实体
+     * @param <T>         实体类型
+     * @return 更新的记录数
+     */
+    public <T> int updateBatchById(Class<? extends BaseMapper<T>> mapperClass, Collection<T> entities) {
+        if (entities == null || entities.isEmpty()) {
+            return 0;
+        }
+        int affected = 0;
+        for (List<T> chunk : chunks(entities)) {
+            affected += sum(new MybatisBatch<>(sqlSessionFactory, chunk)
+                    .execute(new MybatisBatch.Method<T>(mapperClass).updateById()));
+        }
+        return affected;
+    }
+
+    /**
+     * 以 JDBC batch 批量执行 Mapper 中的自定义语句，返回每个元素对应的影响行数
+     * 用于批量的比较并更新：影响行数为 0 的元素即为条件不满足（已被并发修改）
+     *
+     * @param mapperClass Mapper 接口
+     * @param method      Mapper 方法名
+     * @param elements    待执行的元素
+     * @param parameter   元素 -> 语句参数（多参数方法返回以 @Param 名称为键的 Map）
+     * @param <T>         元素类型
+     * @return 与 elements 顺序一致的影响行数；驱动未返回行数时按 1 计
+     */
+    public <T> int[] executeBatch(Class<?> mapperClass, String method, Collection<T> elements,
+                                  ParameterConvert<T> parameter) {
+        int[] counts = new int[elements == null ? 0 : elements.size()];
+        if (counts.length == 0) {
+            return counts;
+        }
+        int index = 0;
+        for (List<T> chunk : chunks(elements)) {
+            for (BatchResult result : new MybatisBatch<>(sqlSessionFactory, chunk)
+                    .execute(new MybatisBatch.Method<T>(mapperClass).get(method, parameter))) {
+                for (int count : result.getUpdateCounts()) {
+                    counts[index++] = count >= 0 ? count : 1;
+                }
+            }
+        }
+        return counts;
+    }
+
+    private <T> List<List<T>> chunks(Collection<T> entities) {
+        List<T> all = new ArrayList<>(entities);
+        List<List<T>> chunks = new ArrayList<>((all.size() + BATCH_SIZE - 1) / BATCH_SIZE);
+        for (int i = 0; i < all.size(); i += BATCH_SIZE) {
+            chunks.add(all.subList(i, Math.min(i + BATCH_SIZE, all.size())));
+        }
+        return chunks;
+    }
+
+    private int sum(List<BatchResult> results) {
+        int total = 0;
+        for (BatchResult result : results) {
+            for (int count : result.getUpdateCounts()) {
+                // 部分驱动在批量模式下返回 SUCCESS_NO_INFO(-2)，按 1 条计
+                total += count >= 0 ? count : 1;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,166 @@
+package com.approval.util;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 有容量上限、按条目过期的并发 Map
+ * 读取时发现过期立即移除；写入时容量达到上限先清理过期条目，仍不足再按迭代顺序（ConcurrentHashMap 近似随机）
+ * 淘汰约 1/10 的条目。过期清理与容量淘汰均计入淘汰次数，命中率等统计由调用方按自身语义维护
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+public class BoundedTtlMap<K, V> {
+
+    /**
+     * 容量不足时一次淘汰的比例（1/N）
+     */
+    private static final int EVICT_FRACTION = 10;
+
+    private final int maxSize;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedTtlMap(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    /**
+     * 读取未过期的值
+     *
+     * @param key 键
+     * @return 未过期的值，不存在或已过期返回 null
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            return null;
+        }
+        return entry.value();
+    }
+
+    /**
+     * 写入（覆盖已有条目）
+     *
+     * @param key       键
+     * @param value     值
+     * @param expiresAt 过期时间戳（毫秒）
+     */
+    public void put(K key, V value, long expiresAt) {
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    /**
+     * 不存在未过期的条目时写入
+     *
+     * @param key       键
+     * @param value     值
+     * @param expiresAt 过期时间戳（毫秒）
+     * @return 已存在的未过期值，或本次写入的值
+     */
+    public V putIfAbsent(K key, V value, long expiresAt) {
+        V existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        long now = System.currentTimeMillis();
+        return entries.compute(key, (k, current) -> {
+            if (current != null && current.expiresAt() > now) {
+                return current;
+            }
+            if (current != null) {
+                evictions.increment();
+            }
+            return new Entry<>(value, expiresAt);
+        }).value();
+    }
+
+    /**
+     * 仅当当前值为指定对象时移除
+     *
+     * @param key   键
+     * @param value 值
+     */
+    public void remove(K key, V value) {
+        entries.computeIfPresent(key, (k, current) -> current.value() == value ? null : current);
+    }
+
+    /**
+     * 移除一批键
+     *
+     * @param keys 键集合
+     */
+    public void removeAll(Collection<? extends K> keys) {
+        entries.keySet().removeAll(keys);
+    }
+
+    /**
+     * 清空
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * 清理过期条目，若仍超出容量则按迭代顺序淘汰一部分
+     */
+    private synchronized void evict() {
+        if (entries.size() < maxSize) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> {
+            if (entry.expiresAt() <= now) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        });
+        if (entries.size() < maxSize) {
+            return;
+        }
+        int toRemove = entries.size() - maxSize + Math.max(1, maxSize / EVICT_FRACTION);
+        Iterator<K> it = entries.keySet().iterator();
+        while (toRemove > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+            toRemove--;
+        }
+    }
+
+    /**
+     * 条目
+     *
+     * @param value     值
+     * @param expiresAt 过期时间戳（毫秒）
+     */
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.approval.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 请求级 SQL 计数器
+ * 由 MyBatis 拦截器在每次发送 SQL 时累加，由 Web 拦截器在请求开始时清零、结束时上报；
+ * 请求内提交到线程池的任务需以 {@link #wrap(Supplier)} 包装，其 SQL 才会计入该请求
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<AtomicInteger> COUNTER = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    /**
+     * 开始计数（清零）
+     */
+    public static void start() {
+        COUNTER.set(new AtomicInteger());
+    }
+
+    /**
+     * 累加一次 SQL 执行，未开始计数时忽略
+     */
+    public static void increment() {
+        AtomicInteger counter = COUNTER.get();
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+    }
+
+    /**
+     * 当前计数
+     *
+     * @return 自 start 以来执行的 SQL 数，未开始计数时返回 0
+     */
+    public static int current() {
+        AtomicInteger counter = COUNTER.get();
+        return counter != null ? counter.get() : 0;
+    }
+
+    /**
+     * 结束计数并返回结果
+     *
+     * @return 自 start 以来执行的 SQL 数
+     */
+    public static int stop() {
+        int count = current();
+        COUNTER.remove();
+        return count;
+    }
+
+    /**
+     * 包装在其他线程执行的任务，使其 SQL 计入当前线程的计数；当前线程未开始计数时原样返回。
+     * 任务执行期间在执行线程上安装当前计数，结束后恢复执行线程原有的计数（调用方线程直接执行时不受影响）
+     *
+     * @param task 任务
+     * @return 包装后的任务
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> task) {
+        AtomicInteger counter = COUNTER.get();
+        if (counter == null) {
+            return task;
+        }
+        return () -> {
+            AtomicInteger previous = COUNTER.get();
+            COUNTER.set(counter);
+            try {
+                return task.get();
+            } finally {
+                if (previous != null) {
+                    COUNTER.set(previous);
+                } else {
+                    COUNTER.remove();
+                }
+            }
+        };
+    }
+}
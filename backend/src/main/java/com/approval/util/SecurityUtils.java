@@ -1,6 +1,6 @@
 package com.approval.util;
 
-import com.approval.entity.SysUser;
+import com.approval.security.LoginUser;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -35,23 +35,30 @@ public class SecurityUtils {
     }
 
     /**
-     * 获取当前登录用户的 ID
-     * 需要在使用时注入 SysUserMapper 进行查询
+     * 获取当前登录主体
+     * 由 JwtAuthenticationFilter 在请求入口处解析并放入 SecurityContext
      *
-     * @param userMapper 用户 Mapper
-     * @return 用户 ID，未登录或查询失败返回 null
+     * @return 登录主体，未登录返回 null
      */
-    public static Long getCurrentUserId(com.approval.mapper.SysUserMapper userMapper) {
-        String username = getCurrentUsername();
-        if (username == null || userMapper == null) {
+    public static LoginUser getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
             return null;
         }
 
-        SysUser user = userMapper.selectOne(
-                new com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper<SysUser>()
-                        .eq(SysUser::getUsername, username));
+        Object principal = authentication.getPrincipal();
+        return principal instanceof LoginUser loginUser ? loginUser : null;
+    }
 
-        return user != null ? user.getId() : null;
+    /**
+     * 获取当前登录用户的 ID
+     * 直接读取已解析的登录主体，不查询数据库
+     *
+     * @return 用户 ID，未登录返回 null
+     */
+    public static Long getCurrentUserId() {
+        LoginUser loginUser = getCurrentUser();
+        return loginUser != null ? loginUser.getUserId() : null;
     }
 
     /**
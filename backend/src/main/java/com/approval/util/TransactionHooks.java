@@ -0,0 +1,44 @@
+package com.approval.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务提交回调
+ * 本地缓存失效、唤醒后台线程等只应在数据提交后生效的操作；回滚时不执行
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    /**
+     * 当前事务提交后执行；不在事务中时立即执行
+     *
+     * @param action 操作
+     */
+    public static void afterCommitOrNow(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 立即执行一次；若处于事务中，提交后再执行一次，覆盖事务期间被并发加载的旧数据
+     *
+     * @param action 操作（须可重复执行）
+     */
+    public static void runNowAndAfterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            afterCommitOrNow(action);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.approval.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量审批结果VO
+ * 逐条返回处理结果，失败的条目不影响其他条目
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchApproveResultVO {
+
+    /**
+     * 提交的审批数
+     */
+    private Integer total;
+
+    /**
+     * 成功数
+     */
+    private Integer succeeded;
+
+    /**
+     * 失败数
+     */
+    private Integer failed;
+
+    /**
+     * 逐条结果（与请求顺序一致）
+     */
+    private List<Item> items;
+
+    /**
+     * 单条审批的处理结果
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        /**
+         * 审批ID
+         */
+        private String approvalId;
+
+        /**
+         * 是否成功
+         */
+        private Boolean success;
+
+        /**
+         * 失败时的错误码（与单条审批接口一致）
+         */
+        private Integer code;
+
+        /**
+         * 失败原因
+         */
+        private String message;
+    }
+}
@@ -0,0 +1,64 @@
+package com.approval.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 仪表盘汇总VO
+ * 一次返回仪表盘的全部区块；加载超时或失败的区块为 null，其名称列在 unavailable 中
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardSummaryVO {
+
+    /**
+     * 统计数据
+     */
+    private DashboardStatisticsVO statistics;
+
+    /**
+     * 最近活动
+     */
+    private List<RecentActivityVO> recentActivities;
+
+    /**
+     * 趋势数据
+     */
+    private List<TrendDataVO> trend;
+
+    /**
+     * 类型分布
+     */
+    private List<TypeDistributionVO> typeDistribution;
+
+    /**
+     * 效率指标
+     */
+    private EfficiencyMetricsVO efficiency;
+
+    /**
+     * 待办事项
+     */
+    private List<TodoItemVO> todos;
+
+    /**
+     * 审批类型效率分析
+     */
+    private List<TypeEfficiencyVO> typeEfficiency;
+
+    /**
+     * 提交热力图
+     */
+    private List<DailySubmissionVO> heatmap;
+
+    /**
+     * 本次未返回的区块（字段名），为空表示全部返回
+     */
+    private List<String> unavailable;
+}
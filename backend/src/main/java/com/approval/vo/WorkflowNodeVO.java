@@ -45,6 +45,21 @@ public class WorkflowNodeVO {
      */
     private String approverName;
 
+    /**
+     * 同序号节点组的完成规则: ALL-会签 ANY-或签 N_OF_M-N人通过
+     */
+    private String approveMode;
+
+    /**
+     * 需要通过的人数（N_OF_M）
+     */
+    private Integer requiredCount;
+
+    /**
+     * 节点条件表达式
+     */
+    private String condition;
+
     /**
      * 从实体转换为VO
      *
@@ -61,6 +76,9 @@ public class WorkflowNodeVO {
                 .nodeOrder(entity.getNodeOrder())
                 .approverType(entity.getApproverType())
                 .approverId(entity.getApproverId())
+                .approveMode(entity.getApproveMode())
+                .requiredCount(entity.getRequiredCount())
+                .condition(entity.getConditionExpr())
                 .build();
     }
 }
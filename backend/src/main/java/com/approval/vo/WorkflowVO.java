@@ -48,6 +48,11 @@ public class WorkflowVO {
      */
     private Integer status;
 
+    /**
+     * 当前生效版本
+     */
+    private Integer version;
+
     /**
      * 节点数量
      */
@@ -94,6 +99,7 @@ public class WorkflowVO {
                 .typeCode(entity.getTypeCode())
                 .description(entity.getDescription())
                 .status(entity.getStatus())
+                .version(entity.getVersion())
                 .createdBy(entity.getCreatedBy())
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
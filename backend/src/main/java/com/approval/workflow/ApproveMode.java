@@ -0,0 +1,55 @@
+package com.approval.workflow;
+
+/**
+ * 同序号节点组的完成规则
+ */
+public enum ApproveMode {
+
+    /**
+     * 会签：组内全部通过
+     */
+    ALL,
+
+    /**
+     * 或签：任一人通过
+     */
+    ANY,
+
+    /**
+     * 组内 N 人通过
+     */
+    N_OF_M;
+
+    /**
+     * 解析完成规则编码
+     *
+     * @param code 规则编码，为空时按会签处理
+     * @return 完成规则，无法识别时返回 null
+     */
+    public static ApproveMode of(String code) {
+        if (code == null || code.isBlank()) {
+            return ALL;
+        }
+        for (ApproveMode mode : values()) {
+            if (mode.name().equals(code)) {
+                return mode;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 计算组完成需要通过的人数
+     *
+     * @param total         组内审批人数
+     * @param requiredCount 配置的通过人数（仅 N_OF_M 使用）
+     * @return 需要通过的人数（不超过组内人数）
+     */
+    public int requiredOf(int total, Integer requiredCount) {
+        return switch (this) {
+            case ALL -> total;
+            case ANY -> 1;
+            case N_OF_M -> Math.max(1, Math.min(total, requiredCount != null ? requiredCount : total));
+        };
+    }
+}
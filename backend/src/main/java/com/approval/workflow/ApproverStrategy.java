@@ -0,0 +1,34 @@
+package com.approval.workflow;
+
+import com.approval.entity.SysUser;
+
+/**
+ * 审批人解析策略
+ * 在编译工作流定义时根据节点的审批人类型预先生成，提交审批时只需按发起人计算实际审批人
+ */
+@FunctionalInterface
+public interface ApproverStrategy {
+
+    /**
+     * 系统管理员用户ID，无法确定审批人时回退到该用户
+     */
+    Long FALLBACK_APPROVER_ID = 1L;
+
+    /**
+     * 解析实际审批人
+     *
+     * @param initiator 发起人
+     * @return 审批人用户ID
+     */
+    Long resolve(SysUser initiator);
+
+    /**
+     * 固定审批人（指定用户，或编译时已按职位确定的用户）
+     *
+     * @param approverId 审批人用户ID
+     * @return 审批人解析策略
+     */
+    static ApproverStrategy fixed(Long approverId) {
+        return initiator -> approverId;
+    }
+}
@@ -0,0 +1,450 @@
+package com.approval.workflow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 节点条件编译器
+ * 把条件表达式解析一次并编译为由闭包组成的求值树，求值时不再解析文本、不做反射。
+ * <p>
+ * 语法：
+ * <pre>
+ *   表达式   := 与表达式 ('||' 与表达式)*
+ *   与表达式 := 一元式 ('&amp;&amp;' 一元式)*
+ *   一元式   := '!' 一元式 | '(' 表达式 ')' | 比较式
+ *   比较式   := 操作数 [('==' | '!=' | '&gt;' | '&gt;=' | '&lt;' | '&lt;=') 操作数 | 'in' '[' 常量 (',' 常量)* ']']
+ *   操作数   := 字段路径(a.b.c) | 数字 | 'string' | "string" | true | false | null
+ * </pre>
+ * 字段取自审批内容的 JSON 对象；数值与可解析为数值的字符串按数值比较，其余字符串按字典序比较；
+ * 字段缺失或类型不可比较时大小比较为 false。单独的字段按布尔值（true 或 "true"）判断
+ */
+public final class ConditionCompiler {
+
+    /**
+     * 表达式最大长度（与 workflow_node_template.condition_expr 一致）
+     */
+    public static final int MAX_LENGTH = 500;
+
+    private static final NodeCondition NEVER = form -> false;
+
+    private final String source;
+
+    private int pos;
+
+    private ConditionCompiler(String source) {
+        this.source = source;
+    }
+
+    /**
+     * 编译条件表达式
+     *
+     * @param expression 条件表达式，为空时返回 {@link NodeCondition#ALWAYS}
+     * @return 编译后的条件
+     * @throws IllegalArgumentException 表达式语法错误
+     */
+    public static NodeCondition compile(String expression) {
+        if (expression == null || expression.isBlank()) {
+            return NodeCondition.ALWAYS;
+        }
+        if (expression.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("条件表达式不能超过 " + MAX_LENGTH + " 个字符");
+        }
+        ConditionCompiler compiler = new ConditionCompiler(expression);
+        NodeCondition condition = compiler.parseOr();
+        compiler.skipWhitespace();
+        if (compiler.pos < expression.length()) {
+            throw compiler.error("无法识别的内容");
+        }
+        return condition;
+    }
+
+    private NodeCondition parseOr() {
+        NodeCondition left = parseAnd();
+        while (accept("||")) {
+            NodeCondition first = left;
+            NodeCondition second = parseAnd();
+            left = form -> first.test(form) || second.test(form);
+        }
+        return left;
+    }
+
+    private NodeCondition parseAnd() {
+        NodeCondition left = parseUnary();
+        while (accept("&&")) {
+            NodeCondition first = left;
+            NodeCondition second = parseUnary();
+            left = form -> first.test(form) && second.test(form);
+        }
+        return left;
+    }
+
+    private NodeCondition parseUnary() {
+        skipWhitespace();
+        if (source.startsWith("!", pos) && !source.startsWith("!=", pos)) {
+            pos++;
+            NodeCondition inner = parseUnary();
+            return form -> !inner.test(form);
+        }
+        if (accept("(")) {
+            NodeCondition inner = parseOr();
+            expect(")");
+            return inner;
+        }
+        return parseComparison();
+    }
+
+    private NodeCondition parseComparison() {
+        Operand left = parseOperand();
+        for (Relation relation : Relation.values()) {
+            if (accept(relation.symbol)) {
+                return compare(left, relation, parseOperand());
+            }
+        }
+        if (acceptKeyword("in")) {
+            return in(left, parseList());
+        }
+        return truthy(left);
+    }
+
+    private Operand parseOperand() {
+        skipWhitespace();
+        if (pos >= source.length()) {
+            throw error("缺少字段名或常量");
+        }
+        char c = source.charAt(pos);
+        if (c == '\'' || c == '"') {
+            return new Constant(parseString(c));
+        }
+        if (Character.isDigit(c) || (c == '-' && pos + 1 < source.length()
+                && (Character.isDigit(source.charAt(pos + 1)) || source.charAt(pos + 1) == '.'))
+                || (c == '.' && pos + 1 < source.length() && Character.isDigit(source.charAt(pos + 1)))) {
+            return new Constant(parseNumber());
+        }
+        if (Character.isJavaIdentifierStart(c)) {
+            String path = parsePath();
+            return switch (path) {
+                case "true" -> new Constant(Boolean.TRUE);
+                case "false" -> new Constant(Boolean.FALSE);
+                case "null" -> new Constant(null);
+                default -> new Field(path.split("\\."));
+            };
+        }
+        throw error("缺少字段名或常量");
+    }
+
+    private String parseString(char quote) {
+        int start = pos++;
+        StringBuilder value = new StringBuilder();
+        while (pos < source.length()) {
+            char c = source.charAt(pos++);
+            if (c == quote) {
+                return value.toString();
+            }
+            if (c == '\\' && pos < source.length()) {
+                char escaped = source.charAt(pos++);
+                value.append(switch (escaped) {
+                    case 'n' -> '\n';
+                    case 't' -> '\t';
+                    default -> escaped;
+                });
+            } else {
+                value.append(c);
+            }
+        }
+        pos = start;
+        throw error("字符串缺少结束引号");
+    }
+
+    private Double parseNumber() {
+        int start = pos;
+        if (source.charAt(pos) == '-') {
+            pos++;
+        }
+        while (pos < source.length() && (Character.isDigit(source.charAt(pos)) || source.charAt(pos) == '.')) {
+            pos++;
+        }
+        try {
+            return Double.valueOf(source.substring(start, pos));
+        } catch (NumberFormatException ex) {
+            pos = start;
+            throw error("数字格式错误");
+        }
+    }
+
+    private String parsePath() {
+        int start = pos;
+        while (pos < source.length()) {
+            char c = source.charAt(pos);
+            if (Character.isJavaIdentifierPart(c)) {
+                pos++;
+            } else if (c == '.' && pos + 1 < source.length() && Character.isJavaIdentifierStart(source.charAt(pos + 1))) {
+                pos += 2;
+            } else {
+                break;
+            }
+        }
+        return source.substring(start, pos);
+    }
+
+    private List<Object> parseList() {
+        expect("[");
+        List<Object> values = new ArrayList<>();
+        do {
+            if (!(parseOperand() instanceof Constant constant)) {
+                throw error("in 列表只能包含常量");
+            }
+            values.add(constant.value());
+        } while (accept(","));
+        expect("]");
+        return Collections.unmodifiableList(values);
+    }
+
+    /**
+     * 编译比较式：常量之间的比较在编译期折叠；字段与数值常量比较时预先取出常量值
+     */
+    private NodeCondition compare(Operand left, Relation relation, Operand right) {
+        if (left instanceof Constant && right instanceof Constant) {
+            return relation.holds(left.get(Map.of()), right.get(Map.of())) ? NodeCondition.ALWAYS : NEVER;
+        }
+        if (left instanceof Constant) {
+            return compare(right, relation.flip(), left);
+        }
+        if (right instanceof Constant constant) {
+            Object value = constant.value();
+            if (value == null || value instanceof Boolean) {
+                if (relation != Relation.EQ && relation != Relation.NE) {
+                    throw error(value + " 只能用于 == 或 != 比较");
+                }
+            }
+            if (value instanceof Double number) {
+                double expected = number;
+                if (relation == Relation.NE) {
+                    return form -> !(toNumber(left.get(form)) == expected);
+                }
+                return form -> {
+                    double actual = toNumber(left.get(form));
+                    return !Double.isNaN(actual)
+                            && relation.test(actual < expected ? -1 : (actual > expected ? 1 : 0));
+                };
+            }
+        }
+        return form -> relation.holds(left.get(form), right.get(form));
+    }
+
+    private NodeCondition in(Operand left, List<Object> items) {
+        NodeCondition condition = form -> {
+            Object value = left.get(form);
+            for (Object item : items) {
+                if (equalsValues(value, item)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+        if (left instanceof Constant) {
+            return condition.test(Map.of()) ? NodeCondition.ALWAYS : NEVER;
+        }
+        return condition;
+    }
+
+    private NodeCondition truthy(Operand operand) {
+        if (operand instanceof Constant constant) {
+            if (!(constant.value() instanceof Boolean value)) {
+                throw error("条件必须是比较式或布尔字段");
+            }
+            return value ? NodeCondition.ALWAYS : NEVER;
+        }
+        return form -> {
+            Object value = operand.get(form);
+            return Boolean.TRUE.equals(value) || (value instanceof String text && "true".equalsIgnoreCase(text));
+        };
+    }
+
+    private void skipWhitespace() {
+        while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private boolean accept(String token) {
+        skipWhitespace();
+        if (source.startsWith(token, pos)) {
+            pos += token.length();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        skipWhitespace();
+        int end = pos + keyword.length();
+        if (source.startsWith(keyword, pos)
+                && (end == source.length() || !Character.isJavaIdentifierPart(source.charAt(end)))) {
+            pos = end;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String token) {
+        if (!accept(token)) {
+            throw error("缺少 " + token);
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("条件表达式第 " + (pos + 1) + " 个字符处" + message + ": " + source);
+    }
+
+    /**
+     * 转为数值：数值直接取值，字符串尝试解析，其余返回 NaN
+     */
+    private static double toNumber(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof String text && isNumeric(text)) {
+            return Double.parseDouble(text);
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * 是否为十进制数字字符串（[+-]digits[.digits]，先校验再解析，避免以异常作为分支）
+     */
+    private static boolean isNumeric(String text) {
+        int length = text.length();
+        int i = length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+') ? 1 : 0;
+        boolean digits = false;
+        boolean dot = false;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                return false;
+            }
+        }
+        return digits;
+    }
+
+    private static boolean equalsValues(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        double x = toNumber(a);
+        double y = toNumber(b);
+        if (!Double.isNaN(x) && !Double.isNaN(y)) {
+            return x == y;
+        }
+        return Objects.equals(String.valueOf(a), String.valueOf(b));
+    }
+
+    /**
+     * 比较大小，不可比较时返回 null
+     */
+    private static Integer compareValues(Object a, Object b) {
+        if (a == null || b == null) {
+            return null;
+        }
+        double x = toNumber(a);
+        double y = toNumber(b);
+        if (!Double.isNaN(x) && !Double.isNaN(y)) {
+            return Double.compare(x, y);
+        }
+        if (a instanceof String s && b instanceof String t) {
+            return s.compareTo(t);
+        }
+        return null;
+    }
+
+    /**
+     * 比较运算符（按符号长度排列，保证先匹配 >= 再匹配 >）
+     */
+    private enum Relation {
+        EQ("=="), NE("!="), GE(">="), LE("<="), GT(">"), LT("<");
+
+        private final String symbol;
+
+        Relation(String symbol) {
+            this.symbol = symbol;
+        }
+
+        boolean test(int cmp) {
+            return switch (this) {
+                case EQ -> cmp == 0;
+                case NE -> cmp != 0;
+                case GE -> cmp >= 0;
+                case LE -> cmp <= 0;
+                case GT -> cmp > 0;
+                case LT -> cmp < 0;
+            };
+        }
+
+        boolean holds(Object left, Object right) {
+            if (this == EQ) {
+                return equalsValues(left, right);
+            }
+            if (this == NE) {
+                return !equalsValues(left, right);
+            }
+            Integer cmp = compareValues(left, right);
+            return cmp != null && test(cmp);
+        }
+
+        /**
+         * 交换左右操作数后的运算符
+         */
+        Relation flip() {
+            return switch (this) {
+                case GE -> LE;
+                case LE -> GE;
+                case GT -> LT;
+                case LT -> GT;
+                default -> this;
+            };
+        }
+    }
+
+    /**
+     * 操作数
+     */
+    private interface Operand {
+
+        Object get(Map<String, Object> form);
+    }
+
+    /**
+     * 字段路径，逐级从嵌套对象中取值
+     */
+    private record Field(String[] path) implements Operand {
+
+        @Override
+        public Object get(Map<String, Object> form) {
+            Object value = form;
+            for (String key : path) {
+                if (!(value instanceof Map<?, ?> map)) {
+                    return null;
+                }
+                value = map.get(key);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * 常量
+     */
+    private record Constant(Object value) implements Operand {
+
+        @Override
+        public Object get(Map<String, Object> form) {
+            return value;
+        }
+    }
+}
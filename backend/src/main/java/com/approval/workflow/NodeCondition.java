@@ -0,0 +1,24 @@
+package com.approval.workflow;
+
+import java.util.Map;
+
+/**
+ * 编译后的节点条件
+ * 提交审批时以审批内容（JSON 表单解析后的 Map）求值，返回 false 的节点不生成审批节点
+ */
+@FunctionalInterface
+public interface NodeCondition {
+
+    /**
+     * 始终满足（未配置条件的节点）
+     */
+    NodeCondition ALWAYS = form -> true;
+
+    /**
+     * 求值
+     *
+     * @param form 审批表单数据
+     * @return 是否满足条件
+     */
+    boolean test(Map<String, Object> form);
+}
@@ -0,0 +1,34 @@
+package com.approval.workflow;
+
+import java.util.Map;
+
+/**
+ * 已编译的审批节点定义（不可变）
+ *
+ * @param nodeOrder        节点顺序
+ * @param nodeName         节点名称
+ * @param approverType     审批人类型: USER/POSITION/DEPARTMENT_HEAD
+ * @param approverStrategy 审批人解析策略
+ * @param approveMode      同序号节点组的完成规则
+ * @param requiredCount    需要通过的人数（N_OF_M）
+ * @param condition        编译后的节点条件，为 null 表示始终参与审批
+ */
+public record NodeDefinition(
+        int nodeOrder,
+        String nodeName,
+        String approverType,
+        ApproverStrategy approverStrategy,
+        ApproveMode approveMode,
+        Integer requiredCount,
+        NodeCondition condition) {
+
+    /**
+     * 审批内容是否满足节点条件
+     *
+     * @param form 审批表单数据
+     * @return 满足条件（或未配置条件）返回 true
+     */
+    public boolean matches(Map<String, Object> form) {
+        return condition == null || condition.test(form);
+    }
+}
@@ -0,0 +1,61 @@
+package com.approval.workflow;
+
+import com.approval.entity.ApprovalType;
+
+import java.util.List;
+
+/**
+ * 已编译的工作流定义（不可变）
+ * 包含提交审批所需的审批类型信息、工作流模板ID、生效版本和按顺序排列的节点定义
+ *
+ * @param typeCode   审批类型编码
+ * @param typeName   审批类型名称
+ * @param typeIcon   审批类型图标
+ * @param typeColor  审批类型颜色
+ * @param workflowId 工作流模板ID
+ * @param version    工作流版本
+ * @param nodes      节点定义（按节点顺序排列，同一序号可有多个节点组成并行节点组）
+ * @param loadedAt   编译时间戳
+ */
+public record WorkflowDefinition(
+        String typeCode,
+        String typeName,
+        String typeIcon,
+        String typeColor,
+        Long workflowId,
+        int version,
+        List<NodeDefinition> nodes,
+        long loadedAt) {
+
+    public WorkflowDefinition {
+        nodes = List.copyOf(nodes);
+    }
+
+    /**
+     * 是否有节点配置了条件（没有时提交审批无需解析审批内容）
+     *
+     * @return 存在条件节点返回 true
+     */
+    public boolean conditional() {
+        for (NodeDefinition node : nodes) {
+            if (node.condition() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 构建审批类型实体副本（用于组装 VO）
+     *
+     * @return 审批类型
+     */
+    public ApprovalType toApprovalType() {
+        return ApprovalType.builder()
+                .code(typeCode)
+                .name(typeName)
+                .icon(typeIcon)
+                .color(typeColor)
+                .build();
+    }
+}
@@ -0,0 +1,360 @@
+package com.approval.workflow;
+
+import com.approval.entity.ApprovalType;
+import com.approval.entity.SysDepartment;
+import com.approval.entity.WorkflowNodeTemplate;
+import com.approval.entity.WorkflowTemplate;
+import com.approval.exception.BusinessException;
+import com.approval.mapper.ApprovalTypeMapper;
+import com.approval.mapper.SysDepartmentMapper;
+import com.approval.mapper.SysUserPositionMapper;
+import com.approval.mapper.WorkflowNodeTemplateMapper;
+import com.approval.mapper.WorkflowTemplateMapper;
+import com.approval.util.TransactionHooks;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 工作流定义注册表
+ * 工作流定义按版本追加、不再修改，因此分两层缓存：
+ * <ul>
+ *   <li>按 (工作流ID, 版本) 缓存编译后的节点（含预编译的节点条件和审批人策略），版本不可变，缓存无需失效，
+ *       保存工作流时即在事务提交后登记新版本；</li>
+ *   <li>按审批类型编码缓存“当前生效版本”指针（审批类型信息、工作流ID、版本号），
+ *       工作流、审批类型变更时只需失效这一层。</li>
+ * </ul>
+ * 失效时立即失效一次，并在事务提交后再失效一次，配合代数（generation）校验，保证并发加载不会把变更前的指针写回缓存。
+ * 指针按 TTL 回源，保证多实例部署下最终一致；按职位、部门负责人解析的审批人在提交时按快照查询，不固化在版本中
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkflowDefinitionRegistry {
+
+    private static final TypeReference<Map<String, Object>> FORM_TYPE = new TypeReference<>() {
+    };
+
+    private final ApprovalTypeMapper approvalTypeMapper;
+    private final WorkflowTemplateMapper workflowTemplateMapper;
+    private final WorkflowNodeTemplateMapper workflowNodeTemplateMapper;
+    private final SysUserPositionMapper sysUserPositionMapper;
+    private final SysDepartmentMapper sysDepartmentMapper;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 缓存条目刷新周期（毫秒）
+     */
+    @Value("${workflow.definition-cache-ttl:600000}")
+    private long refreshIntervalMillis;
+
+    /**
+     * 审批类型编码 -> 当前生效版本的工作流定义
+     */
+    private final Map<String, WorkflowDefinition> definitions = new ConcurrentHashMap<>();
+
+    /**
+     * 工作流定义代数，每次失效递增
+     */
+    private final AtomicLong definitionGeneration = new AtomicLong();
+
+    /**
+     * (工作流ID, 版本) -> 编译后的节点（版本不可变，每个工作流只保留已加载的最新版本）
+     */
+    private final Map<WorkflowVersion, List<NodeDefinition>> versions = new ConcurrentHashMap<>();
+
+    /**
+     * 职位ID -> 任职用户快照
+     */
+    private final Map<Long, PositionHolder> positionHolders = new ConcurrentHashMap<>();
+
+    /**
+     * 部门ID -> 负责人ID 快照
+     */
+    private volatile DepartmentLeaders departmentLeaders;
+
+    /**
+     * 部门快照代数，每次失效递增
+     */
+    private final AtomicLong departmentGeneration = new AtomicLong();
+
+    /**
+     * 获取审批类型对应的工作流定义
+     *
+     * @param typeCode 审批类型编码
+     * @return 工作流定义
+     * @throws BusinessException 审批类型不存在、未配置启用的工作流或工作流没有节点
+     */
+    public WorkflowDefinition get(String typeCode) {
+        WorkflowDefinition definition = definitions.get(typeCode);
+        if (definition != null && System.currentTimeMillis() - definition.loadedAt() < refreshIntervalMillis) {
+            return definition;
+        }
+
+        long generation = definitionGeneration.get();
+        WorkflowDefinition compiled = compile(typeCode);
+        definitions.put(typeCode, compiled);
+        // 加载期间发生了失效，撤销本次写入，避免缓存变更前的定义
+        if (definitionGeneration.get() != generation) {
+            definitions.remove(typeCode, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * 失效所有审批类型的当前生效版本指针（工作流或审批类型变更时调用），已编译的版本保留
+     */
+    public void invalidateDefinitions() {
+        TransactionHooks.runNowAndAfterCommit(() -> {
+            definitionGeneration.incrementAndGet();
+            definitions.clear();
+        });
+    }
+
+    /**
+     * 失效部门负责人快照（部门变更时调用）
+     */
+    public void invalidateDepartments() {
+        TransactionHooks.runNowAndAfterCommit(() -> {
+            departmentGeneration.incrementAndGet();
+            departmentLeaders = null;
+        });
+    }
+
+    /**
+     * 登记保存工作流时新建的版本（事务提交后编译并缓存，之后提交审批不再解析节点条件）
+     *
+     * @param workflowId    工作流模板ID
+     * @param version       版本号
+     * @param nodeTemplates 该版本的节点模板（须已写入、带ID）
+     */
+    public void registerVersion(Long workflowId, int version, List<WorkflowNodeTemplate> nodeTemplates) {
+        List<WorkflowNodeTemplate> snapshot = List.copyOf(nodeTemplates);
+        Runnable register = () -> cacheVersion(new WorkflowVersion(workflowId, version), compileNodes(snapshot));
+        TransactionHooks.afterCommitOrNow(register);
+    }
+
+    /**
+     * 把审批内容解析为条件求值所用的表单数据
+     *
+     * @param content 审批内容（JSON 对象）
+     * @return 表单数据，内容为空或不是 JSON 对象时返回空 Map
+     */
+    public Map<String, Object> parseForm(String content) {
+        if (content == null || content.isBlank()) {
+            return Map.of();
+        }
+        try {
+            Map<String, Object> form = objectMapper.readValue(content, FORM_TYPE);
+            return form != null ? form : Map.of();
+        } catch (JsonProcessingException ex) {
+            log.debug("审批内容不是 JSON 对象，按空表单求值节点条件: {}", ex.getOriginalMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * 查询部门负责人
+     *
+     * @param departmentId 部门ID
+     * @return 负责人用户ID，部门不存在或未设置负责人时返回 null
+     */
+    public Long leaderOf(Long departmentId) {
+        if (departmentId == null) {
+            return null;
+        }
+        DepartmentLeaders snapshot = departmentLeaders;
+        if (snapshot == null || System.currentTimeMillis() - snapshot.loadedAt() >= refreshIntervalMillis) {
+            long generation = departmentGeneration.get();
+            snapshot = loadDepartmentLeaders();
+            departmentLeaders = snapshot;
+            if (departmentGeneration.get() != generation) {
+                departmentLeaders = null;
+            }
+        }
+        return snapshot.leaders().get(departmentId);
+    }
+
+    /**
+     * 编译工作流定义
+     */
+    private WorkflowDefinition compile(String typeCode) {
+        ApprovalType approvalType = approvalTypeMapper.selectOne(
+                new LambdaQueryWrapper<ApprovalType>()
+                        .eq(ApprovalType::getCode, typeCode)
+                        .eq(ApprovalType::getStatus, 1));
+        if (approvalType == null) {
+            throw new BusinessException(404, "审批类型不存在");
+        }
+
+        WorkflowTemplate workflow = workflowTemplateMapper.selectByTypeCode(typeCode);
+        if (workflow == null) {
+            throw new BusinessException(404, "未找到对应的工作流模板");
+        }
+
+        int version = workflow.getVersion() != null ? workflow.getVersion() : 1;
+        WorkflowVersion key = new WorkflowVersion(workflow.getId(), version);
+        List<NodeDefinition> nodes = versions.get(key);
+        if (nodes == null) {
+            List<WorkflowNodeTemplate> nodeTemplates =
+                    workflowNodeTemplateMapper.selectByVersion(workflow.getId(), version);
+            if (nodeTemplates.isEmpty()) {
+                throw new BusinessException(400, "工作流模板未配置审批节点");
+            }
+            nodes = compileNodes(nodeTemplates);
+            cacheVersion(key, nodes);
+        }
+
+        return new WorkflowDefinition(
+                approvalType.getCode(),
+                approvalType.getName(),
+                approvalType.getIcon(),
+                approvalType.getColor(),
+                workflow.getId(),
+                version,
+                nodes,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * 编译一个版本的节点
+     */
+    private List<NodeDefinition> compileNodes(List<WorkflowNodeTemplate> nodeTemplates) {
+        List<NodeDefinition> nodes = new ArrayList<>(nodeTemplates.size());
+        for (WorkflowNodeTemplate nodeTemplate : nodeTemplates) {
+            nodes.add(new NodeDefinition(
+                    nodeTemplate.getNodeOrder(),
+                    nodeTemplate.getNodeName(),
+                    nodeTemplate.getApproverType(),
+                    compileApprover(nodeTemplate),
+                    Objects.requireNonNullElse(ApproveMode.of(nodeTemplate.getApproveMode()), ApproveMode.ALL),
+                    nodeTemplate.getRequiredCount(),
+                    compileCondition(nodeTemplate)));
+        }
+        return List.copyOf(nodes);
+    }
+
+    /**
+     * 缓存编译后的版本，同时丢弃该工作流更早的版本（在途审批的节点已在提交时生成，不再需要旧版本）
+     */
+    private void cacheVersion(WorkflowVersion key, List<NodeDefinition> nodes) {
+        versions.keySet().removeIf(other -> other.workflowId().equals(key.workflowId())
+                && other.version() < key.version());
+        versions.put(key, nodes);
+        log.info("工作流版本已编译: workflowId={}, version={}, nodes={}", key.workflowId(), key.version(), nodes.size());
+    }
+
+    /**
+     * 编译节点条件；数据库中的表达式无法编译时记录错误并让节点始终参与审批
+     */
+    private NodeCondition compileCondition(WorkflowNodeTemplate nodeTemplate) {
+        String expression = nodeTemplate.getConditionExpr();
+        if (expression == null || expression.isBlank()) {
+            return null;
+        }
+        try {
+            return ConditionCompiler.compile(expression);
+        } catch (IllegalArgumentException ex) {
+            log.error("节点条件无法编译，该节点始终参与审批: nodeTemplateId={}, {}", nodeTemplate.getId(), ex.getMessage());
+            return NodeCondition.ALWAYS;
+        }
+    }
+
+    /**
+     * 根据节点模板的审批人类型生成审批人解析策略
+     */
+    private ApproverStrategy compileApprover(WorkflowNodeTemplate nodeTemplate) {
+        switch (nodeTemplate.getApproverType()) {
+            case "USER":
+                // 指定用户审批
+                return ApproverStrategy.fixed(nodeTemplate.getApproverId());
+            case "DEPARTMENT_HEAD":
+                // 部门负责人审批，如果没有部门负责人，回退到管理员
+                return initiator -> {
+                    Long leaderId = leaderOf(initiator != null ? initiator.getDepartmentId() : null);
+                    return leaderId != null ? leaderId : ApproverStrategy.FALLBACK_APPROVER_ID;
+                };
+            case "POSITION":
+                // 按职位审批：提交时按任职快照确定拥有该职位的用户，如果没有找到则回退到管理员
+                if (nodeTemplate.getApproverId() == null) {
+                    return ApproverStrategy.fixed(ApproverStrategy.FALLBACK_APPROVER_ID);
+                }
+                Long positionId = nodeTemplate.getApproverId();
+                return initiator -> {
+                    Long holderId = holderOf(positionId);
+                    return holderId != null ? holderId : ApproverStrategy.FALLBACK_APPROVER_ID;
+                };
+            default:
+                return ApproverStrategy.fixed(ApproverStrategy.FALLBACK_APPROVER_ID);
+        }
+    }
+
+    /**
+     * 查询职位的任职用户（按 TTL 缓存，版本中只保存职位ID）
+     */
+    private Long holderOf(Long positionId) {
+        PositionHolder holder = positionHolders.get(positionId);
+        if (holder == null || System.currentTimeMillis() - holder.loadedAt() >= refreshIntervalMillis) {
+            holder = new PositionHolder(sysUserPositionMapper.selectFirstUserIdByPositionId(positionId),
+                    System.currentTimeMillis());
+            positionHolders.put(positionId, holder);
+        }
+        return holder.userId();
+    }
+
+    /**
+     * 加载部门负责人快照
+     */
+    private DepartmentLeaders loadDepartmentLeaders() {
+        List<SysDepartment> departments = sysDepartmentMapper.selectList(
+                new LambdaQueryWrapper<SysDepartment>()
+                        .select(SysDepartment::getId, SysDepartment::getLeaderId));
+        Map<Long, Long> leaders = new HashMap<>();
+        for (SysDepartment department : departments) {
+            if (department.getLeaderId() != null) {
+                leaders.put(department.getId(), department.getLeaderId());
+            }
+        }
+        return new DepartmentLeaders(Map.copyOf(leaders), System.currentTimeMillis());
+    }
+
+    /**
+     * 职位任职快照
+     *
+     * @param userId   任职用户ID，无人任职时为 null
+     * @param loadedAt 加载时间戳
+     */
+    private record PositionHolder(Long userId, long loadedAt) {
+    }
+
+    /**
+     * 版本缓存键
+     *
+     * @param workflowId 工作流模板ID
+     * @param version    工作流版本
+     */
+    private record WorkflowVersion(Long workflowId, int version) {
+    }
+
+    /**
+     * 部门负责人快照
+     *
+     * @param leaders  部门ID -> 负责人ID
+     * @param loadedAt 加载时间戳
+     */
+    private record DepartmentLeaders(Map<Long, Long> leaders, long loadedAt) {
+    }
+}
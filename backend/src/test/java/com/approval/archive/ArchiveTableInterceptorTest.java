@@ -0,0 +1,51 @@
+package com.approval.archive;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 归档表改写拦截器测试
+ */
+class ArchiveTableInterceptorTest {
+
+    private final ArchiveTableInterceptor interceptor = new ArchiveTableInterceptor();
+
+    private String rewrite(String sql) {
+        BoundSql boundSql = new BoundSql(new Configuration(), sql, List.of(), null);
+        interceptor.willDoQuery(null, null, null, null, null, boundSql);
+        return boundSql.getSql();
+    }
+
+    @Test
+    void leavesQueriesOutsideScopeUntouched() {
+        String sql = "SELECT id FROM approval_record WHERE initiator_id = ?";
+        assertEquals(sql, rewrite(sql));
+        assertFalse(ArchiveReads.active());
+    }
+
+    @Test
+    void rewritesRecordAndNodeTablesInsideScope() {
+        String rewritten = ArchiveReads.call(() -> rewrite(
+                "SELECT r.id FROM approval_record r JOIN approval_node n ON n.approval_id = r.id " +
+                        "JOIN approval_node_group g ON g.approval_id = r.id WHERE r.status = ?"));
+        assertEquals("SELECT r.id FROM approval_record_archive r JOIN approval_node_archive n ON n.approval_id = r.id " +
+                "JOIN approval_node_group g ON g.approval_id = r.id WHERE r.status = ?", rewritten);
+
+        String archived = "SELECT COUNT(*) FROM approval_record_archive WHERE initiator_id = ?";
+        assertEquals(archived, ArchiveReads.call(() -> rewrite(archived)));
+    }
+
+    @Test
+    void scopeIsNestableAndClearedAfterwards() {
+        boolean nested = ArchiveReads.call(() -> ArchiveReads.call(ArchiveReads::active) && ArchiveReads.active());
+        assertTrue(nested);
+        assertFalse(ArchiveReads.active());
+    }
+}
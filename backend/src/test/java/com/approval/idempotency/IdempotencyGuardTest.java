@@ -0,0 +1,258 @@
+package com.approval.idempotency;
+
+import com.approval.common.Result;
+import com.approval.entity.IdempotencyRecord;
+import com.approval.exception.BusinessException;
+import com.approval.mapper.IdempotencyRecordMapper;
+import com.approval.vo.ApprovalRecordVO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 幂等请求守卫测试
+ * 幂等记录表以内存 Map 模拟（主键认领、接管、续期、完成、释放）
+ */
+class IdempotencyGuardTest {
+
+    private static final Long USER_ID = 7L;
+
+    private final Map<String, IdempotencyRecord> table = new ConcurrentHashMap<>();
+
+    private final IdempotencyRecordMapper mapper = mock(IdempotencyRecordMapper.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeEach
+    void setUp() {
+        when(mapper.claim(any())).thenAnswer(inv -> {
+            IdempotencyRecord r = inv.getArgument(0);
+            IdempotencyRecord row = IdempotencyRecord.builder()
+                    .userId(r.getUserId()).idemKey(r.getIdemKey()).fingerprint(r.getFingerprint()).status(0)
+                    .lockedUntil(r.getLockedUntil()).expiresAt(r.getExpiresAt()).createdAt(r.getCreatedAt())
+                    .build();
+            return table.putIfAbsent(r.getUserId() + ":" + r.getIdemKey(), row) == null ? 1 : 0;
+        });
+        when(mapper.takeOver(any(), any())).thenAnswer(inv -> {
+            IdempotencyRecord r = inv.getArgument(0);
+            LocalDateTime now = inv.getArgument(1);
+            AtomicInteger updated = new AtomicInteger();
+            table.computeIfPresent(r.getUserId() + ":" + r.getIdemKey(), (k, row) -> {
+                if (!row.getExpiresAt().isAfter(now) || (row.getStatus() == 0 && !row.getLockedUntil().isAfter(now))) {
+                    updated.set(1);
+                    return IdempotencyRecord.builder()
+                            .userId(r.getUserId()).idemKey(r.getIdemKey()).fingerprint(r.getFingerprint()).status(0)
+                            .lockedUntil(r.getLockedUntil()).expiresAt(r.getExpiresAt()).createdAt(r.getCreatedAt())
+                            .build();
+                }
+                return row;
+            });
+            return updated.get();
+        });
+        when(mapper.renewLease(anyLong(), anyString(), any())).thenAnswer(inv -> {
+            IdempotencyRecord row = table.get(inv.getArgument(0) + ":" + inv.getArgument(1));
+            if (row == null || row.getStatus() != 0) {
+                return 0;
+            }
+            row.setLockedUntil(inv.getArgument(2));
+            return 1;
+        });
+        when(mapper.holdUntilExpiry(anyLong(), anyString())).thenAnswer(inv -> {
+            IdempotencyRecord row = table.get(inv.getArgument(0) + ":" + inv.getArgument(1));
+            if (row == null || row.getStatus() != 0) {
+                return 0;
+            }
+            row.setLockedUntil(row.getExpiresAt());
+            return 1;
+        });
+        when(mapper.find(anyLong(), anyString())).thenAnswer(inv ->
+                table.get(inv.getArgument(0) + ":" + inv.getArgument(1)));
+        when(mapper.complete(anyLong(), anyString(), anyString())).thenAnswer(inv -> {
+            IdempotencyRecord row = table.get(inv.getArgument(0) + ":" + inv.getArgument(1));
+            row.setResponse(inv.getArgument(2));
+            row.setStatus(1);
+            return 1;
+        });
+        when(mapper.release(anyLong(), anyString())).thenAnswer(inv ->
+                table.remove(inv.getArgument(0) + ":" + inv.getArgument(1)) != null ? 1 : 0);
+    }
+
+    private IdempotencyGuard newGuard() {
+        return newGuard(30_000L, 5_000L);
+    }
+
+    private IdempotencyGuard newGuard(long leaseMillis, long waitTimeoutMillis) {
+        IdempotencyGuard guard = new IdempotencyGuard(mapper, objectMapper, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(guard, "ttlMillis", 60_000L);
+        ReflectionTestUtils.setField(guard, "cacheSize", 100);
+        ReflectionTestUtils.setField(guard, "leaseMillis", leaseMillis);
+        ReflectionTestUtils.setField(guard, "waitTimeoutMillis", waitTimeoutMillis);
+        guard.init();
+        return guard;
+    }
+
+    private static Result<ApprovalRecordVO> created(AtomicInteger executions) {
+        executions.incrementAndGet();
+        return Result.success(ApprovalRecordVO.builder().id("approval-" + executions.get()).title("请假").build());
+    }
+
+    @Test
+    void concurrentDuplicatesExecuteOnce() throws Exception {
+        IdempotencyGuard guard = newGuard();
+        AtomicInteger executions = new AtomicInteger();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Result<ApprovalRecordVO>>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return guard.execute(USER_ID, "k-1", "POST /api/approvals", Map.of("title", "请假"),
+                        ApprovalRecordVO.class, () -> {
+                            try {
+                                Thread.sleep(100);
+                            } catch (InterruptedException ex) {
+                                Thread.currentThread().interrupt();
+                            }
+                            return created(executions);
+                        });
+            }));
+        }
+        start.countDown();
+        for (Future<Result<ApprovalRecordVO>> future : futures) {
+            assertEquals("approval-1", future.get().getData().getId());
+        }
+        pool.shutdown();
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void retryAfterRestartReplaysStoredResponse() {
+        AtomicInteger executions = new AtomicInteger();
+        newGuard().execute(USER_ID, "k-2", "POST /api/approvals", Map.of("title", "请假"),
+                ApprovalRecordVO.class, () -> created(executions));
+
+        // 新实例内存缓存为空，从记录表重放
+        Result<ApprovalRecordVO> replayed = newGuard().execute(USER_ID, "k-2", "POST /api/approvals",
+                Map.of("title", "请假"), ApprovalRecordVO.class, () -> created(executions));
+
+        assertEquals(1, executions.get());
+        assertEquals("approval-1", replayed.getData().getId());
+        assertEquals("请假", replayed.getData().getTitle());
+    }
+
+    @Test
+    void reusingKeyForDifferentRequestIsRejected() {
+        IdempotencyGuard guard = newGuard();
+        AtomicInteger executions = new AtomicInteger();
+        guard.execute(USER_ID, "k-3", "POST /api/approvals", Map.of("title", "请假"),
+                ApprovalRecordVO.class, () -> created(executions));
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> guard.execute(USER_ID, "k-3",
+                "POST /api/approvals", Map.of("title", "报销"), ApprovalRecordVO.class, () -> created(executions)));
+        assertEquals(422, ex.getCode());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void businessErrorsReplayButConflictsReleaseTheKey() {
+        IdempotencyGuard guard = newGuard();
+        AtomicInteger executions = new AtomicInteger();
+
+        assertThrows(BusinessException.class, () -> guard.execute(USER_ID, "k-4", "POST /api/approvals/a/approve",
+                Map.of("approved", true), Void.class, () -> {
+                    executions.incrementAndGet();
+                    throw new BusinessException(409, "审批已被他人修改，请刷新后重试");
+                }));
+        guard.execute(USER_ID, "k-4", "POST /api/approvals/a/approve", Map.of("approved", true), Void.class, () -> {
+            executions.incrementAndGet();
+            return Result.success();
+        });
+        assertEquals(2, executions.get());
+
+        for (int i = 0; i < 2; i++) {
+            BusinessException ex = assertThrows(BusinessException.class, () -> newGuard().execute(USER_ID, "k-5",
+                    "POST /api/approvals/b/approve", Map.of("approved", true), Void.class, () -> {
+                        executions.incrementAndGet();
+                        throw new BusinessException(2003, "该审批已处理");
+                    }));
+            assertEquals(2003, ex.getCode());
+        }
+        assertEquals(3, executions.get());
+    }
+
+    @Test
+    void failedResponseSaveKeepsTheKeyClaimed() {
+        doThrow(new IllegalStateException("数据库不可用")).when(mapper).complete(anyLong(), anyString(), anyString());
+        IdempotencyGuard guard = newGuard(100L, 300L);
+        AtomicInteger executions = new AtomicInteger();
+
+        Result<ApprovalRecordVO> first = guard.execute(USER_ID, "k-6", "POST /api/approvals",
+                Map.of("title", "请假"), ApprovalRecordVO.class, () -> created(executions));
+        assertEquals("approval-1", first.getData().getId());
+        verify(mapper, times(3)).complete(anyLong(), anyString(), anyString());
+
+        // 租约早已到期，但幂等键保留到记录过期：本实例从内存缓存重放，其他实例不可接管
+        await(200);
+        assertEquals("approval-1", guard.execute(USER_ID, "k-6", "POST /api/approvals",
+                Map.of("title", "请假"), ApprovalRecordVO.class, () -> created(executions)).getData().getId());
+        BusinessException ex = assertThrows(BusinessException.class, () -> newGuard(100L, 300L).execute(USER_ID,
+                "k-6", "POST /api/approvals", Map.of("title", "请假"), ApprovalRecordVO.class,
+                () -> created(executions)));
+        assertEquals(409, ex.getCode());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void leaseIsRenewedWhileActionRunsLongerThanIt() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<Result<ApprovalRecordVO>> slow = pool.submit(() -> newGuard(150L, 5_000L).execute(USER_ID, "k-7",
+                "POST /api/approvals", Map.of("title", "请假"), ApprovalRecordVO.class, () -> {
+                    await(600);
+                    return created(executions);
+                }));
+
+        // 执行时间超过租约，另一实例的重试等待首次执行完成并重放其响应
+        await(300);
+        Result<ApprovalRecordVO> retried = newGuard(150L, 5_000L).execute(USER_ID, "k-7", "POST /api/approvals",
+                Map.of("title", "请假"), ApprovalRecordVO.class, () -> created(executions));
+
+        assertEquals("approval-1", slow.get().getData().getId());
+        assertEquals("approval-1", retried.getData().getId());
+        assertEquals(1, executions.get());
+        pool.shutdown();
+    }
+
+    private static void await(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
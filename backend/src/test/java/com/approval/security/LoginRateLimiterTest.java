@@ -0,0 +1,43 @@
+package com.approval.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 登录限流器测试
+ */
+class LoginRateLimiterTest {
+
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new LoginRateLimiter();
+        ReflectionTestUtils.setField(limiter, "ipBurst", 20);
+        ReflectionTestUtils.setField(limiter, "ipPerMinute", 30);
+        ReflectionTestUtils.setField(limiter, "usernameBurst", 5);
+        ReflectionTestUtils.setField(limiter, "usernamePerMinute", 10);
+        ReflectionTestUtils.setField(limiter, "maxKeys", 1000);
+        limiter.init();
+    }
+
+    @Test
+    void eachUsernameHasItsOwnBucket() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquireUsername("Alice"));
+        }
+        assertFalse(limiter.tryAcquireUsername("alice"));
+
+        // 其他账号不受影响
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquireUsername("Aa"));
+        }
+        assertFalse(limiter.tryAcquireUsername("Aa"));
+        assertTrue(limiter.tryAcquireUsername("BB"));
+        assertTrue(limiter.tryAcquireUsername("bob"));
+    }
+}
@@ -0,0 +1,628 @@
+package com.approval.service.impl;
+
+import com.approval.entity.ApprovalNode;
+import com.approval.entity.ApprovalNodeGroup;
+import com.approval.entity.ApprovalRecord;
+import com.approval.entity.ApprovalTodo;
+import com.approval.entity.SysUser;
+import com.approval.exception.BusinessException;
+import com.approval.mapper.ApprovalNodeGroupMapper;
+import com.approval.mapper.ApprovalNodeMapper;
+import com.approval.mapper.ApprovalRecordMapper;
+import com.approval.mapper.ApprovalTodoMapper;
+import com.approval.mapper.SysUserMapper;
+import com.approval.service.FileService;
+import com.approval.service.NotificationService;
+import com.approval.sla.SlaScheduler;
+import com.approval.stats.ApprovalDailyRollup;
+import com.approval.stats.ApprovalTypeCounters;
+import com.approval.util.BatchWriter;
+import com.approval.vo.BatchApproveResultVO;
+import com.approval.workflow.WorkflowDefinitionRegistry;
+import com.baomidou.mybatisplus.core.batch.ParameterConvert;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 审批乐观并发控制测试
+ * 以内存表模拟数据库的比较并更新语义（可重复读，事务回滚时撤销本事务的写入），多线程同时审批同一条记录或同一并行节点组，
+ * 以及批量审批的逐条校验、节点组累加与冲突重试
+ */
+class ApprovalServiceConcurrencyTest {
+
+    private static final String APPROVAL_ID = "approval-1";
+    private static final long INITIATOR_ID = 10L;
+    private static final long FIRST_APPROVER_ID = 20L;
+    private static final long SECOND_APPROVER_ID = 30L;
+    private static final List<Long> GROUP_APPROVER_IDS = List.of(41L, 42L, 43L);
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 5, 9, 0);
+
+    private final ApprovalRecordMapper recordMapper = mock(ApprovalRecordMapper.class);
+    private final ApprovalNodeMapper nodeMapper = mock(ApprovalNodeMapper.class);
+    private final ApprovalNodeGroupMapper groupMapper = mock(ApprovalNodeGroupMapper.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final ApprovalTodoMapper todoMapper = mock(ApprovalTodoMapper.class);
+    private final SysUserMapper userMapper = mock(SysUserMapper.class);
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final BatchWriter batchWriter = mock(BatchWriter.class);
+
+    /**
+     * 内存中的审批记录（审批ID -> 记录）、节点（节点ID -> 节点）与节点组（审批ID -> 第一个节点的节点组），
+     * 以 this 为锁模拟行级原子更新
+     */
+    private final Map<String, ApprovalRecord> storedRecords = new ConcurrentHashMap<>();
+    private final Map<Long, ApprovalNode> storedNodes = new ConcurrentHashMap<>();
+    private final Map<String, ApprovalNodeGroup> storedGroups = new ConcurrentHashMap<>();
+
+    /**
+     * 当前线程事务内写入的撤销操作，回滚时逆序执行
+     */
+    private final ThreadLocal<Deque<Runnable>> undoLog = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * 未提交的写入：行键 -> 写入前的已提交值，其他线程读取时只看到已提交的值
+     */
+    private final Map<String, Uncommitted> uncommitted = new ConcurrentHashMap<>();
+
+    /**
+     * 当前线程事务的一致性读视图（首次读取时建立，模拟 InnoDB 可重复读）：行键 -> 已提交值
+     */
+    private final ThreadLocal<Map<String, Object>> readView = new ThreadLocal<>();
+
+    /**
+     * 下一次批量执行前运行一次（模拟其他事务在本事务读取后提交）
+     */
+    private Runnable beforeNextBatch;
+
+    /**
+     * 模拟节点组行锁：累加计数时加锁，事务提交或回滚时释放
+     */
+    private final ReentrantLock groupRowLock = new ReentrantLock();
+
+    private ApprovalServiceImpl approvalService;
+
+    @BeforeEach
+    void setUp() {
+        storeRecord(APPROVAL_ID, 1);
+        storeNode(APPROVAL_ID, 1L, FIRST_APPROVER_ID, 1);
+        storeNode(APPROVAL_ID, 2L, SECOND_APPROVER_ID, 2);
+
+        when(recordMapper.selectById(anyString())).thenAnswer(inv -> snapshotRecord(inv.getArgument(0)));
+        when(recordMapper.selectBatchIds(anyCollection())).thenAnswer(inv -> snapshotRecords(inv.getArgument(0)));
+        when(nodeMapper.selectStageNodes(anyString(), anyInt()))
+                .thenAnswer(inv -> snapshotStage(inv.getArgument(0), inv.getArgument(1)));
+        when(nodeMapper.selectList(any())).thenAnswer(inv -> snapshotNodes());
+        when(nodeMapper.decideIfPending(any())).thenAnswer(inv -> decideIfPending(inv.getArgument(0)));
+        when(nodeMapper.skipPending(anyString(), anyInt()))
+                .thenAnswer(inv -> skipPending(inv.getArgument(0), inv.getArgument(1)));
+        when(groupMapper.countDecision(anyString(), anyInt(), anyBoolean()))
+                .thenAnswer(inv -> countDecision(inv.getArgument(0), inv.getArgument(2)));
+        when(groupMapper.selectStatus(anyString(), anyInt())).thenAnswer(inv -> groupStatus(inv.getArgument(0)));
+        when(recordMapper.transitIfMatch(any(), anyCollection())).thenAnswer(
+                inv -> transitIfMatch(inv.getArgument(0), inv.getArgument(1)));
+        when(recordMapper.countActiveForShare(anyCollection())).thenAnswer(inv -> countActive(inv.getArgument(0)));
+        when(batchWriter.executeBatch(any(), anyString(), anyCollection(), any())).thenAnswer(
+                inv -> executeBatch(inv.getArgument(1), inv.getArgument(2), inv.getArgument(3)));
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        doAnswer(inv -> endTransaction(false)).when(transactionManager).commit(any());
+        doAnswer(inv -> endTransaction(true)).when(transactionManager).rollback(any());
+        when(userMapper.selectById(anyLong())).thenAnswer(inv -> SysUser.builder()
+                .id(inv.getArgument(0)).nickname("用户" + inv.getArgument(0)).build());
+
+        approvalService = new ApprovalServiceImpl(
+                recordMapper, nodeMapper, groupMapper, todoMapper, userMapper,
+                mock(FileService.class), notificationService,
+                mock(WorkflowDefinitionRegistry.class), mock(ApprovalRecordAssembler.class),
+                new TransactionTemplate(transactionManager), batchWriter,
+                mock(SlaScheduler.class), mock(ApprovalDetailReader.class), mock(ApprovalTypeCounters.class),
+                mock(ApprovalDailyRollup.class), mock(DashboardCache.class));
+        ReflectionTestUtils.setField(approvalService, "maxAttempts", 3);
+    }
+
+    @Test
+    void concurrentApprovalsOfSameNodeSucceedExactlyOnce() throws Exception {
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Integer> rejectedCodes = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    approvalService.approve(APPROVAL_ID, FIRST_APPROVER_ID, true, "同意");
+                    succeeded.incrementAndGet();
+                } catch (BusinessException ex) {
+                    synchronized (rejectedCodes) {
+                        rejectedCodes.add(ex.getCode());
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(1, succeeded.get());
+        assertEquals(threads - 1, rejectedCodes.size());
+        // 落败的请求重新读取后看到节点已流转（2003/2002），或重试耗尽（409），不会重复审批
+        assertTrue(rejectedCodes.stream().allMatch(code -> code == 2002 || code == 2003 || code == 409),
+                "unexpected codes: " + rejectedCodes);
+
+        assertEquals(2, storedRecords.get(APPROVAL_ID).getStatus());
+        assertEquals(2, storedRecords.get(APPROVAL_ID).getCurrentNodeOrder());
+        assertEquals(1, storedRecords.get(APPROVAL_ID).getVersion());
+        assertEquals(1, storedNodes.get(1L).getStatus());
+        assertEquals(1, storedNodes.get(1L).getVersion());
+        assertEquals(0, storedNodes.get(2L).getStatus());
+        verify(notificationService, times(1))
+                .sendApprovalNotifications(eq(APPROVAL_ID), eq(List.of(SECOND_APPROVER_ID)), anyString(), anyString());
+    }
+
+    @Test
+    void concurrentApprovalsInParallelGroupCompleteItOnce() throws Exception {
+        // 第一个节点改为 3 人中 2 人通过的并行节点组
+        storedNodes.remove(1L);
+        for (int i = 0; i < GROUP_APPROVER_IDS.size(); i++) {
+            storeNode(APPROVAL_ID, 11L + i, GROUP_APPROVER_IDS.get(i), 1);
+        }
+        storeGroup(APPROVAL_ID, 2, 3, 0);
+
+        ExecutorService pool = Executors.newFixedThreadPool(GROUP_APPROVER_IDS.size());
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Integer> rejectedCodes = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long approverId : GROUP_APPROVER_IDS) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    approvalService.approve(APPROVAL_ID, approverId, true, "同意");
+                    succeeded.incrementAndGet();
+                } catch (BusinessException ex) {
+                    synchronized (rejectedCodes) {
+                        rejectedCodes.add(ex.getCode());
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // 前两人通过即完成节点组，第三人的节点被跳过，重试时审批已流转到下一节点
+        assertEquals(2, succeeded.get());
+        assertEquals(List.of(2003), rejectedCodes);
+        assertEquals(2, storedGroups.get(APPROVAL_ID).getApprovedCount());
+        assertEquals(1, storedGroups.get(APPROVAL_ID).getStatus());
+        assertEquals(2, storedNodes.values().stream().filter(n -> n.getNodeOrder() == 1 && n.getStatus() == 1).count());
+        assertEquals(1, storedNodes.values().stream().filter(n -> n.getNodeOrder() == 1 && n.getStatus() == 3).count());
+
+        // 审批记录只流转一次
+        assertEquals(2, storedRecords.get(APPROVAL_ID).getStatus());
+        assertEquals(2, storedRecords.get(APPROVAL_ID).getCurrentNodeOrder());
+        assertEquals(1, storedRecords.get(APPROVAL_ID).getVersion());
+        verify(notificationService, times(1))
+                .sendApprovalNotifications(eq(APPROVAL_ID), eq(List.of(SECOND_APPROVER_ID)), anyString(), anyString());
+    }
+
+    @Test
+    void persistentConflictIsReportedAfterBoundedRetries() {
+        doReturn(0).when(nodeMapper).decideIfPending(any());
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> approvalService.approve(APPROVAL_ID, FIRST_APPROVER_ID, true, null));
+
+        assertEquals(409, ex.getCode());
+        verify(nodeMapper, times(3)).decideIfPending(any());
+        assertEquals(0, storedRecords.get(APPROVAL_ID).getVersion());
+    }
+
+    @Test
+    void batchReportsPerItemFailuresAndApprovesTheRest() {
+        // 不存在的审批、无当前节点的审批、已结束的审批、不是审批人、本人节点已处理（节点组未完成）
+        storeRecord("approval-no-stage", 1);
+        storeRecord("approval-done", 3);
+        storeNode("approval-done", 101L, FIRST_APPROVER_ID, 1);
+        storeRecord("approval-other", 1);
+        storeNode("approval-other", 102L, SECOND_APPROVER_ID, 1);
+        storeRecord("approval-handled", 2);
+        storeNode("approval-handled", 103L, FIRST_APPROVER_ID, 1);
+        storeNode("approval-handled", 104L, SECOND_APPROVER_ID, 1);
+        storedNodes.get(103L).setStatus(1);
+
+        List<String> ids = List.of("approval-missing", "approval-no-stage", "approval-done",
+                APPROVAL_ID, "approval-other", "approval-handled");
+        BatchApproveResultVO result = approvalService.approveBatch(ids, FIRST_APPROVER_ID, true, "同意");
+
+        assertEquals(6, result.getTotal());
+        assertEquals(1, result.getSucceeded());
+        assertEquals(5, result.getFailed());
+        assertEquals(ids, result.getItems().stream().map(BatchApproveResultVO.Item::getApprovalId).toList());
+        assertEquals(List.of(2001, 2001, 2002, 0, 2003, 2002), result.getItems().stream()
+                .map(item -> item.getSuccess() ? 0 : item.getCode()).toList());
+
+        // 只有校验通过的条目被写入
+        assertEquals(2, storedRecords.get(APPROVAL_ID).getStatus());
+        assertEquals(2, storedRecords.get(APPROVAL_ID).getCurrentNodeOrder());
+        assertEquals(1, storedNodes.get(1L).getStatus());
+        assertEquals(0, storedRecords.get("approval-done").getVersion());
+        assertEquals(0, storedNodes.get(101L).getVersion());
+        assertEquals(0, storedNodes.get(102L).getVersion());
+        assertEquals(0, storedNodes.get(104L).getVersion());
+        verify(todoMapper).deleteByApprovalIds(List.of(APPROVAL_ID));
+        verify(notificationService).sendApprovalNotices(List.of(new NotificationService.ApprovalNotice(
+                APPROVAL_ID, SECOND_APPROVER_ID, "您有一条新的审批待处理", "请假 已流转到您，请及时处理")));
+    }
+
+    @Test
+    void batchClosesOnlyTheParallelGroupThatReachesItsQuorum() {
+        // 两条审批的第一个节点都是 3 人中 2 人通过的节点组：一条尚无人通过，另一条已有 1 人通过
+        for (String id : List.of("approval-open", "approval-closing")) {
+            storeRecord(id, 1);
+            long base = id.equals("approval-open") ? 200L : 300L;
+            for (int i = 0; i < GROUP_APPROVER_IDS.size(); i++) {
+                storeNode(id, base + i, GROUP_APPROVER_IDS.get(i), 1);
+            }
+            storeNode(id, base + 10, SECOND_APPROVER_ID, 2);
+        }
+        storeGroup("approval-open", 2, 3, 0);
+        storeGroup("approval-closing", 2, 3, 1);
+        storedNodes.get(301L).setStatus(1);
+        Long approverId = GROUP_APPROVER_IDS.get(0);
+
+        BatchApproveResultVO result = approvalService.approveBatch(
+                List.of("approval-open", "approval-closing"), approverId, true, null);
+
+        assertEquals(2, result.getSucceeded());
+        assertEquals(0, result.getFailed());
+
+        // 未达到人数的节点组保持待审批：记录不流转，只删除本人的待办
+        assertEquals(1, storedGroups.get("approval-open").getApprovedCount());
+        assertEquals(0, storedGroups.get("approval-open").getStatus());
+        assertEquals(1, storedNodes.get(200L).getStatus());
+        assertEquals(0, storedNodes.get(201L).getStatus());
+        assertEquals(1, storedRecords.get("approval-open").getCurrentNodeOrder());
+        assertEquals(0, storedRecords.get("approval-open").getVersion());
+        verify(todoMapper).deleteByApproverAndApprovalIds(approverId, List.of("approval-open"));
+
+        // 达到人数的节点组完成：跳过其余节点，记录流转到下一节点并生成下一节点的待办
+        assertEquals(2, storedGroups.get("approval-closing").getApprovedCount());
+        assertEquals(1, storedGroups.get("approval-closing").getStatus());
+        assertEquals(1, storedNodes.get(300L).getStatus());
+        assertEquals(3, storedNodes.get(302L).getStatus());
+        assertEquals(2, storedRecords.get("approval-closing").getStatus());
+        assertEquals(2, storedRecords.get("approval-closing").getCurrentNodeOrder());
+        assertEquals(1, storedRecords.get("approval-closing").getVersion());
+        verify(todoMapper).deleteByApprovalIds(List.of("approval-closing"));
+        verify(nodeMapper).skipPending("approval-closing", 1);
+        verify(nodeMapper, never()).skipPending("approval-open", 1);
+        verify(batchWriter).insertBatch(eq(ApprovalTodoMapper.class), eq(List.of(ApprovalTodo.builder()
+                .approvalId("approval-closing").approverId(SECOND_APPROVER_ID).nodeOrder(2).priority(0)
+                .createdAt(CREATED_AT).build())));
+    }
+
+    @Test
+    void batchConflictRollsBackAndRetriesWholeBatch() {
+        storeRecord("approval-2", 1);
+        storeNode("approval-2", 21L, FIRST_APPROVER_ID, 1);
+        storeRecord("approval-3", 1);
+        storeNode("approval-3", 31L, FIRST_APPROVER_ID, 1);
+
+        // 本事务读取后，approval-2 的节点被其他请求通过并完成审批
+        beforeNextBatch = () -> {
+            ApprovalNode node = copy(storedNodes.get(21L));
+            node.setStatus(1);
+            node.setVersion(1);
+            storedNodes.put(21L, node);
+            ApprovalRecord record = copy(storedRecords.get("approval-2"));
+            record.setStatus(3);
+            record.setVersion(1);
+            storedRecords.put("approval-2", record);
+        };
+
+        BatchApproveResultVO result = approvalService.approveBatch(
+                List.of(APPROVAL_ID, "approval-2", "approval-3"), FIRST_APPROVER_ID, true, "同意");
+
+        // 第一次批量更新中 approval-2 冲突，整批回滚后重新读取，已被处理的条目记为失败
+        verify(batchWriter, times(2)).executeBatch(eq(ApprovalNodeMapper.class), eq("decideIfPending"),
+                anyCollection(), any());
+        verify(transactionManager, times(1)).rollback(any());
+        assertEquals(2, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        BatchApproveResultVO.Item failed = result.getItems().get(1);
+        assertEquals("approval-2", failed.getApprovalId());
+        assertFalse(failed.getSuccess());
+        assertEquals(2002, failed.getCode());
+
+        // 第一次尝试的写入已撤销，每个节点、记录只更新一次
+        assertEquals(1, storedNodes.get(1L).getVersion());
+        assertEquals(1, storedNodes.get(31L).getVersion());
+        assertEquals(1, storedRecords.get(APPROVAL_ID).getVersion());
+        assertEquals(2, storedRecords.get(APPROVAL_ID).getCurrentNodeOrder());
+        assertEquals(1, storedRecords.get("approval-3").getVersion());
+        assertEquals(3, storedRecords.get("approval-3").getStatus());
+        assertEquals(1, storedRecords.get("approval-2").getVersion());
+        assertEquals(1, storedNodes.get(21L).getVersion());
+    }
+
+    private void storeRecord(String id, int status) {
+        storedRecords.put(id, ApprovalRecord.builder()
+                .id(id).title("请假").typeCode("LEAVE").initiatorId(INITIATOR_ID)
+                .priority(0).status(status).currentNodeOrder(1).createdAt(CREATED_AT).version(0).build());
+    }
+
+    private void storeNode(String approvalId, long id, long approverId, int nodeOrder) {
+        storedNodes.put(id, ApprovalNode.builder()
+                .id(id).approvalId(approvalId).approverId(approverId).nodeOrder(nodeOrder).status(0).version(0).build());
+    }
+
+    private void storeGroup(String approvalId, int requiredCount, int totalCount, int approvedCount) {
+        storedGroups.put(approvalId, ApprovalNodeGroup.builder()
+                .approvalId(approvalId).nodeOrder(1).approveMode("N_OF_M").requiredCount(requiredCount)
+                .totalCount(totalCount).approvedCount(approvedCount).rejectedCount(0).status(0).build());
+    }
+
+    private synchronized ApprovalRecord snapshotRecord(String id) {
+        ApprovalRecord record = visible("record:" + id, storedRecords.get(id));
+        return record != null ? copy(record) : null;
+    }
+
+    private synchronized List<ApprovalRecord> snapshotRecords(Collection<String> ids) {
+        return ids.stream().map(this::snapshotRecord).filter(Objects::nonNull).toList();
+    }
+
+    private synchronized List<ApprovalNode> snapshotNodes() {
+        return storedNodes.values().stream()
+                .map(node -> visible("node:" + node.getId(), node))
+                .sorted(Comparator.comparing(ApprovalNode::getId))
+                .map(ApprovalServiceConcurrencyTest::copy)
+                .toList();
+    }
+
+    private synchronized List<ApprovalNode> snapshotStage(String approvalId, int nodeOrder) {
+        return snapshotNodes().stream()
+                .filter(node -> node.getApprovalId().equals(approvalId) && node.getNodeOrder() == nodeOrder)
+                .toList();
+    }
+
+    /**
+     * 模拟 JDBC batch：逐条执行 Mapper 方法，返回每条的影响行数
+     */
+    @SuppressWarnings("unchecked")
+    private <T> int[] executeBatch(String method, Collection<T> elements, ParameterConvert<T> parameter) {
+        if (beforeNextBatch != null) {
+            Runnable concurrent = beforeNextBatch;
+            beforeNextBatch = null;
+            synchronized (this) {
+                concurrent.run();
+            }
+        }
+        int[] counts = new int[elements.size()];
+        int index = 0;
+        for (T element : elements) {
+            Map<String, Object> p = (Map<String, Object>) parameter.convert(element);
+            counts[index++] = switch (method) {
+                case "decideIfPending" -> decideIfPending((ApprovalNode) p.get("n"));
+                case "transitIfMatch" -> transitIfMatch((ApprovalRecord) p.get("r"),
+                        (Collection<Integer>) p.get("fromStatuses"));
+                default -> throw new IllegalArgumentException(method);
+            };
+        }
+        return counts;
+    }
+
+    private synchronized int decideIfPending(ApprovalNode node) {
+        ApprovalNode stored = storedNodes.get(node.getId());
+        if (!stored.getVersion().equals(node.getVersion()) || stored.getStatus() != 0) {
+            return 0;
+        }
+        ApprovalNode updated = copy(node);
+        updated.setVersion(node.getVersion() + 1);
+        storedNodes.put(node.getId(), updated);
+        written("node:" + stored.getId(), stored, () -> storedNodes.put(stored.getId(), stored));
+        return 1;
+    }
+
+    private synchronized int skipPending(String approvalId, int nodeOrder) {
+        int skipped = 0;
+        for (ApprovalNode node : List.copyOf(storedNodes.values())) {
+            if (node.getApprovalId().equals(approvalId) && node.getNodeOrder() == nodeOrder && node.getStatus() == 0) {
+                ApprovalNode updated = copy(node);
+                updated.setStatus(3);
+                updated.setVersion(node.getVersion() + 1);
+                storedNodes.put(node.getId(), updated);
+                written("node:" + node.getId(), node, () -> storedNodes.put(node.getId(), node));
+                skipped++;
+            }
+        }
+        return skipped;
+    }
+
+    private int countDecision(String approvalId, boolean approved) {
+        if (!groupRowLock.isHeldByCurrentThread()) {
+            groupRowLock.lock();
+        }
+        synchronized (this) {
+            ApprovalNodeGroup stored = storedGroups.get(approvalId);
+            if (stored.getStatus() != 0) {
+                return 0;
+            }
+            ApprovalNodeGroup group = copy(stored);
+            if (approved) {
+                group.setApprovedCount(group.getApprovedCount() + 1);
+                if (group.getApprovedCount() >= group.getRequiredCount()) {
+                    group.setStatus(1);
+                }
+            } else {
+                group.setRejectedCount(group.getRejectedCount() + 1);
+                if (group.getRejectedCount() > group.getTotalCount() - group.getRequiredCount()) {
+                    group.setStatus(2);
+                }
+            }
+            storedGroups.put(approvalId, group);
+            written("group:" + approvalId, stored, () -> storedGroups.put(approvalId, stored));
+            return 1;
+        }
+    }
+
+    private synchronized Integer groupStatus(String approvalId) {
+        return storedGroups.get(approvalId).getStatus();
+    }
+
+    private synchronized int countActive(Collection<String> ids) {
+        return (int) ids.stream().map(storedRecords::get)
+                .filter(record -> record != null && List.of(1, 2).contains(record.getStatus()))
+                .count();
+    }
+
+    /**
+     * 记录当前线程事务内的写入：保留写入前的已提交值与撤销操作
+     */
+    private void written(String key, Object committed, Runnable undo) {
+        uncommitted.putIfAbsent(key, new Uncommitted(Thread.currentThread(), committed));
+        undoLog.get().push(undo);
+    }
+
+    /**
+     * 读取可见的行：本事务写入的行读取最新值，其余从读视图读取
+     */
+    @SuppressWarnings("unchecked")
+    private synchronized <T> T visible(String key, T current) {
+        Uncommitted pending = uncommitted.get(key);
+        if (pending != null && pending.owner() == Thread.currentThread()) {
+            return current;
+        }
+        Map<String, Object> view = readView.get();
+        if (view == null) {
+            view = snapshotCommitted();
+            readView.set(view);
+        }
+        return (T) view.get(key);
+    }
+
+    /**
+     * 建立读视图：全部行的已提交值
+     */
+    private Map<String, Object> snapshotCommitted() {
+        Map<String, Object> view = new HashMap<>();
+        storedRecords.forEach((id, record) -> view.put("record:" + id, record));
+        storedNodes.forEach((id, node) -> view.put("node:" + id, node));
+        storedGroups.forEach((id, group) -> view.put("group:" + id, group));
+        uncommitted.forEach((key, pending) -> view.put(key, pending.committed()));
+        return view;
+    }
+
+    /**
+     * 提交或回滚（逆序撤销当前线程事务内的写入），并释放节点组行锁
+     */
+    private Object endTransaction(boolean rollback) {
+        synchronized (this) {
+            Deque<Runnable> log = undoLog.get();
+            while (!log.isEmpty()) {
+                Runnable undo = log.pop();
+                if (rollback) {
+                    undo.run();
+                }
+            }
+            uncommitted.values().removeIf(pending -> pending.owner() == Thread.currentThread());
+            readView.remove();
+        }
+        while (groupRowLock.isHeldByCurrentThread()) {
+            groupRowLock.unlock();
+        }
+        return null;
+    }
+
+    private synchronized int transitIfMatch(ApprovalRecord record, Collection<Integer> fromStatuses) {
+        ApprovalRecord stored = storedRecords.get(record.getId());
+        if (!stored.getVersion().equals(record.getVersion()) || !fromStatuses.contains(stored.getStatus())) {
+            return 0;
+        }
+        ApprovalRecord updated = copy(record);
+        updated.setVersion(record.getVersion() + 1);
+        storedRecords.put(record.getId(), updated);
+        written("record:" + stored.getId(), stored, () -> storedRecords.put(stored.getId(), stored));
+        return 1;
+    }
+
+    private static ApprovalRecord copy(ApprovalRecord r) {
+        return ApprovalRecord.builder()
+                .id(r.getId()).title(r.getTitle()).typeCode(r.getTypeCode()).initiatorId(r.getInitiatorId())
+                .priority(r.getPriority()).status(r.getStatus()).currentNodeOrder(r.getCurrentNodeOrder())
+                .createdAt(r.getCreatedAt()).completedAt(r.getCompletedAt()).updatedAt(r.getUpdatedAt())
+                .version(r.getVersion()).build();
+    }
+
+    private static ApprovalNode copy(ApprovalNode n) {
+        return ApprovalNode.builder()
+                .id(n.getId()).approvalId(n.getApprovalId()).approverId(n.getApproverId()).nodeOrder(n.getNodeOrder())
+                .status(n.getStatus()).comment(n.getComment()).approvedAt(n.getApprovedAt()).version(n.getVersion())
+                .build();
+    }
+
+    private static ApprovalNodeGroup copy(ApprovalNodeGroup g) {
+        return ApprovalNodeGroup.builder()
+                .approvalId(g.getApprovalId()).nodeOrder(g.getNodeOrder()).approveMode(g.getApproveMode())
+                .requiredCount(g.getRequiredCount()).totalCount(g.getTotalCount()).approvedCount(g.getApprovedCount())
+                .rejectedCount(g.getRejectedCount()).status(g.getStatus()).build();
+    }
+
+    /**
+     * 未提交的行
+     *
+     * @param owner     写入的线程
+     * @param committed 写入前的已提交值
+     */
+    private record Uncommitted(Thread owner, Object committed) {
+    }
+}
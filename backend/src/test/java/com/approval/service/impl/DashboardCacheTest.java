@@ -0,0 +1,70 @@
+package com.approval.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 仪表盘缓存测试
+ */
+class DashboardCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DashboardCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DashboardCache(meterRegistry);
+        ReflectionTestUtils.setField(cache, "cacheSize", 10);
+        ReflectionTestUtils.setField(cache, "userTtlMillis", 60_000L);
+        ReflectionTestUtils.setField(cache, "globalTtlMillis", 60_000L);
+        cache.init();
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("approval.dashboard.cache.requests").tag("result", result).functionCounter().count();
+    }
+
+    @Test
+    void invalidationDropsOnlyAffectedUsers() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.user(1L, "statistics", loads::incrementAndGet);
+        cache.user(2L, "statistics", loads::incrementAndGet);
+        assertEquals(1, (int) cache.user(1L, "statistics", loads::incrementAndGet));
+
+        cache.invalidate(List.of(1L));
+
+        assertEquals(3, (int) cache.user(1L, "statistics", loads::incrementAndGet));
+        assertEquals(2, (int) cache.user(2L, "statistics", loads::incrementAndGet));
+        assertEquals(2.0, requests("hit"));
+        assertEquals(3.0, requests("miss"));
+    }
+
+    @Test
+    void loadRacingInvalidationIsNotWrittenBack() {
+        // 加载期间发生失效（如审批流转），旧结果不应写回缓存
+        assertEquals("stale", cache.user(1L, "todos:5", () -> {
+            cache.invalidate(List.of(1L));
+            return "stale";
+        }));
+        assertEquals("fresh", cache.user(1L, "todos:5", () -> "fresh"));
+    }
+
+    @Test
+    void sizeBoundEvictsUsers() {
+        for (long userId = 1; userId <= 25; userId++) {
+            cache.user(userId, "heatmap", () -> "data");
+        }
+        double evictions = meterRegistry.get("approval.dashboard.cache.evictions").functionCounter().count();
+        assertTrue(evictions >= 15);
+        assertTrue(meterRegistry.get("approval.dashboard.cache.size").gauge().value() <= 10);
+    }
+}
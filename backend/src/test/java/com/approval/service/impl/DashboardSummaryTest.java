@@ -0,0 +1,85 @@
+package com.approval.service.impl;
+
+import com.approval.mapper.ApprovalDailyStatsMapper;
+import com.approval.mapper.ApprovalRecordMapper;
+import com.approval.mapper.ApprovalTodoMapper;
+import com.approval.mapper.ApprovalTypeMapper;
+import com.approval.stats.ApprovalDailyRollup;
+import com.approval.stats.ApprovalTypeCounters;
+import com.approval.vo.DashboardStatisticsVO;
+import com.approval.vo.DashboardSummaryVO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 仪表盘汇总测试
+ */
+class DashboardSummaryTest {
+
+    private final ApprovalRecordMapper recordMapper = mock(ApprovalRecordMapper.class);
+
+    private final ApprovalDailyStatsMapper dailyStatsMapper = mock(ApprovalDailyStatsMapper.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DashboardServiceImpl dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardServiceImpl(recordMapper, mock(ApprovalTypeMapper.class),
+                mock(ApprovalTodoMapper.class), mock(ApprovalRecordAssembler.class),
+                mock(ApprovalTypeCounters.class), dailyStatsMapper, mock(ApprovalDailyRollup.class), meterRegistry,
+                new DashboardCache(meterRegistry));
+        ReflectionTestUtils.setField(dashboardService, "summaryThreads", 8);
+        ReflectionTestUtils.setField(dashboardService, "queueCapacity", 16);
+        ReflectionTestUtils.setField(dashboardService, "sectionTimeoutMillis", 300L);
+        dashboardService.init();
+
+        when(recordMapper.selectInitiatorStatistics(anyLong(), any(), any())).thenReturn(
+                DashboardStatisticsVO.builder().pending(1).approved(2).rejected(0).total(3).build());
+        when(dailyStatsMapper.selectEfficiencyTotals(any(), any(), any()))
+                .thenReturn(new ApprovalDailyStatsMapper.EfficiencyTotals());
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardService.shutdown();
+    }
+
+    @Test
+    void slowAndFailingSectionsAreOmitted() {
+        when(dailyStatsMapper.selectInitiatorDaily(anyLong(), any())).thenAnswer(inv -> {
+            Thread.sleep(5_000);
+            return List.of();
+        });
+        when(dailyStatsMapper.selectInitiatorTypeTotals(anyLong())).thenThrow(new IllegalStateException("db down"));
+
+        long start = System.currentTimeMillis();
+        DashboardSummaryVO summary = dashboardService.getSummary(1L, 10, 30, 5);
+
+        assertTrue(System.currentTimeMillis() - start < 2_000);
+        assertEquals(List.of("typeEfficiency", "heatmap"), summary.getUnavailable());
+        assertNull(summary.getHeatmap());
+        assertNull(summary.getTypeEfficiency());
+        assertEquals(3, summary.getStatistics().getTotal());
+        assertEquals(30, summary.getTrend().size());
+        assertNotNull(summary.getEfficiency());
+        assertNotNull(summary.getTodos());
+        assertEquals(1.0, meterRegistry.counter("approval.dashboard.sections",
+                "section", "heatmap", "outcome", "timeout").count());
+    }
+}
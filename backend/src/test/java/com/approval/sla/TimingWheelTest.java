@@ -0,0 +1,81 @@
+package com.approval.sla;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分层时间轮测试
+ * 以 1 毫秒为刻度随机添加、重新调度、取消定时器（覆盖全部 4 层及超出最高层的定时器），
+ * 分步推进并与期望到期时间逐一比对
+ */
+class TimingWheelTest {
+
+    @Test
+    void firesEveryTimerInTheStepThatReachesItsDeadline() {
+        Random random = new Random(42);
+        long start = 1_000_000L;
+        TimingWheel<Integer, Long> wheel = new TimingWheel<>(1, start);
+        Map<Integer, Long> expected = new HashMap<>();
+
+        long[] ranges = {64, 4_096, 262_144, 16_777_216, 40_000_000};
+        for (int i = 0; i < 20_000; i++) {
+            long expireAt = start + 1 + (long) (random.nextDouble() * ranges[i % ranges.length]);
+            wheel.schedule(i, expireAt, expireAt);
+            expected.put(i, expireAt);
+        }
+        // 重新调度与取消
+        for (int i = 0; i < 20_000; i += 7) {
+            long expireAt = start + 1 + (long) (random.nextDouble() * ranges[(i / 7) % ranges.length]);
+            wheel.schedule(i, expireAt, expireAt);
+            expected.put(i, expireAt);
+        }
+        for (int i = 3; i < 20_000; i += 11) {
+            assertTrue(wheel.cancel(i));
+            expected.remove(i);
+        }
+        assertFalse(wheel.cancel(3));
+        assertEquals(expected.size(), wheel.size());
+
+        long previous = start;
+        long now = start;
+        List<long[]> fired = new ArrayList<>();
+        while (wheel.size() > 0) {
+            now += 1 + random.nextInt(50_000);
+            long stepStart = previous;
+            long stepEnd = now;
+            wheel.advanceTo(now, (key, expireAt) -> {
+                assertEquals(expected.remove(key), expireAt);
+                fired.add(new long[]{expireAt, stepStart, stepEnd});
+            });
+            previous = now;
+        }
+
+        assertTrue(expected.isEmpty());
+        for (long[] f : fired) {
+            assertTrue(f[0] > f[1] && f[0] <= f[2], "定时器应在跨过其到期时间的那一步触发");
+        }
+    }
+
+    @Test
+    void overdueTimerFiresOnNextTick() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(1000, 10_000);
+        wheel.schedule("a", 0, "overdue");
+        List<String> fired = new ArrayList<>();
+
+        wheel.advanceTo(10_999, (key, value) -> fired.add(value));
+        assertTrue(fired.isEmpty());
+
+        wheel.advanceTo(11_000, (key, value) -> fired.add(value));
+        assertEquals(List.of("overdue"), fired);
+        assertEquals(0, wheel.size());
+    }
+}
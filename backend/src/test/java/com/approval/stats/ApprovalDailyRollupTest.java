@@ -0,0 +1,58 @@
+package com.approval.stats;
+
+import com.approval.entity.ApprovalDailyStats;
+import com.approval.entity.ApprovalRecord;
+import com.approval.mapper.ApprovalDailyStatsMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 审批每日汇总测试
+ */
+class ApprovalDailyRollupTest {
+
+    private final ApprovalDailyStatsMapper mapper = mock(ApprovalDailyStatsMapper.class);
+
+    private final ApprovalDailyRollup rollup = new ApprovalDailyRollup(mapper, mock(TransactionTemplate.class));
+
+    private static ApprovalRecord record(String typeCode, long initiatorId, int status,
+                                         LocalDateTime createdAt, LocalDateTime completedAt) {
+        return ApprovalRecord.builder().typeCode(typeCode).initiatorId(initiatorId).status(status)
+                .createdAt(createdAt).completedAt(completedAt).build();
+    }
+
+    @Test
+    void completedAccumulatesOnSubmissionDateRow() {
+        LocalDateTime day1 = LocalDateTime.of(2026, 3, 1, 9, 0);
+        LocalDateTime day2 = LocalDateTime.of(2026, 3, 2, 9, 0);
+        LocalDateTime done = LocalDateTime.of(2026, 3, 5, 9, 0);
+        rollup.completed(List.of(
+                record("LEAVE", 1L, 3, day2, done),
+                record("LEAVE", 1L, 4, day2, done.plusHours(1)),
+                record("LEAVE", 1L, 3, day1, done),
+                record("LEAVE", 1L, 5, day1, null)));
+
+        ArgumentCaptor<ApprovalDailyStats> deltas = ArgumentCaptor.forClass(ApprovalDailyStats.class);
+        verify(mapper, times(2)).increment(deltas.capture());
+        ApprovalDailyStats first = deltas.getAllValues().get(0);
+        ApprovalDailyStats second = deltas.getAllValues().get(1);
+        assertEquals(LocalDate.of(2026, 3, 1), first.getStatDate());
+        assertEquals(1L, first.getApproved());
+        assertEquals(4 * 86_400L, first.getProcessSeconds());
+        assertEquals(LocalDate.of(2026, 3, 2), second.getStatDate());
+        assertEquals(1L, second.getApproved());
+        assertEquals(1L, second.getRejected());
+        assertEquals(0L, second.getSubmitted());
+        assertEquals(3 * 86_400L * 2 + 3_600L, second.getProcessSeconds());
+    }
+}
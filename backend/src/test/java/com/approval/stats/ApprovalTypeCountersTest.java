@@ -0,0 +1,73 @@
+package com.approval.stats;
+
+import com.approval.entity.ApprovalRecord;
+import com.approval.entity.ApprovalTypeStats;
+import com.approval.mapper.ApprovalTypeStatsMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 审批类型计数测试
+ */
+class ApprovalTypeCountersTest {
+
+    private final ApprovalTypeStatsMapper mapper = mock(ApprovalTypeStatsMapper.class);
+
+    private ApprovalTypeCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new ApprovalTypeCounters(mapper);
+        ReflectionTestUtils.setField(counters, "slots", 4);
+        ReflectionTestUtils.setField(counters, "refreshIntervalMillis", 0L);
+        ReflectionTestUtils.setField(counters, "snapshotTtlMillis", 60_000L);
+    }
+
+    private static ApprovalRecord record(String typeCode, int status) {
+        return ApprovalRecord.builder().typeCode(typeCode).status(status).build();
+    }
+
+    @Test
+    void completedAggregatesTerminalTransitionsPerType() {
+        counters.completed(List.of(record("LEAVE", 3), record("LEAVE", 4), record("EXPENSE", 5),
+                record("EXPENSE", 2)));
+
+        ArgumentCaptor<ApprovalTypeStats> deltas = ArgumentCaptor.forClass(ApprovalTypeStats.class);
+        verify(mapper, times(2)).increment(deltas.capture());
+        ApprovalTypeStats expense = deltas.getAllValues().get(0);
+        ApprovalTypeStats leave = deltas.getAllValues().get(1);
+        assertEquals("EXPENSE", expense.getTypeCode());
+        assertEquals(-1L, expense.getActive());
+        assertEquals(1L, expense.getWithdrawn());
+        assertEquals("LEAVE", leave.getTypeCode());
+        assertEquals(-2L, leave.getActive());
+        assertEquals(1L, leave.getApproved());
+        assertEquals(1L, leave.getRejected());
+        assertEquals(0L, leave.getTotal());
+    }
+
+    @Test
+    void totalsServedFromSnapshotUntilChanged() {
+        when(mapper.selectTotals()).thenReturn(
+                List.of(ApprovalTypeStats.builder().typeCode("LEAVE").total(5L).build()),
+                List.of(ApprovalTypeStats.builder().typeCode("LEAVE").total(6L).build()));
+
+        assertEquals(5L, counters.totals().get("LEAVE").getTotal());
+        assertEquals(5L, counters.totals().get("LEAVE").getTotal());
+        verify(mapper, times(1)).selectTotals();
+
+        counters.submitted("LEAVE");
+        assertEquals(6L, counters.totals().get("LEAVE").getTotal());
+        verify(mapper, times(2)).selectTotals();
+    }
+}
@@ -0,0 +1,69 @@
+package com.approval.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 请求级 SQL 计数器测试
+ */
+class QueryCounterTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        QueryCounter.stop();
+    }
+
+    @Test
+    void wrappedTasksCountTowardsTheSubmittingRequest() throws Exception {
+        QueryCounter.start();
+        QueryCounter.increment();
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(QueryCounter.wrap(() -> {
+            QueryCounter.increment();
+            return 1;
+        }), executor);
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(QueryCounter.wrap(() -> {
+            QueryCounter.increment();
+            QueryCounter.increment();
+            return 2;
+        }), executor);
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+        assertEquals(4, QueryCounter.current());
+        // 执行线程在任务结束后不再持有请求的计数
+        assertEquals(0, CompletableFuture.supplyAsync(QueryCounter::current, executor).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void wrappedTaskRunByCallerKeepsItsCounter() {
+        QueryCounter.start();
+
+        QueryCounter.wrap(() -> {
+            QueryCounter.increment();
+            return null;
+        }).get();
+        QueryCounter.increment();
+
+        assertEquals(2, QueryCounter.stop());
+    }
+
+    @Test
+    void tasksSubmittedOutsideARequestAreNotCounted() throws Exception {
+        CompletableFuture.supplyAsync(QueryCounter.wrap(() -> {
+            QueryCounter.increment();
+            return null;
+        }), executor).get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, QueryCounter.current());
+    }
+}
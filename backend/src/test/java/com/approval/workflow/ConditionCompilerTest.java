@@ -0,0 +1,83 @@
+package com.approval.workflow;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 节点条件编译器测试
+ */
+class ConditionCompilerTest {
+
+    private static Map<String, Object> form(Object... entries) {
+        Map<String, Object> form = new HashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            form.put((String) entries[i], entries[i + 1]);
+        }
+        return form;
+    }
+
+    @Test
+    void evaluatesComparisonsAndBooleanOperators() {
+        NodeCondition condition = ConditionCompiler.compile("amount > 5000 && dept == 'R&D'");
+
+        assertTrue(condition.test(form("amount", 8000, "dept", "R&D")));
+        assertTrue(condition.test(form("amount", "5000.5", "dept", "R&D")));
+        assertFalse(condition.test(form("amount", 5000, "dept", "R&D")));
+        assertFalse(condition.test(form("amount", 8000, "dept", "HR")));
+        assertFalse(condition.test(form("dept", "R&D")));
+
+        NodeCondition nested = ConditionCompiler.compile("!(days <= 3) || (urgent && 1 < level)");
+        assertTrue(nested.test(form("days", 5)));
+        assertTrue(nested.test(form("days", 1, "urgent", true, "level", 2)));
+        assertTrue(nested.test(form("days", 1, "urgent", "true", "level", 2.5)));
+        assertFalse(nested.test(form("days", 1, "urgent", true, "level", 1)));
+        assertFalse(nested.test(form("days", 1, "urgent", false, "level", 3)));
+    }
+
+    @Test
+    void handlesPathsListsNullsAndStrings() {
+        NodeCondition path = ConditionCompiler.compile("applicant.dept in ['R&D', \"IT\"] && vendor != null");
+        assertTrue(path.test(form("applicant", Map.of("dept", "IT"), "vendor", "ACME")));
+        assertFalse(path.test(form("applicant", Map.of("dept", "HR"), "vendor", "ACME")));
+        assertFalse(path.test(form("applicant", "IT", "vendor", "ACME")));
+        assertFalse(path.test(form("applicant", Map.of("dept", "IT"))));
+
+        NodeCondition notEqual = ConditionCompiler.compile("amount != 100");
+        assertTrue(notEqual.test(form()));
+        assertFalse(notEqual.test(form("amount", 100L)));
+
+        NodeCondition dates = ConditionCompiler.compile("startDate >= '2024-01-01' && tags in [1, 2]");
+        assertTrue(dates.test(form("startDate", "2024-03-01", "tags", 2)));
+        assertFalse(dates.test(form("startDate", "2023-12-31", "tags", 2)));
+
+        NodeCondition escaped = ConditionCompiler.compile("title == 'it\\'s'");
+        assertTrue(escaped.test(form("title", "it's")));
+    }
+
+    @Test
+    void foldsConstantsAndTreatsBlankAsAlways() {
+        assertSame(NodeCondition.ALWAYS, ConditionCompiler.compile(null));
+        assertSame(NodeCondition.ALWAYS, ConditionCompiler.compile("  "));
+        assertSame(NodeCondition.ALWAYS, ConditionCompiler.compile("1 < 2"));
+        assertFalse(ConditionCompiler.compile("false").test(form()));
+        assertTrue(ConditionCompiler.compile("5000 < amount").test(form("amount", 6000)));
+    }
+
+    @Test
+    void rejectsMalformedExpressions() {
+        for (String expression : List.of("amount >", "amount > 5000 &&", "(amount > 1", "amount = 1",
+                "dept == 'R&D", "amount > null", "amount in [dept]", "'text'", "amount > 1 dept")) {
+            assertThrows(IllegalArgumentException.class, () -> ConditionCompiler.compile(expression), expression);
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> ConditionCompiler.compile("a == 1 || ".repeat(60) + "a == 1"));
+    }
+}
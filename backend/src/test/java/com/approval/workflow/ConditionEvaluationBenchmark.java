@@ -0,0 +1,93 @@
+package com.approval.workflow;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 节点条件求值基准
+ * 模拟一次提交的路由开销：解析审批内容 JSON 并对 8 个条件节点求值，分别给出含解析和仅求值的单次耗时（微秒）。
+ * <p>
+ * 不在常规测试中运行，手动执行：
+ * <pre>
+ *   mvn test -Dtest=ConditionEvaluationBenchmark
+ * </pre>
+ */
+class ConditionEvaluationBenchmark {
+
+    private static final int WARMUP = 100_000;
+    private static final int ITERATIONS = 500_000;
+
+    private static final List<String> CONDITIONS = List.of(
+            "amount > 0",
+            "amount > 5000",
+            "amount > 5000 && dept == 'R&D'",
+            "amount > 50000 || urgent",
+            "category in ['travel', 'hardware', 'software']",
+            "applicant.level >= 3 && !(dept == 'HR')",
+            "startDate >= '2024-01-01' && days <= 30",
+            "vendor != null && vendor.country != 'CN'");
+
+    private static final String CONTENT = """
+            {"amount": 12800.50, "dept": "R&D", "urgent": false, "category": "hardware",
+             "applicant": {"name": "张三", "level": 4}, "startDate": "2024-06-01", "days": 12,
+             "vendor": {"name": "ACME", "country": "US"}, "remark": "采购测试服务器两台，用于性能压测环境"}
+            """;
+
+    private static final TypeReference<Map<String, Object>> FORM_TYPE = new TypeReference<>() {
+    };
+
+    @Test
+    void perSubmissionRoutingCost() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<NodeCondition> conditions = CONDITIONS.stream().map(ConditionCompiler::compile).toList();
+        Map<String, Object> form = objectMapper.readValue(CONTENT, FORM_TYPE);
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += route(conditions, objectMapper.readValue(CONTENT, FORM_TYPE));
+            sink += route(conditions, form);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += route(conditions, form);
+        }
+        double evaluateMicros = (System.nanoTime() - start) / 1000.0 / ITERATIONS;
+
+        int parseIterations = ITERATIONS / 10;
+        start = System.nanoTime();
+        for (int i = 0; i < parseIterations; i++) {
+            sink += route(conditions, objectMapper.readValue(CONTENT, FORM_TYPE));
+        }
+        double submissionMicros = (System.nanoTime() - start) / 1000.0 / parseIterations;
+
+        long compileStart = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            for (String condition : CONDITIONS) {
+                sink += ConditionCompiler.compile(condition).hashCode() & 1;
+            }
+        }
+        double compileMicros = (System.nanoTime() - compileStart) / 1000.0 / 10_000;
+
+        System.out.printf("节点条件求值（%d 个条件）: %.3f µs/次%n", CONDITIONS.size(), evaluateMicros);
+        System.out.printf("解析审批内容 + 求值: %.3f µs/次提交%n", submissionMicros);
+        System.out.printf("编译全部条件（保存工作流时一次）: %.3f µs%n", compileMicros);
+        assertTrue(sink > 0);
+    }
+
+    private static int route(List<NodeCondition> conditions, Map<String, Object> form) {
+        int matched = 0;
+        for (NodeCondition condition : conditions) {
+            if (condition.test(form)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}
@@ -60,20 +60,16 @@ export default function DashboardPage() {
     const loadData = async () => {
         try {
             setLoading(true)
-            const [stats, trend, types, eff, typeEff, heatmap] = await Promise.all([
-                dashboardService.getStatistics(),
-                dashboardService.getTrendData(30),
-                dashboardService.getTypeDistribution(),
-                dashboardService.getEfficiencyMetrics(),
-                dashboardService.getTypeEfficiency(),
-                dashboardService.getSubmissionHeatmap(),
-            ])
-            setStatistics(stats)
-            setTrendData(trend)
-            setTypeDistribution(types)
-            setEfficiency(eff)
-            setTypeEfficiency(typeEff)
-            setHeatmapData(heatmap)
+            const summary = await dashboardService.getSummary(30)
+            setStatistics(summary.statistics)
+            setTrendData(summary.trend ?? [])
+            setTypeDistribution(summary.typeDistribution ?? [])
+            setEfficiency(summary.efficiency)
+            setTypeEfficiency(summary.typeEfficiency ?? [])
+            setHeatmapData(summary.heatmap ?? [])
+            if (summary.unavailable.length > 0) {
+                toast.error('部分数据加载超时，请稍后刷新')
+            }
         } catch (error) {
             console.error('加载数据失败:', error)
             toast.error('加载数据失败')
@@ -120,10 +120,48 @@ export interface DailySubmission {
     level: number
 }
 
+/**
+ * 仪表盘汇总类型
+ * 加载超时或失败的区块为 null，其字段名列在 unavailable 中
+ */
+export interface DashboardSummary {
+    /** 统计数据 */
+    statistics: DashboardStatistics | null
+    /** 最近活动 */
+    recentActivities: RecentActivity[] | null
+    /** 趋势数据 */
+    trend: TrendDataPoint[] | null
+    /** 类型分布 */
+    typeDistribution: TypeDistribution[] | null
+    /** 效率指标 */
+    efficiency: EfficiencyMetrics | null
+    /** 待办事项 */
+    todos: TodoItem[] | null
+    /** 审批类型效率 */
+    typeEfficiency: TypeEfficiency[] | null
+    /** 提交热力图 */
+    heatmap: DailySubmission[] | null
+    /** 本次未返回的区块 */
+    unavailable: string[]
+}
+
 /**
  * 仪表盘服务
  */
 const dashboardService = {
+    /**
+     * 获取仪表盘汇总（一次请求返回全部区块）
+     *
+     * [trendDays] 趋势天数，默认30天
+     * 返回：仪表盘汇总
+     */
+    getSummary: async (trendDays: number = 30): Promise<DashboardSummary> => {
+        const response = await api.get<{ data: DashboardSummary }>('/dashboard/summary', {
+            params: { trendDays }
+        })
+        return response.data.data
+    },
+
     /**
      * 获取仪表盘统计数据
      * 
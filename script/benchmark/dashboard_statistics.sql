@@ -0,0 +1,139 @@
+-- ============================================================
+-- 基准脚本: 仪表盘统计查询计划对比
+-- 说明: 在独立库 approval_bench 中生成 100 万条审批记录（2000 个发起人、近两年、状态按比例分布），
+--       对比仪表盘“我发起的”统计与效率指标改造前后的查询计划与耗时（EXPLAIN ANALYZE，需 MySQL 8.0.18+）。
+--       执行: mysql -uroot -p < script/benchmark/dashboard_statistics.sql
+--       脚本只读写 approval_bench，结束时删除该库
+-- ============================================================
+
+DROP DATABASE IF EXISTS `approval_bench`;
+CREATE DATABASE `approval_bench` DEFAULT CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
+USE `approval_bench`;
+
+-- 与 approval_record 相同的统计相关列，索引为改造前的 idx_initiator、idx_status、idx_initiator_created
+CREATE TABLE `approval_record` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT,
+  `type_code` VARCHAR(50) NOT NULL,
+  `initiator_id` BIGINT NOT NULL,
+  `status` TINYINT NOT NULL,
+  `content` TEXT,
+  `created_at` DATETIME NOT NULL,
+  `completed_at` DATETIME DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_initiator` (`initiator_id`),
+  KEY `idx_status` (`status`),
+  KEY `idx_created_at` (`created_at`),
+  KEY `idx_initiator_created` (`initiator_id`, `created_at`)
+) ENGINE=InnoDB;
+
+CREATE TABLE `seq_1000` (`n` INT NOT NULL PRIMARY KEY) ENGINE=InnoDB;
+INSERT INTO `seq_1000` (`n`)
+WITH RECURSIVE s (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM s WHERE n < 999)
+SELECT n FROM s;
+
+-- 100 万条：状态 60% 通过、10% 拒绝、10% 撤回、20% 进行中；已结束的审批 1~72 小时后完成
+INSERT INTO `approval_record` (`type_code`, `initiator_id`, `status`, `content`, `created_at`, `completed_at`)
+SELECT t.type_code, t.initiator_id, t.status, REPEAT('x', 200), t.created_at,
+       CASE WHEN t.status IN (3, 4, 5) THEN t.created_at + INTERVAL (1 + t.r % 72) HOUR END
+FROM (
+  SELECT ELT(1 + (a.n * 7 + b.n) % 6, 'LEAVE', 'EXPENSE', 'PURCHASE', 'BUSINESS_TRIP', 'OVERTIME', 'CONTRACT')
+           AS type_code,
+         1 + (a.n * 1000 + b.n) % 2000 AS initiator_id,
+         CASE WHEN (a.n + b.n * 3) % 10 < 6 THEN 3
+              WHEN (a.n + b.n * 3) % 10 = 6 THEN 4
+              WHEN (a.n + b.n * 3) % 10 = 7 THEN 5
+              WHEN (a.n + b.n * 3) % 10 = 8 THEN 1
+              ELSE 2 END AS status,
+         NOW() - INTERVAL ((a.n * 1000 + b.n) * 63) SECOND AS created_at,
+         a.n * 31 + b.n AS r
+  FROM `seq_1000` a CROSS JOIN `seq_1000` b
+) t;
+
+-- 每日汇总（与 approval_daily_stats 相同结构），按回填语句生成
+CREATE TABLE `approval_daily_stats` (
+  `stat_date` DATE NOT NULL,
+  `type_code` VARCHAR(50) NOT NULL,
+  `initiator_id` BIGINT NOT NULL,
+  `submitted` INT NOT NULL DEFAULT 0,
+  `approved` INT NOT NULL DEFAULT 0,
+  `rejected` INT NOT NULL DEFAULT 0,
+  `process_seconds` BIGINT NOT NULL DEFAULT 0,
+  PRIMARY KEY (`stat_date`, `type_code`, `initiator_id`),
+  KEY `idx_initiator_date` (`initiator_id`, `stat_date`)
+) ENGINE=InnoDB;
+
+INSERT INTO `approval_daily_stats`
+SELECT DATE(created_at), type_code, initiator_id, COUNT(*), SUM(status = 3), SUM(status = 4),
+       COALESCE(SUM(CASE WHEN status IN (3, 4) THEN TIMESTAMPDIFF(SECOND, created_at, completed_at) END), 0)
+FROM `approval_record` GROUP BY DATE(created_at), type_code, initiator_id;
+
+ANALYZE TABLE `approval_record`, `approval_daily_stats`;
+
+SET @uid = 1000;
+SET @month_start = DATE_FORMAT(CURDATE(), '%Y-%m-01');
+SET @next_month_start = @month_start + INTERVAL 1 MONTH;
+SET @last_month_start = @month_start - INTERVAL 1 MONTH;
+
+-- ------------------------------------------------------------
+-- 改造前: getStatistics 的 4 次 COUNT
+-- ------------------------------------------------------------
+EXPLAIN ANALYZE SELECT COUNT(*) FROM `approval_record` WHERE initiator_id = @uid AND status IN (1, 2);
+EXPLAIN ANALYZE SELECT COUNT(*) FROM `approval_record` WHERE initiator_id = @uid AND status = 3
+  AND created_at >= @month_start AND created_at < @next_month_start;
+EXPLAIN ANALYZE SELECT COUNT(*) FROM `approval_record` WHERE initiator_id = @uid AND status = 4
+  AND created_at >= @month_start AND created_at < @next_month_start;
+EXPLAIN ANALYZE SELECT COUNT(*) FROM `approval_record` WHERE initiator_id = @uid
+  AND created_at >= @month_start AND created_at < @next_month_start;
+
+-- ------------------------------------------------------------
+-- 改造前: getEfficiencyMetrics 的 4 次 COUNT 与已结束审批的全量加载
+-- ------------------------------------------------------------
+EXPLAIN ANALYZE SELECT COUNT(*) FROM `approval_record`
+  WHERE created_at >= @month_start AND created_at < @next_month_start;
+EXPLAIN ANALYZE SELECT COUNT(*) FROM `approval_record`
+  WHERE created_at >= @last_month_start AND created_at < @month_start;
+EXPLAIN ANALYZE SELECT COUNT(*) FROM `approval_record` WHERE status = 3;
+EXPLAIN ANALYZE SELECT COUNT(*) FROM `approval_record` WHERE status IN (3, 4);
+EXPLAIN ANALYZE SELECT * FROM `approval_record` WHERE status IN (3, 4);
+
+-- ------------------------------------------------------------
+-- 改造后: 迁移 2.15.0 的索引
+-- ------------------------------------------------------------
+ALTER TABLE `approval_record`
+  ADD KEY `idx_initiator_status_created` (`initiator_id`, `status`, `created_at`),
+  DROP KEY `idx_initiator`;
+ANALYZE TABLE `approval_record`;
+
+-- getStatistics: ApprovalRecordMapper.selectInitiatorStatistics（单次索引覆盖区间扫描）
+EXPLAIN ANALYZE SELECT
+  COALESCE(SUM(CASE WHEN status IN (1, 2) THEN 1 ELSE 0 END), 0) AS pending,
+  COALESCE(SUM(CASE WHEN status = 3 AND created_at >= @month_start AND created_at < @next_month_start
+    THEN 1 ELSE 0 END), 0) AS approved,
+  COALESCE(SUM(CASE WHEN status = 4 AND created_at >= @month_start AND created_at < @next_month_start
+    THEN 1 ELSE 0 END), 0) AS rejected,
+  COALESCE(SUM(CASE WHEN created_at >= @month_start AND created_at < @next_month_start THEN 1 ELSE 0 END), 0)
+    AS total
+FROM `approval_record`
+WHERE initiator_id = @uid AND (status IN (1, 2)
+  OR (status IN (3, 4, 5) AND created_at >= @month_start AND created_at < @next_month_start));
+
+-- 同一条件聚合直接作用于审批记录表（不经每日汇总）时的全局效率指标，供对照
+EXPLAIN ANALYZE SELECT
+  SUM(CASE WHEN created_at >= @month_start AND created_at < @next_month_start THEN 1 ELSE 0 END),
+  SUM(CASE WHEN created_at >= @last_month_start AND created_at < @month_start THEN 1 ELSE 0 END),
+  SUM(CASE WHEN status = 3 THEN 1 ELSE 0 END),
+  SUM(CASE WHEN status = 4 THEN 1 ELSE 0 END),
+  AVG(CASE WHEN status IN (3, 4) THEN TIMESTAMPDIFF(SECOND, created_at, completed_at) END)
+FROM `approval_record`;
+
+-- getEfficiencyMetrics: ApprovalDailyStatsMapper.selectEfficiencyTotals（单次扫描每日汇总）
+EXPLAIN ANALYZE SELECT
+  COALESCE(SUM(CASE WHEN stat_date >= @month_start AND stat_date < @next_month_start
+    THEN submitted ELSE 0 END), 0) AS monthly_submitted,
+  COALESCE(SUM(CASE WHEN stat_date >= @last_month_start AND stat_date < @month_start
+    THEN submitted ELSE 0 END), 0) AS last_month_submitted,
+  COALESCE(SUM(approved), 0) AS approved, COALESCE(SUM(rejected), 0) AS rejected,
+  COALESCE(SUM(process_seconds), 0) AS process_seconds
+FROM `approval_daily_stats`;
+
+DROP DATABASE `approval_bench`;
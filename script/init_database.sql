@@ -46,6 +46,7 @@ CREATE TABLE `sys_user` (
   `status` TINYINT NOT NULL DEFAULT 1 COMMENT '状态: 0-禁用 1-启用',
   `last_login_at` DATETIME DEFAULT NULL COMMENT '最后登录时间',
   `last_login_ip` VARCHAR(50) DEFAULT NULL COMMENT '最后登录IP',
+  `security_version` INT NOT NULL DEFAULT 0 COMMENT '安全版本号（角色变更/禁用/改密时递增，用于吊销Token）',
   `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
@@ -189,6 +190,7 @@ CREATE TABLE `workflow_template` (
   `type_code` VARCHAR(50) NOT NULL COMMENT '关联审批类型编码',
   `description` VARCHAR(500) DEFAULT NULL COMMENT '模板描述',
   `status` TINYINT NOT NULL DEFAULT 1 COMMENT '状态: 0-禁用 1-启用',
+  `version` INT NOT NULL DEFAULT 1 COMMENT '当前生效的定义版本号（节点按版本追加，旧版本不修改）',
   `created_by` BIGINT NOT NULL COMMENT '创建人ID',
   `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
@@ -208,13 +210,17 @@ DROP TABLE IF EXISTS `workflow_node_template`;
 CREATE TABLE `workflow_node_template` (
   `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '节点模板ID',
   `workflow_id` BIGINT NOT NULL COMMENT '工作流模板ID',
+  `version` INT NOT NULL DEFAULT 1 COMMENT '所属工作流版本',
   `node_name` VARCHAR(100) NOT NULL COMMENT '节点名称',
   `node_order` INT NOT NULL COMMENT '节点顺序',
   `approver_type` VARCHAR(20) NOT NULL COMMENT '审批人类型: USER/POSITION/DEPARTMENT_HEAD',
   `approver_id` BIGINT DEFAULT NULL COMMENT '指定审批人ID（USER类型）或职位ID（POSITION类型）',
+  `approve_mode` VARCHAR(10) NOT NULL DEFAULT 'ALL' COMMENT '同序号节点组的完成规则: ALL-会签 ANY-或签 N_OF_M-N人通过',
+  `required_count` INT DEFAULT NULL COMMENT '需要通过的人数（N_OF_M）',
+  `condition_expr` VARCHAR(500) DEFAULT NULL COMMENT '节点条件表达式（如 amount > 5000 && dept == \'R&D\'），为空表示始终参与审批',
   `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   PRIMARY KEY (`id`),
-  UNIQUE KEY `uk_workflow_order` (`workflow_id`,`node_order`),
+  KEY `idx_workflow_version_order` (`workflow_id`,`version`,`node_order`),
   KEY `idx_workflow` (`workflow_id`),
   CONSTRAINT `fk_node_tpl_workflow` FOREIGN KEY (`workflow_id`) REFERENCES `workflow_template` (`id`) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='工作流节点模板表';
@@ -234,14 +240,20 @@ CREATE TABLE `approval_record` (
   `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态码',
   `current_node_order` INT DEFAULT 1 COMMENT '当前审批节点序号',
   `workflow_id` BIGINT DEFAULT NULL COMMENT '使用的工作流模板ID',
+  `workflow_version` INT DEFAULT NULL COMMENT '提交时生效的工作流版本',
   `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   `completed_at` DATETIME DEFAULT NULL COMMENT '完成时间',
+  `version` INT NOT NULL DEFAULT 0 COMMENT '版本号（状态流转时比较并递增）',
+  `sla_stage` TINYINT NOT NULL DEFAULT 0 COMMENT 'SLA 阶段: 0-未触发 1-已提醒 2-已超期 3-已升级',
   PRIMARY KEY (`id`),
-  KEY `idx_initiator` (`initiator_id`),
+  KEY `idx_initiator_status_created` (`initiator_id`, `status`, `created_at`),
   KEY `idx_type` (`type_code`),
   KEY `idx_status` (`status`),
   KEY `idx_created_at` (`created_at`),
+  KEY `idx_initiator_created` (`initiator_id`, `created_at`),
+  KEY `idx_status_deadline` (`status`, `deadline`),
+  KEY `idx_status_completed` (`status`, `completed_at`),
   KEY `fk_approval_workflow` (`workflow_id`),
   CONSTRAINT `fk_record_initiator` FOREIGN KEY (`initiator_id`) REFERENCES `sys_user` (`id`) ON DELETE RESTRICT,
   CONSTRAINT `fk_record_type` FOREIGN KEY (`type_code`) REFERENCES `approval_type` (`code`) ON DELETE RESTRICT,
@@ -258,12 +270,13 @@ CREATE TABLE `approval_node` (
   `node_name` VARCHAR(100) NOT NULL COMMENT '节点名称',
   `approver_id` BIGINT NOT NULL COMMENT '审批人ID',
   `node_order` INT NOT NULL COMMENT '节点顺序',
-  `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态: 0-待审批 1-已通过 2-已拒绝',
+  `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态: 0-待审批 1-已通过 2-已拒绝 3-已跳过（节点组已完成）',
   `comment` VARCHAR(500) DEFAULT NULL COMMENT '审批意见',
   `approved_at` DATETIME DEFAULT NULL COMMENT '审批时间',
   `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `version` INT NOT NULL DEFAULT 0 COMMENT '版本号（审批时比较并递增）',
   PRIMARY KEY (`id`),
-  UNIQUE KEY `uk_approval_order` (`approval_id`,`node_order`),
+  KEY `idx_approval_order` (`approval_id`,`node_order`),
   KEY `idx_approval_id` (`approval_id`),
   KEY `idx_approver` (`approver_id`),
   CONSTRAINT `fk_node_record` FOREIGN KEY (`approval_id`) REFERENCES `approval_record` (`id`) ON DELETE CASCADE,
@@ -276,7 +289,7 @@ CREATE TABLE `approval_node` (
 DROP TABLE IF EXISTS `attachment`;
 CREATE TABLE `attachment` (
   `id` VARCHAR(36) NOT NULL COMMENT '附件ID (UUID)',
-  `approval_id` VARCHAR(36) DEFAULT NULL COMMENT '关联审批ID',
+  `approval_id` VARCHAR(36) DEFAULT NULL COMMENT '关联审批ID（审批归档后仍保留，不设外键）',
   `original_name` VARCHAR(255) NOT NULL COMMENT '原始文件名',
   `stored_name` VARCHAR(255) NOT NULL COMMENT '存储文件名',
   `file_path` VARCHAR(500) NOT NULL COMMENT '文件存储路径',
@@ -289,7 +302,6 @@ CREATE TABLE `attachment` (
   PRIMARY KEY (`id`),
   KEY `idx_approval_id` (`approval_id`),
   KEY `idx_uploader` (`uploader_id`),
-  CONSTRAINT `fk_attach_record` FOREIGN KEY (`approval_id`) REFERENCES `approval_record` (`id`) ON DELETE SET NULL,
   CONSTRAINT `fk_attach_uploader` FOREIGN KEY (`uploader_id`) REFERENCES `sys_user` (`id`) ON DELETE RESTRICT
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='附件表';
 
@@ -311,6 +323,7 @@ CREATE TABLE `notification` (
   KEY `idx_user_id` (`user_id`),
   KEY `idx_user_read` (`user_id`,`is_read`),
   KEY `idx_created_at` (`created_at`),
+  KEY `idx_user_created` (`user_id`, `created_at`),
   CONSTRAINT `fk_notify_user` FOREIGN KEY (`user_id`) REFERENCES `sys_user` (`id`) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='通知表';
 
@@ -334,6 +347,164 @@ CREATE TABLE `operation_log` (
   KEY `idx_created_at` (`created_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='操作日志表';
 
+-- ----------------------------
+-- 17. 审批待办索引表 (approval_todo)
+-- 每行对应某审批当前节点的一位待处理审批人，随审批状态流转在同一事务内维护
+-- ----------------------------
+DROP TABLE IF EXISTS `approval_todo`;
+CREATE TABLE `approval_todo` (
+  `approval_id` VARCHAR(36) NOT NULL COMMENT '审批记录ID',
+  `approver_id` BIGINT NOT NULL COMMENT '当前节点审批人ID',
+  `node_order` INT NOT NULL COMMENT '当前节点序号',
+  `priority` TINYINT NOT NULL DEFAULT 0 COMMENT '紧急程度（冗余自审批记录）',
+  `created_at` DATETIME NOT NULL COMMENT '审批提交时间（冗余自审批记录）',
+  PRIMARY KEY (`approval_id`, `approver_id`),
+  KEY `idx_approver_priority_created` (`approver_id`, `priority`, `created_at`),
+  CONSTRAINT `fk_todo_record` FOREIGN KEY (`approval_id`) REFERENCES `approval_record` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='审批待办索引表';
+
+-- ----------------------------
+-- 18. 通知发件箱表 (notification_outbox)
+-- 审批流转时在同一事务内写入，由后台投递器批量写入通知表后删除
+-- ----------------------------
+DROP TABLE IF EXISTS `notification_outbox`;
+CREATE TABLE `notification_outbox` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '事件ID',
+  `user_id` BIGINT NOT NULL COMMENT '接收用户ID',
+  `title` VARCHAR(200) NOT NULL COMMENT '通知标题',
+  `content` VARCHAR(500) DEFAULT NULL COMMENT '通知内容',
+  `type` VARCHAR(20) NOT NULL COMMENT '通知类型: APPROVAL/SYSTEM/REMINDER',
+  `related_id` VARCHAR(36) DEFAULT NULL COMMENT '关联业务ID',
+  `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态: 0-待投递 2-投递失败（超过重试次数）',
+  `attempts` INT NOT NULL DEFAULT 0 COMMENT '已失败的投递次数',
+  `next_attempt_at` DATETIME(3) NOT NULL COMMENT '下次投递时间',
+  `last_error` VARCHAR(500) DEFAULT NULL COMMENT '最近一次投递失败原因',
+  `created_at` DATETIME(3) NOT NULL COMMENT '事件产生时间',
+  PRIMARY KEY (`id`),
+  KEY `idx_status_next_attempt` (`status`, `next_attempt_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='通知发件箱表';
+
+-- ----------------------------
+-- 19. 审批节点组表 (approval_node_group)
+-- 同一序号有多个审批节点（会签/或签）时每组一行，审批时原子递增通过/拒绝计数并判定组是否完成
+-- ----------------------------
+DROP TABLE IF EXISTS `approval_node_group`;
+CREATE TABLE `approval_node_group` (
+  `approval_id` VARCHAR(36) NOT NULL COMMENT '审批记录ID',
+  `node_order` INT NOT NULL COMMENT '节点序号',
+  `approve_mode` VARCHAR(10) NOT NULL COMMENT '完成规则: ALL-会签 ANY-或签 N_OF_M-N人通过',
+  `required_count` INT NOT NULL COMMENT '需要通过的人数',
+  `total_count` INT NOT NULL COMMENT '组内审批人数',
+  `approved_count` INT NOT NULL DEFAULT 0 COMMENT '已通过人数',
+  `rejected_count` INT NOT NULL DEFAULT 0 COMMENT '已拒绝人数',
+  `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态: 0-进行中 1-已通过 2-已拒绝',
+  PRIMARY KEY (`approval_id`, `node_order`),
+  CONSTRAINT `fk_group_record` FOREIGN KEY (`approval_id`) REFERENCES `approval_record` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='审批节点组表';
+
+-- ----------------------------
+-- 20. 审批记录归档表 (approval_record_archive)
+-- 结束超过一定时间的审批由归档任务从 approval_record 分批迁入，列与审批记录表一致，不设外键
+-- ----------------------------
+DROP TABLE IF EXISTS `approval_record_archive`;
+CREATE TABLE `approval_record_archive` (
+  `id` VARCHAR(36) NOT NULL COMMENT '审批ID (UUID)',
+  `title` VARCHAR(200) NOT NULL COMMENT '审批标题',
+  `type_code` VARCHAR(50) NOT NULL COMMENT '审批类型编码',
+  `content` TEXT COMMENT '审批内容（支持JSON）',
+  `initiator_id` BIGINT NOT NULL COMMENT '发起人ID',
+  `priority` TINYINT DEFAULT 0 COMMENT '紧急程度: 0-普通 1-紧急 2-非常紧急',
+  `deadline` DATETIME DEFAULT NULL COMMENT '截止日期',
+  `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态码',
+  `current_node_order` INT DEFAULT 1 COMMENT '当前审批节点序号',
+  `workflow_id` BIGINT DEFAULT NULL COMMENT '使用的工作流模板ID',
+  `workflow_version` INT DEFAULT NULL COMMENT '提交时生效的工作流版本',
+  `created_at` DATETIME DEFAULT NULL COMMENT '创建时间',
+  `updated_at` DATETIME DEFAULT NULL COMMENT '更新时间',
+  `completed_at` DATETIME DEFAULT NULL COMMENT '完成时间',
+  `version` INT NOT NULL DEFAULT 0 COMMENT '版本号',
+  `sla_stage` TINYINT NOT NULL DEFAULT 0 COMMENT 'SLA 阶段',
+  `archived_at` DATETIME NOT NULL COMMENT '归档时间',
+  PRIMARY KEY (`id`),
+  KEY `idx_initiator_created` (`initiator_id`, `created_at`),
+  KEY `idx_type` (`type_code`),
+  KEY `idx_created_at` (`created_at`),
+  KEY `idx_completed_at` (`completed_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='审批记录归档表';
+
+-- ----------------------------
+-- 21. 审批节点归档表 (approval_node_archive)
+-- 随审批记录在同一事务内迁入，保留原节点ID
+-- ----------------------------
+DROP TABLE IF EXISTS `approval_node_archive`;
+CREATE TABLE `approval_node_archive` (
+  `id` BIGINT NOT NULL COMMENT '节点ID（与原节点一致）',
+  `approval_id` VARCHAR(36) NOT NULL COMMENT '审批记录ID',
+  `node_name` VARCHAR(100) NOT NULL COMMENT '节点名称',
+  `approver_id` BIGINT NOT NULL COMMENT '审批人ID',
+  `node_order` INT NOT NULL COMMENT '节点顺序',
+  `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态: 0-待审批 1-已通过 2-已拒绝 3-已跳过（节点组已完成）',
+  `comment` VARCHAR(500) DEFAULT NULL COMMENT '审批意见',
+  `approved_at` DATETIME DEFAULT NULL COMMENT '审批时间',
+  `created_at` DATETIME DEFAULT NULL COMMENT '创建时间',
+  `version` INT NOT NULL DEFAULT 0 COMMENT '版本号',
+  PRIMARY KEY (`id`),
+  KEY `idx_approval_order` (`approval_id`, `node_order`),
+  KEY `idx_approver` (`approver_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='审批节点归档表';
+
+-- ----------------------------
+-- 22. 幂等请求记录表 (idempotency_record)
+-- 提交审批、审批操作携带 Idempotency-Key 时记录首次执行的响应，重试直接返回该响应，过期后定期清理
+-- ----------------------------
+DROP TABLE IF EXISTS `idempotency_record`;
+CREATE TABLE `idempotency_record` (
+  `user_id` BIGINT NOT NULL COMMENT '请求用户ID',
+  `idem_key` VARCHAR(64) NOT NULL COMMENT '客户端传入的 Idempotency-Key',
+  `fingerprint` CHAR(64) NOT NULL COMMENT '请求指纹（接口 + 请求体的 SHA-256）',
+  `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态: 0-处理中 1-已完成',
+  `response` MEDIUMTEXT COMMENT '首次执行的响应（JSON）',
+  `locked_until` DATETIME(3) NOT NULL COMMENT '处理中租约到期时间（持有实例异常退出后可被接管）',
+  `expires_at` DATETIME(3) NOT NULL COMMENT '过期时间',
+  `created_at` DATETIME(3) NOT NULL COMMENT '首次请求时间',
+  PRIMARY KEY (`user_id`, `idem_key`),
+  KEY `idx_expires_at` (`expires_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='幂等请求记录表';
+
+-- ----------------------------
+-- 23. 审批类型计数表 (approval_type_stats)
+-- 提交审批、审批结束时在同一事务内增量维护，仪表盘类型分布按类型汇总各分片，不再扫描审批记录
+-- ----------------------------
+DROP TABLE IF EXISTS `approval_type_stats`;
+CREATE TABLE `approval_type_stats` (
+  `type_code` VARCHAR(50) NOT NULL COMMENT '审批类型编码',
+  `slot` TINYINT NOT NULL COMMENT '计数分片（同一类型的并发提交分散到多行，避免争用单行锁）',
+  `total` BIGINT NOT NULL DEFAULT 0 COMMENT '提交总数',
+  `active` BIGINT NOT NULL DEFAULT 0 COMMENT '进行中（待审批、审批中）',
+  `approved` BIGINT NOT NULL DEFAULT 0 COMMENT '已通过',
+  `rejected` BIGINT NOT NULL DEFAULT 0 COMMENT '已拒绝',
+  `withdrawn` BIGINT NOT NULL DEFAULT 0 COMMENT '已撤回',
+  PRIMARY KEY (`type_code`, `slot`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='审批类型计数表';
+
+-- ----------------------------
+-- 24. 审批每日汇总表 (approval_daily_stats)
+-- 按提交日期、类型、发起人汇总：提交时累加提交数，审批通过/拒绝时累加到提交当日的行；
+-- 仪表盘趋势、热力图、效率指标读取该表，不再加载审批记录
+-- ----------------------------
+DROP TABLE IF EXISTS `approval_daily_stats`;
+CREATE TABLE `approval_daily_stats` (
+  `stat_date` DATE NOT NULL COMMENT '提交日期',
+  `type_code` VARCHAR(50) NOT NULL COMMENT '审批类型编码',
+  `initiator_id` BIGINT NOT NULL COMMENT '发起人ID',
+  `submitted` INT NOT NULL DEFAULT 0 COMMENT '提交数',
+  `approved` INT NOT NULL DEFAULT 0 COMMENT '其中已通过数',
+  `rejected` INT NOT NULL DEFAULT 0 COMMENT '其中已拒绝数',
+  `process_seconds` BIGINT NOT NULL DEFAULT 0 COMMENT '已通过、已拒绝审批的处理时长之和（秒，提交到结束）',
+  PRIMARY KEY (`stat_date`, `type_code`, `initiator_id`),
+  KEY `idx_initiator_date` (`initiator_id`, `stat_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='审批每日汇总表';
+
 -- 补上循环依赖的外键
 ALTER TABLE `sys_department` ADD CONSTRAINT `fk_dept_leader` FOREIGN KEY (`leader_id`) REFERENCES `sys_user` (`id`) ON DELETE SET NULL;
 
@@ -423,6 +594,9 @@ INSERT INTO `sys_permission` (`id`, `code`, `name`, `type`, `parent_id`, `path`,
 (3, 'user:view', '用户管理', 'MENU', 0, '/admin/users', 'users', 10, 1),
 (4, 'role:view', '角色管理', 'MENU', 0, '/admin/roles', 'shield', 11, 1),
 (5, 'system:config', '系统配置', 'MENU', 0, '/admin/settings', 'settings', 12, 1),
+(6, 'department:manage', '部门管理', 'MENU', 0, '/admin/departments', 'building', 13, 1),
+(7, 'workflow:manage', '审批流程配置', 'MENU', 0, '/admin/workflows', 'git-branch', 14, 1),
+(8, 'log:view', '操作日志', 'MENU', 0, '/admin/logs', 'scroll-text', 15, 1),
 -- 审批相关按钮权限
 (10, 'approval:create', '发起审批', 'BUTTON', 2, NULL, NULL, 1, 1),
 (11, 'approval:approve', '审批操作', 'BUTTON', 2, NULL, NULL, 2, 1),
@@ -469,14 +643,14 @@ INSERT INTO `sys_user_role` (`user_id`, `role_id`) VALUES
 -- ----------------------------
 -- 超级管理员 - 拥有所有权限
 INSERT INTO `sys_role_permission` (`role_id`, `permission_id`) VALUES
-(1, 1), (1, 2), (1, 3), (1, 4), (1, 5),
+(1, 1), (1, 2), (1, 3), (1, 4), (1, 5), (1, 6), (1, 7), (1, 8),
 (1, 10), (1, 11), (1, 12),
 (1, 20), (1, 21), (1, 22),
 (1, 30);
 
 -- 管理员 - 用户管理、审批管理，无系统配置
 INSERT INTO `sys_role_permission` (`role_id`, `permission_id`) VALUES
-(2, 1), (2, 2), (2, 3),
+(2, 1), (2, 2), (2, 3), (2, 6), (2, 7), (2, 8),
 (2, 10), (2, 11), (2, 12),
 (2, 20), (2, 21);
 
@@ -690,4 +864,13 @@ INSERT INTO `operation_log` (`user_id`, `module`, `operation`, `target_id`, `det
 (1, 'DEPARTMENT', 'CREATE', '10', '创建部门: 销售组', '192.168.1.100', 'Mozilla/5.0 (Windows NT 10.0; Win64; x64) Chrome/120.0.0.0', '2026-01-02 14:00:00'),
 (1, 'DEPARTMENT', 'UPDATE', '6', '更新部门信息: 前端开发组, 设置负责人: 王前端', '192.168.1.100', 'Mozilla/5.0 (Windows NT 10.0; Win64; x64) Chrome/120.0.0.0', '2026-01-02 14:30:00');
 
+-- ----------------------------
+-- 16. 待办索引数据 (由审批记录和节点生成)
+-- ----------------------------
+INSERT INTO `approval_todo` (`approval_id`, `approver_id`, `node_order`, `priority`, `created_at`)
+SELECT r.`id`, n.`approver_id`, n.`node_order`, IFNULL(r.`priority`, 0), IFNULL(r.`created_at`, NOW())
+FROM `approval_record` r
+INNER JOIN `approval_node` n ON n.`approval_id` = r.`id` AND n.`node_order` = r.`current_node_order` AND n.`status` = 0
+WHERE r.`status` IN (1, 2);
+
 -- SET FOREIGN_KEY_CHECKS = 1;
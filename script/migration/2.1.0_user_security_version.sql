@@ -0,0 +1,9 @@
+-- ============================================================
+-- 迁移脚本: 用户安全版本号
+-- 版本: 2.1.0
+-- 说明: JWT 中携带用户ID、角色和安全版本号，认证不再查询数据库；
+--       角色变更、禁用、修改密码时递增 security_version 以吊销已签发的 Token
+-- ============================================================
+
+ALTER TABLE `sys_user`
+  ADD COLUMN `security_version` INT NOT NULL DEFAULT 0 COMMENT '安全版本号（角色变更/禁用/改密时递增，用于吊销Token）' AFTER `last_login_ip`;
@@ -0,0 +1,23 @@
+-- ============================================================
+-- 迁移脚本: 工作流定义版本化（只追加、不修改）
+-- 版本: 2.10.0
+-- 说明: 1. 工作流节点模板按 (workflow_id, version) 归属版本，修改工作流时追加新版本的节点，旧版本节点不再删除或修改；
+--       2. workflow_template.version 作为“当前生效版本”指针，由修改操作原子递增；
+--       3. 审批记录保存提交时的工作流版本。
+--       存量节点均属于各工作流的当前版本，回填为模板的 version；存量审批记录的 workflow_version 保持为空
+-- ============================================================
+
+ALTER TABLE `workflow_node_template`
+  ADD COLUMN `version` INT NOT NULL DEFAULT 1 COMMENT '所属工作流版本' AFTER `workflow_id`,
+  ADD KEY `idx_workflow_version_order` (`workflow_id`, `version`, `node_order`),
+  DROP INDEX `idx_workflow_order`;
+
+UPDATE `workflow_node_template` n
+  JOIN `workflow_template` t ON t.`id` = n.`workflow_id`
+SET n.`version` = t.`version`;
+
+ALTER TABLE `workflow_template`
+  MODIFY COLUMN `version` INT NOT NULL DEFAULT 1 COMMENT '当前生效的定义版本号（节点按版本追加，旧版本不修改）';
+
+ALTER TABLE `approval_record`
+  ADD COLUMN `workflow_version` INT DEFAULT NULL COMMENT '提交时生效的工作流版本' AFTER `workflow_id`;
@@ -0,0 +1,55 @@
+-- ============================================================
+-- 迁移脚本: 已结束审批的冷热分离归档
+-- 版本: 2.11.0
+-- 说明: 1. 新增审批记录、审批节点归档表，结束超过一定时间的审批由后台归档任务分批迁入；
+--       2. 附件不随审批迁移，删除附件到审批记录的外键（ON DELETE SET NULL 会在归档时清空 approval_id）；
+--       3. 审批记录表新增 (status, completed_at) 索引，用于按结束时间挑选待归档记录
+-- ============================================================
+
+ALTER TABLE `attachment`
+  DROP FOREIGN KEY `fk_attach_record`,
+  MODIFY COLUMN `approval_id` VARCHAR(36) DEFAULT NULL COMMENT '关联审批ID（审批归档后仍保留，不设外键）';
+
+ALTER TABLE `approval_record`
+  ADD KEY `idx_status_completed` (`status`, `completed_at`);
+
+CREATE TABLE IF NOT EXISTS `approval_record_archive` (
+  `id` VARCHAR(36) NOT NULL COMMENT '审批ID (UUID)',
+  `title` VARCHAR(200) NOT NULL COMMENT '审批标题',
+  `type_code` VARCHAR(50) NOT NULL COMMENT '审批类型编码',
+  `content` TEXT COMMENT '审批内容（支持JSON）',
+  `initiator_id` BIGINT NOT NULL COMMENT '发起人ID',
+  `priority` TINYINT DEFAULT 0 COMMENT '紧急程度: 0-普通 1-紧急 2-非常紧急',
+  `deadline` DATETIME DEFAULT NULL COMMENT '截止日期',
+  `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态码',
+  `current_node_order` INT DEFAULT 1 COMMENT '当前审批节点序号',
+  `workflow_id` BIGINT DEFAULT NULL COMMENT '使用的工作流模板ID',
+  `workflow_version` INT DEFAULT NULL COMMENT '提交时生效的工作流版本',
+  `created_at` DATETIME DEFAULT NULL COMMENT '创建时间',
+  `updated_at` DATETIME DEFAULT NULL COMMENT '更新时间',
+  `completed_at` DATETIME DEFAULT NULL COMMENT '完成时间',
+  `version` INT NOT NULL DEFAULT 0 COMMENT '版本号',
+  `sla_stage` TINYINT NOT NULL DEFAULT 0 COMMENT 'SLA 阶段',
+  `archived_at` DATETIME NOT NULL COMMENT '归档时间',
+  PRIMARY KEY (`id`),
+  KEY `idx_initiator_created` (`initiator_id`, `created_at`),
+  KEY `idx_type` (`type_code`),
+  KEY `idx_completed_at` (`completed_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='审批记录归档表';
+
+CREATE TABLE IF NOT EXISTS `approval_node_archive` (
+  `id` BIGINT NOT NULL COMMENT '节点ID（与原节点一致）',
+  `approval_id` VARCHAR(36) NOT NULL COMMENT '审批记录ID',
+  `node_name` VARCHAR(100) NOT NULL COMMENT '节点名称',
+  `approver_id` BIGINT NOT NULL COMMENT '审批人ID',
+  `node_order` INT NOT NULL COMMENT '节点顺序',
+  `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态: 0-待审批 1-已通过 2-已拒绝 3-已跳过（节点组已完成）',
+  `comment` VARCHAR(500) DEFAULT NULL COMMENT '审批意见',
+  `approved_at` DATETIME DEFAULT NULL COMMENT '审批时间',
+  `created_at` DATETIME DEFAULT NULL COMMENT '创建时间',
+  `version` INT NOT NULL DEFAULT 0 COMMENT '版本号',
+  PRIMARY KEY (`id`),
+  KEY `idx_approval_order` (`approval_id`, `node_order`),
+  KEY `idx_approver` (`approver_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='审批节点归档表';
+
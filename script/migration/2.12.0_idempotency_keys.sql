@@ -0,0 +1,19 @@
+-- ============================================================
+-- 迁移脚本: 提交审批与审批操作的幂等键
+-- 版本: 2.12.0
+-- 说明: 客户端在 POST /api/approvals、POST /api/approvals/{id}/approve 上携带 Idempotency-Key 时，
+--       按 (用户, 幂等键) 记录首次执行的响应，网络重试直接返回原响应而不重复执行；记录过期后由后台定期删除
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS `idempotency_record` (
+  `user_id` BIGINT NOT NULL COMMENT '请求用户ID',
+  `idem_key` VARCHAR(64) NOT NULL COMMENT '客户端传入的 Idempotency-Key',
+  `fingerprint` CHAR(64) NOT NULL COMMENT '请求指纹（接口 + 请求体的 SHA-256）',
+  `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态: 0-处理中 1-已完成',
+  `response` MEDIUMTEXT COMMENT '首次执行的响应（JSON）',
+  `locked_until` DATETIME(3) NOT NULL COMMENT '处理中租约到期时间（持有实例异常退出后可被接管）',
+  `expires_at` DATETIME(3) NOT NULL COMMENT '过期时间',
+  `created_at` DATETIME(3) NOT NULL COMMENT '首次请求时间',
+  PRIMARY KEY (`user_id`, `idem_key`),
+  KEY `idx_expires_at` (`expires_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='幂等请求记录表';
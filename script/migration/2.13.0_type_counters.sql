@@ -0,0 +1,31 @@
+-- ============================================================
+-- 迁移脚本: 审批类型计数表
+-- 版本: 2.13.0
+-- 说明: 按审批类型增量维护提交数与各结束状态的数量（提交、审批结束时在同一事务内累加），
+--       仪表盘类型分布改为读取该表的汇总。存量数据按审批记录表和归档表回填到分片 0；
+--       回填期间应停止提交审批，否则回填前后提交的审批可能被重复或遗漏计数
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS `approval_type_stats` (
+  `type_code` VARCHAR(50) NOT NULL COMMENT '审批类型编码',
+  `slot` TINYINT NOT NULL COMMENT '计数分片（同一类型的并发提交分散到多行，避免争用单行锁）',
+  `total` BIGINT NOT NULL DEFAULT 0 COMMENT '提交总数',
+  `active` BIGINT NOT NULL DEFAULT 0 COMMENT '进行中（待审批、审批中）',
+  `approved` BIGINT NOT NULL DEFAULT 0 COMMENT '已通过',
+  `rejected` BIGINT NOT NULL DEFAULT 0 COMMENT '已拒绝',
+  `withdrawn` BIGINT NOT NULL DEFAULT 0 COMMENT '已撤回',
+  PRIMARY KEY (`type_code`, `slot`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='审批类型计数表';
+
+INSERT INTO `approval_type_stats` (`type_code`, `slot`, `total`, `active`, `approved`, `rejected`, `withdrawn`)
+SELECT `type_code`, 0, COUNT(*),
+       SUM(`status` IN (1, 2)), SUM(`status` = 3), SUM(`status` = 4), SUM(`status` = 5)
+FROM (
+  SELECT `type_code`, `status` FROM `approval_record`
+  UNION ALL
+  SELECT `type_code`, `status` FROM `approval_record_archive`
+) r
+GROUP BY `type_code`
+ON DUPLICATE KEY UPDATE
+  `total` = VALUES(`total`), `active` = VALUES(`active`), `approved` = VALUES(`approved`),
+  `rejected` = VALUES(`rejected`), `withdrawn` = VALUES(`withdrawn`);
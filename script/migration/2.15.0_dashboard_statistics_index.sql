@@ -0,0 +1,12 @@
+-- ============================================================
+-- 迁移脚本: 仪表盘统计索引
+-- 版本: 2.15.0
+-- 说明: 仪表盘“我发起的”统计改为一条条件聚合查询（待处理不限时间，其余状态只统计本月），
+--       (initiator_id, status, created_at) 上可展开为若干紧凑区间且索引覆盖、不回表；
+--       原 idx_initiator 为其最左前缀，一并删除（发起人外键改由新索引支撑）。
+--       查询计划对比见 script/benchmark/dashboard_statistics.sql
+-- ============================================================
+
+ALTER TABLE `approval_record`
+  ADD KEY `idx_initiator_status_created` (`initiator_id`, `status`, `created_at`),
+  DROP KEY `idx_initiator`;
@@ -0,0 +1,16 @@
+-- ============================================================
+-- 迁移脚本: 管理端细粒度权限
+-- 版本: 2.2.0
+-- 说明: 后端启用基于 sys_permission 的方法级鉴权（PermissionEngine），
+--       为部门管理、审批流程配置、操作日志补充权限点，并授予超级管理员和管理员，
+--       保持与前端管理菜单一致的访问范围
+-- ============================================================
+
+INSERT IGNORE INTO `sys_permission` (`id`, `code`, `name`, `type`, `parent_id`, `path`, `icon`, `sort_order`, `status`) VALUES
+(6, 'department:manage', '部门管理', 'MENU', 0, '/admin/departments', 'building', 13, 1),
+(7, 'workflow:manage', '审批流程配置', 'MENU', 0, '/admin/workflows', 'git-branch', 14, 1),
+(8, 'log:view', '操作日志', 'MENU', 0, '/admin/logs', 'scroll-text', 15, 1);
+
+INSERT IGNORE INTO `sys_role_permission` (`role_id`, `permission_id`) VALUES
+(1, 6), (1, 7), (1, 8),
+(2, 6), (2, 7), (2, 8);
@@ -0,0 +1,24 @@
+-- ============================================================
+-- 迁移脚本: 审批待办索引
+-- 版本: 2.3.0
+-- 说明: 新增 approval_todo 表，待办列表改为按审批人索引的单条分页查询；
+--       表由 createApproval / approve / withdraw 在同一事务内维护，
+--       本脚本根据现有审批记录和节点回填一次（上线后也可调用 POST /api/approvals/todo/rebuild 重建）
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS `approval_todo` (
+  `approval_id` VARCHAR(36) NOT NULL COMMENT '审批记录ID',
+  `approver_id` BIGINT NOT NULL COMMENT '当前节点审批人ID',
+  `node_order` INT NOT NULL COMMENT '当前节点序号',
+  `priority` TINYINT NOT NULL DEFAULT 0 COMMENT '紧急程度（冗余自审批记录）',
+  `created_at` DATETIME NOT NULL COMMENT '审批提交时间（冗余自审批记录）',
+  PRIMARY KEY (`approval_id`, `approver_id`),
+  KEY `idx_approver_priority_created` (`approver_id`, `priority`, `created_at`),
+  CONSTRAINT `fk_todo_record` FOREIGN KEY (`approval_id`) REFERENCES `approval_record` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='审批待办索引表';
+
+INSERT IGNORE INTO `approval_todo` (`approval_id`, `approver_id`, `node_order`, `priority`, `created_at`)
+SELECT r.`id`, n.`approver_id`, n.`node_order`, IFNULL(r.`priority`, 0), IFNULL(r.`created_at`, NOW())
+FROM `approval_record` r
+INNER JOIN `approval_node` n ON n.`approval_id` = r.`id` AND n.`node_order` = r.`current_node_order` AND n.`status` = 0
+WHERE r.`status` IN (1, 2);
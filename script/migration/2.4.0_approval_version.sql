@@ -0,0 +1,13 @@
+-- ============================================================
+-- 迁移脚本: 审批乐观并发控制
+-- 版本: 2.4.0
+-- 说明: approval_record / approval_node 新增 version 列；
+--       审批、撤回以 UPDATE ... WHERE id = ? AND version = ? AND status IN (...) 比较并更新，
+--       并发冲突时由应用重新读取后有限次重试，不再依赖长事务持有行锁
+-- ============================================================
+
+ALTER TABLE `approval_record`
+  ADD COLUMN `version` INT NOT NULL DEFAULT 0 COMMENT '版本号（状态流转时比较并递增）' AFTER `completed_at`;
+
+ALTER TABLE `approval_node`
+  ADD COLUMN `version` INT NOT NULL DEFAULT 0 COMMENT '版本号（审批时比较并递增）' AFTER `created_at`;
@@ -0,0 +1,23 @@
+-- ============================================================
+-- 迁移脚本: 通知发件箱
+-- 版本: 2.5.0
+-- 说明: 新增 notification_outbox 表；审批流转只在事务内写入发件箱事件，
+--       由后台投递器在事务提交后合并批量写入 notification 表（至少一次投递，失败按退避重试）。
+--       通知ID由事件ID确定性生成并以 INSERT IGNORE 写入，重复投递不会产生重复通知
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS `notification_outbox` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '事件ID',
+  `user_id` BIGINT NOT NULL COMMENT '接收用户ID',
+  `title` VARCHAR(200) NOT NULL COMMENT '通知标题',
+  `content` VARCHAR(500) DEFAULT NULL COMMENT '通知内容',
+  `type` VARCHAR(20) NOT NULL COMMENT '通知类型: APPROVAL/SYSTEM/REMINDER',
+  `related_id` VARCHAR(36) DEFAULT NULL COMMENT '关联业务ID',
+  `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态: 0-待投递 2-投递失败（超过重试次数）',
+  `attempts` INT NOT NULL DEFAULT 0 COMMENT '已失败的投递次数',
+  `next_attempt_at` DATETIME(3) NOT NULL COMMENT '下次投递时间',
+  `last_error` VARCHAR(500) DEFAULT NULL COMMENT '最近一次投递失败原因',
+  `created_at` DATETIME(3) NOT NULL COMMENT '事件产生时间',
+  PRIMARY KEY (`id`),
+  KEY `idx_status_next_attempt` (`status`, `next_attempt_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='通知发件箱表';
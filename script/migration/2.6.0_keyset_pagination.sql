@@ -0,0 +1,13 @@
+-- ============================================================
+-- 迁移脚本: 键集（游标）分页索引
+-- 版本: 2.6.0
+-- 说明: 我的申请、通知列表支持按 (created_at, id) 游标分页（InnoDB 二级索引隐含主键，
+--       以下索引即可按 created_at、id 倒序定位，不再 OFFSET 扫描和 COUNT）；
+--       operation_log 使用已有的 idx_created_at
+-- ============================================================
+
+ALTER TABLE `approval_record`
+  ADD KEY `idx_initiator_created` (`initiator_id`, `created_at`);
+
+ALTER TABLE `notification`
+  ADD KEY `idx_user_created` (`user_id`, `created_at`);
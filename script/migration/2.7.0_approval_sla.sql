@@ -0,0 +1,10 @@
+-- ============================================================
+-- 迁移脚本: 审批截止时间 SLA
+-- 版本: 2.7.0
+-- 说明: 1. sla_stage 记录已触发的 SLA 阶段（提醒/超期/升级），重启或多实例下不重复触发；
+--       2. 启动时按 (status, deadline) 索引加载进行中且设置了截止时间的审批到时间轮
+-- ============================================================
+
+ALTER TABLE `approval_record`
+  ADD COLUMN `sla_stage` TINYINT NOT NULL DEFAULT 0 COMMENT 'SLA 阶段: 0-未触发 1-已提醒 2-已超期 3-已升级' AFTER `version`,
+  ADD KEY `idx_status_deadline` (`status`, `deadline`);
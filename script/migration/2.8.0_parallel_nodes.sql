@@ -0,0 +1,33 @@
+-- ============================================================
+-- 迁移脚本: 并行会签/或签节点组
+-- 版本: 2.8.0
+-- 说明: 1. 工作流节点模板允许同一序号配置多个节点，组成并行节点组，
+--          approve_mode/required_count 为组的完成规则（ALL-会签 ANY-或签 N_OF_M-N人通过）；
+--       2. 审批节点同理去掉 (approval_id, node_order) 唯一约束，新增状态 3-已跳过；
+--       3. approval_node_group 保存多节点组的通过/拒绝计数，审批时原子递增并判定组是否完成。
+--       存量数据均为单节点，不需要回填节点组
+-- ============================================================
+
+ALTER TABLE `workflow_node_template`
+  ADD COLUMN `approve_mode` VARCHAR(10) NOT NULL DEFAULT 'ALL' COMMENT '同序号节点组的完成规则: ALL-会签 ANY-或签 N_OF_M-N人通过' AFTER `approver_id`,
+  ADD COLUMN `required_count` INT DEFAULT NULL COMMENT '需要通过的人数（N_OF_M）' AFTER `approve_mode`,
+  ADD KEY `idx_workflow_order` (`workflow_id`, `node_order`),
+  DROP INDEX `uk_workflow_order`;
+
+ALTER TABLE `approval_node`
+  MODIFY COLUMN `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态: 0-待审批 1-已通过 2-已拒绝 3-已跳过（节点组已完成）',
+  ADD KEY `idx_approval_order` (`approval_id`, `node_order`),
+  DROP INDEX `uk_approval_order`;
+
+CREATE TABLE IF NOT EXISTS `approval_node_group` (
+  `approval_id` VARCHAR(36) NOT NULL COMMENT '审批记录ID',
+  `node_order` INT NOT NULL COMMENT '节点序号',
+  `approve_mode` VARCHAR(10) NOT NULL COMMENT '完成规则: ALL-会签 ANY-或签 N_OF_M-N人通过',
+  `required_count` INT NOT NULL COMMENT '需要通过的人数',
+  `total_count` INT NOT NULL COMMENT '组内审批人数',
+  `approved_count` INT NOT NULL DEFAULT 0 COMMENT '已通过人数',
+  `rejected_count` INT NOT NULL DEFAULT 0 COMMENT '已拒绝人数',
+  `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态: 0-进行中 1-已通过 2-已拒绝',
+  PRIMARY KEY (`approval_id`, `node_order`),
+  CONSTRAINT `fk_group_record` FOREIGN KEY (`approval_id`) REFERENCES `approval_record` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='审批节点组表';
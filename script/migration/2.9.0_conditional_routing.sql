@@ -0,0 +1,14 @@
+-- ============================================================
+-- 迁移脚本: 工作流条件路由
+-- 版本: 2.9.0
+-- 说明: 1. 工作流节点模板新增 condition_expr，提交审批时按审批内容（JSON）求值，
+--          不满足条件的节点不生成审批节点，剩余节点按原顺序重新连续编号；
+--       2. 工作流模板新增 version，每次修改节点配置递增，编译后的条件按 (工作流ID, 版本) 缓存。
+--       存量节点条件为空（始终参与审批），不需要回填
+-- ============================================================
+
+ALTER TABLE `workflow_template`
+  ADD COLUMN `version` INT NOT NULL DEFAULT 1 COMMENT '定义版本号，每次修改节点配置递增' AFTER `status`;
+
+ALTER TABLE `workflow_node_template`
+  ADD COLUMN `condition_expr` VARCHAR(500) DEFAULT NULL COMMENT '节点条件表达式（如 amount > 5000 && dept == \'R&D\'），为空表示始终参与审批' AFTER `required_count`;